@@ -0,0 +1,57 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import repository.DAO.BookDAO;
+import service.BookService;
+import service.models.Book;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BookService#getAll()}.
+ *
+ * <p>With the {@code memory} backend the DAO returns prebuilt entities, so the score is the
+ * cost of the service-layer entity-to-model mapping ({@code toModel}) for {@code rows} books.
+ * With {@code -p backend=postgres} it includes the query and row mapping in {@link BookDAO}
+ * (see {@link PostgresFixture} before using it).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    @Param({"memory"})
+    public String backend;
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private BookService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (backend.equals("postgres")) {
+            PostgresFixture.reset();
+            PostgresFixture.seedBooks(rows);
+            service = new BookService(new BookDAO());
+        } else {
+            service = new BookService(new InMemoryDAOs.InMemoryBookDAO(rows));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (backend.equals("postgres")) {
+            PostgresFixture.close();
+        }
+    }
+
+    @Benchmark
+    public List<Book> getAll() {
+        return service.getAll();
+    }
+}
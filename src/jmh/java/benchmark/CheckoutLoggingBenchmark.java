@@ -0,0 +1,90 @@
+package benchmark;
+
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import repository.DAO.LoanDAO;
+import service.LoanService;
+import service.models.Loan;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Logging cost of the checkout/return cycle, meant to be run with the GC profiler:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar CheckoutLoggingBenchmark -prof gc
+ * }</pre>
+ *
+ * <p>The {@code service}, {@code repository} and {@code util} loggers are set to {@code level}
+ * for the trial. Compare {@code gc.alloc.rate.norm} (bytes per operation) between the levels:
+ * at {@code INFO} it should equal {@code OFF}, i.e. the cycle allocates nothing for logging.
+ * {@code DEBUG} shows what the guarded debug statements would cost.</p>
+ *
+ * <p>The {@code memory} backend covers the service layer; {@code postgres} also runs the
+ * {@link LoanDAO} statements (see {@link PostgresFixture} before using it).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutLoggingBenchmark {
+
+    private static final List<String> LOGGERS = List.of("service", "repository", "util");
+
+    /**
+     * Books cycled through; each is returned before it is checked out again.
+     */
+    private static final int BOOK_COUNT = 1_000;
+
+    @Param({"OFF", "INFO", "DEBUG"})
+    public String level;
+
+    @Param({"memory"})
+    public String backend;
+
+    private LoanService service;
+    private List<Long> bookIds;
+    private long memberId;
+    private LocalDate today;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (String name : LOGGERS) {
+            ((Logger) LoggerFactory.getLogger(name)).setLevel(ch.qos.logback.classic.Level.toLevel(level));
+        }
+        today = LocalDate.now();
+
+        if (backend.equals("postgres")) {
+            PostgresFixture.reset();
+            bookIds = PostgresFixture.seedBooks(BOOK_COUNT);
+            memberId = PostgresFixture.seedMember();
+            service = new LoanService(new LoanDAO(), 0);
+        } else {
+            bookIds = LongStream.rangeClosed(1, BOOK_COUNT).boxed().toList();
+            memberId = 1L;
+            service = new LoanService(new InMemoryDAOs.InMemoryLoanDAO(), 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (backend.equals("postgres")) {
+            PostgresFixture.close();
+        }
+    }
+
+    @Benchmark
+    public boolean checkoutThenReturn() {
+        long bookId = bookIds.get(next);
+        next = (next + 1) % bookIds.size();
+        Long loanId = service.checkout(new Loan(bookId, memberId, today, today.plusDays(14), null));
+        return service.returnLoan(loanId, today);
+    }
+}
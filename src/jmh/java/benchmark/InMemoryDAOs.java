@@ -0,0 +1,85 @@
+package benchmark;
+
+import repository.DAO.BookDAO;
+import repository.DAO.LoanDAO;
+import repository.entities.BookEntity;
+import repository.entities.LoanEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-ins for the JDBC DAOs used by the {@code memory} benchmark backend.
+ *
+ * <p>Only the methods reached by the benchmarked service calls are overridden; they return
+ * freshly built entities (as a real DAO would after mapping a row) without touching the
+ * database, so the measurements isolate service-layer cost: validation, mapping and logging.</p>
+ */
+final class InMemoryDAOs {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private InMemoryDAOs() {
+        // utility class
+    }
+
+    /**
+     * {@link BookDAO} backed by a fixed list of books.
+     */
+    static final class InMemoryBookDAO extends BookDAO {
+
+        private final List<BookEntity> rows;
+
+        /**
+         * @param rowCount number of books returned by {@link #findAll()}
+         */
+        InMemoryBookDAO(int rowCount) {
+            List<BookEntity> books = new ArrayList<>(rowCount);
+            for (int i = 1; i <= rowCount; i++) {
+                books.add(new BookEntity(
+                        i, "Title " + i, "Author " + (i % 97), "978-0-00-" + (100000 + i), 1950 + (i % 70)));
+            }
+            this.rows = List.copyOf(books);
+        }
+
+        @Override
+        public List<BookEntity> findAll() {
+            return rows;
+        }
+
+        @Override
+        public Optional<BookEntity> findById(long id) {
+            return (id >= 1 && id <= rows.size()) ? Optional.of(rows.get((int) id - 1)) : Optional.empty();
+        }
+    }
+
+    /**
+     * {@link LoanDAO} whose checkouts always succeed and whose loans are always active.
+     */
+    static final class InMemoryLoanDAO extends LoanDAO {
+
+        private final AtomicLong nextId = new AtomicLong(1);
+
+        @Override
+        public CheckoutResult checkout(LoanEntity loan, int maxActiveLoansPerMember) {
+            long id = nextId.getAndIncrement();
+            loan.setId(id);
+            return new CheckoutResult(id, null, null, 0);
+        }
+
+        @Override
+        public Optional<LoanEntity> findById(long id) {
+            LocalDate checkout = LocalDate.now().minusDays(7);
+            return Optional.of(new LoanEntity(id, 1L, 1L, checkout, checkout.plusDays(14), null));
+        }
+
+        @Override
+        public boolean setReturnDate(long loanId, LocalDate returnDate) {
+            return true;
+        }
+    }
+}
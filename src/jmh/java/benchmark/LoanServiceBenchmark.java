@@ -0,0 +1,130 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import repository.DAO.LoanDAO;
+import service.LoanService;
+import service.models.Loan;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmarks for the loan checkout and return paths of {@link LoanService}.
+ *
+ * <p>{@link #create(MemoryState)} and {@link #returnLoan(MemoryState)} run against
+ * {@link InMemoryDAOs.InMemoryLoanDAO} and measure service overhead only.
+ * {@link #createThenReturn(CycleState, CycleCursor)} checks a book out and returns it again,
+ * so it can also run against PostgreSQL ({@code -p backend=postgres}, see {@link PostgresFixture})
+ * without exhausting available books.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    /**
+     * Service wired to the in-memory stand-in.
+     */
+    @State(Scope.Benchmark)
+    public static class MemoryState {
+
+        LoanService service;
+        LocalDate today;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new LoanService(new InMemoryDAOs.InMemoryLoanDAO(), 5);
+            today = LocalDate.now();
+        }
+    }
+
+    /**
+     * Service wired to the selected backend, plus the books it may check out.
+     */
+    @State(Scope.Benchmark)
+    public static class CycleState {
+
+        /**
+         * Books available to the cycle; split evenly between benchmark threads.
+         */
+        private static final int BOOK_COUNT = 1_000;
+
+        @Param({"memory"})
+        public String backend;
+
+        LoanService service;
+        List<Long> bookIds;
+        long memberId;
+        LocalDate today;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            today = LocalDate.now();
+
+            if (backend.equals("postgres")) {
+                PostgresFixture.reset();
+                bookIds = PostgresFixture.seedBooks(BOOK_COUNT);
+                memberId = PostgresFixture.seedMember();
+                service = new LoanService(new LoanDAO(), 0);
+            } else {
+                bookIds = LongStream.rangeClosed(1, BOOK_COUNT).boxed().toList();
+                memberId = 1L;
+                service = new LoanService(new InMemoryDAOs.InMemoryLoanDAO(), 0);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (backend.equals("postgres")) {
+                PostgresFixture.close();
+            }
+        }
+    }
+
+    /**
+     * Per-thread position within that thread's own slice of {@link CycleState#bookIds},
+     * so concurrent threads never check out the same book.
+     */
+    @State(Scope.Thread)
+    public static class CycleCursor {
+
+        private int sliceStart;
+        private int sliceSize;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(CycleState state, ThreadParams threads) {
+            sliceSize = Math.max(1, state.bookIds.size() / threads.getThreadCount());
+            sliceStart = threads.getThreadIndex() * sliceSize;
+        }
+
+        long nextBookId(CycleState state) {
+            long bookId = state.bookIds.get(sliceStart + next);
+            next = (next + 1) % sliceSize;
+            return bookId;
+        }
+    }
+
+    @Benchmark
+    public Long create(MemoryState state) {
+        return state.service.create(new Loan(1L, 1L, state.today, state.today.plusDays(14), null));
+    }
+
+    @Benchmark
+    public boolean returnLoan(MemoryState state) {
+        return state.service.returnLoan(42L, state.today);
+    }
+
+    @Benchmark
+    public boolean createThenReturn(CycleState state, CycleCursor cursor) {
+        long bookId = cursor.nextBookId(state);
+        Long loanId = state.service.create(
+                new Loan(bookId, state.memberId, state.today, state.today.plusDays(14), null));
+        return state.service.returnLoan(loanId, state.today);
+    }
+}
@@ -0,0 +1,118 @@
+package benchmark;
+
+import repository.DAO.BookDAO;
+import repository.DAO.MemberDAO;
+import repository.DbSetup;
+import repository.entities.BookEntity;
+import repository.entities.MemberEntity;
+import util.DbConnectionUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Prepares the database used by the {@code postgres} benchmark backend.
+ *
+ * <p><strong>Destructive:</strong> {@link #reset()} runs {@link DbSetup#run()}, which drops and
+ * recreates every table. It therefore never uses the application database from
+ * {@code database.properties}: the scratch database must be named explicitly with
+ * {@code -Dbench.db.url} (plus {@code -Dbench.db.username} / {@code -Dbench.db.password} if they
+ * differ), and {@link #reset()} refuses to run without it.</p>
+ */
+final class PostgresFixture {
+
+    /**
+     * System property naming the scratch database's JDBC URL.
+     */
+    static final String URL_PROPERTY = "bench.db.url";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PostgresFixture() {
+        // utility class
+    }
+
+    /**
+     * Points the connection pool at the scratch database, then recreates the schema and seed data.
+     *
+     * <p>Must run before anything else touches {@link DbConnectionUtil} in the trial.</p>
+     *
+     * @throws IllegalStateException if {@code bench.db.url} is missing or names the application database
+     */
+    static void reset() {
+        String url = System.getProperty(URL_PROPERTY);
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("backend=postgres drops and recreates all tables; pass -D"
+                    + URL_PROPERTY + "=<JDBC URL of a scratch database> to run it");
+        }
+        if (url.equals(applicationUrl())) {
+            throw new IllegalStateException(URL_PROPERTY + " must not point at the application database ("
+                    + url + ")");
+        }
+
+        System.setProperty("db.url", url);
+        copyProperty("bench.db.username", "db.username");
+        copyProperty("bench.db.password", "db.password");
+
+        DbSetup.run();
+    }
+
+    /**
+     * Inserts {@code count} books in one batch.
+     *
+     * @param count number of books to insert
+     * @return generated book IDs
+     */
+    static List<Long> seedBooks(int count) {
+        List<BookEntity> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            books.add(new BookEntity("Bench Title " + i, "Bench Author " + (i % 97), null, 2000));
+        }
+        return new BookDAO().saveAll(books);
+    }
+
+    /**
+     * Inserts one member.
+     *
+     * @return generated member ID
+     */
+    static long seedMember() {
+        return new MemberDAO().save(new MemberEntity("Bench Member", null, null)).getId();
+    }
+
+    /**
+     * Reads {@code db.url} from the {@code database.properties} file on the classpath.
+     *
+     * @return the application database URL, or {@code null} if not configured
+     */
+    private static String applicationUrl() {
+        Properties properties = new Properties();
+        try (InputStream input = PostgresFixture.class.getClassLoader().getResourceAsStream("database.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read database.properties", e);
+        }
+        return properties.getProperty("db.url");
+    }
+
+    private static void copyProperty(String from, String to) {
+        String value = System.getProperty(from);
+        if (value != null) {
+            System.setProperty(to, value);
+        }
+    }
+
+    /**
+     * Closes the connection pool at the end of a trial.
+     */
+    static void close() {
+        DbConnectionUtil.closePool();
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import util.validators.BookValidator;
+import util.validators.MemberValidator;
+import util.validators.ValidationUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the regex-based validators on the create/update paths.
+ *
+ * <p>{@link BookValidator} and {@link MemberValidator} match against precompiled patterns;
+ * {@link ValidationUtil#validateOptionalIsbn(String)} uses {@link String#matches(String)},
+ * which compiles the pattern on every call, and is kept here for comparison.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    public String isbn = "978-1-4028-9462-6";
+    public String email = "jane.doe@example.com";
+    public String phone = "555-0100";
+
+    @Benchmark
+    public String bookValidatorIsbn() {
+        return BookValidator.validateOptionalIsbn(isbn);
+    }
+
+    @Benchmark
+    public String validationUtilIsbn() {
+        ValidationUtil.validateOptionalIsbn(isbn);
+        return isbn;
+    }
+
+    @Benchmark
+    public String memberValidatorEmail() {
+        return MemberValidator.validateOptionalEmail(email);
+    }
+
+    @Benchmark
+    public String memberValidatorPhone() {
+        return MemberValidator.validateOptionalPhone(phone);
+    }
+}
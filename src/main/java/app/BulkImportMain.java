@@ -0,0 +1,83 @@
+package app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.CatalogImporter;
+import util.DbConnectionUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line entry point for bulk loading books or members with {@link CatalogImporter}.
+ *
+ * <p><strong>Usage:</strong></p>
+ * <pre>
+ * BulkImportMain books|members &lt;input.csv|input.tsv&gt; [rejects.csv]
+ * </pre>
+ *
+ * <p>The format is chosen from the input file extension ({@code .tsv}/{@code .tab} → TSV,
+ * otherwise CSV). Rejected rows go to the given rejects file, or to
+ * {@code <input>.rejects.csv} next to the input when omitted.</p>
+ */
+public class BulkImportMain {
+
+    /**
+     * Logger for import session boundaries and failures.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BulkImportMain.class);
+
+    /**
+     * Program entry point.
+     *
+     * @param args {@code books|members}, input file, optional rejects file
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3
+                || !(args[0].equalsIgnoreCase("books") || args[0].equalsIgnoreCase("members"))) {
+            System.out.println("Usage: BulkImportMain books|members <input.csv|input.tsv> [rejects.csv]");
+            System.exit(2);
+        }
+
+        String target = args[0].toLowerCase();
+        Path inputFile = Path.of(args[1]);
+        Path rejectsFile = (args.length == 3)
+                ? Path.of(args[2])
+                : inputFile.resolveSibling(inputFile.getFileName() + ".rejects.csv");
+        CatalogImporter.Format format = CatalogImporter.Format.fromFileName(inputFile.toString());
+
+        log.info("Bulk import session started (target={}, input={}, format={}).", target, inputFile, format);
+
+        int exitCode = 0;
+        try (Reader reader = Files.newBufferedReader(inputFile, StandardCharsets.UTF_8)) {
+            CatalogImporter importer = new CatalogImporter();
+            CatalogImporter.ImportResult result = target.equals("books")
+                    ? importer.importBooks(reader, format, rejectsFile)
+                    : importer.importMembers(reader, format, rejectsFile);
+
+            System.out.println("Rows read: " + result.rowsRead());
+            System.out.println("Inserted:  " + result.inserted());
+            System.out.println("Rejected:  " + result.rejected()
+                    + (result.rejected() > 0 ? " (see " + rejectsFile + ")" : ""));
+
+        } catch (IOException e) {
+            log.error("Could not read import file {}.", inputFile, e);
+            System.out.println("Could not read " + inputFile + ": " + e.getMessage());
+            exitCode = 1;
+
+        } catch (RuntimeException e) {
+            log.error("Bulk import failed.", e);
+            System.out.println("Import failed: " + e.getMessage());
+            exitCode = 1;
+
+        } finally {
+            DbConnectionUtil.closePool();
+        }
+
+        log.info("Bulk import session ended (exitCode={}).", exitCode);
+        System.exit(exitCode);
+    }
+}
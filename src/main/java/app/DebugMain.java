@@ -13,6 +13,7 @@ import repository.entities.MemberEntity;
 import util.DbConnectionUtil;
 import util.InputUtil;
 
+import java.sql.Connection;
 import java.time.LocalDate;
 
 /**
@@ -354,7 +355,9 @@ public class DebugMain {
     private static boolean openConnectionOrExit() {
         try {
             log.info("Opening DB connection...");
-            DbConnectionUtil.getConnection();
+            try (Connection ignored = DbConnectionUtil.getConnection()) {
+                log.debug("Borrowed and returned a pooled connection successfully.");
+            }
             System.out.println("DB connection established!");
             log.info("DB connection established successfully.");
             return true;
@@ -408,10 +411,10 @@ public class DebugMain {
         // Close DB Connection
         // =========================================================
         try {
-            log.info("Closing DB connection...");
-            DbConnectionUtil.closeConnection();
+            log.info("Closing DB connection pool...");
+            DbConnectionUtil.closePool();
             System.out.println("DB connection closed!");
-            log.info("DB connection closed successfully.");
+            log.info("DB connection pool closed successfully.");
         } catch (Exception e) {
             System.out.println("DB connection close failed!");
             log.error("DB connection close failed.", e);
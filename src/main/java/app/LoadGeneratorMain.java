@@ -0,0 +1,445 @@
+package app;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.DAO.LoanDAO;
+import service.BookService;
+import service.LoanService;
+import service.MemberService;
+import service.models.Book;
+import service.models.Loan;
+import service.models.Member;
+import util.DbConnectionUtil;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Command-line load generator that simulates a busy circulation desk.
+ *
+ * <p>Starts {@code clients} virtual threads, each repeatedly picking an operation from a
+ * weighted mix, running it through the service layer and then pausing for a random think
+ * time. At the end of the run it prints throughput and latency percentiles per operation.</p>
+ *
+ * <p><strong>Usage</strong> (all arguments optional, shown with their defaults):</p>
+ * <pre>
+ * LoadGeneratorMain clients=50 duration=30 warmup=5 think=20 maxLoans=0 \
+ *                   mix=checkout:30,return:30,overdue:5,book:20,member:15
+ * </pre>
+ * <ul>
+ *   <li>{@code duration}/{@code warmup} are seconds; operations that start during the
+ *       warm-up run normally but are not recorded</li>
+ *   <li>{@code think} is the average pause in milliseconds (uniformly 0&ndash;2&times; the average)</li>
+ *   <li>{@code maxLoans} is the per-member active-loan limit passed to {@link LoanService}</li>
+ *   <li>{@code return} returns a loan opened by any client (or already active at start);
+ *       when none is open, a checkout runs instead</li>
+ * </ul>
+ *
+ * <p>Books and members are picked at random from the rows present when the run starts,
+ * so the database should be seeded first (e.g., with {@link BulkImportMain}). Checkouts and
+ * returns change loan data; run against a test database.</p>
+ *
+ * <p>Business-rule rejections (book already checked out, loan limit reached) are counted
+ * separately and their latencies are recorded; unexpected failures are only counted.</p>
+ */
+public class LoadGeneratorMain {
+
+    /**
+     * Logger for run boundaries and unexpected failures.
+     */
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorMain.class);
+
+    /**
+     * Highest latency tracked by the histograms (one minute, in microseconds).
+     */
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * Operations the generator can run, with their {@code mix} keys.
+     */
+    enum Operation {
+        CHECKOUT("checkout"),
+        RETURN("return"),
+        OVERDUE("overdue"),
+        BOOK_LOOKUP("book"),
+        MEMBER_LOOKUP("member");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation op : values()) {
+                if (op.key.equalsIgnoreCase(key)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+
+    /**
+     * Result of a single operation.
+     */
+    private enum Outcome { OK, REJECTED, FAILED }
+
+    /**
+     * Run configuration.
+     *
+     * @param clients   number of concurrent virtual-thread clients
+     * @param duration  measured run time
+     * @param warmup    unrecorded time before measurement starts
+     * @param thinkTime average pause between operations of one client
+     * @param maxLoans  per-member active-loan limit ({@code 0} disables)
+     * @param mix       relative weight of each operation
+     */
+    record Settings(
+            int clients,
+            Duration duration,
+            Duration warmup,
+            Duration thinkTime,
+            int maxLoans,
+            Map<Operation, Integer> mix
+    ) {
+
+        /**
+         * Parses {@code key=value} arguments over the defaults.
+         *
+         * @param args command-line arguments
+         * @return parsed settings
+         * @throws IllegalArgumentException if an argument is unknown or out of range
+         */
+        static Settings parse(String[] args) {
+            int clients = 50;
+            long durationSeconds = 30;
+            long warmupSeconds = 5;
+            long thinkMillis = 20;
+            int maxLoans = 0;
+            String mix = "checkout:30,return:30,overdue:5,book:20,member:15";
+
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 1) {
+                    throw new IllegalArgumentException("Expected key=value but got: " + arg);
+                }
+                String key = arg.substring(0, eq).trim();
+                String value = arg.substring(eq + 1).trim();
+
+                switch (key) {
+                    case "clients" -> clients = Integer.parseInt(value);
+                    case "duration" -> durationSeconds = Long.parseLong(value);
+                    case "warmup" -> warmupSeconds = Long.parseLong(value);
+                    case "think" -> thinkMillis = Long.parseLong(value);
+                    case "maxLoans" -> maxLoans = Integer.parseInt(value);
+                    case "mix" -> mix = value;
+                    default -> throw new IllegalArgumentException("Unknown argument: " + key);
+                }
+            }
+
+            if (clients < 1) throw new IllegalArgumentException("clients must be positive.");
+            if (durationSeconds < 1) throw new IllegalArgumentException("duration must be positive.");
+            if (warmupSeconds < 0) throw new IllegalArgumentException("warmup cannot be negative.");
+            if (thinkMillis < 0) throw new IllegalArgumentException("think cannot be negative.");
+            if (maxLoans < 0) throw new IllegalArgumentException("maxLoans cannot be negative.");
+
+            return new Settings(
+                    clients,
+                    Duration.ofSeconds(durationSeconds),
+                    Duration.ofSeconds(warmupSeconds),
+                    Duration.ofMillis(thinkMillis),
+                    maxLoans,
+                    parseMix(mix)
+            );
+        }
+
+        private static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : mix.split(",")) {
+                String[] pair = part.split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected operation:weight in mix but got: " + part);
+                }
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Mix weights cannot be negative.");
+                }
+                weights.put(Operation.fromKey(pair[0].trim()), weight);
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+                throw new IllegalArgumentException("At least one mix weight must be positive.");
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * Latency histogram and outcome counters for one operation. Not thread-safe: each client
+     * owns its own instances, which are merged after the run.
+     */
+    private static final class OperationStats {
+
+        private final Histogram latencyMicros = new Histogram(MAX_TRACKED_MICROS, 3);
+        private long ok;
+        private long rejected;
+        private long failed;
+
+        void record(Outcome outcome, long micros) {
+            switch (outcome) {
+                case OK -> ok++;
+                case REJECTED -> rejected++;
+                case FAILED -> {
+                    failed++;
+                    return;
+                }
+            }
+            latencyMicros.recordValue(Math.min(micros, MAX_TRACKED_MICROS));
+        }
+
+        void add(OperationStats other) {
+            latencyMicros.add(other.latencyMicros);
+            ok += other.ok;
+            rejected += other.rejected;
+            failed += other.failed;
+        }
+
+        long count() {
+            return ok + rejected + failed;
+        }
+    }
+
+    private final Settings settings;
+    private final LoanService loanService;
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final Operation[] weightedOperations;
+    private final Queue<Long> openLoanIds = new ConcurrentLinkedQueue<>();
+
+    private long[] bookIds;
+    private long[] memberIds;
+
+    private LoadGeneratorMain(Settings settings) {
+        this.settings = settings;
+        this.loanService = new LoanService(new LoanDAO(), settings.maxLoans());
+        this.bookService = new BookService();
+        this.memberService = new MemberService();
+
+        List<Operation> weighted = new ArrayList<>();
+        settings.mix().forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(op);
+            }
+        });
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+    }
+
+    /**
+     * Program entry point.
+     *
+     * @param args {@code key=value} options (see class documentation)
+     */
+    public static void main(String[] args) {
+        Settings settings;
+        try {
+            settings = Settings.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Usage: LoadGeneratorMain [clients=N] [duration=S] [warmup=S] [think=MS] "
+                    + "[maxLoans=N] [mix=checkout:W,return:W,overdue:W,book:W,member:W]");
+            System.exit(2);
+            return;
+        }
+
+        log.info("Load generator started ({}).", settings);
+
+        int exitCode = 0;
+        try {
+            new LoadGeneratorMain(settings).run();
+        } catch (RuntimeException e) {
+            log.error("Load generator failed.", e);
+            System.out.println("Load run failed: " + e.getMessage());
+            exitCode = 1;
+        } finally {
+            DbConnectionUtil.closePool();
+        }
+
+        log.info("Load generator ended (exitCode={}).", exitCode);
+        System.exit(exitCode);
+    }
+
+    /**
+     * Loads the ID pools, runs all clients and prints the report.
+     */
+    private void run() {
+        try (Stream<Book> books = bookService.streamAll();
+             Stream<Member> members = memberService.streamAll()) {
+            bookIds = books.mapToLong(Book::getId).toArray();
+            memberIds = members.mapToLong(Member::getId).toArray();
+        }
+        if (bookIds.length == 0 || memberIds.length == 0) {
+            throw new IllegalStateException("Load run needs at least one book and one member in the database.");
+        }
+        loanService.getActiveLoans().forEach(loan -> openLoanIds.add(loan.getId()));
+
+        System.out.printf("Running %d clients for %d s (+%d s warm-up) against %d books, %d members, %d open loans...%n",
+                settings.clients(), settings.duration().toSeconds(), settings.warmup().toSeconds(),
+                bookIds.length, memberIds.length, openLoanIds.size());
+
+        long recordFrom = System.nanoTime() + settings.warmup().toNanos();
+        long endAt = recordFrom + settings.duration().toNanos();
+
+        List<Future<Map<Operation, OperationStats>>> clients = new ArrayList<>(settings.clients());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.clients(); i++) {
+                clients.add(executor.submit(() -> runClient(recordFrom, endAt)));
+            }
+        }
+
+        Map<Operation, OperationStats> totals = newStatsMap();
+        for (Future<Map<Operation, OperationStats>> client : clients) {
+            try {
+                client.get().forEach((op, stats) -> totals.get(op).add(stats));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while collecting client results.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A load client failed.", e.getCause());
+            }
+        }
+
+        printReport(totals);
+    }
+
+    /**
+     * Body of one client: runs operations until {@code endAt}, recording those that start
+     * after {@code recordFrom}.
+     */
+    private Map<Operation, OperationStats> runClient(long recordFrom, long endAt) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<Operation, OperationStats> stats = newStatsMap();
+
+        while (System.nanoTime() < endAt) {
+            Operation op = weightedOperations[random.nextInt(weightedOperations.length)];
+
+            Long loanId = null;
+            if (op == Operation.RETURN) {
+                loanId = openLoanIds.poll();
+                if (loanId == null) {
+                    op = Operation.CHECKOUT;
+                }
+            }
+
+            long start = System.nanoTime();
+            Outcome outcome = execute(op, loanId, random);
+            long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            if (start >= recordFrom) {
+                stats.get(op).record(outcome, elapsedMicros);
+            }
+
+            long thinkMillis = settings.thinkTime().toMillis();
+            if (thinkMillis > 0) {
+                Thread.sleep(random.nextLong(thinkMillis * 2 + 1));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Runs one operation through the service layer.
+     */
+    private Outcome execute(Operation op, Long loanId, ThreadLocalRandom random) {
+        LocalDate today = LocalDate.now();
+        try {
+            switch (op) {
+                case CHECKOUT -> {
+                    Loan loan = new Loan(
+                            pick(bookIds, random),
+                            pick(memberIds, random),
+                            today,
+                            today.plusDays(14),
+                            null
+                    );
+                    openLoanIds.add(loanService.checkout(loan));
+                }
+                case RETURN -> {
+                    if (!loanService.returnLoan(loanId, today)) {
+                        return Outcome.REJECTED;
+                    }
+                }
+                case OVERDUE -> loanService.getOverdueLoans(today);
+                case BOOK_LOOKUP -> bookService.getById(pick(bookIds, random));
+                case MEMBER_LOOKUP -> memberService.getById(pick(memberIds, random));
+            }
+            return Outcome.OK;
+
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return Outcome.REJECTED;
+
+        } catch (RuntimeException e) {
+            log.warn("Load operation {} failed.", op, e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private static long pick(long[] ids, ThreadLocalRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private static Map<Operation, OperationStats> newStatsMap() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            stats.put(op, new OperationStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Prints throughput and latency percentiles (milliseconds) per operation and overall.
+     */
+    private void printReport(Map<Operation, OperationStats> totals) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        OperationStats all = new OperationStats();
+
+        System.out.println();
+        System.out.printf("%-8s %9s %9s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+                "op", "count", "ok", "rejected", "failed", "ops/s", "p50", "p95", "p99", "p99.9", "max");
+
+        for (Operation op : Operation.values()) {
+            OperationStats stats = totals.get(op);
+            all.add(stats);
+            if (stats.count() > 0) {
+                printRow(op.key, stats, seconds);
+            }
+        }
+        printRow("total", all, seconds);
+        System.out.println("(latencies in ms)");
+    }
+
+    private static void printRow(String label, OperationStats stats, double seconds) {
+        Histogram h = stats.latencyMicros;
+        System.out.printf("%-8s %9d %9d %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                label, stats.count(), stats.ok, stats.rejected, stats.failed,
+                stats.count() / seconds,
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(95) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0);
+    }
+}
@@ -1,8 +1,16 @@
 package app;
 
+import controller.BookController;
 import controller.MainMenuController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import service.BookService;
+import util.metrics.Metrics;
+import util.metrics.PrometheusExporter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Primary application entry point for the Library Management System.
@@ -29,13 +37,37 @@ public class Main {
      */
     private static final Logger log = LoggerFactory.getLogger(Main.class);
 
+    /**
+     * Command-line flag that builds the in-memory book search index at startup.
+     */
+    private static final String SEARCH_INDEX_FLAG = "--search-index";
+
+    /**
+     * Command-line flag prefix that serves Prometheus metrics on a loopback port.
+     */
+    private static final String METRICS_PORT_FLAG = "--metrics-port=";
+
+    /**
+     * Command-line flag prefix that writes Prometheus metrics to a file every few seconds.
+     */
+    private static final String METRICS_FILE_FLAG = "--metrics-file=";
+
+    /**
+     * Seconds between writes of the {@value #METRICS_FILE_FLAG} file.
+     */
+    private static final long METRICS_FILE_PERIOD_SECONDS = 15;
+
     /**
      * Application entry point.
      *
      * <p>Starts a new application session and delegates execution to
-     * {@link MainMenuController#start()}.</p>
+     * {@link MainMenuController#start()}. With {@value #SEARCH_INDEX_FLAG}, the book
+     * catalog is first loaded into the in-memory search index (enables quick search).
+     * With {@value #METRICS_PORT_FLAG}{@code <port>} or {@value #METRICS_FILE_FLAG}{@code <path>},
+     * DAO and service metrics are recorded and exported in the Prometheus text format.</p>
      *
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments (optional {@value #SEARCH_INDEX_FLAG},
+     *             {@value #METRICS_PORT_FLAG}{@code <port>}, {@value #METRICS_FILE_FLAG}{@code <path>})
      */
     public static void main(String[] args) {
 
@@ -44,11 +76,44 @@ public class Main {
         log.info("               NEW APPLICATION SESSION STARTED              ");
         log.info("============================================================");
 
-        new MainMenuController().start();
+        startMetrics(args);
+
+        MainMenuController mainMenu;
+        if (Arrays.asList(args).contains(SEARCH_INDEX_FLAG)) {
+            BookService bookService = new BookService();
+            bookService.enableSearchIndex();
+            mainMenu = new MainMenuController(new BookController(bookService));
+        } else {
+            mainMenu = new MainMenuController();
+        }
+
+        mainMenu.start();
 
         // Visual separator between application runs (sessions)
         log.info("============================================================");
         log.info("                 APPLICATION SESSION ENDED                  ");
         log.info("============================================================\n");
     }
+
+    /**
+     * Enables metrics and starts the requested exporters, if any metrics flag was given.
+     *
+     * <p>An exporter that cannot start is logged and skipped; the application still runs.</p>
+     */
+    private static void startMetrics(String[] args) {
+        for (String arg : args) {
+            try {
+                if (arg.startsWith(METRICS_PORT_FLAG)) {
+                    Metrics.enable();
+                    PrometheusExporter.serve(Integer.parseInt(arg.substring(METRICS_PORT_FLAG.length())));
+                } else if (arg.startsWith(METRICS_FILE_FLAG)) {
+                    Metrics.enable();
+                    PrometheusExporter.writeEvery(
+                            Path.of(arg.substring(METRICS_FILE_FLAG.length())), METRICS_FILE_PERIOD_SECONDS);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Failed to start metrics exporter for {}.", arg, e);
+            }
+        }
+    }
 }
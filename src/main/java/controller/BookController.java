@@ -7,8 +7,10 @@ import service.models.Book;
 import util.InputUtil;
 import util.validators.BookValidator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controller for all console-based Book operations.
@@ -28,6 +30,11 @@ public class BookController {
 
     private static final Logger log = LoggerFactory.getLogger(BookController.class);
 
+    /**
+     * Maximum number of search results shown at once.
+     */
+    private static final int SEARCH_RESULT_LIMIT = 20;
+
     private final BookService bookService;
 
     /**
@@ -95,6 +102,10 @@ public class BookController {
                         deleteBook();
                         pressEnterToContinue();
                     }
+                    case 6 -> {
+                        searchBooks();
+                        pressEnterToContinue();
+                    }
                     case 0 -> {
                         log.info("Exiting Book Services menu.");
                         running = false; // no pause here
@@ -125,6 +136,7 @@ public class BookController {
         System.out.println("3. Find book by ID");
         System.out.println("4. Update a book");
         System.out.println("5. Delete a book");
+        System.out.println("6. Search books");
         System.out.println("0. Back to Main Menu");
     }
 
@@ -141,24 +153,28 @@ public class BookController {
     /**
      * Retrieves all books from the service layer and prints them to the console.
      *
-     * <p>If no books exist, prints a friendly message instead of printing nothing.
+     * <p>Rows are streamed from the service layer, so memory use stays flat for large tables.
+     * If no books exist, prints a friendly message instead of printing nothing.
      */
     private void listAllBooks() {
         log.info("Listing all books.");
         System.out.println();
         System.out.println("=== ALL BOOKS ===");
 
-        try {
-            List<Book> books = bookService.getAll();
-            log.debug("Retrieved {} books.", books.size());
+        // Stream rows so large catalogs print without being loaded into memory first
+        try (Stream<Book> books = bookService.streamAll()) {
+            long count = 0;
+            Iterator<Book> it = books.iterator();
+            while (it.hasNext()) {
+                System.out.println(it.next());
+                count++;
+            }
+            log.debug("Retrieved {} books.", count);
 
-            if (books.isEmpty()) {
+            if (count == 0) {
                 System.out.println("No books found.");
-                return;
             }
 
-            books.forEach(System.out::println);
-
         } catch (RuntimeException ex) {
             log.error("Failed to retrieve books.", ex);
             System.out.println("Error retrieving books.");
@@ -224,6 +240,80 @@ public class BookController {
         }
     }
 
+    /**
+     * Searches books by title, author or ISBN and prints the best matches.
+     *
+     * <p>The user picks prefix ("starts with"), substring ("contains") or fuzzy
+     * (typo-tolerant) matching; at most {@link #SEARCH_RESULT_LIMIT} results are shown. When
+     * the in-memory search index is enabled, a fourth "quick" mode matches whole words of the
+     * title/author (the last word may be incomplete) without querying the database.</p>
+     */
+    private void searchBooks() {
+        System.out.println();
+        System.out.println("=== SEARCH BOOKS ===");
+
+        String query = InputUtil.readString("Search text (title, author or ISBN): ");
+        System.out.println("1. Starts with");
+        System.out.println("2. Contains");
+        System.out.println("3. Similar to (typo-tolerant)");
+        boolean quickAvailable = bookService.isSearchIndexEnabled();
+        if (quickAvailable) {
+            System.out.println("4. Quick word search (in-memory)");
+        }
+        int modeChoice = InputUtil.readInt("Match mode: ");
+
+        if (quickAvailable && modeChoice == 4) {
+            log.debug("Quick book search requested.");
+            try {
+                printSearchResults(bookService.quickSearch(query, SEARCH_RESULT_LIMIT));
+            } catch (IllegalArgumentException ex) {
+                System.out.println(ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.error("Error running quick book search.", ex);
+                System.out.println("Error searching books.");
+            }
+            return;
+        }
+
+        BookService.SearchMode mode = switch (modeChoice) {
+            case 1 -> BookService.SearchMode.PREFIX;
+            case 2 -> BookService.SearchMode.SUBSTRING;
+            case 3 -> BookService.SearchMode.FUZZY;
+            default -> null;
+        };
+        if (mode == null) {
+            System.out.println("Invalid match mode.");
+            return;
+        }
+
+        log.debug("Book search requested (mode={}).", mode);
+
+        try {
+            printSearchResults(bookService.search(query, mode, 0, SEARCH_RESULT_LIMIT));
+        } catch (IllegalArgumentException ex) {
+            System.out.println(ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Error searching books (mode={}).", mode, ex);
+            System.out.println("Error searching books.");
+        }
+    }
+
+    /**
+     * Prints search results, noting when the result limit was reached.
+     */
+    private void printSearchResults(List<Book> results) {
+        if (results.isEmpty()) {
+            System.out.println("No matching books found.");
+            return;
+        }
+
+        results.forEach(System.out::println);
+        if (results.size() == SEARCH_RESULT_LIMIT) {
+            System.out.println("(showing the top " + SEARCH_RESULT_LIMIT
+                    + " matches; refine the search to narrow results)");
+        }
+    }
+
     /**
      * Updates an existing book.
      *
@@ -275,6 +365,7 @@ public class BookController {
             updated.setAuthor(author);
             updated.setIsbn(isbn);
             updated.setPublicationYear(year);
+            updated.setVersion(existing.getVersion());
 
             Book result = bookService.update(id, updated);
             log.info("Book updated successfully for id={}", id);
@@ -283,6 +374,10 @@ public class BookController {
         } catch (IllegalArgumentException ex) {
             log.warn("Update book rejected: {}", ex.getMessage());
             System.out.println(ex.getMessage());
+        } catch (IllegalStateException ex) {
+            // Another desk changed the book after it was loaded (optimistic lock conflict).
+            log.info("Update book conflict for id={}: {}", id, ex.getMessage());
+            System.out.println(ex.getMessage());
         } catch (RuntimeException ex) {
             log.error("Unexpected error while updating book id={}", id, ex);
             System.out.println("Error updating book.");
@@ -3,13 +3,19 @@ package controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.LoanService;
+import service.models.BatchCheckout;
 import service.models.Loan;
+import service.models.MemberSummary;
+import service.models.OverdueLoan;
 import util.InputUtil;
 import util.validators.LoanValidator;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controller for all console-based Loan operations.
@@ -45,6 +51,9 @@ public class LoanController {
     /** Upper bound for a loan duration (days) to prevent unrealistic values. */
     private static final int MAX_LOAN_DAYS = 3650;
 
+    /** Number of recent loans shown in the member summary. */
+    private static final int SUMMARY_RECENT_LOANS = 10;
+
     /**
      * Constructs a {@code LoanController} using the default {@link LoanService}.
      */
@@ -120,6 +129,18 @@ public class LoanController {
                         listOverdueLoans();
                         pressEnterToContinue();
                     }
+                    case 9 -> {
+                        returnBooksInBulk();
+                        pressEnterToContinue();
+                    }
+                    case 10 -> {
+                        checkoutBooksAsGroup();
+                        pressEnterToContinue();
+                    }
+                    case 11 -> {
+                        showMemberSummary();
+                        pressEnterToContinue();
+                    }
                     case 0 -> {
                         log.info("Exiting Loan Services menu.");
                         running = false;
@@ -153,6 +174,9 @@ public class LoanController {
         System.out.println("6. List active loans");
         System.out.println("7. List loans by member");
         System.out.println("8. List overdue loans");
+        System.out.println("9. Bulk return (drop box)");
+        System.out.println("10. Group checkout (class set)");
+        System.out.println("11. Member summary");
         System.out.println("0. Back to Main Menu");
     }
 
@@ -270,6 +294,80 @@ public class LoanController {
         }
     }
 
+    /**
+     * Checks out several books to one member at once (e.g., a class set for a teacher).
+     *
+     * <p>All books share the same due date. Either every book is checked out, or none is
+     * and the conflicting books (already checked out) or the member's loan limit are reported.</p>
+     */
+    private void checkoutBooksAsGroup() {
+        log.info("Group checkout operation started.");
+        System.out.println();
+        System.out.println("=== GROUP CHECKOUT ===");
+
+        try {
+            long memberId = promptValidMemberIdCheckout();
+            List<Long> bookIds = parseIdList(InputUtil.readString("Book IDs (separated by commas or spaces): "));
+            int loanDays = promptLoanLengthDaysCheckout();
+
+            LocalDate checkoutDate = LocalDate.now();
+            LocalDate dueDate = checkoutDate.plusDays(loanDays);
+
+            List<Loan> loans = new ArrayList<>(bookIds.size());
+            for (long bookId : bookIds) {
+                loans.add(new Loan(LoanValidator.requireValidBookId(bookId), memberId, checkoutDate, dueDate, null));
+            }
+            log.debug("Group checkout validated input - memberId={}, books={}, dueDate={}",
+                    memberId, bookIds.size(), dueDate);
+
+            BatchCheckout result = loanService.checkoutAll(loans);
+            if (result.isCommitted()) {
+                log.info("Group checkout successful (memberId={}, loans={}).", memberId, result.loanIds().size());
+                System.out.println("Checked out " + result.loanIds().size() + " books. Loan ids: " + result.loanIds());
+                System.out.println("Due date: " + dueDate);
+                return;
+            }
+
+            System.out.println("Nothing was checked out.");
+            if (!result.unavailableBookIds().isEmpty()) {
+                System.out.println("Already checked out: book ids " + result.unavailableBookIds());
+            }
+            if (!result.overLimitMemberIds().isEmpty()) {
+                System.out.println("Member would exceed the active loan limit.");
+            }
+
+        } catch (IllegalArgumentException ex) {
+            log.warn("Group checkout rejected: {}", ex.getMessage());
+            System.out.println("Could not check out books: " + ex.getMessage());
+
+        } catch (RuntimeException ex) {
+            log.error("Unexpected error during group checkout.", ex);
+            System.out.println("Could not check out books due to an unexpected error.");
+        }
+    }
+
+    /**
+     * Parses a list of IDs separated by commas and/or whitespace.
+     *
+     * @param input raw user input
+     * @return parsed IDs in input order
+     * @throws IllegalArgumentException if a token is not a number
+     */
+    private static List<Long> parseIdList(String input) {
+        List<Long> ids = new ArrayList<>();
+        for (String token : input.trim().split("[,\\s]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.parseLong(token));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Not a valid ID: " + token);
+            }
+        }
+        return ids;
+    }
+
     /**
      * Heuristic helper to detect DAO/service messages that indicate missing FK targets.
      *
@@ -320,6 +418,46 @@ public class LoanController {
         }
     }
 
+    /**
+     * Returns many loans at once, e.g. the drop-box pile at closing time.
+     *
+     * <p>Loan IDs are entered on one line, separated by commas and/or spaces. All loans are
+     * returned as of {@link LocalDate#now()} in a single service call; loans that could not be
+     * returned are listed with the reason.</p>
+     */
+    private void returnBooksInBulk() {
+        System.out.println();
+        System.out.println("=== BULK RETURN ===");
+
+        try {
+            List<Long> loanIds = parseIdList(InputUtil.readString("Loan IDs (separated by commas or spaces): "));
+            LocalDate returnDate = LocalDate.now();
+            Map<Long, LoanService.ReturnOutcome> outcomes = loanService.returnLoans(loanIds, returnDate);
+
+            long returned = outcomes.values().stream()
+                    .filter(o -> o == LoanService.ReturnOutcome.RETURNED)
+                    .count();
+            System.out.println("Returned " + returned + " of " + outcomes.size() + " loans on " + returnDate + ".");
+
+            outcomes.forEach((loanId, outcome) -> {
+                switch (outcome) {
+                    case RETURNED -> { }
+                    case NOT_FOUND -> System.out.println("  Loan #" + loanId + ": not found");
+                    case ALREADY_RETURNED -> System.out.println("  Loan #" + loanId + ": already returned");
+                    case BEFORE_CHECKOUT -> System.out.println("  Loan #" + loanId + ": checked out after " + returnDate);
+                }
+            });
+
+        } catch (IllegalArgumentException ex) {
+            log.warn("Validation error during bulk return: {}", ex.getMessage());
+            System.out.println("Could not return loans: " + ex.getMessage());
+
+        } catch (RuntimeException ex) {
+            log.error("Unexpected error during bulk return.", ex);
+            System.out.println("Could not return loans due to an unexpected error.");
+        }
+    }
+
     /**
      * Finds and prints a loan by its ID.
      */
@@ -433,10 +571,11 @@ public class LoanController {
     }
 
     /**
-     * Lists all overdue loans as of today.
+     * Lists all overdue loans as of today, with book title and member contact details.
      *
      * <p>Overdue rules are enforced in the service/repository query:
-     * typically {@code return_date IS NULL AND due_date < currentDate}.</p>
+     * typically {@code return_date IS NULL AND due_date < currentDate}. Rows are streamed
+     * from a single joined query, oldest due date first.</p>
      */
     private void listOverdueLoans() {
         System.out.println();
@@ -446,23 +585,106 @@ public class LoanController {
             LocalDate today = LocalDate.now();
             log.debug("Listing overdue loans as of {}", today);
 
-            List<Loan> loans = loanService.getOverdueLoans(today);
-            log.debug("Retrieved {} overdue loans.", loans.size());
+            int count = 0;
+            try (Stream<OverdueLoan> report = loanService.streamOverdueReport(today)) {
+                for (OverdueLoan row : (Iterable<OverdueLoan>) report::iterator) {
+                    if (count++ == 0) {
+                        System.out.println("Overdue as of " + today + ":");
+                    }
+                    System.out.println(formatOverdueLine(row));
+                }
+            }
+            log.debug("Listed {} overdue loans.", count);
 
-            if (loans.isEmpty()) {
+            if (count == 0) {
                 System.out.println("No overdue loans as of " + today);
-                return;
             }
 
-            System.out.println("Overdue as of " + today + ":");
-            loans.forEach(System.out::println);
-
         } catch (RuntimeException ex) {
             log.error("Error retrieving overdue loans.", ex);
             System.out.println("Error retrieving overdue loans.");
         }
     }
 
+    /**
+     * Formats one overdue report row for display.
+     *
+     * @param row overdue loan
+     * @return single display line
+     */
+    private static String formatOverdueLine(OverdueLoan row) {
+        String contact = (row.email() != null) ? row.email()
+                : (row.phone() != null) ? row.phone()
+                : "no contact info";
+
+        return "Loan #" + row.loanId()
+                + " | \"" + row.title() + "\" by " + row.author()
+                + " | " + row.memberName() + " (member #" + row.memberId() + ", " + contact + ")"
+                + " | due " + row.dueDate() + " (" + row.daysOverdue() + " days overdue)";
+    }
+
+    /**
+     * Shows a member's contact details, loan counts and most recent loans with book titles.
+     */
+    private void showMemberSummary() {
+        System.out.println();
+        System.out.println("=== MEMBER SUMMARY ===");
+
+        long memberId = promptValidMemberIdListByMember();
+        LocalDate today = LocalDate.now();
+        log.debug("Showing summary for memberId={} as of {}", memberId, today);
+
+        try {
+            Optional<MemberSummary> found = loanService.getMemberSummary(memberId, today, SUMMARY_RECENT_LOANS);
+            if (found.isEmpty()) {
+                System.out.println("No member found with id=" + memberId);
+                return;
+            }
+
+            MemberSummary summary = found.get();
+            System.out.println(summary.name() + " (member #" + summary.memberId() + ")");
+            System.out.println("Email: " + (summary.email() != null ? summary.email() : "-")
+                    + " | Phone: " + (summary.phone() != null ? summary.phone() : "-"));
+            System.out.println("Loans: " + summary.activeLoans() + " active, "
+                    + summary.overdueLoans() + " overdue, " + summary.totalLoans() + " total");
+
+            if (summary.recentLoans().isEmpty()) {
+                System.out.println("No loans on record.");
+                return;
+            }
+
+            System.out.println("Recent loans:");
+            for (MemberSummary.RecentLoan loan : summary.recentLoans()) {
+                System.out.println(formatRecentLoanLine(loan));
+            }
+
+        } catch (IllegalArgumentException ex) {
+            log.warn("Validation error showing member summary: {}", ex.getMessage());
+            System.out.println("Invalid input: " + ex.getMessage());
+
+        } catch (RuntimeException ex) {
+            log.error("Error retrieving summary for memberId={}", memberId, ex);
+            System.out.println("Error retrieving member summary.");
+        }
+    }
+
+    /**
+     * Formats one recent loan of a member summary for display.
+     *
+     * @param loan recent loan
+     * @return single display line
+     */
+    private static String formatRecentLoanLine(MemberSummary.RecentLoan loan) {
+        String status = (loan.returnDate() != null) ? "returned " + loan.returnDate()
+                : loan.overdue() ? "OVERDUE (due " + loan.dueDate() + ")"
+                : "due " + loan.dueDate();
+
+        return "  Loan #" + loan.loanId()
+                + " | \"" + loan.title() + "\""
+                + " | out " + loan.checkoutDate()
+                + " | " + status;
+    }
+
     // -------------------------------------------------------------------------
     // Inline prompt + validation helpers
     // -------------------------------------------------------------------------
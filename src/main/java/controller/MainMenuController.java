@@ -46,6 +46,24 @@ public class MainMenuController {
         log.debug("MainMenuController initialized (controllers constructed).");
     }
 
+    /**
+     * Constructs the {@code MainMenuController} around a pre-configured {@link BookController}
+     * (e.g., one whose service has the in-memory search index enabled).
+     *
+     * @param bookController book controller to use (must not be null)
+     * @throws IllegalArgumentException if {@code bookController} is null
+     */
+    public MainMenuController(BookController bookController) {
+        if (bookController == null) {
+            throw new IllegalArgumentException("bookController cannot be null.");
+        }
+        this.bookController = bookController;
+        this.memberController = new MemberController();
+        this.loanController = new LoanController();
+
+        log.debug("MainMenuController initialized (injected BookController).");
+    }
+
     /**
      * Starts the main application loop.
      *
@@ -7,8 +7,10 @@ import service.models.Member;
 import util.InputUtil;
 import util.validators.MemberValidator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controller for "Member Services" menu operations.
@@ -31,6 +33,11 @@ public class MemberController {
 
     private static final Logger log = LoggerFactory.getLogger(MemberController.class);
 
+    /**
+     * Number of members shown per page of name-search results.
+     */
+    private static final int SEARCH_PAGE_SIZE = 20;
+
     /**
      * Service layer dependency used to perform member operations.
      */
@@ -100,6 +107,10 @@ public class MemberController {
                         deleteMember();
                         pressEnterToContinue();
                     }
+                    case 6 -> {
+                        searchMembers();
+                        pressEnterToContinue();
+                    }
                     case 0 -> {
                         log.info("Exiting Member Services menu.");
                         running = false; // no pause here
@@ -131,6 +142,7 @@ public class MemberController {
         System.out.println("3. Find member by ID");
         System.out.println("4. Update a member");
         System.out.println("5. Delete a member");
+        System.out.println("6. Search members");
         System.out.println("0. Back to Main Menu");
     }
 
@@ -146,24 +158,28 @@ public class MemberController {
     /**
      * Retrieves and prints all members from the system.
      *
-     * <p>If no members exist, prints a friendly message instead of an empty list.
+     * <p>Rows are streamed from the service layer, so memory use stays flat for large tables.
+     * If no members exist, prints a friendly message instead of an empty list.
      */
     private void listAllMembers() {
         log.info("Listing all members.");
         System.out.println();
         System.out.println("=== ALL MEMBERS ===");
 
-        try {
-            List<Member> members = memberService.getAll();
-            log.debug("Retrieved {} members.", members.size());
+        // Stream rows so large catalogs print without being loaded into memory first
+        try (Stream<Member> members = memberService.streamAll()) {
+            long count = 0;
+            Iterator<Member> it = members.iterator();
+            while (it.hasNext()) {
+                System.out.println(it.next());
+                count++;
+            }
+            log.debug("Retrieved {} members.", count);
 
-            if (members.isEmpty()) {
+            if (count == 0) {
                 System.out.println("No members found.");
-                return;
             }
 
-            members.forEach(System.out::println);
-
         } catch (RuntimeException ex) {
             log.error("Failed to retrieve members.", ex);
             System.out.println("Error retrieving members.");
@@ -230,6 +246,73 @@ public class MemberController {
         }
     }
 
+    /**
+     * Searches members by name prefix (paged), email or phone and prints the matches.
+     *
+     * <p>Name results are shown {@link #SEARCH_PAGE_SIZE} at a time; the user may press Enter
+     * for the next page or type {@code q} to stop. Email/phone values are never logged.</p>
+     */
+    private void searchMembers() {
+        System.out.println();
+        System.out.println("=== SEARCH MEMBERS ===");
+        System.out.println("1. Name starts with");
+        System.out.println("2. Email");
+        System.out.println("3. Phone");
+        int field = InputUtil.readInt("Search by: ");
+        log.debug("Member search requested (field={}).", field);
+
+        try {
+            switch (field) {
+                case 1 -> searchMembersByName(InputUtil.readString("Name starts with: "));
+                case 2 -> printMembers(memberService.findByEmail(InputUtil.readString("Email: ")));
+                case 3 -> printMembers(memberService.findByPhone(InputUtil.readString("Phone: ")));
+                default -> System.out.println("Invalid search option.");
+            }
+        } catch (IllegalArgumentException ex) {
+            System.out.println(ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Error searching members (field={}).", field, ex);
+            System.out.println("Error searching members.");
+        }
+    }
+
+    /**
+     * Prints name-prefix matches page by page until the results end or the user stops.
+     */
+    private void searchMembersByName(String prefix) {
+        Member last = null;
+        int shown = 0;
+        while (true) {
+            List<Member> page = memberService.searchByName(prefix, last, SEARCH_PAGE_SIZE);
+            page.forEach(System.out::println);
+            shown += page.size();
+
+            if (page.size() < SEARCH_PAGE_SIZE) {
+                if (shown == 0) {
+                    System.out.println("No matching members found.");
+                }
+                return;
+            }
+            last = page.get(page.size() - 1);
+
+            String more = InputUtil.readLineAllowEmpty("Press Enter for more, or q to stop: ");
+            if (more.trim().equalsIgnoreCase("q")) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Prints lookup results, or a message when there are none.
+     */
+    private void printMembers(List<Member> members) {
+        if (members.isEmpty()) {
+            System.out.println("No matching members found.");
+            return;
+        }
+        members.forEach(System.out::println);
+    }
+
     /**
      * Prompts the user for a member ID, loads the current member, and applies updates.
      *
@@ -269,6 +352,7 @@ public class MemberController {
             updated.setName(name);
             updated.setEmail(email);
             updated.setPhone(phone);
+            updated.setVersion(existing.getVersion());
 
             Member result = memberService.update(id, updated);
             log.info("Member updated successfully for id={}", id);
@@ -277,6 +361,10 @@ public class MemberController {
         } catch (IllegalArgumentException ex) {
             log.warn("Update Member rejected for id={}: {}", id, ex.getMessage());
             System.out.println(ex.getMessage());
+        } catch (IllegalStateException ex) {
+            // Another desk changed the member after it was loaded (optimistic lock conflict).
+            log.info("Update Member conflict for id={}: {}", id, ex.getMessage());
+            System.out.println(ex.getMessage());
         } catch (RuntimeException ex) {
             log.error("Unexpected error while updating member id={}", id, ex);
             System.out.println("Error updating member.");
@@ -0,0 +1,340 @@
+package repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DbConnectionUtil;
+import util.validators.BookValidator;
+import util.validators.MemberValidator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Bulk loader for the {@code books} and {@code members} tables based on PostgreSQL {@code COPY}.
+ *
+ * <p>Intended for initial loads of very large catalogs, where even batched {@code INSERT}s
+ * are too slow. Each import runs in a single transaction on one pooled connection:</p>
+ * <ol>
+ *   <li>The input is streamed through {@link CopyManager} into a temporary staging table
+ *       whose columns are all {@code TEXT}, so malformed values never abort the load</li>
+ *   <li>Values are normalized (trimmed; blank or {@code NONE} optional fields become {@code NULL})</li>
+ *   <li>Rows are validated in SQL with the same rules as {@link BookValidator} and
+ *       {@link MemberValidator} (shared regex and limit constants); failing rows get a reject reason</li>
+ *   <li>Rejected rows are written to a CSV side file with their data row number and reason</li>
+ *   <li>Valid rows are merged into the target table with one set-based {@code INSERT ... SELECT}</li>
+ * </ol>
+ *
+ * <p>Expected input columns (with a header line):</p>
+ * <ul>
+ *   <li>Books: {@code title, author, isbn, publication_year}</li>
+ *   <li>Members: {@code name, email, phone}</li>
+ * </ul>
+ *
+ * <p>Member emails that already exist in {@code members}, or that repeat an earlier row of
+ * the same file, are rejected so the {@code UNIQUE} constraint never aborts the load.</p>
+ */
+public class CatalogImporter {
+
+    /**
+     * Logger for import progress and failures.
+     */
+    private static final Logger log = LoggerFactory.getLogger(CatalogImporter.class);
+
+    /**
+     * SQLState reported by PostgreSQL for input that does not fit the COPY format.
+     */
+    private static final String SQLSTATE_BAD_COPY_FORMAT = "22P04";
+
+    /**
+     * Supported input formats.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with standard CSV quoting.
+         */
+        CSV(","),
+
+        /**
+         * Tab-separated values (CSV quoting rules still apply).
+         */
+        TSV("\t");
+
+        private final String delimiter;
+
+        Format(String delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Picks the format from a file name ({@code .tsv} / {@code .tab} → TSV, otherwise CSV).
+         *
+         * @param fileName input file name
+         * @return detected format
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            return (lower.endsWith(".tsv") || lower.endsWith(".tab")) ? TSV : CSV;
+        }
+    }
+
+    /**
+     * Summary of one import run.
+     *
+     * @param rowsRead data rows read from the input (header excluded)
+     * @param inserted rows inserted into the target table
+     * @param rejected rows that failed validation (written to the rejects file)
+     */
+    public record ImportResult(long rowsRead, long inserted, long rejected) {
+    }
+
+    /**
+     * Imports books from CSV/TSV input.
+     *
+     * @param input       input with a header line and columns {@code title, author, isbn, publication_year}
+     * @param format      input format
+     * @param rejectsFile file receiving rejected rows as CSV (overwritten)
+     * @return import summary
+     * @throws IllegalArgumentException if the input does not match the expected layout
+     * @throws RuntimeException if the import fails (nothing is inserted)
+     */
+    public ImportResult importBooks(Reader input, Format format, Path rejectsFile) {
+        ImportSpec spec = new ImportSpec(
+                "books",
+                "title, author, isbn, publication_year",
+                List.of(
+                        """
+                        UPDATE import_books_staging SET
+                            title = btrim(title),
+                            author = btrim(author),
+                            isbn = CASE WHEN upper(btrim(isbn)) IN ('', 'NONE') THEN NULL ELSE btrim(isbn) END,
+                            publication_year = CASE WHEN upper(btrim(publication_year)) IN ('', 'NONE')
+                                                    THEN NULL ELSE btrim(publication_year) END
+                        """,
+                        """
+                        UPDATE import_books_staging SET reject_reason = CASE
+                            WHEN title IS NULL OR title = '' THEN 'title is required'
+                            WHEN length(title) > %1$d THEN 'title must be %1$d characters or fewer'
+                            WHEN author IS NULL OR author = '' THEN 'author is required'
+                            WHEN length(author) > %1$d THEN 'author must be %1$d characters or fewer'
+                            WHEN isbn IS NOT NULL AND isbn !~ %2$s
+                                THEN 'isbn must be 10-20 characters (digits, X/x, hyphens)'
+                            WHEN publication_year IS NOT NULL AND publication_year !~ '^[0-9]{1,4}$'
+                                THEN 'publication_year must be a whole number'
+                            WHEN publication_year IS NOT NULL
+                                 AND publication_year::int NOT BETWEEN %3$d AND %4$d
+                                THEN 'publication_year must be between %3$d and %4$d'
+                        END
+                        """.formatted(
+                                BookValidator.MAX_TEXT_LENGTH,
+                                sqlLiteral(BookValidator.ISBN_REGEX),
+                                BookValidator.MIN_PUBLICATION_YEAR,
+                                BookValidator.MAX_PUBLICATION_YEAR
+                        )
+                ),
+                """
+                INSERT INTO books (title, author, isbn, publication_year)
+                SELECT title, author, isbn, publication_year::int
+                FROM import_books_staging
+                WHERE reject_reason IS NULL
+                ORDER BY row_no
+                """
+        );
+
+        return runImport(spec, input, format, rejectsFile);
+    }
+
+    /**
+     * Imports members from CSV/TSV input.
+     *
+     * @param input       input with a header line and columns {@code name, email, phone}
+     * @param format      input format
+     * @param rejectsFile file receiving rejected rows as CSV (overwritten)
+     * @return import summary
+     * @throws IllegalArgumentException if the input does not match the expected layout
+     * @throws RuntimeException if the import fails (nothing is inserted)
+     */
+    public ImportResult importMembers(Reader input, Format format, Path rejectsFile) {
+        ImportSpec spec = new ImportSpec(
+                "members",
+                "name, email, phone",
+                List.of(
+                        """
+                        UPDATE import_members_staging SET
+                            name = btrim(name),
+                            email = CASE WHEN upper(btrim(email)) IN ('', 'NONE') THEN NULL ELSE btrim(email) END,
+                            phone = CASE WHEN upper(btrim(phone)) IN ('', 'NONE') THEN NULL ELSE btrim(phone) END
+                        """,
+                        """
+                        CREATE INDEX ON import_members_staging (email)
+                        """,
+                        """
+                        ANALYZE import_members_staging
+                        """,
+                        """
+                        UPDATE import_members_staging s SET reject_reason = CASE
+                            WHEN s.name IS NULL OR s.name = '' THEN 'name is required'
+                            WHEN length(s.name) > %1$d THEN 'name must be %1$d characters or less'
+                            WHEN s.email IS NOT NULL AND length(s.email) > %2$d
+                                THEN 'email must be %2$d characters or less'
+                            WHEN s.email IS NOT NULL AND s.email !~* %3$s
+                                THEN 'email must be a valid email address format'
+                            WHEN s.phone IS NOT NULL AND length(s.phone) > %4$d
+                                THEN 'phone must be %4$d characters or less'
+                            WHEN s.email IS NOT NULL AND EXISTS (SELECT 1 FROM members m WHERE m.email = s.email)
+                                THEN 'email is already in use'
+                        END
+                        """.formatted(
+                                MemberValidator.MAX_NAME_LENGTH,
+                                MemberValidator.MAX_EMAIL_LENGTH,
+                                sqlLiteral(MemberValidator.EMAIL_REGEX),
+                                MemberValidator.MAX_PHONE_LENGTH
+                        ),
+                        // Among otherwise valid rows, the first occurrence of an email wins.
+                        """
+                        UPDATE import_members_staging s SET reject_reason = 'email repeats an earlier row'
+                        WHERE s.reject_reason IS NULL
+                          AND s.email IS NOT NULL
+                          AND EXISTS (
+                              SELECT 1 FROM import_members_staging e
+                              WHERE e.email = s.email
+                                AND e.row_no < s.row_no
+                                AND e.reject_reason IS NULL
+                          )
+                        """
+                ),
+                """
+                INSERT INTO members (name, email, phone)
+                SELECT name, email, phone
+                FROM import_members_staging
+                WHERE reject_reason IS NULL
+                ORDER BY row_no
+                """
+        );
+
+        return runImport(spec, input, format, rejectsFile);
+    }
+
+    /* =========================================================
+       Import pipeline
+       ========================================================= */
+
+    /**
+     * Describes one import: staging table, input columns and the SQL applied to it.
+     *
+     * @param target            target table name
+     * @param columns           input columns, in file order
+     * @param prepareStatements normalization and validation statements, run in order
+     * @param mergeSql          set-based insert of the valid rows
+     */
+    private record ImportSpec(String target, String columns, List<String> prepareStatements, String mergeSql) {
+
+        String stagingTable() {
+            return "import_" + target + "_staging";
+        }
+    }
+
+    /**
+     * Runs the COPY → normalize → validate → reject → merge pipeline in one transaction.
+     */
+    private ImportResult runImport(ImportSpec spec, Reader input, Format format, Path rejectsFile) {
+        if (input == null || format == null || rejectsFile == null) {
+            throw new IllegalArgumentException("input, format and rejectsFile are required.");
+        }
+
+        String staging = spec.stagingTable();
+        String columnDefs = spec.columns().replace(",", " TEXT,") + " TEXT";
+
+        log.info("Bulk import of {} started (format={}).", spec.target(), format);
+
+        try (Connection connection = DbConnectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("CREATE TEMP TABLE " + staging + " ("
+                            + "row_no BIGINT GENERATED ALWAYS AS IDENTITY, "
+                            + columnDefs + ", "
+                            + "reject_reason TEXT"
+                            + ") ON COMMIT DROP");
+                }
+
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+                long rowsRead = copy.copyIn(
+                        "COPY " + staging + " (" + spec.columns() + ") FROM STDIN "
+                                + "WITH (FORMAT csv, HEADER true, DELIMITER " + sqlLiteral(format.delimiter) + ")",
+                        input
+                );
+                log.debug("Copied {} rows into {}.", rowsRead, staging);
+
+                try (Statement st = connection.createStatement()) {
+                    for (String sql : spec.prepareStatements()) {
+                        st.executeUpdate(sql);
+                    }
+                }
+
+                long rejected;
+                try (Writer out = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+                    rejected = copy.copyOut(
+                            "COPY (SELECT row_no, reject_reason, " + spec.columns()
+                                    + " FROM " + staging
+                                    + " WHERE reject_reason IS NOT NULL ORDER BY row_no) "
+                                    + "TO STDOUT WITH (FORMAT csv, HEADER true)",
+                            out
+                    );
+                }
+
+                long inserted;
+                try (PreparedStatement ps = connection.prepareStatement(spec.mergeSql())) {
+                    inserted = ps.executeUpdate();
+                }
+
+                connection.commit();
+
+                log.info("Bulk import of {} committed (read={}, inserted={}, rejected={}).",
+                        spec.target(), rowsRead, inserted, rejected);
+                if (rejected > 0) {
+                    log.warn("{} {} rows rejected; see {}.", rejected, spec.target(), rejectsFile);
+                }
+
+                return new ImportResult(rowsRead, inserted, rejected);
+
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            if (SQLSTATE_BAD_COPY_FORMAT.equals(e.getSQLState())) {
+                log.warn("Bulk import of {} rejected: malformed input ({}).", spec.target(), e.getMessage());
+                throw new IllegalArgumentException(
+                        "Import file does not match the expected columns (" + spec.columns() + "): "
+                                + e.getMessage(), e);
+            }
+            log.error("SQL error during bulk import of {}.", spec.target(), e);
+            throw new RuntimeException("Failed to import " + spec.target(), e);
+
+        } catch (IOException e) {
+            log.error("I/O error during bulk import of {}.", spec.target(), e);
+            throw new RuntimeException("Failed to import " + spec.target() + " (I/O error)", e);
+        }
+    }
+
+    /**
+     * Quotes a constant as a SQL string literal body (doubles single quotes).
+     */
+    private static String sqlLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,96 @@
+package repository.DAO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of {@link BaseDAO}.
+ *
+ * <p>Each method runs the matching blocking operation on a dedicated executor with one
+ * thread per pooled connection and returns a {@link CompletableFuture}. This lets callers
+ * issue independent queries in parallel, for example during checkout:</p>
+ * <pre>
+ * CompletableFuture&lt;Optional&lt;BookEntity&gt;&gt; book = bookDAO.findByIdAsync(bookId);
+ * CompletableFuture&lt;Optional&lt;MemberEntity&gt;&gt; member = memberDAO.findByIdAsync(memberId);
+ * CompletableFuture&lt;Optional&lt;LoanEntity&gt;&gt; active = loanDAO.findActiveLoanByBookIdAsync(bookId);
+ * CompletableFuture.allOf(book, member, active).join();
+ * </pre>
+ *
+ * <p>Exceptions thrown by the blocking operation (e.g., {@link IllegalArgumentException}
+ * for constraint violations) complete the future exceptionally; {@code join()} rethrows
+ * them wrapped in a {@link java.util.concurrent.CompletionException}.</p>
+ *
+ * <p>Async methods must not be called inside
+ * {@link util.jdbc.TransactionTemplate#execute(java.util.function.Supplier)}; they throw
+ * {@link IllegalStateException} there instead of running outside the caller's transaction.</p>
+ *
+ * @param <T> The type of model object this DAO manages.
+ */
+public interface AsyncBaseDAO<T> extends BaseDAO<T> {
+
+    /**
+     * Returns the executor async operations run on.
+     *
+     * @return executor sized to the connection pool
+     */
+    default Executor asyncExecutor() {
+        return DaoExecutor.shared();
+    }
+
+    /**
+     * Asynchronous {@link #save(Object)}.
+     *
+     * @param t the object to save
+     * @return future for the saved object
+     */
+    default CompletableFuture<T> saveAsync(T t) {
+        return DaoExecutor.async(() -> save(t), asyncExecutor());
+    }
+
+    /**
+     * Asynchronous {@link #findById(long)}.
+     *
+     * @param id the ID to search for
+     * @return future for the found object, or empty if not found
+     */
+    default CompletableFuture<Optional<T>> findByIdAsync(long id) {
+        return DaoExecutor.async(() -> findById(id), asyncExecutor());
+    }
+
+    /**
+     * Asynchronous {@link #findAll()}.
+     *
+     * @return future for all objects
+     */
+    default CompletableFuture<List<T>> findAllAsync() {
+        return DaoExecutor.async(this::findAll, asyncExecutor());
+    }
+
+    /**
+     * Asynchronous {@link #update(Object)}.
+     *
+     * @param t the object with updated fields
+     * @return future completed when the update finishes
+     */
+    default CompletableFuture<Void> updateAsync(T t) {
+        return DaoExecutor.async(() -> {
+            update(t);
+            return null;
+        }, asyncExecutor());
+    }
+
+    /**
+     * Asynchronous {@link #deleteById(long)}.
+     *
+     * @param id the ID of the object to delete
+     * @return future completed when the delete finishes
+     */
+    default CompletableFuture<Void> deleteByIdAsync(long id) {
+        return DaoExecutor.async(() -> {
+            deleteById(id);
+            return null;
+        }, asyncExecutor());
+    }
+}
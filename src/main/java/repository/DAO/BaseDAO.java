@@ -2,6 +2,7 @@ package repository.DAO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * A generic DAO interface that defines common CRUD operations.
@@ -18,6 +19,30 @@ public interface BaseDAO<T> {
      */
     T save(T t);
 
+    /**
+     * Saves many new objects using batched inserts, all within one transaction.
+     *
+     * <p>Objects are sent to the database in chunks of {@code batchSize} rows per round
+     * trip. Either every object is inserted or none is. Generated IDs are populated into
+     * the objects and also returned in input order.</p>
+     *
+     * @param items     the objects to save
+     * @param batchSize the number of rows sent per round trip (must be positive)
+     * @return the generated IDs, in the same order as {@code items}
+     */
+    List<Long> saveAll(List<T> items, int batchSize);
+
+    /**
+     * Saves many new objects using the default batch size (500 rows per round trip).
+     *
+     * @param items the objects to save
+     * @return the generated IDs, in the same order as {@code items}
+     * @see #saveAll(List, int)
+     */
+    default List<Long> saveAll(List<T> items) {
+        return saveAll(items, BatchInserts.DEFAULT_BATCH_SIZE);
+    }
+
     /**
      * Finds an object by its unique ID.
      *
@@ -33,6 +58,29 @@ public interface BaseDAO<T> {
      */
     List<T> findAll();
 
+    /**
+     * Retrieves one page of objects ordered by ID, using a keyset predicate
+     * ({@code id > afterId}) so each page costs the same regardless of depth.
+     *
+     * <p>To walk the whole table, start with {@code afterId = 0} and pass the ID of the
+     * last element of each page into the next call until an empty page is returned.</p>
+     *
+     * @param afterId only objects with an ID greater than this value are returned
+     * @param limit   maximum number of objects to return
+     * @return a List containing at most {@code limit} objects
+     */
+    List<T> findPage(long afterId, int limit);
+
+    /**
+     * Streams all objects ordered by ID without materializing them in memory.
+     *
+     * <p>The stream holds a database connection until it is closed, so callers must use
+     * try-with-resources.</p>
+     *
+     * @return a lazily populated Stream of all objects
+     */
+    Stream<T> streamAll();
+
     /**
      * Updates an existing object in the persistence layer.
      *
@@ -0,0 +1,116 @@
+package repository.DAO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DbConnectionUtil;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Package-private helper that inserts many rows with JDBC batching.
+ *
+ * <p>Rows are sent in chunks of {@code batchSize} statements per round trip on a single
+ * pooled connection, inside one transaction: either every row is inserted or none is.
+ * Generated IDs are read back through {@link PreparedStatement#getGeneratedKeys()}, which
+ * the PostgreSQL driver returns in batch order, and written into each entity.</p>
+ */
+final class BatchInserts {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchInserts.class);
+
+    /**
+     * Default number of rows sent per JDBC batch.
+     */
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BatchInserts() {
+        // utility class
+    }
+
+    /**
+     * Binds the insert parameters of one entity onto a {@link PreparedStatement}.
+     *
+     * @param <T> entity type
+     */
+    @FunctionalInterface
+    interface EntityBinder<T> {
+        void bind(PreparedStatement ps, T entity) throws SQLException;
+    }
+
+    /**
+     * Inserts all {@code entities} and populates their generated IDs.
+     *
+     * @param sql         single-row {@code INSERT} statement (without {@code RETURNING})
+     * @param entities    entities to insert, in the order IDs should be assigned
+     * @param batchSize   rows per JDBC batch (must be positive)
+     * @param binder      binds one entity's parameters
+     * @param idSetter    receives each entity and its generated ID
+     * @param description short description used in log and error messages
+     * @param <T>         entity type
+     * @throws SQLException if any row fails; the whole insert is rolled back
+     */
+    static <T> void insertAll(
+            String sql,
+            List<T> entities,
+            int batchSize,
+            EntityBinder<T> binder,
+            ObjLongConsumer<T> idSetter,
+            String description
+    ) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive.");
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"})) {
+
+            connection.setAutoCommit(false);
+
+            try {
+                for (int start = 0; start < entities.size(); start += batchSize) {
+                    List<T> chunk = entities.subList(start, Math.min(start + batchSize, entities.size()));
+
+                    for (T entity : chunk) {
+                        binder.bind(ps, entity);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T entity : chunk) {
+                            if (!keys.next()) {
+                                throw new SQLException("Batch insert returned fewer ids than rows ("
+                                        + description + ").");
+                            }
+                            idSetter.accept(entity, keys.getLong(1));
+                        }
+                    }
+
+                    log.debug("Inserted {} {} (chunk starting at index {}).", chunk.size(), description, start);
+                }
+
+                connection.commit();
+                log.info("Batch insert committed: {} {}.", entities.size(), description);
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (BatchUpdateException e) {
+            // The driver reports the real cause (e.g., constraint violation) as the next exception.
+            throw e.getNextException() != null ? e.getNextException() : e;
+        }
+    }
+}
@@ -4,17 +4,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.entities.BookEntity;
 import util.DbConnectionUtil;
+import util.jdbc.TransactionTemplate;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for the {@code books} table.
  *
- * <p>This class implements {@link BaseDAO} and provides concrete JDBC-based
- * persistence logic for {@link BookEntity} objects.
+ * <p>This class implements {@link BaseDAO} (and its async counterpart {@link AsyncBaseDAO})
+ * and provides concrete JDBC-based persistence logic for {@link BookEntity} objects.
  *
  * <p>Responsibilities:
  * <ul>
@@ -23,21 +25,28 @@ import java.util.Optional;
  *   <li>Handle JDBC resources safely using try-with-resources</li>
  * </ul>
  *
+ * <p>Each operation borrows a pooled connection from {@link DbConnectionUtil} and returns
+ * it as soon as the statement completes, so no DAO instance holds a connection between calls.
+ *
  * <p>This class contains <strong>no business logic</strong>. Business rules
  * (e.g., whether a book may be deleted while checked out) are enforced in the
  * service layer, though this DAO provides helper query methods to support
  * those rules.
  */
-public class BookDAO implements BaseDAO<BookEntity> {
+public class BookDAO implements AsyncBaseDAO<BookEntity> {
 
     private static final Logger log = LoggerFactory.getLogger(BookDAO.class);
 
     /**
-     * Shared database connection for this DAO.
-     *
-     * <p>Connection lifecycle is managed by {@link DbConnectionUtil}.
+     * PostgreSQL SQLState for foreign-key violations.
+     */
+    private static final String SQLSTATE_FOREIGN_KEY_VIOLATION = "23503";
+
+    /**
+     * {@code pg_trgm.word_similarity_threshold} used by {@link #searchFuzzy}; the server
+     * default (0.6) rejects most single-typo matches on short words.
      */
-    private final Connection connection = DbConnectionUtil.getConnection();
+    static final double FUZZY_WORD_SIMILARITY_THRESHOLD = 0.4;
 
     /**
      * {@inheritDoc}
@@ -57,22 +66,10 @@ public class BookDAO implements BaseDAO<BookEntity> {
         log.debug("BookDAO.save called (title='{}', author='{}').",
                 book.getTitle(), book.getAuthor());
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getAuthor());
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
-            if (book.getIsbn() == null) {
-                ps.setNull(3, Types.VARCHAR);
-            } else {
-                ps.setString(3, book.getIsbn());
-            }
-
-            if (book.getPublicationYear() == null) {
-                ps.setNull(4, Types.INTEGER);
-            } else {
-                ps.setInt(4, book.getPublicationYear());
-            }
+            bindColumns(ps, book);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -94,18 +91,46 @@ public class BookDAO implements BaseDAO<BookEntity> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Implementation notes:
+     * <ul>
+     *   <li>Uses JDBC batching; generated keys are read back per chunk</li>
+     *   <li>Populates the generated IDs directly into the provided {@link BookEntity} objects</li>
+     * </ul>
+     */
+    @Override
+    public List<Long> saveAll(List<BookEntity> books, int batchSize) {
+        final String sql =
+                "INSERT INTO books (title, author, isbn, publication_year) " +
+                        "VALUES (?, ?, ?, ?)";
+
+        log.debug("BookDAO.saveAll called (count={}, batchSize={}).", books.size(), batchSize);
+
+        try {
+            BatchInserts.insertAll(sql, books, batchSize, this::bindColumns, BookEntity::setId, "books");
+        } catch (SQLException e) {
+            log.error("SQL error while batch saving books (count={}).", books.size(), e);
+            throw new RuntimeException("Failed to save books", e);
+        }
+
+        return books.stream().map(BookEntity::getId).toList();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<BookEntity> findById(long id) {
         final String sql =
-                "SELECT id, title, author, isbn, publication_year " +
+                "SELECT id, title, author, isbn, publication_year, version " +
                         "FROM books WHERE id = ?;";
 
         log.debug("BookDAO.findById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -134,14 +159,15 @@ public class BookDAO implements BaseDAO<BookEntity> {
     @Override
     public List<BookEntity> findAll() {
         final String sql =
-                "SELECT id, title, author, isbn, publication_year " +
+                "SELECT id, title, author, isbn, publication_year, version " +
                         "FROM books ORDER BY id;";
 
         log.debug("BookDAO.findAll called.");
 
         List<BookEntity> books = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -159,39 +185,88 @@ public class BookDAO implements BaseDAO<BookEntity> {
 
     /**
      * {@inheritDoc}
-     *
-     * <p>Expects the provided {@link BookEntity} to already have a valid ID.
      */
     @Override
-    public void update(BookEntity book) {
+    public List<BookEntity> findPage(long afterId, int limit) {
         final String sql =
-                "UPDATE books " +
-                        "SET title = ?, author = ?, isbn = ?, publication_year = ? " +
-                        "WHERE id = ?;";
+                "SELECT id, title, author, isbn, publication_year, version " +
+                        "FROM books WHERE id > ? ORDER BY id LIMIT ?;";
 
-        log.debug("BookDAO.update called (id={}).", book.getId());
+        log.debug("BookDAO.findPage called (afterId={}, limit={}).", afterId, limit);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        List<BookEntity> books = new ArrayList<>(limit);
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getAuthor());
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
-            if (book.getIsbn() == null) {
-                ps.setNull(3, Types.VARCHAR);
-            } else {
-                ps.setString(3, book.getIsbn());
-            }
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
 
-            if (book.getPublicationYear() == null) {
-                ps.setNull(4, Types.INTEGER);
-            } else {
-                ps.setInt(4, book.getPublicationYear());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapRow(rs));
+                }
             }
 
+            log.debug("BookDAO.findPage returning {} books.", books.size());
+            return books;
+
+        } catch (SQLException e) {
+            log.error("SQL error while retrieving book page (afterId={}, limit={}).", afterId, limit, e);
+            throw new RuntimeException("Failed to retrieve books page after id=" + afterId, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Rows are read through a server-side cursor in batches of
+     * {@link ResultSetStreams#DEFAULT_FETCH_SIZE}.
+     */
+    @Override
+    public Stream<BookEntity> streamAll() {
+        final String sql =
+                "SELECT id, title, author, isbn, publication_year, version " +
+                        "FROM books ORDER BY id;";
+
+        log.debug("BookDAO.streamAll called.");
+
+        return ResultSetStreams.stream(sql, ps -> { }, this::mapRow,
+                ResultSetStreams.DEFAULT_FETCH_SIZE, "books");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Expects the provided {@link BookEntity} to already have a valid ID. The update only
+     * applies if the row still has the entity's version; on success the entity's version is
+     * advanced to the stored one.</p>
+     *
+     * @throws OptimisticLockException if the row was changed since the entity was read
+     */
+    @Override
+    public void update(BookEntity book) {
+        final String sql =
+                "UPDATE books " +
+                        "SET title = ?, author = ?, isbn = ?, publication_year = ?, version = version + 1 " +
+                        "WHERE id = ? AND version = ?;";
+
+        log.debug("BookDAO.update called (id={}).", book.getId());
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            bindColumns(ps, book);
             ps.setLong(5, book.getId());
+            ps.setLong(6, book.getVersion());
 
             int rows = ps.executeUpdate();
             if (rows != 1) {
+                if (rows == 0 && existsById(book.getId())) {
+                    log.info("Stale update rejected for book id={} (version={}).",
+                            book.getId(), book.getVersion());
+                    throw new OptimisticLockException("books", book.getId(), book.getVersion());
+                }
                 log.warn("Unexpected row count updating book id={}. rows={}",
                         book.getId(), rows);
                 throw new RuntimeException(
@@ -199,6 +274,7 @@ public class BookDAO implements BaseDAO<BookEntity> {
                 );
             }
 
+            book.setVersion(book.getVersion() + 1);
             log.info("Book updated successfully (id={}).", book.getId());
 
         } catch (SQLException e) {
@@ -219,7 +295,8 @@ public class BookDAO implements BaseDAO<BookEntity> {
 
         log.debug("BookDAO.deleteById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -256,7 +333,8 @@ public class BookDAO implements BaseDAO<BookEntity> {
         final String sql = "SELECT 1 FROM books WHERE id = ?;";
         log.debug("BookDAO.existsById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
@@ -280,7 +358,8 @@ public class BookDAO implements BaseDAO<BookEntity> {
         final String sql = "SELECT 1 FROM loans WHERE book_id = ? LIMIT 1;";
         log.debug("BookDAO.hasAnyLoans called (bookId={}).", bookId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, bookId);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
@@ -311,7 +390,8 @@ public class BookDAO implements BaseDAO<BookEntity> {
 
         log.debug("BookDAO.isCheckedOut called (bookId={}).", bookId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, bookId);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
@@ -335,7 +415,8 @@ public class BookDAO implements BaseDAO<BookEntity> {
         final String sql = "DELETE FROM books WHERE id = ?;";
         log.debug("BookDAO.tryDeleteById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, id);
             int rows = ps.executeUpdate();
             log.debug("BookDAO.tryDeleteById rows affected={}", rows);
@@ -346,10 +427,335 @@ public class BookDAO implements BaseDAO<BookEntity> {
         }
     }
 
+    // --------------------------------------------------
+    // Single-round-trip conditional writes
+    // --------------------------------------------------
+
+    /**
+     * Updates a book if it still has the expected version and returns the row as stored,
+     * in one statement.
+     *
+     * <p>Combines the existence check, the version check, the update and the re-read:
+     * {@code UPDATE ... WHERE id = ? AND version = ? RETURNING ...}, plus a fallback branch
+     * that returns the current row when nothing was updated. No row at all means no book
+     * exists with the entity's ID.</p>
+     *
+     * @param book book with a valid ID, the version it was read at and the new column values
+     * @return the updated row (with its new version), or empty if no book exists with that ID
+     * @throws OptimisticLockException if the book was changed since it was read
+     */
+    public Optional<BookEntity> updateReturning(BookEntity book) {
+        final String sql = """
+            WITH updated AS (
+                UPDATE books
+                SET title = ?, author = ?, isbn = ?, publication_year = ?, version = version + 1
+                WHERE id = ? AND version = ?
+                RETURNING id, title, author, isbn, publication_year, version
+            )
+            SELECT id, title, author, isbn, publication_year, version, TRUE AS updated
+            FROM updated
+            UNION ALL
+            SELECT id, title, author, isbn, publication_year, version, FALSE
+            FROM books
+            WHERE id = ? AND NOT EXISTS (SELECT 1 FROM updated)
+            """;
+
+        log.debug("BookDAO.updateReturning called (id={}).", book.getId());
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            bindColumns(ps, book);
+            ps.setLong(5, book.getId());
+            ps.setLong(6, book.getVersion());
+            ps.setLong(7, book.getId());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    log.debug("No book updated for id={} (not found).", book.getId());
+                    return Optional.empty();
+                }
+                if (!rs.getBoolean("updated")) {
+                    log.info("Stale update rejected for book id={} (version={}, current={}).",
+                            book.getId(), book.getVersion(), rs.getLong("version"));
+                    throw new OptimisticLockException("books", book.getId(), book.getVersion());
+                }
+                log.info("Book updated successfully (id={}).", book.getId());
+                return Optional.of(mapRow(rs));
+            }
+
+        } catch (SQLException e) {
+            log.error("SQL error while updating book id={}.", book.getId(), e);
+            throw new RuntimeException("Failed to update book id=" + book.getId(), e);
+        }
+    }
+
+    /**
+     * Deletes a book only if it has no loan records, reporting why nothing was deleted.
+     *
+     * <p>A single statement locates the row, applies the guard
+     * ({@code NOT EXISTS (SELECT 1 FROM loans ...)}) and deletes it, so the caller needs
+     * no separate existence or loan-history queries. A loan inserted concurrently between
+     * the guard and the delete trips the foreign key, which is also reported as
+     * {@link WriteOutcome#BLOCKED}.</p>
+     *
+     * @param id book ID to delete
+     * @return {@link WriteOutcome#DONE}, {@link WriteOutcome#NOT_FOUND} or {@link WriteOutcome#BLOCKED}
+     */
+    public WriteOutcome deleteIfNoLoans(long id) {
+        final String sql = """
+            WITH target AS (
+                SELECT id FROM books WHERE id = ?
+            ), deleted AS (
+                DELETE FROM books t
+                WHERE t.id IN (SELECT id FROM target)
+                  AND NOT EXISTS (SELECT 1 FROM loans l WHERE l.book_id = t.id)
+                RETURNING t.id
+            )
+            SELECT EXISTS (SELECT 1 FROM target)  AS found,
+                   EXISTS (SELECT 1 FROM deleted) AS deleted
+            """;
+
+        log.debug("BookDAO.deleteIfNoLoans called (id={}).", id);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                WriteOutcome outcome = !rs.getBoolean("found") ? WriteOutcome.NOT_FOUND
+                        : rs.getBoolean("deleted") ? WriteOutcome.DONE
+                        : WriteOutcome.BLOCKED;
+                log.debug("BookDAO.deleteIfNoLoans outcome={} (id={}).", outcome, id);
+                return outcome;
+            }
+
+        } catch (SQLException e) {
+            if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                log.info("Delete of book id={} blocked by a concurrently inserted loan.", id);
+                return WriteOutcome.BLOCKED;
+            }
+            log.error("SQL error while deleting book id={}.", id, e);
+            throw new RuntimeException("Failed to delete book id=" + id, e);
+        }
+    }
+
+    // --------------------------------------------------
+    // Search (pg_trgm)
+    // --------------------------------------------------
+
+    /**
+     * Finds books whose title, author or ISBN starts with {@code query} (case-insensitive).
+     *
+     * <p>Served by the {@code lower(...) text_pattern_ops} B-tree indexes created in
+     * {@code DbSetup}. Matches are ranked by trigram similarity of title/author to the query.</p>
+     *
+     * @param query  search text (non-blank)
+     * @param offset number of ranked matches to skip
+     * @param limit  maximum number of matches to return
+     * @return ranked matches
+     */
+    public List<BookEntity> searchByPrefix(String query, int offset, int limit) {
+        final String sql =
+                "SELECT id, title, author, isbn, publication_year, version " +
+                        "FROM books " +
+                        "WHERE lower(title) LIKE ? ESCAPE '\\' " +
+                        "   OR lower(author) LIKE ? ESCAPE '\\' " +
+                        "   OR lower(isbn) LIKE ? ESCAPE '\\' " +
+                        "ORDER BY GREATEST(similarity(title, ?), similarity(author, ?)) DESC, id " +
+                        "LIMIT ? OFFSET ?";
+
+        String pattern = escapeLike(query.toLowerCase()) + "%";
+        return search(sql, "prefix", query, offset, limit, false, pattern, pattern, pattern, query, query);
+    }
+
+    /**
+     * Finds books whose title, author or ISBN contains {@code query} (case-insensitive).
+     *
+     * <p>Served by the {@code gin_trgm_ops} indexes; the query should be at least three
+     * characters so the index can narrow the candidates. Matches are ranked by trigram
+     * similarity of title/author to the query.</p>
+     *
+     * @param query  search text (non-blank)
+     * @param offset number of ranked matches to skip
+     * @param limit  maximum number of matches to return
+     * @return ranked matches
+     */
+    public List<BookEntity> searchBySubstring(String query, int offset, int limit) {
+        final String sql =
+                "SELECT id, title, author, isbn, publication_year, version " +
+                        "FROM books " +
+                        "WHERE title ILIKE ? ESCAPE '\\' " +
+                        "   OR author ILIKE ? ESCAPE '\\' " +
+                        "   OR isbn ILIKE ? ESCAPE '\\' " +
+                        "ORDER BY GREATEST(similarity(title, ?), similarity(author, ?)) DESC, id " +
+                        "LIMIT ? OFFSET ?";
+
+        String pattern = "%" + escapeLike(query) + "%";
+        return search(sql, "substring", query, offset, limit, false, pattern, pattern, pattern, query, query);
+    }
+
+    /**
+     * Finds books whose title or author contains a word similar to {@code query}, tolerating
+     * typos (pg_trgm word similarity, operator {@code <%}).
+     *
+     * <p>Served by the {@code gin_trgm_ops} indexes. The match threshold is lowered to
+     * {@link #FUZZY_WORD_SIMILARITY_THRESHOLD} for this query only, so common typos such as
+     * transposed letters still match. Matches are ranked by word similarity, best first.</p>
+     *
+     * <p>Inside {@link TransactionTemplate#execute(java.util.function.Supplier)} the threshold is
+     * set transaction-locally and put back to its previous value after the query, so the rest of
+     * the enclosing transaction keeps its own setting. If the query fails, the threshold is not
+     * put back; the failed statement aborts the transaction, whose rollback discards it.</p>
+     *
+     * @param query  search text (non-blank)
+     * @param offset number of ranked matches to skip
+     * @param limit  maximum number of matches to return
+     * @return ranked matches
+     */
+    public List<BookEntity> searchFuzzy(String query, int offset, int limit) {
+        final String sql =
+                "SELECT id, title, author, isbn, publication_year, version " +
+                        "FROM books " +
+                        "WHERE ? <% title OR ? <% author " +
+                        "ORDER BY GREATEST(word_similarity(?, title), word_similarity(?, author)) DESC, id " +
+                        "LIMIT ? OFFSET ?";
+
+        return search(sql, "fuzzy", query, offset, limit, true, query, query, query, query);
+    }
+
+    /**
+     * Runs a ranked search query whose leading parameters are {@code textParams},
+     * followed by {@code LIMIT} and {@code OFFSET}.
+     *
+     * <p>When {@code fuzzy} is set, the query runs in a short transaction that first lowers
+     * {@code pg_trgm.word_similarity_threshold}; the setting ends with the transaction, so it
+     * never leaks to the next borrower of the pooled connection. Inside a
+     * {@link TransactionTemplate} transaction, committing the joined handle only moves a
+     * savepoint, so the previous value is restored explicitly instead.</p>
+     */
+    private List<BookEntity> search(
+            String sql,
+            String mode,
+            String query,
+            int offset,
+            int limit,
+            boolean fuzzy,
+            String... textParams
+    ) {
+        log.debug("BookDAO.search called (mode={}, queryLength={}, offset={}, limit={}).",
+                mode, query.length(), offset, limit);
+
+        List<BookEntity> books = new ArrayList<>(Math.min(limit, 100));
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            boolean joined = fuzzy && TransactionTemplate.isActive();
+            String previousThreshold = null;
+            if (joined) {
+                previousThreshold = currentWordSimilarityThreshold(connection);
+                setWordSimilarityThreshold(connection, String.valueOf(FUZZY_WORD_SIMILARITY_THRESHOLD));
+            } else if (fuzzy) {
+                connection.setAutoCommit(false);
+                try (Statement setThreshold = connection.createStatement()) {
+                    setThreshold.execute("SET LOCAL pg_trgm.word_similarity_threshold = "
+                            + FUZZY_WORD_SIMILARITY_THRESHOLD);
+                }
+            }
+
+            int index = 1;
+            for (String param : textParams) {
+                ps.setString(index++, param);
+            }
+            ps.setInt(index++, limit);
+            ps.setInt(index, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapRow(rs));
+                }
+            }
+
+            if (joined) {
+                setWordSimilarityThreshold(connection, previousThreshold);
+            } else if (fuzzy) {
+                connection.commit();
+            }
+
+            log.debug("BookDAO.search returning {} books (mode={}).", books.size(), mode);
+            return books;
+
+        } catch (SQLException e) {
+            log.error("SQL error while searching books (mode={}).", mode, e);
+            throw new RuntimeException("Failed to search books", e);
+        }
+    }
+
+    /**
+     * Returns the connection's current {@code pg_trgm.word_similarity_threshold}, or {@code null}
+     * if pg_trgm has not been loaded in this session and the setting was never assigned.
+     */
+    private static String currentWordSimilarityThreshold(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT current_setting('pg_trgm.word_similarity_threshold', true)")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /**
+     * Sets {@code pg_trgm.word_similarity_threshold} until the end of the current transaction;
+     * {@code null} means the server's session default.
+     */
+    private static void setWordSimilarityThreshold(Connection connection, String value) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT set_config('pg_trgm.word_similarity_threshold', " +
+                        "coalesce(?, (SELECT reset_val FROM pg_settings " +
+                        "WHERE name = 'pg_trgm.word_similarity_threshold')), true)")) {
+            ps.setString(1, value);
+            ps.executeQuery().close();
+        }
+    }
+
+    /**
+     * Escapes {@code LIKE} wildcards so user input is matched literally.
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     // --------------------------------------------------
     // Row mapper
     // --------------------------------------------------
 
+    /**
+     * Binds the column values (title, author, isbn, publication_year) of a book.
+     *
+     * @param ps   statement to bind
+     * @param book book providing the values
+     * @throws SQLException if binding fails
+     */
+    private void bindColumns(PreparedStatement ps, BookEntity book) throws SQLException {
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getAuthor());
+
+        if (book.getIsbn() == null) {
+            ps.setNull(3, Types.VARCHAR);
+        } else {
+            ps.setString(3, book.getIsbn());
+        }
+
+        if (book.getPublicationYear() == null) {
+            ps.setNull(4, Types.INTEGER);
+        } else {
+            ps.setInt(4, book.getPublicationYear());
+        }
+    }
+
     /**
      * Maps the current row of a {@link ResultSet} to a {@link BookEntity}.
      *
@@ -358,12 +764,14 @@ public class BookDAO implements BaseDAO<BookEntity> {
      * @throws SQLException if column access fails
      */
     private BookEntity mapRow(ResultSet rs) throws SQLException {
-        return new BookEntity(
+        BookEntity entity = new BookEntity(
                 rs.getLong("id"),
                 rs.getString("title"),
                 rs.getString("author"),
                 rs.getString("isbn"),
                 rs.getObject("publication_year", Integer.class)
         );
+        entity.setVersion(rs.getLong("version"));
+        return entity;
     }
 }
@@ -0,0 +1,86 @@
+package repository.DAO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DbConnectionUtil;
+import util.jdbc.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Package-private holder of the executor that runs {@link AsyncBaseDAO} operations.
+ *
+ * <p>The executor has one thread per pooled connection: every async DAO call borrows a
+ * connection for its whole duration, so more threads would only wait on the pool and fewer
+ * would leave connections unused. Threads are daemons, so an application that forgets to
+ * shut down still exits. The executor is created on first use.</p>
+ *
+ * <p>Async calls are rejected inside {@link TransactionTemplate#execute(Supplier)}: the
+ * transaction is bound to the calling thread, so the operation would silently run outside it
+ * on a second pooled connection, unable to see the transaction's uncommitted writes and
+ * possibly waiting on a connection the transaction itself is holding.</p>
+ */
+final class DaoExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DaoExecutor.class);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DaoExecutor() {
+        // utility class
+    }
+
+    /**
+     * Lazy initialization holder.
+     */
+    private static final class Holder {
+        private static final ExecutorService EXECUTOR = create();
+    }
+
+    /**
+     * Returns the shared DAO executor.
+     *
+     * @return executor sized to the connection pool
+     */
+    static ExecutorService shared() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * Runs a blocking DAO call on {@code executor}.
+     *
+     * @param operation blocking DAO call
+     * @param executor  executor to run it on
+     * @param <R>       result type
+     * @return future for the operation's result
+     * @throws IllegalStateException if a transaction is bound to the calling thread
+     */
+    static <R> CompletableFuture<R> async(Supplier<R> operation, Executor executor) {
+        if (TransactionTemplate.isActive()) {
+            log.warn("Async DAO call rejected inside a transaction.");
+            throw new IllegalStateException(
+                    "Async DAO calls cannot join the current transaction; use the blocking method instead.");
+        }
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+
+    private static ExecutorService create() {
+        int threads = DbConnectionUtil.getMaxPoolSize();
+        AtomicInteger counter = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "dao-async-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        log.info("Async DAO executor started (threads={}).", threads);
+        return executor;
+    }
+}
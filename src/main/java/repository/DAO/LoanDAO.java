@@ -1,21 +1,29 @@
 package repository.DAO;
 
+import org.postgresql.util.PSQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.entities.LoanEntity;
 import util.DbConnectionUtil;
+import util.jdbc.TransactionTemplate;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for the {@code loans} table.
  *
- * <p>This class implements {@link BaseDAO} and provides concrete JDBC-based persistence
- * logic for {@link LoanEntity} objects.
+ * <p>This class implements {@link BaseDAO} (and its async counterpart {@link AsyncBaseDAO})
+ * and provides concrete JDBC-based persistence logic for {@link LoanEntity} objects.
  *
  * <p>Responsibilities:
  * <ul>
@@ -24,6 +32,9 @@ import java.util.Optional;
  *   <li>Provide loan-specific queries to support service-layer business rules</li>
  * </ul>
  *
+ * <p>Each operation borrows a pooled connection from {@link DbConnectionUtil} and returns
+ * it as soon as the statement completes, so no DAO instance holds a connection between calls.
+ *
  * <p>This class contains <strong>no business logic</strong>. Business rules (e.g.,
  * preventing double-checkout) should be enforced by the service layer. This DAO
  * may provide helper queries to enable those service checks.
@@ -32,7 +43,7 @@ import java.util.Optional;
  * failures into {@link IllegalArgumentException} to provide clearer, user-friendly messages
  * to the controller/service layers, while still logging full details for troubleshooting.
  */
-public class LoanDAO implements BaseDAO<LoanEntity> {
+public class LoanDAO implements AsyncBaseDAO<LoanEntity> {
 
     private static final Logger log = LoggerFactory.getLogger(LoanDAO.class);
 
@@ -43,11 +54,15 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     private static final String SQLSTATE_NOT_NULL_VIOLATION = "23502";
 
     /**
-     * Shared database connection for this DAO.
-     *
-     * <p>Connection lifecycle is managed by {@link DbConnectionUtil}.
+     * Partial unique index allowing at most one active loan per book.
+     */
+    private static final String UQ_ONE_ACTIVE_LOAN_PER_BOOK = "uq_loans_one_active_loan_per_book";
+
+    /**
+     * Foreign keys of {@code loans}; PostgreSQL names the violated one in a 23503 error.
      */
-    private final Connection connection = DbConnectionUtil.getConnection();
+    private static final String FK_LOANS_BOOK = "loans_book_fk";
+    private static final String FK_LOANS_MEMBER = "loans_member_fk";
 
     /**
      * {@inheritDoc}
@@ -66,27 +81,23 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
             RETURNING id
             """;
 
-        log.debug("LoanDAO.save called (bookId={}, memberId={}, checkoutDate={}, dueDate={}, returnDate={}).",
-                loan.getBookId(), loan.getMemberId(), loan.getCheckoutDate(), loan.getDueDate(), loan.getReturnDate());
+        if (log.isDebugEnabled()) {
+            log.debug("LoanDAO.save called (bookId={}, memberId={}, checkoutDate={}, dueDate={}, returnDate={}).",
+                    loan.getBookId(), loan.getMemberId(), loan.getCheckoutDate(), loan.getDueDate(), loan.getReturnDate());
+        }
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
-            ps.setLong(1, loan.getBookId());
-            ps.setLong(2, loan.getMemberId());
-            ps.setDate(3, Date.valueOf(loan.getCheckoutDate()));
-            ps.setDate(4, Date.valueOf(loan.getDueDate()));
-
-            if (loan.getReturnDate() == null) {
-                ps.setNull(5, Types.DATE);
-            } else {
-                ps.setDate(5, Date.valueOf(loan.getReturnDate()));
-            }
+            bindColumns(ps, loan);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     long id = rs.getLong("id");
                     loan.setId(id);
-                    log.info("Loan inserted successfully with id={}.", id);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Loan inserted successfully with id={}.", id);
+                    }
                 } else {
                     log.warn("Insert succeeded but no id was returned (unexpected).");
                     throw new RuntimeException("Failed to save loan: no id returned.");
@@ -96,65 +107,365 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
             return loan;
 
         } catch (SQLException e) {
-            // Translate common constraint failures into clearer messages.
+            throw translateSaveFailure(loan, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Rows are inserted directly, without the availability and member-limit checks of
+     * {@link #checkout(LoanEntity, int)}; double checkouts are still rejected by
+     * {@code uq_loans_one_active_loan_per_book}. Any constraint violation rolls back the
+     * whole batch.</p>
+     *
+     * @throws IllegalStateException    if a book in the batch is already checked out
+     * @throws IllegalArgumentException if a loan violates another database constraint
+     */
+    @Override
+    public List<Long> saveAll(List<LoanEntity> loans, int batchSize) {
+        final String sql = """
+            INSERT INTO loans (book_id, member_id, checkout_date, due_date, return_date)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+        log.debug("LoanDAO.saveAll called (count={}, batchSize={}).", loans.size(), batchSize);
+
+        try {
+            BatchInserts.insertAll(sql, loans, batchSize, this::bindColumns, LoanEntity::setId, "loans");
+        } catch (SQLException e) {
             String sqlState = e.getSQLState();
 
-            if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(sqlState)) {
-                // Likely: book_id or member_id does not exist.
-                boolean bookOk = bookExists(loan.getBookId());
-                boolean memberOk = memberExists(loan.getMemberId());
+            if (SQLSTATE_UNIQUE_VIOLATION.equals(sqlState)
+                    && UQ_ONE_ACTIVE_LOAN_PER_BOOK.equals(constraintName(e))) {
+                log.info("Batch insert blocked by {} (count={}).", UQ_ONE_ACTIVE_LOAN_PER_BOOK, loans.size());
+                throw new IllegalStateException("A book in the batch is already checked out.", e);
+            }
+            if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(sqlState)
+                    || SQLSTATE_NOT_NULL_VIOLATION.equals(sqlState)
+                    || SQLSTATE_CHECK_VIOLATION.equals(sqlState)
+                    || SQLSTATE_UNIQUE_VIOLATION.equals(sqlState)) {
+                log.warn("Constraint violation while batch saving loans (count={}, sqlState={}).",
+                        loans.size(), sqlState, e);
+                throw new IllegalArgumentException(
+                        "A loan in the batch violates a database constraint: " + e.getMessage(), e);
+            }
 
-                log.warn("FK violation while saving loan (bookId={}, memberId={}). bookExists={}, memberExists={}",
-                        loan.getBookId(), loan.getMemberId(), bookOk, memberOk, e);
+            log.error("SQL error while batch saving loans (count={}).", loans.size(), e);
+            throw new RuntimeException("Failed to save loans", e);
+        }
 
-                if (!bookOk && !memberOk) {
-                    throw new IllegalArgumentException(
-                            "Invalid IDs: bookId=" + loan.getBookId() + " and memberId=" + loan.getMemberId() + " do not exist.",
-                            e
-                    );
+        return loans.stream().map(LoanEntity::getId).toList();
+    }
+
+    /**
+     * Outcome of an atomic checkout attempt.
+     *
+     * <p>Exactly one of the following holds:</p>
+     * <ul>
+     *   <li>{@link #isCreated()} &mdash; the loan was inserted and {@code loanId} is set</li>
+     *   <li>{@link #isBookUnavailable()} &mdash; the book already has an active loan
+     *       ({@code activeLoanId}/{@code activeLoanDueDate} describe it)</li>
+     *   <li>otherwise the member reached the active-loan limit
+     *       ({@code memberActiveLoans} holds the current count)</li>
+     * </ul>
+     *
+     * @param loanId            generated loan ID, or {@code null} if the checkout was blocked
+     * @param activeLoanId      ID of the loan blocking the book, or {@code null}
+     * @param activeLoanDueDate due date of the blocking loan, or {@code null}
+     * @param memberActiveLoans member's active loans when the limit was evaluated (0 if not evaluated)
+     */
+    public record CheckoutResult(
+            Long loanId,
+            Long activeLoanId,
+            LocalDate activeLoanDueDate,
+            int memberActiveLoans
+    ) {
+
+        /**
+         * @return {@code true} if the loan row was inserted
+         */
+        public boolean isCreated() {
+            return loanId != null;
+        }
+
+        /**
+         * @return {@code true} if the checkout was blocked by an active loan on the book
+         */
+        public boolean isBookUnavailable() {
+            return activeLoanId != null;
+        }
+    }
+
+    /**
+     * Atomically checks out a book in a single round trip.
+     *
+     * <p>Calls the {@code checkout_loan} database function (installed by
+     * {@code DbSetup}), which performs the availability check, the optional per-member
+     * active-loan limit check and the insert inside one server-side transaction.
+     * Concurrent checkouts of the same book are caught by
+     * {@code uq_loans_one_active_loan_per_book} and reported as an
+     * {@link IllegalStateException}; other constraint failures are translated exactly
+     * like {@link #save(LoanEntity)}.</p>
+     *
+     * <p>On success the generated ID is populated into {@code loan}.</p>
+     *
+     * @param loan                    loan to insert
+     * @param maxActiveLoansPerMember active-loan limit per member ({@code 0} or less disables it)
+     * @return checkout outcome
+     * @throws IllegalStateException    if a concurrent checkout claimed the book first
+     * @throws IllegalArgumentException if the loan violates a database constraint
+     */
+    public CheckoutResult checkout(LoanEntity loan, int maxActiveLoansPerMember) {
+        final String sql = """
+            SELECT loan_id, active_loan_id, active_due_date, member_active_count
+            FROM checkout_loan(?, ?, ?, ?, ?, ?)
+            """;
+
+        // Checkout and return are the hot paths: guard debug logs so that, with DEBUG off,
+        // no varargs arrays or boxed IDs are allocated for them.
+        if (log.isDebugEnabled()) {
+            log.debug("LoanDAO.checkout called (bookId={}, memberId={}, limit={}).",
+                    loan.getBookId(), loan.getMemberId(), maxActiveLoansPerMember);
+        }
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            bindColumns(ps, loan);
+            ps.setInt(6, maxActiveLoansPerMember);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    log.warn("checkout_loan returned no row (unexpected).");
+                    throw new RuntimeException("Failed to check out loan: no result returned.");
                 }
-                if (!bookOk) {
-                    throw new IllegalArgumentException(
-                            "Invalid bookId: no book exists with id=" + loan.getBookId() + ".",
-                            e
-                    );
+
+                Long loanId = rs.getObject("loan_id", Long.class);
+                Long activeLoanId = rs.getObject("active_loan_id", Long.class);
+                Date activeDue = rs.getDate("active_due_date");
+                int activeCount = rs.getInt("member_active_count");
+
+                if (loanId != null) {
+                    loan.setId(loanId);
+                    log.debug("Loan inserted successfully with id={}.", loanId);
                 }
-                if (!memberOk) {
+
+                return new CheckoutResult(
+                        loanId,
+                        activeLoanId,
+                        activeDue == null ? null : activeDue.toLocalDate(),
+                        activeCount
+                );
+            }
+
+        } catch (SQLException e) {
+            throw translateSaveFailure(loan, e);
+        }
+    }
+
+    /**
+     * Result of {@link #checkoutAll(List, int)}: either every loan was inserted, or nothing
+     * was and the conflicts are listed.
+     *
+     * @param loanIds            generated loan IDs in input order (empty if nothing was inserted)
+     * @param unavailableBookIds books that already have an active loan
+     * @param overLimitMemberIds members whose active loans plus this batch exceed the limit
+     */
+    public record BatchCheckoutResult(
+            List<Long> loanIds,
+            List<Long> unavailableBookIds,
+            List<Long> overLimitMemberIds
+    ) {
+
+        /**
+         * @return {@code true} if the loans were inserted
+         */
+        public boolean isCreated() {
+            return unavailableBookIds.isEmpty() && overLimitMemberIds.isEmpty();
+        }
+    }
+
+    /**
+     * Checks out many books in one transaction, all or nothing.
+     *
+     * <p>Runs on a single connection:</p>
+     * <ol>
+     *   <li>When a limit is set, locks the batch's member rows ({@code FOR NO KEY UPDATE}, in ID
+     *       order), like {@code checkout_loan}, so concurrent checkouts cannot race the counts</li>
+     *   <li>One query checks every book (exists, active loan) and one checks every member
+     *       (exists, active-loan count)</li>
+     *   <li>If nothing conflicts, one multi-row {@code INSERT ... SELECT FROM unnest(...)}
+     *       inserts all loans; {@code ON CONFLICT DO NOTHING} on the one-active-loan index
+     *       catches books checked out concurrently since step 2</li>
+     * </ol>
+     *
+     * <p>Book IDs must be distinct within the batch. Any conflict rolls back the
+     * transaction.</p>
+     *
+     * @param loans                   loans to insert (no return date)
+     * @param maxActiveLoansPerMember active-loan limit per member ({@code 0} or less disables it)
+     * @return inserted IDs, or the conflicting books and members
+     * @throws IllegalArgumentException if a book or member does not exist, or a loan violates a constraint
+     */
+    public BatchCheckoutResult checkoutAll(List<LoanEntity> loans, int maxActiveLoansPerMember) {
+        final String lockMembersSql = """
+            SELECT id
+            FROM members
+            WHERE id = ANY (?)
+            ORDER BY id
+            FOR NO KEY UPDATE
+            """;
+
+        final String booksSql = """
+            SELECT r.book_id,
+                   b.id IS NOT NULL AS book_exists,
+                   EXISTS (
+                       SELECT 1 FROM loans l
+                       WHERE l.book_id = r.book_id
+                         AND l.return_date IS NULL
+                   ) AS checked_out
+            FROM unnest(?::bigint[]) AS r(book_id)
+            LEFT JOIN books b ON b.id = r.book_id
+            """;
+
+        final String membersSql = """
+            SELECT r.member_id,
+                   m.id IS NOT NULL AS member_exists,
+                   (SELECT count(*) FROM loans l
+                    WHERE l.member_id = r.member_id
+                      AND l.return_date IS NULL) AS active_count
+            FROM unnest(?::bigint[]) AS r(member_id)
+            LEFT JOIN members m ON m.id = r.member_id
+            """;
+
+        final String insertSql = """
+            INSERT INTO loans (book_id, member_id, checkout_date, due_date)
+            SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::date[], ?::date[])
+            ON CONFLICT (book_id) WHERE return_date IS NULL DO NOTHING
+            RETURNING id, book_id
+            """;
+
+        log.debug("LoanDAO.checkoutAll called (count={}, limit={}).", loans.size(), maxActiveLoansPerMember);
+
+        // Requested loans per member, in first-seen order.
+        Map<Long, Integer> requestedPerMember = new LinkedHashMap<>();
+        for (LoanEntity loan : loans) {
+            requestedPerMember.merge(loan.getMemberId(), 1, Integer::sum);
+        }
+        Long[] bookIds = loans.stream().map(LoanEntity::getBookId).toArray(Long[]::new);
+        Long[] memberIds = requestedPerMember.keySet().toArray(Long[]::new);
+
+        try (Connection connection = DbConnectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try {
+                if (maxActiveLoansPerMember > 0) {
+                    try (PreparedStatement ps = connection.prepareStatement(lockMembersSql)) {
+                        ps.setArray(1, connection.createArrayOf("bigint", memberIds));
+                        ps.executeQuery().close();
+                    }
+                }
+
+                List<Long> missingBooks = new ArrayList<>();
+                List<Long> unavailableBooks = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(booksSql)) {
+                    ps.setArray(1, connection.createArrayOf("bigint", bookIds));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (!rs.getBoolean("book_exists")) {
+                                missingBooks.add(rs.getLong("book_id"));
+                            } else if (rs.getBoolean("checked_out")) {
+                                unavailableBooks.add(rs.getLong("book_id"));
+                            }
+                        }
+                    }
+                }
+
+                List<Long> missingMembers = new ArrayList<>();
+                List<Long> overLimitMembers = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(membersSql)) {
+                    ps.setArray(1, connection.createArrayOf("bigint", memberIds));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            long memberId = rs.getLong("member_id");
+                            if (!rs.getBoolean("member_exists")) {
+                                missingMembers.add(memberId);
+                            } else if (maxActiveLoansPerMember > 0
+                                    && rs.getInt("active_count") + requestedPerMember.get(memberId)
+                                    > maxActiveLoansPerMember) {
+                                overLimitMembers.add(memberId);
+                            }
+                        }
+                    }
+                }
+
+                if (!missingBooks.isEmpty() || !missingMembers.isEmpty()) {
+                    connection.rollback();
+                    log.info("Batch checkout rejected: unknown bookIds={} memberIds={}.", missingBooks, missingMembers);
                     throw new IllegalArgumentException(
-                            "Invalid memberId: no member exists with id=" + loan.getMemberId() + ".",
-                            e
+                            (missingBooks.isEmpty() ? "" : "No book exists with id(s) " + missingBooks + ". ")
+                                    + (missingMembers.isEmpty() ? "" : "No member exists with id(s) " + missingMembers + ".")
                     );
                 }
+                if (!unavailableBooks.isEmpty() || !overLimitMembers.isEmpty()) {
+                    connection.rollback();
+                    log.info("Batch checkout blocked (unavailableBooks={}, overLimitMembers={}).",
+                            unavailableBooks.size(), overLimitMembers.size());
+                    return new BatchCheckoutResult(List.of(), unavailableBooks, overLimitMembers);
+                }
 
-                // Both exist: unexpected FK failure (race condition, schema mismatch, etc.)
-                throw new IllegalArgumentException(
-                        "Foreign key violation while saving loan (bookId=" + loan.getBookId()
-                                + ", memberId=" + loan.getMemberId() + ").",
-                        e
-                );
-            }
+                Map<Long, Long> loanIdByBook = new HashMap<>();
+                try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                    ps.setArray(1, connection.createArrayOf("bigint", bookIds));
+                    ps.setArray(2, connection.createArrayOf("bigint",
+                            loans.stream().map(LoanEntity::getMemberId).toArray()));
+                    ps.setArray(3, connection.createArrayOf("date",
+                            loans.stream().map(l -> Date.valueOf(l.getCheckoutDate())).toArray()));
+                    ps.setArray(4, connection.createArrayOf("date",
+                            loans.stream().map(l -> Date.valueOf(l.getDueDate())).toArray()));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            loanIdByBook.put(rs.getLong("book_id"), rs.getLong("id"));
+                        }
+                    }
+                }
 
-            if (SQLSTATE_NOT_NULL_VIOLATION.equals(sqlState)) {
-                log.warn("NOT NULL violation while saving loan (bookId={}, memberId={}).",
-                        loan.getBookId(), loan.getMemberId(), e);
-                throw new IllegalArgumentException("Missing required loan field (a NOT NULL constraint was violated).", e);
-            }
+                if (loanIdByBook.size() < loans.size()) {
+                    connection.rollback();
+                    List<Long> raced = Arrays.stream(bookIds).filter(id -> !loanIdByBook.containsKey(id)).toList();
+                    log.info("Batch checkout lost a race for bookIds={}; rolled back.", raced);
+                    return new BatchCheckoutResult(List.of(), raced, List.of());
+                }
 
-            if (SQLSTATE_CHECK_VIOLATION.equals(sqlState)) {
-                log.warn("CHECK violation while saving loan (bookId={}, memberId={}, checkoutDate={}, dueDate={}, returnDate={}).",
-                        loan.getBookId(), loan.getMemberId(), loan.getCheckoutDate(), loan.getDueDate(), loan.getReturnDate(), e);
-                throw new IllegalArgumentException("Loan failed a database CHECK constraint (verify dates/values).", e);
-            }
+                connection.commit();
 
-            if (SQLSTATE_UNIQUE_VIOLATION.equals(sqlState)) {
-                log.warn("UNIQUE violation while saving loan (bookId={}, memberId={}).",
-                        loan.getBookId(), loan.getMemberId(), e);
-                throw new IllegalArgumentException("Loan violates a UNIQUE constraint in the database.", e);
+                List<Long> loanIds = new ArrayList<>(loans.size());
+                for (LoanEntity loan : loans) {
+                    long loanId = loanIdByBook.get(loan.getBookId());
+                    loan.setId(loanId);
+                    loanIds.add(loanId);
+                }
+                log.info("Batch checkout committed (count={}).", loanIds.size());
+                return new BatchCheckoutResult(loanIds, List.of(), List.of());
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
             }
 
-            log.error("SQL error while saving loan (bookId={}, memberId={}).",
-                    loan.getBookId(), loan.getMemberId(), e);
-            throw new RuntimeException("Failed to save loan", e);
+        } catch (SQLException e) {
+            String sqlState = e.getSQLState();
+            if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(sqlState)
+                    || SQLSTATE_NOT_NULL_VIOLATION.equals(sqlState)
+                    || SQLSTATE_CHECK_VIOLATION.equals(sqlState)) {
+                log.warn("Constraint violation during batch checkout (count={}, sqlState={}).",
+                        loans.size(), sqlState, e);
+                throw new IllegalArgumentException(
+                        "A loan in the batch violates a database constraint (verify IDs and dates).", e);
+            }
+            log.error("SQL error during batch checkout (count={}).", loans.size(), e);
+            throw new RuntimeException("Failed to check out loans.", e);
         }
     }
 
@@ -164,24 +475,31 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     @Override
     public Optional<LoanEntity> findById(long id) {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             WHERE id = ?
             """;
 
-        log.debug("LoanDAO.findById called (id={}).", id);
+        if (log.isDebugEnabled()) {
+            log.debug("LoanDAO.findById called (id={}).", id);
+        }
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
-                    log.debug("No loan found for id={}.", id);
+                    if (log.isDebugEnabled()) {
+                        log.debug("No loan found for id={}.", id);
+                    }
                     return Optional.empty();
                 }
                 LoanEntity entity = mapRow(rs);
-                log.debug("Loan found for id={}.", id);
+                if (log.isDebugEnabled()) {
+                    log.debug("Loan found for id={}.", id);
+                }
                 return Optional.of(entity);
             }
 
@@ -199,7 +517,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     @Override
     public List<LoanEntity> findAll() {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             ORDER BY checkout_date DESC
             """;
@@ -208,7 +526,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         List<LoanEntity> loans = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -227,19 +546,86 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     /**
      * {@inheritDoc}
      *
-     * <p>Expects the provided {@link LoanEntity} to already have a valid ID.
+     * <p>Unlike {@link #findAll()}, pages are ordered by primary key so the keyset
+     * predicate can use the primary key index.
+     */
+    @Override
+    public List<LoanEntity> findPage(long afterId, int limit) {
+        final String sql = """
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
+            FROM loans
+            WHERE id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+        log.debug("LoanDAO.findPage called (afterId={}, limit={}).", afterId, limit);
+
+        List<LoanEntity> loans = new ArrayList<>(limit);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapRow(rs));
+                }
+            }
+
+            log.debug("LoanDAO.findPage returning {} loans.", loans.size());
+            return loans;
+
+        } catch (SQLException e) {
+            log.error("SQL error while retrieving loan page (afterId={}, limit={}).", afterId, limit, e);
+            throw new RuntimeException("Failed to retrieve loans page after id=" + afterId, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Rows are read through a server-side cursor in batches of
+     * {@link ResultSetStreams#DEFAULT_FETCH_SIZE}.
+     */
+    @Override
+    public Stream<LoanEntity> streamAll() {
+        final String sql = """
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
+            FROM loans
+            ORDER BY id
+            """;
+
+        log.debug("LoanDAO.streamAll called.");
+
+        return ResultSetStreams.stream(sql, ps -> { }, this::mapRow,
+                ResultSetStreams.DEFAULT_FETCH_SIZE, "loans");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Expects the provided {@link LoanEntity} to already have a valid ID. The update only
+     * applies if the row still has the entity's version; on success the entity's version is
+     * advanced to the stored one.</p>
+     *
+     * @throws OptimisticLockException if the row was changed since the entity was read
      */
     @Override
     public void update(LoanEntity loan) {
         final String sql = """
             UPDATE loans
-            SET book_id = ?, member_id = ?, checkout_date = ?, due_date = ?, return_date = ?
-            WHERE id = ?
+            SET book_id = ?, member_id = ?, checkout_date = ?, due_date = ?, return_date = ?,
+                version = version + 1
+            WHERE id = ? AND version = ?
             """;
 
         log.debug("LoanDAO.update called (id={}).", loan.getId());
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, loan.getBookId());
             ps.setLong(2, loan.getMemberId());
@@ -253,15 +639,22 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
             }
 
             ps.setLong(6, loan.getId());
+            ps.setLong(7, loan.getVersion());
 
             int rows = ps.executeUpdate();
             if (rows != 1) {
+                if (rows == 0 && existsById(loan.getId())) {
+                    log.info("Stale update rejected for loan id={} (version={}).",
+                            loan.getId(), loan.getVersion());
+                    throw new OptimisticLockException("loans", loan.getId(), loan.getVersion());
+                }
                 log.warn("Unexpected row count updating loan id={}. rows={}", loan.getId(), rows);
                 throw new RuntimeException(
                         "Failed to update loan id=" + loan.getId() + " (rows=" + rows + ")"
                 );
             }
 
+            loan.setVersion(loan.getVersion() + 1);
             log.info("Loan updated successfully (id={}).", loan.getId());
 
         } catch (SQLException e) {
@@ -269,36 +662,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
             String sqlState = e.getSQLState();
 
             if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(sqlState)) {
-                boolean bookOk = bookExists(loan.getBookId());
-                boolean memberOk = memberExists(loan.getMemberId());
-
-                log.warn("FK violation while updating loan (id={}, bookId={}, memberId={}). bookExists={}, memberExists={}",
-                        loan.getId(), loan.getBookId(), loan.getMemberId(), bookOk, memberOk, e);
-
-                if (!bookOk && !memberOk) {
-                    throw new IllegalArgumentException(
-                            "Invalid IDs: bookId=" + loan.getBookId() + " and memberId=" + loan.getMemberId() + " do not exist.",
-                            e
-                    );
-                }
-                if (!bookOk) {
-                    throw new IllegalArgumentException(
-                            "Invalid bookId: no book exists with id=" + loan.getBookId() + ".",
-                            e
-                    );
-                }
-                if (!memberOk) {
-                    throw new IllegalArgumentException(
-                            "Invalid memberId: no member exists with id=" + loan.getMemberId() + ".",
-                            e
-                    );
-                }
-
-                throw new IllegalArgumentException(
-                        "Foreign key violation while updating loan (bookId=" + loan.getBookId()
-                                + ", memberId=" + loan.getMemberId() + ").",
-                        e
-                );
+                throw translateForeignKeyViolation(loan, e, "updating");
             }
 
             if (SQLSTATE_NOT_NULL_VIOLATION.equals(sqlState)) {
@@ -337,7 +701,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.deleteById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -369,7 +734,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
      */
     public List<LoanEntity> findByMemberId(long memberId) {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             WHERE member_id = ?
             ORDER BY checkout_date DESC
@@ -379,7 +744,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         List<LoanEntity> loans = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, memberId);
 
@@ -406,7 +772,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
      */
     public List<LoanEntity> findActiveLoans() {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             WHERE return_date IS NULL
             ORDER BY due_date
@@ -416,7 +782,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         List<LoanEntity> loans = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -443,7 +810,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
      */
     public List<LoanEntity> findOverdueLoans(LocalDate currentDate) {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             WHERE return_date IS NULL
               AND due_date < ?
@@ -454,7 +821,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         List<LoanEntity> loans = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setDate(1, Date.valueOf(currentDate));
 
@@ -474,6 +842,285 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
         }
     }
 
+    /**
+     * One row of the overdue report: an active, overdue loan joined with its book and member.
+     *
+     * @param loanId       loan ID
+     * @param bookId       book ID
+     * @param title        book title
+     * @param author       book author
+     * @param memberId     member ID
+     * @param memberName   member name
+     * @param email        member email (nullable)
+     * @param phone        member phone (nullable)
+     * @param checkoutDate checkout date
+     * @param dueDate      due date
+     * @param daysOverdue  days between the due date and the report date
+     */
+    public record OverdueLoanRow(
+            long loanId,
+            long bookId,
+            String title,
+            String author,
+            long memberId,
+            String memberName,
+            String email,
+            String phone,
+            LocalDate checkoutDate,
+            LocalDate dueDate,
+            int daysOverdue
+    ) {
+    }
+
+    /**
+     * Shared SELECT/JOIN of the overdue report; parameter 1 is the report date.
+     *
+     * <p>Rows are filtered and ordered on {@code (due_date, id)} so the scan is served by
+     * {@code idx_loans_due_date_active} and keyset pages stay cheap at any depth.</p>
+     */
+    private static final String OVERDUE_REPORT_SELECT = """
+            SELECT l.id, l.book_id, b.title, b.author,
+                   l.member_id, m.name, m.email, m.phone,
+                   l.checkout_date, l.due_date, (?::date - l.due_date) AS days_overdue
+            FROM loans l
+            JOIN books b ON b.id = l.book_id
+            JOIN members m ON m.id = l.member_id
+            WHERE l.return_date IS NULL
+              AND l.due_date < ?
+            """;
+
+    /**
+     * Retrieves one page of the overdue report as of {@code currentDate}, ordered by due date
+     * (oldest first) and loan ID.
+     *
+     * <p>Pages are keyset-paginated on {@code (due_date, id)}: pass {@code null} for
+     * {@code afterDueDate} to read the first page, then the due date and loan ID of the last
+     * row of each page to read the next one.</p>
+     *
+     * @param currentDate  report date ("today")
+     * @param afterDueDate due date of the last row of the previous page, or {@code null}
+     * @param afterLoanId  loan ID of the last row of the previous page (ignored on the first page)
+     * @param limit        maximum number of rows to return
+     * @return at most {@code limit} report rows
+     */
+    public List<OverdueLoanRow> findOverdueReportPage(
+            LocalDate currentDate,
+            LocalDate afterDueDate,
+            long afterLoanId,
+            int limit
+    ) {
+        final String sql = OVERDUE_REPORT_SELECT
+                + (afterDueDate != null ? "  AND (l.due_date, l.id) > (?, ?)\n" : "")
+                + "ORDER BY l.due_date, l.id\nLIMIT ?";
+
+        log.debug("LoanDAO.findOverdueReportPage called (currentDate={}, afterDueDate={}, afterLoanId={}, limit={}).",
+                currentDate, afterDueDate, afterLoanId, limit);
+
+        List<OverdueLoanRow> rows = new ArrayList<>(limit);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            int index = bindOverdueReportDate(ps, currentDate);
+            if (afterDueDate != null) {
+                ps.setDate(index++, Date.valueOf(afterDueDate));
+                ps.setLong(index++, afterLoanId);
+            }
+            ps.setInt(index, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapOverdueRow(rs));
+                }
+            }
+
+            log.debug("LoanDAO.findOverdueReportPage returning {} rows.", rows.size());
+            return rows;
+
+        } catch (SQLException e) {
+            log.error("SQL error while retrieving overdue report page (currentDate={}).", currentDate, e);
+            throw new RuntimeException("Failed to retrieve overdue report page", e);
+        }
+    }
+
+    /**
+     * Streams the full overdue report as of {@code currentDate}, ordered by due date and loan ID.
+     *
+     * <p>Rows are read through a server-side cursor in batches of
+     * {@link ResultSetStreams#DEFAULT_FETCH_SIZE}; the caller must close the stream.</p>
+     *
+     * @param currentDate report date ("today")
+     * @return lazily populated stream of report rows
+     */
+    public Stream<OverdueLoanRow> streamOverdueReport(LocalDate currentDate) {
+        final String sql = OVERDUE_REPORT_SELECT + "ORDER BY l.due_date, l.id";
+
+        log.debug("LoanDAO.streamOverdueReport called (currentDate={}).", currentDate);
+
+        return ResultSetStreams.stream(sql, ps -> bindOverdueReportDate(ps, currentDate), this::mapOverdueRow,
+                ResultSetStreams.DEFAULT_FETCH_SIZE, "overdue report");
+    }
+
+    /**
+     * Binds the report date parameters of {@link #OVERDUE_REPORT_SELECT}.
+     *
+     * @return index of the next parameter
+     */
+    private static int bindOverdueReportDate(PreparedStatement ps, LocalDate currentDate) throws SQLException {
+        Date date = Date.valueOf(currentDate);
+        ps.setDate(1, date);
+        ps.setDate(2, date);
+        return 3;
+    }
+
+    private OverdueLoanRow mapOverdueRow(ResultSet rs) throws SQLException {
+        return new OverdueLoanRow(
+                rs.getLong("id"),
+                rs.getLong("book_id"),
+                rs.getString("title"),
+                rs.getString("author"),
+                rs.getLong("member_id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getDate("checkout_date").toLocalDate(),
+                rs.getDate("due_date").toLocalDate(),
+                rs.getInt("days_overdue")
+        );
+    }
+
+    /**
+     * A member together with aggregate loan counts and their most recent loans.
+     *
+     * @param memberId     member ID
+     * @param name         member name
+     * @param email        member email (nullable)
+     * @param phone        member phone (nullable)
+     * @param totalLoans   number of loans ever recorded for the member
+     * @param activeLoans  number of loans not yet returned
+     * @param overdueLoans number of active loans past their due date
+     * @param recentLoans  most recent loans, active ones first
+     */
+    public record MemberSummaryRow(
+            long memberId,
+            String name,
+            String email,
+            String phone,
+            int totalLoans,
+            int activeLoans,
+            int overdueLoans,
+            List<MemberLoanRow> recentLoans
+    ) {
+    }
+
+    /**
+     * One loan of a {@link MemberSummaryRow}, joined with its book title.
+     *
+     * @param loanId       loan ID
+     * @param bookId       book ID
+     * @param title        book title
+     * @param checkoutDate checkout date
+     * @param dueDate      due date
+     * @param returnDate   return date, or {@code null} if still active
+     */
+    public record MemberLoanRow(
+            long loanId,
+            long bookId,
+            String title,
+            LocalDate checkoutDate,
+            LocalDate dueDate,
+            LocalDate returnDate
+    ) {
+    }
+
+    /**
+     * Loads a member with their loan counts and most recent loans in a single statement.
+     *
+     * <p>The member's loans are read once through {@code idx_loans_member_id}; window
+     * aggregates compute the counts over all of them while {@code ROW_NUMBER()} keeps only
+     * the first {@code recentLimit} (active loans first, then newest checkout). The member
+     * row is outer-joined so a member without loans still yields one row.</p>
+     *
+     * @param memberId    member ID
+     * @param currentDate date used to evaluate overdue status
+     * @param recentLimit maximum number of recent loans to return
+     * @return the summary, or {@link Optional#empty()} if the member does not exist
+     */
+    public Optional<MemberSummaryRow> findMemberSummary(long memberId, LocalDate currentDate, int recentLimit) {
+        final String sql = """
+            SELECT m.id, m.name, m.email, m.phone,
+                   s.total_loans, s.active_loans, s.overdue_loans,
+                   s.loan_id, s.book_id, b.title, s.checkout_date, s.due_date, s.return_date
+            FROM members m
+            LEFT JOIN (
+                SELECT l.id AS loan_id, l.book_id, l.checkout_date, l.due_date, l.return_date,
+                       COUNT(*) OVER () AS total_loans,
+                       COUNT(*) FILTER (WHERE l.return_date IS NULL) OVER () AS active_loans,
+                       COUNT(*) FILTER (WHERE l.return_date IS NULL AND l.due_date < ?) OVER () AS overdue_loans,
+                       ROW_NUMBER() OVER (
+                           ORDER BY l.return_date IS NULL DESC, l.checkout_date DESC, l.id DESC
+                       ) AS rn
+                FROM loans l
+                WHERE l.member_id = ?
+            ) s ON s.rn <= ?
+            LEFT JOIN books b ON b.id = s.book_id
+            WHERE m.id = ?
+            ORDER BY s.rn
+            """;
+
+        log.debug("LoanDAO.findMemberSummary called (memberId={}, currentDate={}, recentLimit={}).",
+                memberId, currentDate, recentLimit);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setDate(1, Date.valueOf(currentDate));
+            ps.setLong(2, memberId);
+            ps.setInt(3, recentLimit);
+            ps.setLong(4, memberId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    log.debug("LoanDAO.findMemberSummary found no member with id={}.", memberId);
+                    return Optional.empty();
+                }
+
+                // Counts repeat on every row and are NULL when the member has no loans
+                String name = rs.getString("name");
+                String email = rs.getString("email");
+                String phone = rs.getString("phone");
+                int total = rs.getInt("total_loans");
+                int active = rs.getInt("active_loans");
+                int overdue = rs.getInt("overdue_loans");
+
+                List<MemberLoanRow> loans = new ArrayList<>();
+                do {
+                    long loanId = rs.getLong("loan_id");
+                    if (!rs.wasNull()) {
+                        Date returnDate = rs.getDate("return_date");
+                        loans.add(new MemberLoanRow(
+                                loanId,
+                                rs.getLong("book_id"),
+                                rs.getString("title"),
+                                rs.getDate("checkout_date").toLocalDate(),
+                                rs.getDate("due_date").toLocalDate(),
+                                returnDate == null ? null : returnDate.toLocalDate()
+                        ));
+                    }
+                } while (rs.next());
+
+                log.debug("LoanDAO.findMemberSummary returning {} of {} loans for memberId={}.",
+                        loans.size(), total, memberId);
+                return Optional.of(new MemberSummaryRow(
+                        memberId, name, email, phone, total, active, overdue, loans));
+            }
+
+        } catch (SQLException e) {
+            log.error("SQL error while loading summary for memberId={}.", memberId, e);
+            throw new RuntimeException("Failed to load summary for memberId=" + memberId, e);
+        }
+    }
+
     /* =========================================================
        Additional helpers to support service-layer checks
        ========================================================= */
@@ -496,7 +1143,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.existsById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -527,7 +1175,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.hasActiveLoanForBook called (bookId={}).", bookId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, bookId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -550,7 +1199,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
      */
     public Optional<LoanEntity> findActiveLoanByBookId(long bookId) {
         final String sql = """
-            SELECT id, book_id, member_id, checkout_date, due_date, return_date
+            SELECT id, book_id, member_id, checkout_date, due_date, return_date, version
             FROM loans
             WHERE book_id = ?
               AND return_date IS NULL
@@ -560,7 +1209,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.findActiveLoanByBookId called (bookId={}).", bookId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, bookId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -573,6 +1223,16 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
         }
     }
 
+    /**
+     * Asynchronous {@link #findActiveLoanByBookId(long)}, for fanning out checkout lookups.
+     *
+     * @param bookId book ID to check
+     * @return future for the optional active loan
+     */
+    public CompletableFuture<Optional<LoanEntity>> findActiveLoanByBookIdAsync(long bookId) {
+        return DaoExecutor.async(() -> findActiveLoanByBookId(bookId), asyncExecutor());
+    }
+
     /**
      * Counts how many active loans a member currently has.
      *
@@ -589,7 +1249,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.countActiveLoansByMemberId called (memberId={}).", memberId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, memberId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -615,22 +1276,26 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     public boolean setReturnDate(long loanId, LocalDate returnDate) {
         final String sql = """
             UPDATE loans
-            SET return_date = ?
+            SET return_date = ?, version = version + 1
             WHERE id = ?
               AND return_date IS NULL
             """;
 
-        log.debug("LoanDAO.setReturnDate called (loanId={}, returnDate={}).", loanId, returnDate);
+        if (log.isDebugEnabled()) {
+            log.debug("LoanDAO.setReturnDate called (loanId={}, returnDate={}).", loanId, returnDate);
+        }
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setDate(1, Date.valueOf(returnDate));
             ps.setLong(2, loanId);
 
             int rows = ps.executeUpdate();
             boolean success = (rows == 1);
 
-            log.info("Loan return update (loanId={}) success={} rows={}",
-                    loanId, success, rows);
+            if (log.isDebugEnabled()) {
+                log.debug("Loan return update (loanId={}) success={} rows={}", loanId, success, rows);
+            }
             return success;
 
         } catch (SQLException e) {
@@ -639,6 +1304,101 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
         }
     }
 
+    /**
+     * Per-loan result of {@link #returnLoans(List, LocalDate)}.
+     *
+     * <p>{@code found}, {@code alreadyReturned} and {@code checkoutDate} describe the row as it
+     * was before the update, so callers can tell why a loan was not returned.</p>
+     *
+     * @param loanId          requested loan ID
+     * @param returned        {@code true} if this call set the return date
+     * @param found           {@code true} if a loan with this ID exists
+     * @param alreadyReturned {@code true} if the loan already had a return date
+     * @param checkoutDate    checkout date of the loan, or {@code null} if not found
+     */
+    public record ReturnRow(
+            long loanId,
+            boolean returned,
+            boolean found,
+            boolean alreadyReturned,
+            LocalDate checkoutDate
+    ) {
+    }
+
+    /**
+     * Returns many loans in a single statement.
+     *
+     * <p>One {@code UPDATE ... WHERE id = ANY(?) AND return_date IS NULL} sets the return date
+     * of every active loan whose {@code checkout_date} is not after {@code returnDate}; the
+     * enclosing query joins the requested IDs to the updated IDs and to the pre-update rows, so
+     * the outcome of every ID comes back in the same round trip. Like
+     * {@link #setReturnDate(long, LocalDate)}, a loan returned concurrently is never
+     * overwritten.</p>
+     *
+     * @param loanIds    distinct loan IDs to return
+     * @param returnDate return date to set
+     * @return one row per requested ID, in request order
+     */
+    public List<ReturnRow> returnLoans(List<Long> loanIds, LocalDate returnDate) {
+        final String sql = """
+            WITH returned AS (
+                UPDATE loans
+                SET return_date = ?, version = version + 1
+                WHERE id = ANY (?)
+                  AND return_date IS NULL
+                  AND checkout_date <= ?
+                RETURNING id
+            )
+            SELECT r.id,
+                   ret.id IS NOT NULL        AS returned,
+                   l.id IS NOT NULL          AS found,
+                   l.return_date IS NOT NULL AS already_returned,
+                   l.checkout_date
+            FROM unnest(?::bigint[]) WITH ORDINALITY AS r(id, ord)
+            LEFT JOIN returned ret ON ret.id = r.id
+            LEFT JOIN loans l ON l.id = r.id
+            ORDER BY r.ord
+            """;
+
+        log.debug("LoanDAO.returnLoans called (count={}, returnDate={}).", loanIds.size(), returnDate);
+
+        List<ReturnRow> rows = new ArrayList<>(loanIds.size());
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            Array ids = connection.createArrayOf("bigint", loanIds.toArray());
+            try {
+                ps.setDate(1, Date.valueOf(returnDate));
+                ps.setArray(2, ids);
+                ps.setDate(3, Date.valueOf(returnDate));
+                ps.setArray(4, ids);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Date checkoutDate = rs.getDate("checkout_date");
+                        rows.add(new ReturnRow(
+                                rs.getLong("id"),
+                                rs.getBoolean("returned"),
+                                rs.getBoolean("found"),
+                                rs.getBoolean("already_returned"),
+                                checkoutDate == null ? null : checkoutDate.toLocalDate()
+                        ));
+                    }
+                }
+            } finally {
+                ids.free();
+            }
+
+            log.debug("LoanDAO.returnLoans returning {} outcomes.", rows.size());
+            return rows;
+
+        } catch (SQLException e) {
+            log.error("SQL error while returning loans (count={}).", loanIds.size(), e);
+            throw new RuntimeException("Failed to return loans.", e);
+        }
+    }
+
     /**
      * Deletes a loan only if it has already been returned.
      *
@@ -657,7 +1417,8 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
 
         log.debug("LoanDAO.deleteIfReturned called (loanId={}).", loanId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, loanId);
 
             int rows = ps.executeUpdate();
@@ -674,50 +1435,175 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
     }
 
     /* =========================================================
-       FK-target existence checks (used for better error messages)
+       Constraint translation
        ========================================================= */
 
     /**
-     * Checks whether a book exists by id.
+     * Translates an insert failure into a user-friendly exception.
+     *
+     * <p>Used by both {@link #save(LoanEntity)} and {@link #checkout(LoanEntity, int)}.
+     * A violation of {@code uq_loans_one_active_loan_per_book} means another checkout of the
+     * same book won the race; it is reported as the same {@link IllegalStateException}
+     * the service layer uses for an unavailable book.
+     *
+     * @param loan loan that failed to insert
+     * @param e    SQL failure
+     * @return exception to throw
      */
-    private boolean bookExists(long bookId) {
-        final String sql = """
-            SELECT 1
-            FROM books
-            WHERE id = ?
-            LIMIT 1
-            """;
+    private RuntimeException translateSaveFailure(LoanEntity loan, SQLException e) {
+        // Translate common constraint failures into clearer messages.
+        String sqlState = e.getSQLState();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setLong(1, bookId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            log.error("SQL error while checking book existence for id={}.", bookId, e);
-            throw new RuntimeException("Failed to check existence for book id=" + bookId, e);
+        if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+            return translateForeignKeyViolation(loan, e, "saving");
+        }
+
+        if (SQLSTATE_NOT_NULL_VIOLATION.equals(sqlState)) {
+            log.warn("NOT NULL violation while saving loan (bookId={}, memberId={}).",
+                    loan.getBookId(), loan.getMemberId(), e);
+            return new IllegalArgumentException("Missing required loan field (a NOT NULL constraint was violated).", e);
+        }
+
+        if (SQLSTATE_CHECK_VIOLATION.equals(sqlState)) {
+            log.warn("CHECK violation while saving loan (bookId={}, memberId={}, checkoutDate={}, dueDate={}, returnDate={}).",
+                    loan.getBookId(), loan.getMemberId(), loan.getCheckoutDate(), loan.getDueDate(), loan.getReturnDate(), e);
+            return new IllegalArgumentException("Loan failed a database CHECK constraint (verify dates/values).", e);
+        }
+
+        if (SQLSTATE_UNIQUE_VIOLATION.equals(sqlState)
+                && UQ_ONE_ACTIVE_LOAN_PER_BOOK.equals(constraintName(e))) {
+            log.info("Checkout blocked by {} (bookId={}).", UQ_ONE_ACTIVE_LOAN_PER_BOOK, loan.getBookId());
+            return new IllegalStateException("Book is already checked out.", e);
+        }
+
+        if (SQLSTATE_UNIQUE_VIOLATION.equals(sqlState)) {
+            log.warn("UNIQUE violation while saving loan (bookId={}, memberId={}).",
+                    loan.getBookId(), loan.getMemberId(), e);
+            return new IllegalArgumentException("Loan violates a UNIQUE constraint in the database.", e);
+        }
+
+        log.error("SQL error while saving loan (bookId={}, memberId={}).",
+                loan.getBookId(), loan.getMemberId(), e);
+        return new RuntimeException("Failed to save loan", e);
+    }
+
+    /**
+     * Returns the violated constraint name reported by PostgreSQL, if any.
+     */
+    private static String constraintName(SQLException e) {
+        if (e instanceof PSQLException psql && psql.getServerErrorMessage() != null) {
+            return psql.getServerErrorMessage().getConstraint();
         }
+        return null;
     }
 
+    /* =========================================================
+       Foreign key diagnosis (used for better error messages)
+       ========================================================= */
+
     /**
-     * Checks whether a member exists by id.
+     * Translates a foreign key violation on {@code book_id} / {@code member_id}.
+     *
+     * <p>The violated constraint named in the server error identifies the missing reference,
+     * so the usual case costs no further round trip. PostgreSQL stops at the first violated
+     * key, so when both IDs are wrong only the book is reported. Only when no constraint name
+     * is available (e.g., another driver) are both references checked, in one query.</p>
+     *
+     * <p>That lookup is skipped inside {@link TransactionTemplate#execute(java.util.function.Supplier)}:
+     * the violation has aborted the transaction, so any further statement on its connection would
+     * fail with SQLSTATE 25P02 instead of producing a diagnosis.</p>
+     *
+     * @param loan   loan that failed to insert or update
+     * @param e      SQL failure with SQLSTATE 23503
+     * @param action {@code "saving"} or {@code "updating"} (used in messages)
+     * @return exception to throw
      */
-    private boolean memberExists(long memberId) {
+    IllegalArgumentException translateForeignKeyViolation(LoanEntity loan, SQLException e, String action) {
+        String constraint = constraintName(e);
+
+        if (FK_LOANS_BOOK.equals(constraint)) {
+            log.warn("FK violation ({}) while {} loan (bookId={}).", constraint, action, loan.getBookId(), e);
+            return new IllegalArgumentException(
+                    "Invalid bookId: no book exists with id=" + loan.getBookId() + ".", e);
+        }
+        if (FK_LOANS_MEMBER.equals(constraint)) {
+            log.warn("FK violation ({}) while {} loan (memberId={}).", constraint, action, loan.getMemberId(), e);
+            return new IllegalArgumentException(
+                    "Invalid memberId: no member exists with id=" + loan.getMemberId() + ".", e);
+        }
+
+        if (TransactionTemplate.isActive()) {
+            log.warn("FK violation while {} loan (bookId={}, memberId={}); not diagnosed inside a transaction.",
+                    action, loan.getBookId(), loan.getMemberId(), e);
+            return new IllegalArgumentException(
+                    "Invalid bookId or memberId: bookId=" + loan.getBookId() + ", memberId=" + loan.getMemberId()
+                            + " (foreign key violation while " + action + " loan).",
+                    e
+            );
+        }
+
+        // Constraint not reported: check both references in a single round trip.
+        References refs = checkReferences(loan.getBookId(), loan.getMemberId());
+        boolean bookOk = refs.bookExists();
+        boolean memberOk = refs.memberExists();
+
+        log.warn("FK violation while {} loan (bookId={}, memberId={}). bookExists={}, memberExists={}",
+                action, loan.getBookId(), loan.getMemberId(), bookOk, memberOk, e);
+
+        if (!bookOk && !memberOk) {
+            return new IllegalArgumentException(
+                    "Invalid IDs: bookId=" + loan.getBookId() + " and memberId=" + loan.getMemberId() + " do not exist.",
+                    e
+            );
+        }
+        if (!bookOk) {
+            return new IllegalArgumentException(
+                    "Invalid bookId: no book exists with id=" + loan.getBookId() + ".",
+                    e
+            );
+        }
+        if (!memberOk) {
+            return new IllegalArgumentException(
+                    "Invalid memberId: no member exists with id=" + loan.getMemberId() + ".",
+                    e
+            );
+        }
+
+        // Both exist: unexpected FK failure (race condition, schema mismatch, etc.)
+        return new IllegalArgumentException(
+                "Foreign key violation while " + action + " loan (bookId=" + loan.getBookId()
+                        + ", memberId=" + loan.getMemberId() + ").",
+                e
+        );
+    }
+
+    /**
+     * Whether the book and member referenced by a loan exist.
+     */
+    record References(boolean bookExists, boolean memberExists) {
+    }
+
+    /**
+     * Checks whether a book and a member exist, in one query.
+     */
+    References checkReferences(long bookId, long memberId) {
         final String sql = """
-            SELECT 1
-            FROM members
-            WHERE id = ?
-            LIMIT 1
+            SELECT EXISTS (SELECT 1 FROM books WHERE id = ?)   AS book_exists,
+                   EXISTS (SELECT 1 FROM members WHERE id = ?) AS member_exists
             """;
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setLong(1, memberId);
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, bookId);
+            ps.setLong(2, memberId);
             try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+                rs.next();
+                return new References(rs.getBoolean("book_exists"), rs.getBoolean("member_exists"));
             }
         } catch (SQLException e) {
-            log.error("SQL error while checking member existence for id={}.", memberId, e);
-            throw new RuntimeException("Failed to check existence for member id=" + memberId, e);
+            log.error("SQL error while checking loan references (bookId={}, memberId={}).", bookId, memberId, e);
+            throw new RuntimeException("Failed to check loan references (bookId=" + bookId
+                    + ", memberId=" + memberId + ")", e);
         }
     }
 
@@ -725,6 +1611,27 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
        Row mapper
        ========================================================= */
 
+    /**
+     * Binds the column values (book_id, member_id, checkout_date, due_date, return_date)
+     * of a loan.
+     *
+     * @param ps   statement to bind
+     * @param loan loan providing the values
+     * @throws SQLException if binding fails
+     */
+    private void bindColumns(PreparedStatement ps, LoanEntity loan) throws SQLException {
+        ps.setLong(1, loan.getBookId());
+        ps.setLong(2, loan.getMemberId());
+        ps.setDate(3, Date.valueOf(loan.getCheckoutDate()));
+        ps.setDate(4, Date.valueOf(loan.getDueDate()));
+
+        if (loan.getReturnDate() == null) {
+            ps.setNull(5, Types.DATE);
+        } else {
+            ps.setDate(5, Date.valueOf(loan.getReturnDate()));
+        }
+    }
+
     /**
      * Maps the current row of a {@link ResultSet} to a {@link LoanEntity}.
      *
@@ -739,7 +1646,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
             returnDate = sqlReturnDate.toLocalDate();
         }
 
-        return new LoanEntity(
+        LoanEntity entity = new LoanEntity(
                 rs.getLong("id"),
                 rs.getLong("book_id"),
                 rs.getLong("member_id"),
@@ -747,5 +1654,7 @@ public class LoanDAO implements BaseDAO<LoanEntity> {
                 rs.getDate("due_date").toLocalDate(),
                 returnDate
         );
+        entity.setVersion(rs.getLong("version"));
+        return entity;
     }
 }
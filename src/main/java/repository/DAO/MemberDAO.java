@@ -9,12 +9,13 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for the {@code members} table.
  *
- * <p>This class implements {@link BaseDAO} and provides concrete JDBC-based persistence
- * operations for {@link MemberEntity} objects.
+ * <p>This class implements {@link BaseDAO} (and its async counterpart {@link AsyncBaseDAO})
+ * and provides concrete JDBC-based persistence operations for {@link MemberEntity} objects.
  *
  * <p>Responsibilities:
  * <ul>
@@ -23,22 +24,34 @@ import java.util.Optional;
  *   <li>Provide helper queries to support service-layer prechecks (existence, uniqueness, FK restrictions)</li>
  * </ul>
  *
+ * <p>Each operation borrows a pooled connection from {@link DbConnectionUtil} and returns
+ * it as soon as the statement completes, so no DAO instance holds a connection between calls.
+ *
  * <p>This class contains <strong>no business logic</strong>. Policy decisions (e.g., whether deletes
  * are permitted when loan history exists) belong in the service layer. This DAO only provides
  * query helpers to enable those rules.
  *
  * <p><strong>PII note:</strong> This DAO intentionally avoids logging member email/phone values.
  */
-public class MemberDAO implements BaseDAO<MemberEntity> {
+public class MemberDAO implements AsyncBaseDAO<MemberEntity> {
 
     private static final Logger log = LoggerFactory.getLogger(MemberDAO.class);
 
     /**
-     * Shared database connection for this DAO.
-     *
-     * <p>Connection lifecycle is managed by {@link DbConnectionUtil}.
+     * PostgreSQL SQLState for foreign-key violations.
      */
-    private final Connection connection = DbConnectionUtil.getConnection();
+    private static final String SQLSTATE_FOREIGN_KEY_VIOLATION = "23503";
+
+    /**
+     * PostgreSQL SQLState for unique violations (the only UNIQUE constraint is on email).
+     */
+    private static final String SQLSTATE_UNIQUE_VIOLATION = "23505";
+
+    /**
+     * Message for a unique-email violation; matches the service-layer precheck.
+     */
+    private static final String DUPLICATE_EMAIL_MESSAGE =
+            "Email is already in use. Please enter a different email (or NONE).";
 
     /**
      * {@inheritDoc}
@@ -61,15 +74,10 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
         // PII-safe: log name only (optional), never log email/phone
         log.debug("MemberDAO.save called (name='{}').", member.getName());
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setString(1, member.getName());
-
-            if (member.getEmail() == null) ps.setNull(2, Types.VARCHAR);
-            else ps.setString(2, member.getEmail());
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
-            if (member.getPhone() == null) ps.setNull(3, Types.VARCHAR);
-            else ps.setString(3, member.getPhone());
+            bindColumns(ps, member);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -85,25 +93,60 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
             return member;
 
         } catch (SQLException e) {
+            if (SQLSTATE_UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                log.info("Member insert rejected: email already in use (name='{}').", member.getName());
+                throw new IllegalArgumentException(DUPLICATE_EMAIL_MESSAGE, e);
+            }
             log.error("SQL error while saving member (name='{}').", member.getName(), e);
             throw new RuntimeException("Failed to save member.", e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Generated IDs are populated directly into the provided {@link MemberEntity} objects.
+     * A duplicate email anywhere in the list rolls back the whole batch and is reported as an
+     * {@link IllegalArgumentException}, as in {@link #save(MemberEntity)}.</p>
+     */
+    @Override
+    public List<Long> saveAll(List<MemberEntity> members, int batchSize) {
+        final String sql = """
+            INSERT INTO members (name, email, phone)
+            VALUES (?, ?, ?)
+            """;
+
+        log.debug("MemberDAO.saveAll called (count={}, batchSize={}).", members.size(), batchSize);
+
+        try {
+            BatchInserts.insertAll(sql, members, batchSize, this::bindColumns, MemberEntity::setId, "members");
+        } catch (SQLException e) {
+            if (SQLSTATE_UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                log.info("Member batch insert rejected: email already in use (count={}).", members.size());
+                throw new IllegalArgumentException(DUPLICATE_EMAIL_MESSAGE, e);
+            }
+            log.error("SQL error while batch saving members (count={}).", members.size(), e);
+            throw new RuntimeException("Failed to save members.", e);
+        }
+
+        return members.stream().map(MemberEntity::getId).toList();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<MemberEntity> findById(long id) {
         final String sql = """
-            SELECT id, name, email, phone
+            SELECT id, name, email, phone, version
             FROM members
             WHERE id = ?
             """;
 
         log.debug("MemberDAO.findById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -113,12 +156,7 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
                     return Optional.empty();
                 }
 
-                MemberEntity entity = new MemberEntity(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone")
-                );
+                MemberEntity entity = mapRow(rs);
 
                 log.debug("Member found for id={}.", id);
                 return Optional.of(entity);
@@ -138,7 +176,7 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
     @Override
     public List<MemberEntity> findAll() {
         final String sql = """
-            SELECT id, name, email, phone
+            SELECT id, name, email, phone, version
             FROM members
             ORDER BY id
             """;
@@ -147,16 +185,12 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
 
         List<MemberEntity> results = new ArrayList<>();
 
-        try (PreparedStatement ps = connection.prepareStatement(sql);
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                results.add(new MemberEntity(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone")
-                ));
+                results.add(mapRow(rs));
             }
 
             log.debug("MemberDAO.findAll returning {} members.", results.size());
@@ -168,35 +202,97 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<MemberEntity> findPage(long afterId, int limit) {
+        final String sql = """
+            SELECT id, name, email, phone, version
+            FROM members
+            WHERE id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+        log.debug("MemberDAO.findPage called (afterId={}, limit={}).", afterId, limit);
+
+        List<MemberEntity> results = new ArrayList<>(limit);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRow(rs));
+                }
+            }
+
+            log.debug("MemberDAO.findPage returning {} members.", results.size());
+            return results;
+
+        } catch (SQLException e) {
+            log.error("SQL error while retrieving member page (afterId={}, limit={}).", afterId, limit, e);
+            throw new RuntimeException("Failed to retrieve members page after id=" + afterId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      *
-     * <p>Expects the provided {@link MemberEntity} to already have a valid ID.
+     * <p>Rows are read through a server-side cursor in batches of
+     * {@link ResultSetStreams#DEFAULT_FETCH_SIZE}.
      */
     @Override
-    public void update(MemberEntity member) {
+    public Stream<MemberEntity> streamAll() {
         final String sql = """
-            UPDATE members
-            SET name = ?, email = ?, phone = ?
-            WHERE id = ?
+            SELECT id, name, email, phone, version
+            FROM members
+            ORDER BY id
             """;
 
-        log.debug("MemberDAO.update called (id={}).", member.getId());
+        log.debug("MemberDAO.streamAll called.");
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        return ResultSetStreams.stream(sql, ps -> { }, this::mapRow,
+                ResultSetStreams.DEFAULT_FETCH_SIZE, "members");
+    }
 
-            ps.setString(1, member.getName());
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Expects the provided {@link MemberEntity} to already have a valid ID. The update only
+     * applies if the row still has the entity's version; on success the entity's version is
+     * advanced to the stored one.</p>
+     *
+     * @throws OptimisticLockException if the row was changed since the entity was read
+     */
+    @Override
+    public void update(MemberEntity member) {
+        final String sql = """
+            UPDATE members
+            SET name = ?, email = ?, phone = ?, version = version + 1
+            WHERE id = ? AND version = ?
+            """;
 
-            if (member.getEmail() == null) ps.setNull(2, Types.VARCHAR);
-            else ps.setString(2, member.getEmail());
+        log.debug("MemberDAO.update called (id={}).", member.getId());
 
-            if (member.getPhone() == null) ps.setNull(3, Types.VARCHAR);
-            else ps.setString(3, member.getPhone());
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
+            bindColumns(ps, member);
             ps.setLong(4, member.getId());
+            ps.setLong(5, member.getVersion());
 
             int rows = ps.executeUpdate();
             if (rows != 1) {
+                if (rows == 0 && existsById(member.getId())) {
+                    log.info("Stale update rejected for member id={} (version={}).",
+                            member.getId(), member.getVersion());
+                    throw new OptimisticLockException("members", member.getId(), member.getVersion());
+                }
                 log.warn("Unexpected row count updating member id={}. rows={}",
                         member.getId(), rows);
                 throw new RuntimeException(
@@ -204,6 +300,7 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
                 );
             }
 
+            member.setVersion(member.getVersion() + 1);
             log.info("Member updated successfully (id={}).", member.getId());
 
         } catch (SQLException e) {
@@ -227,7 +324,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
 
         log.debug("MemberDAO.deleteById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -270,7 +368,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
 
         log.debug("MemberDAO.existsById called (id={}).", id);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -314,7 +413,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
         // PII-safe: do not log the email value
         log.debug("MemberDAO.isEmailAvailable called.");
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -358,7 +458,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
         // PII-safe: do not log the email value
         log.debug("MemberDAO.isEmailAvailableForUpdate called (memberId={}).", memberId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setString(1, email);
             ps.setLong(2, memberId);
 
@@ -397,7 +498,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
 
         log.debug("MemberDAO.hasAnyLoans called (memberId={}).", memberId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, memberId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -431,7 +533,8 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
 
         log.debug("MemberDAO.hasActiveLoans called (memberId={}).", memberId);
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setLong(1, memberId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -444,4 +547,291 @@ public class MemberDAO implements BaseDAO<MemberEntity> {
             throw new RuntimeException("Failed to check active loans for memberId=" + memberId, e);
         }
     }
+
+    // -------------------------------------------------------------------------
+    // Single-round-trip conditional writes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Updates a member if it still has the expected version and returns the row as stored,
+     * in one statement.
+     *
+     * <p>Combines the existence check, the version check, the update and the re-read:
+     * {@code UPDATE ... WHERE id = ? AND version = ? RETURNING ...}, plus a fallback branch
+     * that returns the current row when nothing was updated. No row at all means no member
+     * exists with the entity's ID.</p>
+     *
+     * @param member member with a valid ID, the version it was read at and the new column values
+     * @return the updated row (with its new version), or empty if no member exists with that ID
+     * @throws OptimisticLockException if the member was changed since it was read
+     */
+    public Optional<MemberEntity> updateReturning(MemberEntity member) {
+        final String sql = """
+            WITH updated AS (
+                UPDATE members
+                SET name = ?, email = ?, phone = ?, version = version + 1
+                WHERE id = ? AND version = ?
+                RETURNING id, name, email, phone, version
+            )
+            SELECT id, name, email, phone, version, TRUE AS updated
+            FROM updated
+            UNION ALL
+            SELECT id, name, email, phone, version, FALSE
+            FROM members
+            WHERE id = ? AND NOT EXISTS (SELECT 1 FROM updated)
+            """;
+
+        log.debug("MemberDAO.updateReturning called (id={}).", member.getId());
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            bindColumns(ps, member);
+            ps.setLong(4, member.getId());
+            ps.setLong(5, member.getVersion());
+            ps.setLong(6, member.getId());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    log.debug("No member updated for id={} (not found).", member.getId());
+                    return Optional.empty();
+                }
+                if (!rs.getBoolean("updated")) {
+                    log.info("Stale update rejected for member id={} (version={}, current={}).",
+                            member.getId(), member.getVersion(), rs.getLong("version"));
+                    throw new OptimisticLockException("members", member.getId(), member.getVersion());
+                }
+                log.info("Member updated successfully (id={}).", member.getId());
+                return Optional.of(mapRow(rs));
+            }
+
+        } catch (SQLException e) {
+            log.error("SQL error while updating member id={}.", member.getId(), e);
+            throw new RuntimeException("Failed to update member id=" + member.getId(), e);
+        }
+    }
+
+    /**
+     * Deletes a member only if it has no loan records, reporting why nothing was deleted.
+     *
+     * <p>A single statement locates the row, applies the guard
+     * ({@code NOT EXISTS (SELECT 1 FROM loans ...)}) and deletes it, so the caller needs
+     * no separate existence or loan-history queries. A loan inserted concurrently between
+     * the guard and the delete trips the foreign key, which is also reported as
+     * {@link WriteOutcome#BLOCKED}.</p>
+     *
+     * @param id member ID to delete
+     * @return {@link WriteOutcome#DONE}, {@link WriteOutcome#NOT_FOUND} or {@link WriteOutcome#BLOCKED}
+     */
+    public WriteOutcome deleteIfNoLoans(long id) {
+        final String sql = """
+            WITH target AS (
+                SELECT id FROM members WHERE id = ?
+            ), deleted AS (
+                DELETE FROM members t
+                WHERE t.id IN (SELECT id FROM target)
+                  AND NOT EXISTS (SELECT 1 FROM loans l WHERE l.member_id = t.id)
+                RETURNING t.id
+            )
+            SELECT EXISTS (SELECT 1 FROM target)  AS found,
+                   EXISTS (SELECT 1 FROM deleted) AS deleted
+            """;
+
+        log.debug("MemberDAO.deleteIfNoLoans called (id={}).", id);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                WriteOutcome outcome = !rs.getBoolean("found") ? WriteOutcome.NOT_FOUND
+                        : rs.getBoolean("deleted") ? WriteOutcome.DONE
+                        : WriteOutcome.BLOCKED;
+                log.debug("MemberDAO.deleteIfNoLoans outcome={} (id={}).", outcome, id);
+                return outcome;
+            }
+
+        } catch (SQLException e) {
+            if (SQLSTATE_FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                log.info("Delete of member id={} blocked by a concurrently inserted loan.", id);
+                return WriteOutcome.BLOCKED;
+            }
+            log.error("SQL error while deleting member id={}.", id, e);
+            throw new RuntimeException("Failed to delete member id=" + id, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Search
+    // -------------------------------------------------------------------------
+
+    /**
+     * Finds members whose name starts with {@code prefix} (case-insensitive), one keyset page
+     * at a time.
+     *
+     * <p>Pages are ordered by {@code lower(name)} (byte order) then ID and served by
+     * {@code idx_members_name}. The prefix is expressed as an explicit range
+     * ({@code >= prefix} and {@code < prefix || U+10FFFF}) rather than {@code LIKE}, so the
+     * range survives a generic (parameterized) plan, and the keyset bound starts the scan at
+     * the prefix on the first page; each page reads about {@code limit} index entries.</p>
+     *
+     * @param prefix    leading part of the name (non-blank)
+     * @param afterName name of the last member on the previous page ({@code null} for the first page)
+     * @param afterId   ID of the last member on the previous page (ignored for the first page)
+     * @param limit     maximum number of members to return
+     * @return members in page order
+     */
+    public List<MemberEntity> findByNamePrefix(String prefix, String afterName, long afterId, int limit) {
+        final String sql = """
+            SELECT id, name, email, phone, version
+            FROM members
+            WHERE lower(name) COLLATE "C" >= lower(?) COLLATE "C"
+              AND lower(name) COLLATE "C" < (lower(?) || chr(1114111)) COLLATE "C"
+              AND (lower(name) COLLATE "C", id) > (lower(?) COLLATE "C", ?)
+            ORDER BY lower(name) COLLATE "C", id
+            LIMIT ?
+            """;
+
+        log.debug("MemberDAO.findByNamePrefix called (prefixLength={}, afterId={}, limit={}).",
+                prefix.length(), afterId, limit);
+
+        List<MemberEntity> results = new ArrayList<>(limit);
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, prefix);
+            ps.setString(2, prefix);
+            ps.setString(3, afterName == null ? prefix : afterName);
+            ps.setLong(4, afterName == null ? 0L : afterId);
+            ps.setInt(5, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRow(rs));
+                }
+            }
+
+            log.debug("MemberDAO.findByNamePrefix returning {} members.", results.size());
+            return results;
+
+        } catch (SQLException e) {
+            log.error("SQL error while searching members by name (afterId={}).", afterId, e);
+            throw new RuntimeException("Failed to search members by name.", e);
+        }
+    }
+
+    /**
+     * Finds members whose email equals {@code email}, ignoring case.
+     *
+     * <p>Served by {@code idx_members_email_lower}. The UNIQUE constraint is case-sensitive,
+     * so more than one row can match; results are ordered by ID.</p>
+     *
+     * <p><strong>PII note:</strong> This method does not log the email value.</p>
+     *
+     * @param email email to look up (non-null)
+     * @return matching members (usually zero or one)
+     */
+    public List<MemberEntity> findByEmailIgnoreCase(String email) {
+        final String sql = """
+            SELECT id, name, email, phone, version
+            FROM members
+            WHERE lower(email) = lower(?)
+            ORDER BY id
+            """;
+
+        return findByLookup(sql, email, "email");
+    }
+
+    /**
+     * Finds members whose phone number, stripped of everything but digits, equals {@code digits}.
+     *
+     * <p>Served by the partial expression index {@code idx_members_phone_digits}, so
+     * {@code "(555) 010-2030"} and {@code "555.010.2030"} are found by {@code "5550102030"}.</p>
+     *
+     * <p><strong>PII note:</strong> This method does not log the phone value.</p>
+     *
+     * @param digits phone digits to look up (non-null, digits only)
+     * @return matching members ordered by ID
+     */
+    public List<MemberEntity> findByPhoneDigits(String digits) {
+        final String sql = """
+            SELECT id, name, email, phone, version
+            FROM members
+            WHERE phone IS NOT NULL
+              AND regexp_replace(phone, '[^0-9]', '', 'g') = ?
+            ORDER BY id
+            """;
+
+        return findByLookup(sql, digits, "phone");
+    }
+
+    /**
+     * Runs a single-parameter lookup query. The parameter value is never logged (PII).
+     */
+    private List<MemberEntity> findByLookup(String sql, String value, String field) {
+        log.debug("MemberDAO.findBy{} called.", field);
+
+        List<MemberEntity> results = new ArrayList<>();
+
+        try (Connection connection = DbConnectionUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, value);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapRow(rs));
+                }
+            }
+
+            log.debug("MemberDAO.findBy{} returning {} members.", field, results.size());
+            return results;
+
+        } catch (SQLException e) {
+            log.error("SQL error while looking up members by {}.", field, e);
+            throw new RuntimeException("Failed to look up members by " + field + ".", e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Row mapper
+    // -------------------------------------------------------------------------
+
+    /**
+     * Binds the column values (name, email, phone) of a member.
+     *
+     * @param ps     statement to bind
+     * @param member member providing the values
+     * @throws SQLException if binding fails
+     */
+    private void bindColumns(PreparedStatement ps, MemberEntity member) throws SQLException {
+        ps.setString(1, member.getName());
+
+        if (member.getEmail() == null) ps.setNull(2, Types.VARCHAR);
+        else ps.setString(2, member.getEmail());
+
+        if (member.getPhone() == null) ps.setNull(3, Types.VARCHAR);
+        else ps.setString(3, member.getPhone());
+    }
+
+    /**
+     * Maps the current row of a {@link ResultSet} to a {@link MemberEntity}.
+     *
+     * @param rs active result set positioned at a valid row
+     * @return mapped {@link MemberEntity}
+     * @throws SQLException if column access fails
+     */
+    private MemberEntity mapRow(ResultSet rs) throws SQLException {
+        MemberEntity entity = new MemberEntity(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone")
+        );
+        entity.setVersion(rs.getLong("version"));
+        return entity;
+    }
 }
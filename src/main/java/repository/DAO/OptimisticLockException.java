@@ -0,0 +1,55 @@
+package repository.DAO;
+
+/**
+ * Thrown when a version-checked update finds that the row was changed by someone else
+ * since it was read.
+ *
+ * <p>The update was not applied. Callers should reload the row (to get its current values
+ * and version) and let the user decide whether to apply their change again.</p>
+ */
+public class OptimisticLockException extends IllegalStateException {
+
+    private final String table;
+    private final long id;
+    private final long expectedVersion;
+
+    /**
+     * Creates an exception for a stale update.
+     *
+     * @param table           table name (e.g., {@code "members"})
+     * @param id              row ID
+     * @param expectedVersion version the update was based on
+     */
+    public OptimisticLockException(String table, long id, long expectedVersion) {
+        super("The " + singular(table) + " with id=" + id
+                + " was changed by someone else since it was loaded. Reload it and try again.");
+        this.table = table;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    /**
+     * @return table whose row was stale
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return ID of the stale row
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return version the rejected update was based on
+     */
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    private static String singular(String table) {
+        return table.endsWith("s") ? table.substring(0, table.length() - 1) : table;
+    }
+}
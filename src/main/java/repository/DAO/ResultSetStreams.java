@@ -0,0 +1,163 @@
+package repository.DAO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DbConnectionUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Package-private helper that exposes a JDBC query as a lazily consumed {@link Stream}.
+ *
+ * <p>The query runs on a dedicated pooled connection with auto-commit disabled and a
+ * positive fetch size, which makes the PostgreSQL driver read rows through a server-side
+ * cursor in batches instead of buffering the whole result in memory.</p>
+ *
+ * <p>The returned stream owns the connection, statement and result set. Callers
+ * <strong>must</strong> close it (try-with-resources) to return the connection to the pool.</p>
+ */
+final class ResultSetStreams {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultSetStreams.class);
+
+    /**
+     * Default number of rows fetched per round trip while streaming.
+     */
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ResultSetStreams() {
+        // utility class
+    }
+
+    /**
+     * Maps the current row of a {@link ResultSet} to an object.
+     *
+     * @param <T> mapped type
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds parameters onto a {@link PreparedStatement} before execution.
+     */
+    @FunctionalInterface
+    interface StatementBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Executes {@code sql} and returns a stream over the mapped rows.
+     *
+     * @param sql         query to execute
+     * @param binder      parameter binder (may be a no-op)
+     * @param mapper      row mapper
+     * @param fetchSize   rows fetched per round trip
+     * @param description short description used in log and error messages
+     * @param <T>         mapped type
+     * @return lazily populated stream; must be closed by the caller
+     * @throws RuntimeException if the query cannot be started
+     */
+    static <T> Stream<T> stream(
+            String sql,
+            StatementBinder binder,
+            RowMapper<T> mapper,
+            int fetchSize,
+            String description
+    ) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            connection = DbConnectionUtil.getConnection();
+            // PostgreSQL only honors fetchSize (cursor mode) inside a transaction.
+            connection.setAutoCommit(false);
+
+            ps = connection.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            binder.bind(ps);
+            rs = ps.executeQuery();
+
+            Stream<T> stream = StreamSupport.stream(
+                    new RowSpliterator<>(rs, mapper, description), false);
+
+            final Connection c = connection;
+            final PreparedStatement s = ps;
+            final ResultSet r = rs;
+            return stream.onClose(() -> closeQuietly(r, s, c, description));
+
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, connection, description);
+            log.error("SQL error while starting stream ({}).", description, e);
+            throw new RuntimeException("Failed to stream " + description, e);
+        } catch (RuntimeException e) {
+            closeQuietly(rs, ps, connection, description);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes JDBC resources in reverse order, logging (not throwing) failures.
+     */
+    private static void closeQuietly(ResultSet rs, PreparedStatement ps, Connection c, String description) {
+        try {
+            if (rs != null) rs.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close result set ({}).", description, e);
+        }
+        try {
+            if (ps != null) ps.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close statement ({}).", description, e);
+        }
+        try {
+            if (c != null) c.close();
+        } catch (SQLException e) {
+            log.warn("Failed to return connection ({}).", description, e);
+        }
+    }
+
+    /**
+     * Spliterator that advances the underlying {@link ResultSet} one row at a time.
+     */
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final String description;
+
+        private RowSpliterator(ResultSet rs, RowMapper<T> mapper, String description) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.mapper = mapper;
+            this.description = description;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                log.error("SQL error while reading stream ({}).", description, e);
+                throw new RuntimeException("Failed to stream " + description, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package repository.DAO;
+
+/**
+ * Outcome of a conditional, single-statement write (e.g., a delete guarded by a
+ * "no related loans" predicate).
+ *
+ * <p>Lets the service layer tell the user <em>why</em> nothing changed without issuing
+ * separate existence and precondition queries first.</p>
+ */
+public enum WriteOutcome {
+
+    /**
+     * The row existed and the write was applied.
+     */
+    DONE,
+
+    /**
+     * No row exists with the given ID.
+     */
+    NOT_FOUND,
+
+    /**
+     * The row exists, but a precondition (such as related loans) prevented the write.
+     */
+    BLOCKED
+}
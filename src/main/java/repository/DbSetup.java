@@ -52,33 +52,37 @@ public class DbSetup {
     public static void run() {
         log.info("Database reset started (DROP + CREATE + SEED).");
 
-        Connection conn = DbConnectionUtil.getConnection();
-
-        try {
+        try (Connection conn = DbConnectionUtil.getConnection()) {
             boolean originalAutoCommit = conn.getAutoCommit();
             conn.setAutoCommit(false);
 
             log.debug("Auto-commit disabled. Beginning transaction.");
 
-            dropTables(conn);
-            createSchema(conn);
-            insertDummyData(conn);
-
-            conn.commit();
-            log.info("Database reset completed successfully. Transaction committed.");
-
-            conn.setAutoCommit(originalAutoCommit);
-            log.debug("Auto-commit restored to original state.");
-
-        } catch (SQLException e) {
-            log.error("Database reset failed. Attempting rollback.", e);
             try {
-                conn.rollback();
-                log.warn("Transaction rolled back due to error.");
-            } catch (SQLException rollbackEx) {
-                log.error("Rollback failed.", rollbackEx);
-                throw new RuntimeException("Rollback failed", rollbackEx);
+                dropTables(conn);
+                createSchema(conn);
+                insertDummyData(conn);
+
+                conn.commit();
+                log.info("Database reset completed successfully. Transaction committed.");
+
+                conn.setAutoCommit(originalAutoCommit);
+                log.debug("Auto-commit restored to original state.");
+
+            } catch (SQLException e) {
+                log.error("Database reset failed. Attempting rollback.", e);
+                try {
+                    conn.rollback();
+                    log.warn("Transaction rolled back due to error.");
+                } catch (SQLException rollbackEx) {
+                    log.error("Rollback failed.", rollbackEx);
+                    throw new RuntimeException("Rollback failed", rollbackEx);
+                }
+                throw new RuntimeException("DbSetup failed", e);
             }
+
+        } catch (SQLException e) {
+            log.error("Database reset failed (could not acquire or configure connection).", e);
             throw new RuntimeException("DbSetup failed", e);
         }
     }
@@ -88,7 +92,7 @@ public class DbSetup {
     // ----------------------------------------------------
 
     /**
-     * Drops all database tables used by the application.
+     * Drops all database tables and functions used by the application.
      *
      * <p>Tables are dropped in dependency order using {@code CASCADE}
      * to ensure foreign key constraints do not block deletion.</p>
@@ -101,6 +105,7 @@ public class DbSetup {
         execute(conn, "DROP TABLE IF EXISTS loans CASCADE");
         execute(conn, "DROP TABLE IF EXISTS members CASCADE");
         execute(conn, "DROP TABLE IF EXISTS books CASCADE");
+        execute(conn, "DROP FUNCTION IF EXISTS checkout_loan(BIGINT, BIGINT, DATE, DATE, DATE, INTEGER)");
     }
 
     // ----------------------------------------------------
@@ -111,7 +116,10 @@ public class DbSetup {
      * Creates the database schema, including tables, constraints, and indexes.
      *
      * <p>The schema is designed to be in Third Normal Form (3NF) and enforces
-     * integrity through foreign keys, check constraints, and unique indexes.</p>
+     * integrity through foreign keys, check constraints, and unique indexes.
+     * Every table has a {@code version} column used for optimistic concurrency control.
+     * It also installs the {@code checkout_loan} function used for atomic checkouts and
+     * the {@code pg_trgm} extension and indexes used by book and member search.</p>
      *
      * @param conn active database connection
      * @throws SQLException if a SQL error occurs
@@ -127,6 +135,7 @@ public class DbSetup {
                 author           VARCHAR(255) NOT NULL,
                 isbn             VARCHAR(20),
                 publication_year INTEGER,
+                version          BIGINT NOT NULL DEFAULT 0,
                 CONSTRAINT books_isbn_format_chk
                     CHECK (isbn IS NULL OR isbn ~ '^[0-9Xx-]{10,20}$'),
                 CONSTRAINT books_publication_year_chk
@@ -139,6 +148,39 @@ public class DbSetup {
             ON books (title, author)
             """);
 
+        // Book search: B-tree prefix indexes and pg_trgm GIN indexes (substring / fuzzy)
+        execute(conn, "CREATE EXTENSION IF NOT EXISTS pg_trgm");
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_title_prefix
+            ON books (lower(title) text_pattern_ops)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_author_prefix
+            ON books (lower(author) text_pattern_ops)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_isbn_prefix
+            ON books (lower(isbn) text_pattern_ops)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_title_trgm
+            ON books USING gin (title gin_trgm_ops)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_author_trgm
+            ON books USING gin (author gin_trgm_ops)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_books_isbn_trgm
+            ON books USING gin (isbn gin_trgm_ops)
+            """);
+
         // MEMBERS TABLE
         execute(conn, """
             CREATE TABLE IF NOT EXISTS members (
@@ -146,15 +188,29 @@ public class DbSetup {
                 name   VARCHAR(255) NOT NULL,
                 email  VARCHAR(320),
                 phone  VARCHAR(30),
+                version BIGINT NOT NULL DEFAULT 0,
                 CONSTRAINT members_email_unique UNIQUE (email),
                 CONSTRAINT members_email_format_chk
                     CHECK (email IS NULL OR email ~* '^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$')
             )
             """);
 
+        // Member search: case-insensitive name prefix (C collation so LIKE 'abc%' is a range
+        // scan and keyset pages come back in index order), normalized email and phone digits.
         execute(conn, """
             CREATE INDEX IF NOT EXISTS idx_members_name
-            ON members (name)
+            ON members ((lower(name) COLLATE "C"), id)
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_members_email_lower
+            ON members (lower(email))
+            """);
+
+        execute(conn, """
+            CREATE INDEX IF NOT EXISTS idx_members_phone_digits
+            ON members (regexp_replace(phone, '[^0-9]', '', 'g'))
+            WHERE phone IS NOT NULL
             """);
 
         // LOANS TABLE
@@ -166,6 +222,7 @@ public class DbSetup {
                 checkout_date  DATE NOT NULL DEFAULT CURRENT_DATE,
                 due_date       DATE NOT NULL,
                 return_date    DATE,
+                version        BIGINT NOT NULL DEFAULT 0,
                 CONSTRAINT loans_book_fk
                     FOREIGN KEY (book_id)
                     REFERENCES books (id)
@@ -202,9 +259,70 @@ public class DbSetup {
 
         execute(conn, """
             CREATE INDEX IF NOT EXISTS idx_loans_due_date_active
-            ON loans (due_date)
+            ON loans (due_date, id)
             WHERE return_date IS NULL
             """);
+
+        // CHECKOUT FUNCTION
+        // Availability check, per-member limit check and insert in one server-side call.
+        // The member row lock serializes concurrent checkouts for the same member so the
+        // active-loan count cannot be raced; each statement in the function sees a fresh
+        // snapshot, so the count includes loans committed while waiting for the lock.
+        execute(conn, """
+            CREATE OR REPLACE FUNCTION checkout_loan(
+                p_book_id       BIGINT,
+                p_member_id     BIGINT,
+                p_checkout_date DATE,
+                p_due_date      DATE,
+                p_return_date   DATE,
+                p_max_active    INTEGER
+            )
+            RETURNS TABLE (
+                loan_id             BIGINT,
+                active_loan_id      BIGINT,
+                active_due_date     DATE,
+                member_active_count INTEGER
+            )
+            LANGUAGE plpgsql
+            AS $$
+            BEGIN
+                IF p_max_active > 0 THEN
+                    PERFORM 1 FROM members m WHERE m.id = p_member_id FOR NO KEY UPDATE;
+                END IF;
+
+                SELECT l.id, l.due_date
+                INTO active_loan_id, active_due_date
+                FROM loans l
+                WHERE l.book_id = p_book_id
+                  AND l.return_date IS NULL
+                LIMIT 1;
+
+                IF active_loan_id IS NOT NULL THEN
+                    RETURN NEXT;
+                    RETURN;
+                END IF;
+
+                IF p_max_active > 0 THEN
+                    SELECT COUNT(*)
+                    INTO member_active_count
+                    FROM loans l
+                    WHERE l.member_id = p_member_id
+                      AND l.return_date IS NULL;
+
+                    IF member_active_count >= p_max_active THEN
+                        RETURN NEXT;
+                        RETURN;
+                    END IF;
+                END IF;
+
+                INSERT INTO loans (book_id, member_id, checkout_date, due_date, return_date)
+                VALUES (p_book_id, p_member_id, p_checkout_date, p_due_date, p_return_date)
+                RETURNING id INTO loan_id;
+
+                RETURN NEXT;
+            END;
+            $$
+            """);
     }
 
     // ----------------------------------------------------
@@ -51,6 +51,14 @@ public class BookEntity {
      */
     private Integer publicationYear;
 
+    /**
+     * Row version used for optimistic concurrency control.
+     *
+     * <p>Starts at {@code 0} and is incremented by the database on every update; an update
+     * only succeeds if the row still has the version that was read.</p>
+     */
+    private long version;
+
     /**
      * No-argument constructor.
      *
@@ -184,6 +192,26 @@ public class BookEntity {
         this.publicationYear = publicationYear;
     }
 
+    /**
+     * Returns the row version that was read from the database.
+     *
+     * @return row version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the expected row version.
+     *
+     * <p>Updates succeed only if the stored row still has this version.</p>
+     *
+     * @param version row version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of this entity.
      *
@@ -199,6 +227,7 @@ public class BookEntity {
                 ", author='" + author + '\'' +
                 ", isbn='" + isbn + '\'' +
                 ", publicationYear=" + publicationYear +
+                ", version=" + version +
                 '}';
     }
 
@@ -219,7 +248,8 @@ public class BookEntity {
                 Objects.equals(title, that.title) &&
                 Objects.equals(author, that.author) &&
                 Objects.equals(isbn, that.isbn) &&
-                Objects.equals(publicationYear, that.publicationYear);
+                Objects.equals(publicationYear, that.publicationYear) &&
+                version == that.version;
     }
 
     /**
@@ -229,6 +259,6 @@ public class BookEntity {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, author, isbn, publicationYear);
+        return Objects.hash(id, title, author, isbn, publicationYear, version);
     }
 }
@@ -68,6 +68,14 @@ public class LoanEntity {
      */
     private LocalDate returnDate;
 
+    /**
+     * Row version used for optimistic concurrency control.
+     *
+     * <p>Starts at {@code 0} and is incremented by the database on every update; an update
+     * only succeeds if the row still has the version that was read.</p>
+     */
+    private long version;
+
     /**
      * No-argument constructor.
      *
@@ -231,6 +239,26 @@ public class LoanEntity {
         this.returnDate = returnDate;
     }
 
+    /**
+     * Returns the row version that was read from the database.
+     *
+     * @return row version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the expected row version.
+     *
+     * <p>Updates succeed only if the stored row still has this version.</p>
+     *
+     * @param version row version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of this loan entity.
      *
@@ -247,6 +275,7 @@ public class LoanEntity {
                 ", checkoutDate=" + checkoutDate +
                 ", dueDate=" + dueDate +
                 ", returnDate=" + returnDate +
+                ", version=" + version +
                 '}';
     }
 
@@ -268,7 +297,8 @@ public class LoanEntity {
                 memberId == that.memberId &&
                 Objects.equals(checkoutDate, that.checkoutDate) &&
                 Objects.equals(dueDate, that.dueDate) &&
-                Objects.equals(returnDate, that.returnDate);
+                Objects.equals(returnDate, that.returnDate) &&
+                version == that.version;
     }
 
     /**
@@ -278,6 +308,6 @@ public class LoanEntity {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, bookId, memberId, checkoutDate, dueDate, returnDate);
+        return Objects.hash(id, bookId, memberId, checkoutDate, dueDate, returnDate, version);
     }
 }
@@ -55,6 +55,14 @@ public class MemberEntity {
      */
     private String phone;
 
+    /**
+     * Row version used for optimistic concurrency control.
+     *
+     * <p>Starts at {@code 0} and is incremented by the database on every update; an update
+     * only succeeds if the row still has the version that was read.</p>
+     */
+    private long version;
+
     /**
      * No-argument constructor.
      *
@@ -169,6 +177,26 @@ public class MemberEntity {
         this.phone = phone;
     }
 
+    /**
+     * Returns the row version that was read from the database.
+     *
+     * @return row version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the expected row version.
+     *
+     * <p>Updates succeed only if the stored row still has this version.</p>
+     *
+     * @param version row version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a string representation of this member entity.
      *
@@ -184,6 +212,7 @@ public class MemberEntity {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
+                ", version=" + version +
                 '}';
     }
 
@@ -203,7 +232,8 @@ public class MemberEntity {
         return id == that.id &&
                 Objects.equals(name, that.name) &&
                 Objects.equals(email, that.email) &&
-                Objects.equals(phone, that.phone);
+                Objects.equals(phone, that.phone) &&
+                version == that.version;
     }
 
     /**
@@ -213,6 +243,6 @@ public class MemberEntity {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, email, phone);
+        return Objects.hash(id, name, email, phone, version);
     }
 }
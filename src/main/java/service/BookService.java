@@ -3,13 +3,19 @@ package service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.DAO.BookDAO;
+import repository.DAO.WriteOutcome;
 import repository.entities.BookEntity;
 import service.interfaces.ServiceInterface;
 import service.models.Book;
+import util.cache.LruCache;
+import util.metrics.Metrics;
+import util.search.InvertedIndex;
 import util.validators.ValidationUtil;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service layer implementation for {@link Book} operations.
@@ -25,6 +31,15 @@ import java.util.Optional;
  *
  * <p>The service layer intentionally hides database and entity details from
  * controllers, ensuring a clean separation of concerns.</p>
+ *
+ * <p>{@link #getById(Long)} is served through a bounded, read-through {@link LruCache}.
+ * {@link #update(Long, Book)} and {@link #delete(Long)} invalidate the affected entry; the
+ * TTL bounds staleness for changes made outside this service.</p>
+ *
+ * <p>{@link #enableSearchIndex()} optionally builds an in-memory {@link InvertedIndex} over
+ * title and author terms for {@link #quickSearch(String, int)} type-ahead. Once enabled,
+ * {@code create}, {@code createAll}, {@code update} and {@code delete} keep it current; changes
+ * made outside this service instance are not seen until the index is rebuilt.</p>
  */
 public class BookService implements ServiceInterface<Book, Long> {
 
@@ -33,11 +48,60 @@ public class BookService implements ServiceInterface<Book, Long> {
      */
     private static final Logger log = LoggerFactory.getLogger(BookService.class);
 
+    /**
+     * Call counts, failures and latencies of the operations below (recorded only while
+     * {@link Metrics} is enabled).
+     */
+    private static final Metrics.Component metrics = Metrics.component("service", "BookService");
+
+    /**
+     * Maximum number of books kept in the lookup cache.
+     */
+    private static final int CACHE_MAX_SIZE = 1_000;
+
+    /**
+     * Time-to-live of a cached book.
+     */
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
+    /**
+     * Minimum query length for substring and fuzzy search (one trigram).
+     */
+    public static final int MIN_TRIGRAM_QUERY_LENGTH = 3;
+
+    /**
+     * Maximum search query length (matches the title/author column width).
+     */
+    public static final int MAX_SEARCH_QUERY_LENGTH = 255;
+
+    /**
+     * How {@link #search(String, SearchMode, int, int)} matches the query against
+     * title, author and ISBN.
+     */
+    public enum SearchMode {
+        /** Title, author or ISBN starts with the query. */
+        PREFIX,
+        /** Title, author or ISBN contains the query. */
+        SUBSTRING,
+        /** Title or author contains a word similar to the query (typo-tolerant). */
+        FUZZY
+    }
+
     /**
      * DAO responsible for {@link BookEntity} persistence.
      */
     private final BookDAO bookDAO;
 
+    /**
+     * Read-through cache of book rows by ID. Cached entities are never mutated.
+     */
+    private final LruCache<Long, BookEntity> cache = new LruCache<>(CACHE_MAX_SIZE, CACHE_TTL);
+
+    /**
+     * In-memory title/author index, or {@code null} until {@link #enableSearchIndex()} is called.
+     */
+    private volatile InvertedIndex<BookEntity> searchIndex;
+
     /**
      * Default constructor.
      *
@@ -81,43 +145,88 @@ public class BookService implements ServiceInterface<Book, Long> {
      */
     @Override
     public Long create(Book model) {
-        log.debug("create(Book) called.");
+        return metrics.time("create", () -> {
+            log.debug("create(Book) called.");
 
-        ValidationUtil.requireNonNull(model, "book");
-        ValidationUtil.requireNonBlank(model.getTitle(), "title");
-        ValidationUtil.requireNonBlank(model.getAuthor(), "author");
-        ValidationUtil.validateOptionalIsbn(model.getIsbn());
-        ValidationUtil.validateOptionalPublicationYear(model.getPublicationYear());
+            validateForCreate(model);
 
-        BookEntity entity = toEntityForInsert(model);
-        BookEntity saved = bookDAO.save(entity);
+            BookEntity entity = toEntityForInsert(model);
+            BookEntity saved = bookDAO.save(entity);
 
-        setModelIdIfFitsInt(model, saved.getId());
+            setModelIdIfFitsInt(model, saved.getId());
+            index(saved);
 
-        log.info("Book created successfully with id={}", saved.getId());
-        return saved.getId();
+            log.info("Book created successfully with id={}", saved.getId());
+            return saved.getId();
+        });
+    }
+
+    /**
+     * Creates many {@link Book}s using batched inserts.
+     *
+     * <p>All models are validated with the same rules as {@link #create(Book)} before
+     * anything is written, then inserted via {@link BookDAO#saveAll(List)} in a single
+     * transaction.</p>
+     *
+     * @param models the book models to create
+     * @return the generated identifiers, in input order
+     * @throws IllegalArgumentException if the list or any model is invalid
+     * @throws RuntimeException if persistence fails (nothing is saved)
+     */
+    @Override
+    public List<Long> createAll(List<Book> models) {
+        return metrics.time("createAll", () -> {
+            ValidationUtil.requireNonNull(models, "books");
+            log.debug("createAll(List<Book>) called (count={}).", models.size());
+
+            if (models.isEmpty()) {
+                return List.of();
+            }
+
+            models.forEach(this::validateForCreate);
+
+            List<BookEntity> entities = models.stream().map(this::toEntityForInsert).toList();
+            List<Long> ids = bookDAO.saveAll(entities);
+
+            for (int i = 0; i < models.size(); i++) {
+                setModelIdIfFitsInt(models.get(i), ids.get(i));
+                BookEntity entity = entities.get(i);
+                index(new BookEntity(ids.get(i), entity.getTitle(), entity.getAuthor(),
+                        entity.getIsbn(), entity.getPublicationYear()));
+            }
+
+            log.info("Books created successfully (count={}).", ids.size());
+            return ids;
+        });
     }
 
     /**
      * Retrieves a {@link Book} by its identifier.
      *
+     * <p>Repeated lookups are served from the in-process cache until the entry expires
+     * or the book is updated/deleted through this service.</p>
+     *
      * @param id the book identifier
      * @return an {@link Optional} containing the book if found, otherwise empty
      */
     @Override
     public Optional<Book> getById(Long id) {
-        if (id == null || id <= 0) {
-            log.warn("getById called with invalid id={}", id);
-            return Optional.empty();
-        }
-
-        Optional<Book> result = bookDAO.findById(id).map(this::toModel);
-        if (result.isEmpty()) {
-            log.info("No book found with id={}", id);
-        } else {
-            log.debug("Book found with id={}", id);
-        }
-        return result;
+        return metrics.time("getById", () -> {
+            if (id == null || id <= 0) {
+                log.warn("getById called with invalid id={}", id);
+                return Optional.empty();
+            }
+
+            Optional<Book> result = Optional
+                    .ofNullable(cache.get(id, key -> bookDAO.findById(key).orElse(null)))
+                    .map(this::toModel);
+            if (result.isEmpty()) {
+                log.info("No book found with id={}", id);
+            } else {
+                log.debug("Book found with id={}", id);
+            }
+            return result;
+        });
     }
 
     /**
@@ -127,103 +236,289 @@ public class BookService implements ServiceInterface<Book, Long> {
      */
     @Override
     public List<Book> getAll() {
-        log.debug("getAll called.");
+        return metrics.time("getAll", () -> {
+            log.debug("getAll called.");
 
-        List<Book> books = bookDAO.findAll()
-                .stream()
-                .map(this::toModel)
-                .toList();
+            List<Book> books = bookDAO.findAll()
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
 
-        log.debug("getAll returning {} books.", books.size());
-        return books;
+            log.debug("getAll returning {} books.", books.size());
+            return books;
+        });
     }
 
     /**
-     * Updates an existing book.
-     *
-     * <p>This method validates input, verifies that the book exists,
-     * applies updated values, and persists the changes.</p>
+     * Retrieves one page of books ordered by ID.
      *
-     * @param id           identifier of the book to update
-     * @param updatedModel model containing updated values
-     * @return the updated {@link Book}
-     * @throws IllegalArgumentException if validation fails or the book does not exist
+     * @param afterId ID of the last book on the previous page ({@code 0} for the first page)
+     * @param limit   maximum number of books to return
+     * @return list of at most {@code limit} books
+     * @throws IllegalArgumentException if {@code afterId} or {@code limit} is out of range
      */
     @Override
-    public Book update(Long id, Book updatedModel) {
-        log.debug("update called for id={}", id);
-
-        if (id == null || id <= 0) {
-            log.warn("update called with invalid id={}", id);
-            throw new IllegalArgumentException("id must be a positive number.");
-        }
-
-        ValidationUtil.requireNonNull(updatedModel, "book");
-        ValidationUtil.requireNonBlank(updatedModel.getTitle(), "title");
-        ValidationUtil.requireNonBlank(updatedModel.getAuthor(), "author");
-        ValidationUtil.validateOptionalIsbn(updatedModel.getIsbn());
-        ValidationUtil.validateOptionalPublicationYear(updatedModel.getPublicationYear());
+    public List<Book> getPage(Long afterId, int limit) {
+        return metrics.time("getPage", () -> {
+            log.debug("getPage called (afterId={}, limit={}).", afterId, limit);
 
-        if (!bookDAO.existsById(id)) {
-            log.info("update failed: no book found with id={}", id);
-            throw new IllegalArgumentException("No book found with id=" + id);
-        }
-
-        BookEntity existing = bookDAO.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("existsById true but findById empty for id={}", id);
-                    return new IllegalArgumentException("No book found with id=" + id);
-                });
+            ValidationUtil.validatePageRequest(afterId, limit);
 
-        existing.setTitle(updatedModel.getTitle());
-        existing.setAuthor(updatedModel.getAuthor());
-        existing.setIsbn(updatedModel.getIsbn());
-        existing.setPublicationYear(updatedModel.getPublicationYear());
+            return bookDAO.findPage(afterId, limit)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        bookDAO.update(existing);
+    /**
+     * Streams all books ordered by ID, mapping each row lazily.
+     *
+     * <p>The caller must close the returned stream to release its database connection.</p>
+     *
+     * @return lazily populated stream of books
+     */
+    @Override
+    public Stream<Book> streamAll() {
+        return metrics.time("streamAll", () -> {
+            log.debug("streamAll called.");
+            return bookDAO.streamAll().map(this::toModel);
+        });
+    }
 
-        Book result = toModel(existing);
-        setModelIdIfFitsInt(result, existing.getId());
+    /**
+     * Searches books by title, author and ISBN, best matches first.
+     *
+     * <p>Matching is case-insensitive. Results are ranked by trigram similarity to the
+     * query (ties broken by ID) and paged with {@code offset}/{@code limit}.</p>
+     *
+     * @param query  search text; at least {@link #MIN_TRIGRAM_QUERY_LENGTH} characters for
+     *               {@link SearchMode#SUBSTRING} and {@link SearchMode#FUZZY}
+     * @param mode   matching mode
+     * @param offset number of ranked matches to skip ({@code >= 0})
+     * @param limit  maximum number of matches (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return ranked list of at most {@code limit} books
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public List<Book> search(String query, SearchMode mode, int offset, int limit) {
+        return metrics.time("search", () -> {
+            ValidationUtil.requireNonBlank(query, "query");
+            ValidationUtil.requireNonNull(mode, "mode");
+
+            String trimmed = query.trim();
+            log.debug("search called (mode={}, queryLength={}, offset={}, limit={}).",
+                    mode, trimmed.length(), offset, limit);
+
+            if (trimmed.length() > MAX_SEARCH_QUERY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "query must be " + MAX_SEARCH_QUERY_LENGTH + " characters or less.");
+            }
+            if (mode != SearchMode.PREFIX && trimmed.length() < MIN_TRIGRAM_QUERY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "query must be at least " + MIN_TRIGRAM_QUERY_LENGTH + " characters for "
+                                + mode.name().toLowerCase() + " search.");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("offset cannot be negative.");
+            }
+            ValidationUtil.validatePageRequest(0L, limit);
+
+            List<BookEntity> matches = switch (mode) {
+                case PREFIX -> bookDAO.searchByPrefix(trimmed, offset, limit);
+                case SUBSTRING -> bookDAO.searchBySubstring(trimmed, offset, limit);
+                case FUZZY -> bookDAO.searchFuzzy(trimmed, offset, limit);
+            };
+
+            return matches.stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        log.info("Book updated successfully for id={}", id);
-        return result;
+    /**
+     * Updates an existing book.
+     *
+     * <p>This method validates input and persists the changes with a single
+     * {@code UPDATE ... RETURNING} statement, which also detects a missing book. The update
+     * only applies if the book still has {@code updatedModel}'s version (as returned by
+     * {@link #getById(Long)}). The cache entry is dropped; the next read reloads it.</p>
+     *
+     * @param id           identifier of the book to update
+     * @param updatedModel model containing updated values and the version they are based on
+     * @return the updated {@link Book} (with its new version)
+     * @throws IllegalArgumentException if validation fails or the book does not exist
+     * @throws repository.DAO.OptimisticLockException if the book was changed since it was loaded
+     */
+    @Override
+    public Book update(Long id, Book updatedModel) {
+        return metrics.time("update", () -> {
+            log.debug("update called for id={}", id);
+
+            if (id == null || id <= 0) {
+                log.warn("update called with invalid id={}", id);
+                throw new IllegalArgumentException("id must be a positive number.");
+            }
+
+            ValidationUtil.requireNonNull(updatedModel, "book");
+            ValidationUtil.requireNonBlank(updatedModel.getTitle(), "title");
+            ValidationUtil.requireNonBlank(updatedModel.getAuthor(), "author");
+            ValidationUtil.validateOptionalIsbn(updatedModel.getIsbn());
+            ValidationUtil.validateOptionalPublicationYear(updatedModel.getPublicationYear());
+
+            // Drop the cached row first so a failed update can never leave a stale copy behind.
+            cache.invalidate(id);
+
+            // UPDATE ... RETURNING doubles as the existence and version check: one round trip.
+            BookEntity changes = new BookEntity(
+                    id,
+                    updatedModel.getTitle(),
+                    updatedModel.getAuthor(),
+                    updatedModel.getIsbn(),
+                    updatedModel.getPublicationYear());
+            changes.setVersion(updatedModel.getVersion());
+
+            BookEntity saved = bookDAO.updateReturning(changes)
+                    .orElseThrow(() -> {
+                        log.info("update failed: no book found with id={}", id);
+                        return new IllegalArgumentException("No book found with id=" + id);
+                    });
+
+            // Invalidate rather than put: a concurrent update or delete may already have
+            // committed, and an unconditional put could overwrite it with this older row.
+            cache.invalidate(id);
+            index(saved);
+
+            Book result = toModel(saved);
+            setModelIdIfFitsInt(result, saved.getId());
+
+            log.info("Book updated successfully for id={}", id);
+            return result;
+        });
     }
 
     /**
      * Deletes a book by its identifier.
      *
      * <p>Deletion is blocked if the book does not exist or if it has
-     * associated loan records (FK restriction).</p>
+     * associated loan records (FK restriction). Both conditions are evaluated by the
+     * delete statement itself ({@link BookDAO#deleteIfNoLoans(long)}).</p>
      *
      * @param id identifier of the book to delete
      * @return {@code true} if deleted, {@code false} otherwise
      */
     @Override
     public boolean delete(Long id) {
-        log.debug("delete called for id={}", id);
+        return metrics.time("delete", () -> {
+            log.debug("delete called for id={}", id);
+
+            if (id == null || id <= 0) {
+                log.warn("delete called with invalid id={}", id);
+                return false;
+            }
+
+            // One conditional DELETE covers the existence check and the loan-history guard.
+            WriteOutcome outcome = bookDAO.deleteIfNoLoans(id);
+            cache.invalidate(id);
+            if (outcome == WriteOutcome.DONE && searchIndex != null) {
+                searchIndex.remove(id);
+            }
+
+            switch (outcome) {
+                case NOT_FOUND -> log.info("delete skipped: no book found with id={}", id);
+                case BLOCKED -> log.info("delete blocked: book id={} has related loans.", id);
+                case DONE -> log.info("Book deleted successfully for id={}", id);
+            }
+            return outcome == WriteOutcome.DONE;
+        });
+    }
 
-        if (id == null || id <= 0) {
-            log.warn("delete called with invalid id={}", id);
-            return false;
-        }
+    /**
+     * Returns hit/miss counters of the {@link #getById(Long)} cache.
+     *
+     * @return cache statistics snapshot
+     */
+    public LruCache.Stats getCacheStats() {
+        return cache.stats();
+    }
 
-        if (!bookDAO.existsById(id)) {
-            log.info("delete skipped: no book found with id={}", id);
-            return false;
-        }
+    /**
+     * Builds the in-memory search index from a streamed scan of all books and enables
+     * {@link #quickSearch(String, int)}.
+     *
+     * <p>Intended to run once at startup, before the service handles writes; calling it again
+     * rebuilds the index from scratch.</p>
+     *
+     * @return number of indexed books
+     * @throws RuntimeException if the scan fails (the previous index, if any, is kept)
+     */
+    public int enableSearchIndex() {
+        return metrics.time("enableSearchIndex", () -> {
+            log.debug("enableSearchIndex called.");
+            long start = System.nanoTime();
+
+            InvertedIndex<BookEntity> index = new InvertedIndex<>();
+            try (Stream<BookEntity> books = bookDAO.streamAll()) {
+                books.forEach(book -> index.put(book.getId(), book, indexText(book)));
+            }
+            searchIndex = index;
+
+            log.info("Book search index built (books={}, terms={}, elapsedMs={}).",
+                    index.size(), index.termCount(), (System.nanoTime() - start) / 1_000_000);
+            return index.size();
+        });
+    }
 
-        if (bookDAO.hasAnyLoans(id)) {
-            log.info("delete blocked: book id={} has related loans.", id);
-            return false;
-        }
+    /**
+     * Indicates whether {@link #enableSearchIndex()} has been called.
+     *
+     * @return {@code true} if {@link #quickSearch(String, int)} is available
+     */
+    public boolean isSearchIndexEnabled() {
+        return searchIndex != null;
+    }
 
-        boolean deleted = bookDAO.tryDeleteById(id);
-        if (deleted) {
-            log.info("Book deleted successfully for id={}", id);
-        } else {
-            log.warn("delete result: book id={} was not deleted.", id);
-        }
-        return deleted;
+    /**
+     * Type-ahead search against the in-memory index (no database access).
+     *
+     * <p>Every word of {@code query} must appear in the book's title or author; the last word
+     * may be incomplete (e.g., {@code "tolkien hob"}). Results are ordered by ID.</p>
+     *
+     * @param query text typed so far (non-blank)
+     * @param limit maximum number of matches (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return matching books
+     * @throws IllegalArgumentException if an argument is invalid
+     * @throws IllegalStateException    if the search index has not been enabled
+     */
+    public List<Book> quickSearch(String query, int limit) {
+        return metrics.time("quickSearch", () -> {
+            ValidationUtil.requireNonBlank(query, "query");
+            ValidationUtil.validatePageRequest(0L, limit);
+
+            InvertedIndex<BookEntity> index = requireSearchIndex();
+            return index.searchPrefix(query, limit)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
+
+    /**
+     * Completes a partial word with title/author words from the in-memory index,
+     * most common first.
+     *
+     * @param prefix partial word (non-blank)
+     * @param limit  maximum number of suggestions (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return suggested words
+     * @throws IllegalArgumentException if an argument is invalid
+     * @throws IllegalStateException    if the search index has not been enabled
+     */
+    public List<String> suggestWords(String prefix, int limit) {
+        return metrics.time("suggestWords", () -> {
+            ValidationUtil.requireNonBlank(prefix, "prefix");
+            ValidationUtil.validatePageRequest(0L, limit);
+
+            return requireSearchIndex().complete(prefix, limit);
+        });
     }
 
     /**
@@ -233,8 +528,37 @@ public class BookService implements ServiceInterface<Book, Long> {
      * @return {@code true} if the book has an active loan, otherwise {@code false}
      */
     public boolean isBookCheckedOut(Long bookId) {
-        if (bookId == null || bookId <= 0) return false;
-        return bookDAO.isCheckedOut(bookId);
+        return metrics.time("isBookCheckedOut", () -> {
+            if (bookId == null || bookId <= 0) return false;
+            return bookDAO.isCheckedOut(bookId);
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Search index helpers
+    // ---------------------------------------------------------------------
+
+    private InvertedIndex<BookEntity> requireSearchIndex() {
+        InvertedIndex<BookEntity> index = searchIndex;
+        if (index == null) {
+            log.warn("Quick search requested but the search index is not enabled.");
+            throw new IllegalStateException("Book search index is not enabled.");
+        }
+        return index;
+    }
+
+    /**
+     * Adds or replaces {@code saved} in the search index, if enabled.
+     */
+    private void index(BookEntity saved) {
+        InvertedIndex<BookEntity> index = searchIndex;
+        if (index != null) {
+            index.put(saved.getId(), saved, indexText(saved));
+        }
+    }
+
+    private static String indexText(BookEntity book) {
+        return book.getTitle() + " " + book.getAuthor();
     }
 
     // ---------------------------------------------------------------------
@@ -250,13 +574,15 @@ public class BookService implements ServiceInterface<Book, Long> {
     private Book toModel(BookEntity entity) {
         int modelId = safeLongToInt(entity.getId(), "Book ID");
 
-        return new Book(
+        Book model = new Book(
                 modelId,
                 entity.getTitle(),
                 entity.getAuthor(),
                 entity.getIsbn(),
                 entity.getPublicationYear()
         );
+        model.setVersion(entity.getVersion());
+        return model;
     }
 
     /**
@@ -293,6 +619,20 @@ public class BookService implements ServiceInterface<Book, Long> {
         return (int) value;
     }
 
+    /**
+     * Applies the create-time validation rules to a book model.
+     *
+     * @param model the book model to validate
+     * @throws IllegalArgumentException if validation fails
+     */
+    private void validateForCreate(Book model) {
+        ValidationUtil.requireNonNull(model, "book");
+        ValidationUtil.requireNonBlank(model.getTitle(), "title");
+        ValidationUtil.requireNonBlank(model.getAuthor(), "author");
+        ValidationUtil.validateOptionalIsbn(model.getIsbn());
+        ValidationUtil.validateOptionalPublicationYear(model.getPublicationYear());
+    }
+
     /**
      * Assigns the generated identifier to the model if it fits within {@code int}.
      *
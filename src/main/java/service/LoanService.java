@@ -3,14 +3,30 @@ package service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.DAO.LoanDAO;
+import repository.DAO.OptimisticLockException;
 import repository.entities.LoanEntity;
 import service.interfaces.ServiceInterface;
+import service.models.BatchCheckout;
 import service.models.Loan;
+import service.models.MemberSummary;
+import service.models.OverdueLoan;
+import util.DbConnectionUtil;
+import util.jdbc.TransactionTemplate;
+import util.metrics.Metrics;
 import util.validators.ValidationUtil;
 
+import java.sql.Connection;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service-layer implementation for {@link Loan} operations.
@@ -43,6 +59,12 @@ public class LoanService implements ServiceInterface<Loan, Long> {
 
     private static final Logger log = LoggerFactory.getLogger(LoanService.class);
 
+    /**
+     * Call counts, failures and latencies of the operations below (recorded only while
+     * {@link Metrics} is enabled).
+     */
+    private static final Metrics.Component metrics = Metrics.component("service", "LoanService");
+
     private final LoanDAO loanDAO;
 
     /**
@@ -53,6 +75,12 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      */
     private final int maxActiveLoansPerMember;
 
+    /**
+     * Runs read-check-write operations (update, return, delete) as one transaction, so a
+     * concurrent change between the read and the write is retried instead of overwritten.
+     */
+    private final TransactionTemplate transactions;
+
     /**
      * Constructs a {@code LoanService} with a default {@link LoanDAO}
      * and no active-loan limit per member.
@@ -79,12 +107,27 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @throws IllegalArgumentException if {@code loanDAO} is null
      */
     public LoanService(LoanDAO loanDAO, int maxActiveLoansPerMember) {
+        this(loanDAO, maxActiveLoansPerMember, new TransactionTemplate(
+                DbConnectionUtil::getConnection, Connection.TRANSACTION_REPEATABLE_READ, 3));
+    }
+
+    /**
+     * Constructs a {@code LoanService} with full configuration and a custom transaction template.
+     *
+     * @param loanDAO DAO responsible for loan persistence
+     * @param maxActiveLoansPerMember maximum active loans per member (0 disables)
+     * @param transactions template for multi-step operations
+     * @throws IllegalArgumentException if {@code loanDAO} or {@code transactions} is null
+     */
+    public LoanService(LoanDAO loanDAO, int maxActiveLoansPerMember, TransactionTemplate transactions) {
         if (loanDAO == null) {
             log.error("Attempted to initialize LoanService with null LoanDAO.");
             throw new IllegalArgumentException("loanDAO cannot be null.");
         }
+        ValidationUtil.requireNonNull(transactions, "transactions");
         this.loanDAO = loanDAO;
         this.maxActiveLoansPerMember = maxActiveLoansPerMember;
+        this.transactions = transactions;
         log.debug("LoanService initialized (maxActiveLoansPerMember={}).", maxActiveLoansPerMember);
     }
 
@@ -96,7 +139,9 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * Creates a new loan (checkout).
      *
      * <p>This method enforces all business rules for loan creation, including
-     * preventing double checkout and optional per-member limits.</p>
+     * preventing double checkout and optional per-member limits. The checks and the
+     * insert are performed atomically by {@link LoanDAO#checkout(LoanEntity, int)} in a
+     * single database round trip, so they remain correct under concurrent checkouts.</p>
      *
      * @param model loan model to create
      * @return generated loan ID
@@ -105,42 +150,89 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      */
     @Override
     public Long create(Loan model) {
-        log.debug("create(Loan) called.");
+        // Checkout/return path: explicit timing avoids allocating a capturing lambda per call
+        long start = Metrics.start();
+        try {
+            log.debug("create(Loan) called.");
 
-        ValidationUtil.requireNonNull(model, "loan");
-        validateLoanFields(model);
+            ValidationUtil.requireNonNull(model, "loan");
+            validateLoanFields(model);
 
-        if (loanDAO.hasActiveLoanForBook(model.getBookId())) {
-            Optional<LoanEntity> active = loanDAO.findActiveLoanByBookId(model.getBookId());
-            String detail = active
-                    .map(a -> " (active loan id=" + a.getId() + ", due=" + a.getDueDate() + ")")
-                    .orElse("");
+            // Availability check, member limit check and insert happen in one round trip.
+            LoanEntity entity = toEntityForInsert(model);
+            LoanDAO.CheckoutResult result = loanDAO.checkout(entity, maxActiveLoansPerMember);
 
-            log.info("Checkout blocked: bookId={} already has an active loan{}",
-                    model.getBookId(), detail);
+            if (result.isBookUnavailable()) {
+                String detail = " (active loan id=" + result.activeLoanId()
+                        + ", due=" + result.activeLoanDueDate() + ")";
 
-            throw new IllegalStateException("Book is already checked out" + detail);
-        }
+                log.info("Checkout blocked: bookId={} already has an active loan{}",
+                        model.getBookId(), detail);
+
+                throw new IllegalStateException("Book is already checked out" + detail);
+            }
 
-        if (maxActiveLoansPerMember > 0) {
-            int activeCount = loanDAO.countActiveLoansByMemberId(model.getMemberId());
-            if (activeCount >= maxActiveLoansPerMember) {
+            if (!result.isCreated()) {
                 log.info("Checkout blocked: memberId={} has {} active loans (limit={}).",
-                        model.getMemberId(), activeCount, maxActiveLoansPerMember);
+                        model.getMemberId(), result.memberActiveLoans(), maxActiveLoansPerMember);
                 throw new IllegalStateException(
                         "Member has reached the active loan limit (" + maxActiveLoansPerMember + ")."
                 );
             }
+
+            model.setId(result.loanId());
+
+            if (log.isDebugEnabled()) {
+                log.debug("Loan created successfully with id={} (bookId={}, memberId={})",
+                        result.loanId(), model.getBookId(), model.getMemberId());
+            }
+
+            return result.loanId();
+        } catch (RuntimeException e) {
+            throw metrics.failed("create", start, e);
+        } finally {
+            metrics.stop("create", start);
         }
+    }
+
+    /**
+     * Creates many loans using batched inserts (e.g., importing existing loan records).
+     *
+     * <p>Every loan is validated as in {@link #create(Loan)} before anything is written.
+     * Availability is enforced by the database ({@code uq_loans_one_active_loan_per_book}),
+     * so a conflicting active loan fails the whole batch. The per-member active-loan limit
+     * is <em>not</em> applied; use {@link #checkout(Loan)} for interactive checkouts.</p>
+     *
+     * @param models loan models to create
+     * @return generated loan IDs, in input order
+     * @throws IllegalArgumentException if validation or constraints fail
+     * @throws IllegalStateException if a book in the batch is already checked out
+     */
+    @Override
+    public List<Long> createAll(List<Loan> models) {
+        return metrics.time("createAll", () -> {
+            ValidationUtil.requireNonNull(models, "loans");
+            log.debug("createAll(List<Loan>) called (count={}).", models.size());
 
-        LoanEntity entity = toEntityForInsert(model);
-        LoanEntity saved = loanDAO.save(entity);
-        model.setId(saved.getId());
+            if (models.isEmpty()) {
+                return List.of();
+            }
 
-        log.info("Loan created successfully with id={} (bookId={}, memberId={})",
-                saved.getId(), saved.getBookId(), saved.getMemberId());
+            for (Loan model : models) {
+                ValidationUtil.requireNonNull(model, "loan");
+                validateLoanFields(model);
+            }
 
-        return saved.getId();
+            List<LoanEntity> entities = models.stream().map(this::toEntityForInsert).toList();
+            List<Long> ids = loanDAO.saveAll(entities);
+
+            for (int i = 0; i < models.size(); i++) {
+                models.get(i).setId(ids.get(i));
+            }
+
+            log.info("Loans created successfully (count={}).", ids.size());
+            return ids;
+        });
     }
 
     /**
@@ -151,12 +243,14 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      */
     @Override
     public Optional<Loan> getById(Long id) {
-        if (id == null || id <= 0) {
-            log.warn("getById called with invalid id={}", id);
-            return Optional.empty();
-        }
+        return metrics.time("getById", () -> {
+            if (id == null || id <= 0) {
+                log.warn("getById called with invalid id={}", id);
+                return Optional.empty();
+            }
 
-        return loanDAO.findById(id).map(this::toModel);
+            return loanDAO.findById(id).map(this::toModel);
+        });
     }
 
     /**
@@ -166,57 +260,107 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      */
     @Override
     public List<Loan> getAll() {
-        log.debug("getAll called.");
+        return metrics.time("getAll", () -> {
+            log.debug("getAll called.");
 
-        List<Loan> loans = loanDAO.findAll()
-                .stream()
-                .map(this::toModel)
-                .toList();
+            List<Loan> loans = loanDAO.findAll()
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
 
-        log.debug("getAll returning {} loans.", loans.size());
-        return loans;
+            log.debug("getAll returning {} loans.", loans.size());
+            return loans;
+        });
+    }
+
+    /**
+     * Retrieves one page of loans ordered by ID.
+     *
+     * @param afterId ID of the last loan on the previous page ({@code 0} for the first page)
+     * @param limit   maximum number of loans to return
+     * @return list of at most {@code limit} loans
+     * @throws IllegalArgumentException if {@code afterId} or {@code limit} is out of range
+     */
+    @Override
+    public List<Loan> getPage(Long afterId, int limit) {
+        return metrics.time("getPage", () -> {
+            log.debug("getPage called (afterId={}, limit={}).", afterId, limit);
+
+            ValidationUtil.validatePageRequest(afterId, limit);
+
+            return loanDAO.findPage(afterId, limit)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
+
+    /**
+     * Streams all loans ordered by ID, mapping each row lazily.
+     *
+     * <p>The caller must close the returned stream to release its database connection.</p>
+     *
+     * @return lazily populated stream of loans
+     */
+    @Override
+    public Stream<Loan> streamAll() {
+        return metrics.time("streamAll", () -> {
+            log.debug("streamAll called.");
+            return loanDAO.streamAll().map(this::toModel);
+        });
     }
 
     /**
      * Updates an existing loan.
      *
-     * <p>Book and member associations cannot be changed once created.</p>
+     * <p>Book and member associations cannot be changed once created. The loan is read
+     * and written in one transaction, and only if it still has {@code updatedModel}'s version.</p>
      *
      * @param id loan ID
      * @param updatedModel updated loan data
      * @return updated loan
      * @throws IllegalArgumentException if validation fails
      * @throws IllegalStateException if associations are modified
+     * @throws OptimisticLockException if the loan was changed since {@code updatedModel} was loaded
      */
     @Override
     public Loan update(Long id, Loan updatedModel) {
-        log.debug("update called for id={}", id);
-
-        if (id == null || id <= 0) {
-            throw new IllegalArgumentException("id must be a positive number.");
-        }
-
-        ValidationUtil.requireNonNull(updatedModel, "loan");
-        validateLoanFields(updatedModel);
-
-        LoanEntity existing = loanDAO.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("No loan found with id=" + id));
-
-        if (existing.getBookId() != updatedModel.getBookId()) {
-            throw new IllegalStateException("Cannot change bookId for an existing loan.");
-        }
-        if (existing.getMemberId() != updatedModel.getMemberId()) {
-            throw new IllegalStateException("Cannot change memberId for an existing loan.");
-        }
-
-        existing.setCheckoutDate(updatedModel.getCheckoutDate());
-        existing.setDueDate(updatedModel.getDueDate());
-        existing.setReturnDate(updatedModel.getReturnDate());
+        return metrics.time("update", () -> {
+            log.debug("update called for id={}", id);
 
-        loanDAO.update(existing);
-        log.info("Loan updated successfully for id={}", id);
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("id must be a positive number.");
+            }
 
-        return toModel(existing);
+            ValidationUtil.requireNonNull(updatedModel, "loan");
+            validateLoanFields(updatedModel);
+
+            return transactions.execute(() -> {
+                LoanEntity existing = loanDAO.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("No loan found with id=" + id));
+
+                if (existing.getBookId() != updatedModel.getBookId()) {
+                    throw new IllegalStateException("Cannot change bookId for an existing loan.");
+                }
+                if (existing.getMemberId() != updatedModel.getMemberId()) {
+                    throw new IllegalStateException("Cannot change memberId for an existing loan.");
+                }
+                if (existing.getVersion() != updatedModel.getVersion()) {
+                    log.info("update rejected: loan id={} changed since it was loaded (version {} -> {}).",
+                            id, updatedModel.getVersion(), existing.getVersion());
+                    throw new OptimisticLockException("loans", id, updatedModel.getVersion());
+                }
+
+                existing.setCheckoutDate(updatedModel.getCheckoutDate());
+                existing.setDueDate(updatedModel.getDueDate());
+                existing.setReturnDate(updatedModel.getReturnDate());
+
+                loanDAO.update(existing);
+                log.info("Loan updated successfully for id={}", id);
+
+                return toModel(existing);
+            });
+        });
     }
 
     /**
@@ -227,13 +371,15 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      */
     @Override
     public boolean delete(Long id) {
-        log.debug("delete called for id={}", id);
+        return metrics.time("delete", () -> {
+            log.debug("delete called for id={}", id);
 
-        if (id == null || id <= 0 || !loanDAO.existsById(id)) {
-            return false;
-        }
+            if (id == null || id <= 0) {
+                return false;
+            }
 
-        return loanDAO.deleteIfReturned(id);
+            return transactions.execute(() -> loanDAO.existsById(id) && loanDAO.deleteIfReturned(id));
+        });
     }
 
     // =========================================================
@@ -247,7 +393,71 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return generated loan ID
      */
     public Long checkout(Loan loan) {
-        return create(loan);
+        // Explicit timing, as in create(Loan): this is the controller's checkout entry point
+        long start = Metrics.start();
+        try {
+            return create(loan);
+        } catch (RuntimeException e) {
+            throw metrics.failed("checkout", start, e);
+        } finally {
+            metrics.stop("checkout", start);
+        }
+    }
+
+    /**
+     * Checks out several books at once (e.g., a class set), all or nothing.
+     *
+     * <p>Each loan is validated as in {@link #create(Loan)}. Availability and the per-member
+     * active-loan limit are then checked set-wise and all loans are inserted in one
+     * transaction by {@link LoanDAO#checkoutAll(List, int)}: a handful of statements in total
+     * instead of a checkout per book. If any book is already checked out, or a member would
+     * exceed the limit counting the whole batch, nothing is created and the conflicts are
+     * returned.</p>
+     *
+     * <p>On success each model's ID is set.</p>
+     *
+     * @param models loans to create (book IDs must be distinct; return dates must be unset)
+     * @return created loan IDs, or the conflicting book and member IDs
+     * @throws IllegalArgumentException if validation fails or a book/member does not exist
+     */
+    public BatchCheckout checkoutAll(List<Loan> models) {
+        return metrics.time("checkoutAll", () -> {
+            ValidationUtil.requireNonNull(models, "loans");
+            log.debug("checkoutAll called (count={}).", models.size());
+
+            if (models.isEmpty()) {
+                return new BatchCheckout(List.of(), List.of(), List.of());
+            }
+
+            Set<Long> bookIds = new HashSet<>();
+            for (Loan model : models) {
+                ValidationUtil.requireNonNull(model, "loan");
+                validateLoanFields(model);
+                if (model.getReturnDate() != null) {
+                    throw new IllegalArgumentException("returnDate must be empty for a checkout.");
+                }
+                if (!bookIds.add(model.getBookId())) {
+                    throw new IllegalArgumentException(
+                            "bookId " + model.getBookId() + " appears more than once in the batch.");
+                }
+            }
+
+            List<LoanEntity> entities = models.stream().map(this::toEntityForInsert).toList();
+            LoanDAO.BatchCheckoutResult result = loanDAO.checkoutAll(entities, maxActiveLoansPerMember);
+
+            if (!result.isCreated()) {
+                log.info("Group checkout blocked (unavailableBooks={}, overLimitMembers={}).",
+                        result.unavailableBookIds(), result.overLimitMemberIds());
+                return new BatchCheckout(List.of(), result.unavailableBookIds(), result.overLimitMemberIds());
+            }
+
+            for (int i = 0; i < models.size(); i++) {
+                models.get(i).setId(result.loanIds().get(i));
+            }
+
+            log.info("Group checkout created {} loans.", result.loanIds().size());
+            return new BatchCheckout(result.loanIds(), List.of(), List.of());
+        });
     }
 
     /**
@@ -258,22 +468,93 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return {@code true} if return was successful
      */
     public boolean returnLoan(long loanId, LocalDate returnDate) {
-        if (loanId <= 0) {
-            throw new IllegalArgumentException("loanId must be a positive number.");
+        // Explicit timing, as in create(Loan)
+        long start = Metrics.start();
+        try {
+            if (loanId <= 0) {
+                throw new IllegalArgumentException("loanId must be a positive number.");
+            }
+            ValidationUtil.requireNonNull(returnDate, "returnDate");
+
+            // A concurrent return of the same loan makes the second UPDATE fail with a
+            // serialization error; the retry then sees the loan as returned.
+            return transactions.execute(() -> {
+                Optional<LoanEntity> maybeEntity = loanDAO.findById(loanId);
+                if (maybeEntity.isEmpty()) return false;
+
+                LoanEntity entity = maybeEntity.get();
+                if (entity.getReturnDate() != null) return false;
+
+                if (returnDate.isBefore(entity.getCheckoutDate())) {
+                    throw new IllegalArgumentException("returnDate cannot be before checkoutDate.");
+                }
+
+                return loanDAO.setReturnDate(loanId, returnDate);
+            });
+        } catch (RuntimeException e) {
+            throw metrics.failed("returnLoan", start, e);
+        } finally {
+            metrics.stop("returnLoan", start);
         }
-        ValidationUtil.requireNonNull(returnDate, "returnDate");
+    }
 
-        Optional<LoanEntity> maybeEntity = loanDAO.findById(loanId);
-        if (maybeEntity.isEmpty()) return false;
+    /**
+     * Per-loan outcome of {@link #returnLoans(Collection, LocalDate)}.
+     */
+    public enum ReturnOutcome {
+        /** The loan was active and is now returned. */
+        RETURNED,
+        /** No loan exists with this ID. */
+        NOT_FOUND,
+        /** The loan had already been returned (possibly by a concurrent request). */
+        ALREADY_RETURNED,
+        /** The return date is before the loan's checkout date; nothing was changed. */
+        BEFORE_CHECKOUT
+    }
 
-        LoanEntity entity = maybeEntity.get();
-        if (entity.getReturnDate() != null) return false;
+    /**
+     * Returns many loans at once (e.g., end-of-day drop-box processing).
+     *
+     * <p>All loans are returned with one statement and one round trip
+     * ({@link LoanDAO#returnLoans(List, LocalDate)}); the {@code returnDate >= checkout_date}
+     * rule is evaluated in SQL per loan. Loans that cannot be returned are reported, not
+     * thrown, so one bad ID never blocks the rest of the batch. Duplicate IDs are processed
+     * once.</p>
+     *
+     * @param loanIds    loan IDs to return (each must be positive)
+     * @param returnDate return date to set
+     * @return outcome per distinct loan ID, in the order the IDs were given
+     * @throws IllegalArgumentException if {@code loanIds}, any ID, or {@code returnDate} is invalid
+     */
+    public Map<Long, ReturnOutcome> returnLoans(Collection<Long> loanIds, LocalDate returnDate) {
+        return metrics.time("returnLoans", () -> {
+            ValidationUtil.requireNonNull(loanIds, "loanIds");
+            ValidationUtil.requireNonNull(returnDate, "returnDate");
+            log.debug("returnLoans called (count={}, returnDate={}).", loanIds.size(), returnDate);
+
+            LinkedHashSet<Long> distinctIds = new LinkedHashSet<>();
+            for (Long loanId : loanIds) {
+                if (loanId == null || loanId <= 0) {
+                    throw new IllegalArgumentException("loanIds must contain only positive numbers.");
+                }
+                distinctIds.add(loanId);
+            }
+            if (distinctIds.isEmpty()) {
+                return Map.of();
+            }
 
-        if (returnDate.isBefore(entity.getCheckoutDate())) {
-            throw new IllegalArgumentException("returnDate cannot be before checkoutDate.");
-        }
+            Map<Long, ReturnOutcome> outcomes = new LinkedHashMap<>();
+            for (LoanDAO.ReturnRow row : loanDAO.returnLoans(List.copyOf(distinctIds), returnDate)) {
+                outcomes.put(row.loanId(), toReturnOutcome(row, returnDate));
+            }
 
-        return loanDAO.setReturnDate(loanId, returnDate);
+            if (log.isInfoEnabled()) {
+                Map<ReturnOutcome, Integer> counts = new EnumMap<>(ReturnOutcome.class);
+                outcomes.values().forEach(o -> counts.merge(o, 1, Integer::sum));
+                log.info("Bulk return processed (requested={}, outcomes={}).", distinctIds.size(), counts);
+            }
+            return outcomes;
+        });
     }
 
     /**
@@ -283,14 +564,16 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return list of loans
      */
     public List<Loan> getLoansByMemberId(long memberId) {
-        if (memberId <= 0) {
-            throw new IllegalArgumentException("memberId must be a positive number.");
-        }
+        return metrics.time("getLoansByMemberId", () -> {
+            if (memberId <= 0) {
+                throw new IllegalArgumentException("memberId must be a positive number.");
+            }
 
-        return loanDAO.findByMemberId(memberId)
-                .stream()
-                .map(this::toModel)
-                .toList();
+            return loanDAO.findByMemberId(memberId)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
     }
 
     /**
@@ -299,10 +582,12 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return list of active loans
      */
     public List<Loan> getActiveLoans() {
-        return loanDAO.findActiveLoans()
-                .stream()
-                .map(this::toModel)
-                .toList();
+        return metrics.time("getActiveLoans", () -> {
+            return loanDAO.findActiveLoans()
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
     }
 
     /**
@@ -312,12 +597,98 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return list of overdue loans
      */
     public List<Loan> getOverdueLoans(LocalDate currentDate) {
-        ValidationUtil.requireNonNull(currentDate, "currentDate");
+        return metrics.time("getOverdueLoans", () -> {
+            ValidationUtil.requireNonNull(currentDate, "currentDate");
+
+            return loanDAO.findOverdueLoans(currentDate)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        return loanDAO.findOverdueLoans(currentDate)
-                .stream()
-                .map(this::toModel)
-                .toList();
+    /**
+     * Retrieves one page of the overdue report, with book and member details, ordered by
+     * due date (oldest first) and loan ID.
+     *
+     * <p>Pass {@code null} for {@code after} to read the first page, then the last element
+     * of each page to read the next one; an empty page marks the end.</p>
+     *
+     * @param currentDate date used to evaluate overdue status
+     * @param after       last row of the previous page, or {@code null} for the first page
+     * @param limit       maximum number of rows (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return at most {@code limit} overdue report rows
+     * @throws IllegalArgumentException if {@code currentDate} is null or {@code limit} is out of range
+     */
+    public List<OverdueLoan> getOverdueReportPage(LocalDate currentDate, OverdueLoan after, int limit) {
+        return metrics.time("getOverdueReportPage", () -> {
+            log.debug("getOverdueReportPage called (currentDate={}, afterLoanId={}, limit={}).",
+                    currentDate, after == null ? null : after.loanId(), limit);
+
+            ValidationUtil.requireNonNull(currentDate, "currentDate");
+            ValidationUtil.validatePageRequest(after == null ? 0L : after.loanId(), limit);
+
+            return loanDAO.findOverdueReportPage(
+                            currentDate,
+                            after == null ? null : after.dueDate(),
+                            after == null ? 0L : after.loanId(),
+                            limit)
+                    .stream()
+                    .map(LoanService::toOverdueModel)
+                    .toList();
+        });
+    }
+
+    /**
+     * Streams the full overdue report, with book and member details, ordered by due date
+     * (oldest first) and loan ID.
+     *
+     * <p>The caller must close the returned stream to release its database connection.</p>
+     *
+     * @param currentDate date used to evaluate overdue status
+     * @return lazily populated stream of overdue report rows
+     * @throws IllegalArgumentException if {@code currentDate} is null
+     */
+    public Stream<OverdueLoan> streamOverdueReport(LocalDate currentDate) {
+        return metrics.time("streamOverdueReport", () -> {
+            log.debug("streamOverdueReport called (currentDate={}).", currentDate);
+
+            ValidationUtil.requireNonNull(currentDate, "currentDate");
+
+            return loanDAO.streamOverdueReport(currentDate).map(LoanService::toOverdueModel);
+        });
+    }
+
+    /**
+     * Retrieves a member's contact details, loan counts and most recent loans with book
+     * titles, loaded in a single query.
+     *
+     * <p>Recent loans list active loans first, then the newest checkouts.</p>
+     *
+     * @param memberId    member ID
+     * @param currentDate date used to evaluate overdue status
+     * @param recentLimit maximum number of recent loans (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return the summary, or {@link Optional#empty()} if the member does not exist
+     * @throws IllegalArgumentException if {@code memberId} is not positive, {@code currentDate}
+     *                                  is null or {@code recentLimit} is out of range
+     */
+    public Optional<MemberSummary> getMemberSummary(long memberId, LocalDate currentDate, int recentLimit) {
+        return metrics.time("getMemberSummary", () -> {
+            log.debug("getMemberSummary called (memberId={}, currentDate={}, recentLimit={}).",
+                    memberId, currentDate, recentLimit);
+
+            if (memberId <= 0) {
+                throw new IllegalArgumentException("memberId must be a positive number.");
+            }
+            ValidationUtil.requireNonNull(currentDate, "currentDate");
+            if (recentLimit < 1 || recentLimit > ValidationUtil.MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException(
+                        "recentLimit must be between 1 and " + ValidationUtil.MAX_PAGE_SIZE + ".");
+            }
+
+            return loanDAO.findMemberSummary(memberId, currentDate, recentLimit)
+                    .map(row -> toSummaryModel(row, currentDate));
+        });
     }
 
     // =========================================================
@@ -350,6 +721,78 @@ public class LoanService implements ServiceInterface<Loan, Long> {
         }
     }
 
+    /**
+     * Classifies one bulk-return row. A loan that was active before the update yet not
+     * returned either started after {@code returnDate} or was returned concurrently.
+     */
+    private static ReturnOutcome toReturnOutcome(LoanDAO.ReturnRow row, LocalDate returnDate) {
+        if (row.returned()) {
+            return ReturnOutcome.RETURNED;
+        }
+        if (!row.found()) {
+            return ReturnOutcome.NOT_FOUND;
+        }
+        if (!row.alreadyReturned() && row.checkoutDate().isAfter(returnDate)) {
+            return ReturnOutcome.BEFORE_CHECKOUT;
+        }
+        return ReturnOutcome.ALREADY_RETURNED;
+    }
+
+    /**
+     * Converts an overdue report row to a service-layer {@link OverdueLoan}.
+     *
+     * @param row joined report row
+     * @return overdue loan model
+     */
+    private static OverdueLoan toOverdueModel(LoanDAO.OverdueLoanRow row) {
+        return new OverdueLoan(
+                row.loanId(),
+                row.bookId(),
+                row.title(),
+                row.author(),
+                row.memberId(),
+                row.memberName(),
+                row.email(),
+                row.phone(),
+                row.checkoutDate(),
+                row.dueDate(),
+                row.daysOverdue()
+        );
+    }
+
+    /**
+     * Converts a member summary row to a service-layer {@link MemberSummary}.
+     *
+     * @param row         member row with counts and recent loans
+     * @param currentDate date used to flag overdue loans
+     * @return member summary model
+     */
+    private static MemberSummary toSummaryModel(LoanDAO.MemberSummaryRow row, LocalDate currentDate) {
+        List<MemberSummary.RecentLoan> recent = row.recentLoans()
+                .stream()
+                .map(loan -> new MemberSummary.RecentLoan(
+                        loan.loanId(),
+                        loan.bookId(),
+                        loan.title(),
+                        loan.checkoutDate(),
+                        loan.dueDate(),
+                        loan.returnDate(),
+                        loan.returnDate() == null && loan.dueDate().isBefore(currentDate)
+                ))
+                .toList();
+
+        return new MemberSummary(
+                row.memberId(),
+                row.name(),
+                row.email(),
+                row.phone(),
+                row.totalLoans(),
+                row.activeLoans(),
+                row.overdueLoans(),
+                recent
+        );
+    }
+
     /**
      * Converts a {@link LoanEntity} to a service-layer {@link Loan}.
      *
@@ -357,7 +800,7 @@ public class LoanService implements ServiceInterface<Loan, Long> {
      * @return loan model
      */
     private Loan toModel(LoanEntity entity) {
-        return new Loan(
+        Loan model = new Loan(
                 entity.getId(),
                 entity.getBookId(),
                 entity.getMemberId(),
@@ -365,6 +808,8 @@ public class LoanService implements ServiceInterface<Loan, Long> {
                 entity.getDueDate(),
                 entity.getReturnDate()
         );
+        model.setVersion(entity.getVersion());
+        return model;
     }
 
     /**
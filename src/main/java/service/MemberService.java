@@ -3,13 +3,21 @@ package service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.DAO.MemberDAO;
+import repository.DAO.WriteOutcome;
 import repository.entities.MemberEntity;
 import service.interfaces.ServiceInterface;
 import service.models.Member;
+import util.cache.LruCache;
+import util.metrics.Metrics;
+import util.validators.MemberValidator;
 import util.validators.ValidationUtil;
 
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service layer implementation for {@link Member} operations.
@@ -29,6 +37,10 @@ import java.util.Optional;
  *       pre-check via {@link MemberDAO} to provide a nicer user-facing message.</li>
  *   <li><b>Deletes</b>: your DB schema uses FK RESTRICT from loans to members. This service optionally blocks
  *       deletion when the member has loan history (or active loans, depending on your chosen policy).</li>
+ *   <li><b>Caching</b>: {@link #getById(Long)} is served through a bounded, read-through {@link LruCache};
+ *       updates and deletes through this service invalidate the affected entry.</li>
+ *   <li><b>Search</b>: name-prefix, email and phone lookups are each served by an index, so desk lookups
+ *       never scan the whole table.</li>
  * </ul>
  */
 public class MemberService implements ServiceInterface<Member, Long> {
@@ -38,11 +50,32 @@ public class MemberService implements ServiceInterface<Member, Long> {
      */
     private static final Logger log = LoggerFactory.getLogger(MemberService.class);
 
+    /**
+     * Call counts, failures and latencies of the operations below (recorded only while
+     * {@link Metrics} is enabled).
+     */
+    private static final Metrics.Component metrics = Metrics.component("service", "MemberService");
+
+    /**
+     * Maximum number of members kept in the lookup cache.
+     */
+    private static final int CACHE_MAX_SIZE = 1_000;
+
+    /**
+     * Time-to-live of a cached member.
+     */
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+
     /**
      * DAO responsible for persistence of {@link MemberEntity} records.
      */
     private final MemberDAO memberDAO;
 
+    /**
+     * Read-through cache of member rows by ID. Cached entities are never mutated.
+     */
+    private final LruCache<Long, MemberEntity> cache = new LruCache<>(CACHE_MAX_SIZE, CACHE_TTL);
+
     /**
      * Default constructor (production use).
      *
@@ -81,30 +114,79 @@ public class MemberService implements ServiceInterface<Member, Long> {
      */
     @Override
     public Long create(Member model) {
-        log.debug("create(Member) called.");
+        return metrics.time("create", () -> {
+            log.debug("create(Member) called.");
 
-        ValidationUtil.requireNonNull(model, "member");
-        ValidationUtil.requireNonBlank(model.getName(), "name");
+            ValidationUtil.requireNonNull(model, "member");
+            ValidationUtil.requireNonBlank(model.getName(), "name");
 
-        // Optional fields (blank -> null) so they play nicely with nullable DB columns
-        normalizeOptionalFields(model);
+            // Optional fields (blank -> null) so they play nicely with nullable DB columns
+            normalizeOptionalFields(model);
 
-        // Pre-check email uniqueness for nicer UX (DB UNIQUE constraint remains the source of truth)
-        if (model.getEmail() != null && !memberDAO.isEmailAvailable(model.getEmail())) {
-            log.info("create blocked: email already exists for another member.");
-            throw new IllegalArgumentException(
-                    "Email is already in use. Please enter a different email (or NONE)."
-            );
-        }
+            // Pre-check email uniqueness for nicer UX (DB UNIQUE constraint remains the source of truth)
+            if (model.getEmail() != null && !memberDAO.isEmailAvailable(model.getEmail())) {
+                log.info("create blocked: email already exists for another member.");
+                throw new IllegalArgumentException(
+                        "Email is already in use. Please enter a different email (or NONE)."
+                );
+            }
 
-        MemberEntity entity = toEntityForInsert(model);
-        MemberEntity saved = memberDAO.save(entity);
+            MemberEntity entity = toEntityForInsert(model);
+            MemberEntity saved = memberDAO.save(entity);
 
-        // Reflect generated id back onto the model (Member uses long id)
-        model.setId(saved.getId());
+            // Reflect generated id back onto the model (Member uses long id)
+            model.setId(saved.getId());
+
+            log.info("Member created successfully with id={}", saved.getId());
+            return saved.getId();
+        });
+    }
 
-        log.info("Member created successfully with id={}", saved.getId());
-        return saved.getId();
+    /**
+     * Creates many {@link Member}s using batched inserts.
+     *
+     * <p>Each model is validated and normalized as in {@link #create(Member)}. Instead of
+     * one email lookup per member, duplicate emails are detected within the list; emails
+     * already stored in the database are rejected by the {@code UNIQUE} constraint, which
+     * rolls back the whole batch.</p>
+     *
+     * @param models the member models to create
+     * @return the generated identifiers, in input order
+     * @throws IllegalArgumentException if the list or any model is invalid, or two models share an email
+     * @throws RuntimeException if persistence fails (nothing is saved)
+     */
+    @Override
+    public List<Long> createAll(List<Member> models) {
+        return metrics.time("createAll", () -> {
+            ValidationUtil.requireNonNull(models, "members");
+            log.debug("createAll(List<Member>) called (count={}).", models.size());
+
+            if (models.isEmpty()) {
+                return List.of();
+            }
+
+            Set<String> emails = new HashSet<>();
+            for (Member model : models) {
+                ValidationUtil.requireNonNull(model, "member");
+                ValidationUtil.requireNonBlank(model.getName(), "name");
+                normalizeOptionalFields(model);
+
+                if (model.getEmail() != null && !emails.add(model.getEmail())) {
+                    log.info("createAll blocked: duplicate email within the batch.");
+                    throw new IllegalArgumentException("Email is used by more than one member in the batch.");
+                }
+            }
+
+            List<MemberEntity> entities = models.stream().map(this::toEntityForInsert).toList();
+            List<Long> ids = memberDAO.saveAll(entities);
+
+            for (int i = 0; i < models.size(); i++) {
+                models.get(i).setId(ids.get(i));
+            }
+
+            log.info("Members created successfully (count={}).", ids.size());
+            return ids;
+        });
     }
 
     /**
@@ -115,18 +197,22 @@ public class MemberService implements ServiceInterface<Member, Long> {
      */
     @Override
     public Optional<Member> getById(Long id) {
-        if (id == null || id <= 0) {
-            log.warn("getById called with invalid id={}", id);
-            return Optional.empty();
-        }
-
-        Optional<Member> result = memberDAO.findById(id).map(this::toModel);
-        if (result.isEmpty()) {
-            log.info("No member found with id={}", id);
-        } else {
-            log.debug("Member found with id={}", id);
-        }
-        return result;
+        return metrics.time("getById", () -> {
+            if (id == null || id <= 0) {
+                log.warn("getById called with invalid id={}", id);
+                return Optional.empty();
+            }
+
+            Optional<Member> result = Optional
+                    .ofNullable(cache.get(id, key -> memberDAO.findById(key).orElse(null)))
+                    .map(this::toModel);
+            if (result.isEmpty()) {
+                log.info("No member found with id={}", id);
+            } else {
+                log.debug("Member found with id={}", id);
+            }
+            return result;
+        });
     }
 
     /**
@@ -136,75 +222,213 @@ public class MemberService implements ServiceInterface<Member, Long> {
      */
     @Override
     public List<Member> getAll() {
-        log.debug("getAll called.");
+        return metrics.time("getAll", () -> {
+            log.debug("getAll called.");
 
-        List<Member> members = memberDAO.findAll()
-                .stream()
-                .map(this::toModel)
-                .toList();
+            List<Member> members = memberDAO.findAll()
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
 
-        log.debug("getAll returning {} members.", members.size());
-        return members;
+            log.debug("getAll returning {} members.", members.size());
+            return members;
+        });
     }
 
     /**
-     * Updates an existing member.
+     * Retrieves one page of members ordered by ID.
      *
-     * <p>This method validates required fields, normalizes optional fields, ensures the target exists,
-     * and enforces email uniqueness for updates (email may be null).</p>
-     *
-     * @param id           member identifier
-     * @param updatedModel model containing updated values
-     * @return updated member model
-     * @throws IllegalArgumentException if id/model is invalid, member not found, or email conflicts
-     * @throws RuntimeException         if persistence fails
+     * @param afterId ID of the last member on the previous page ({@code 0} for the first page)
+     * @param limit   maximum number of members to return
+     * @return list of at most {@code limit} members
+     * @throws IllegalArgumentException if {@code afterId} or {@code limit} is out of range
      */
     @Override
-    public Member update(Long id, Member updatedModel) {
-        log.debug("update called for id={}", id);
+    public List<Member> getPage(Long afterId, int limit) {
+        return metrics.time("getPage", () -> {
+            log.debug("getPage called (afterId={}, limit={}).", afterId, limit);
 
-        if (id == null || id <= 0) {
-            log.warn("update called with invalid id={}", id);
-            throw new IllegalArgumentException("id must be a positive number.");
-        }
-
-        ValidationUtil.requireNonNull(updatedModel, "member");
-        ValidationUtil.requireNonBlank(updatedModel.getName(), "name");
-        normalizeOptionalFields(updatedModel);
+            ValidationUtil.validatePageRequest(afterId, limit);
 
-        // Cheaper existence check than fetching the whole row (nicer logs + faster fail)
-        if (!memberDAO.existsById(id)) {
-            log.info("update failed: no member found with id={}", id);
-            throw new IllegalArgumentException("No member found with id=" + id);
-        }
+            return memberDAO.findPage(afterId, limit)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        // Email uniqueness check for updates:
-        // - null allowed
-        // - if set, must not belong to some OTHER member
-        if (updatedModel.getEmail() != null
-                && !memberDAO.isEmailAvailableForUpdate(id, updatedModel.getEmail())) {
-            log.info("update blocked: email already exists for another member (id={}).", id);
-            throw new IllegalArgumentException(
-                    "Email is already in use by another member. Please enter a different email (or NONE)."
-            );
-        }
+    /**
+     * Streams all members ordered by ID, mapping each row lazily.
+     *
+     * <p>The caller must close the returned stream to release its database connection.</p>
+     *
+     * @return lazily populated stream of members
+     */
+    @Override
+    public Stream<Member> streamAll() {
+        return metrics.time("streamAll", () -> {
+            log.debug("streamAll called.");
+            return memberDAO.streamAll().map(this::toModel);
+        });
+    }
 
-        // Load entity and apply updates
-        MemberEntity existing = memberDAO.findById(id)
-                .orElseThrow(() -> {
-                    // Rare race case: existed earlier but gone now.
-                    log.info("update failed: no member found with id={}", id);
-                    return new IllegalArgumentException("No member found with id=" + id);
-                });
+    /**
+     * Retrieves one page of members whose name starts with {@code prefix} (case-insensitive),
+     * ordered by lowercase name and ID.
+     *
+     * <p>Pass {@code null} for {@code after} to read the first page, then the last element
+     * of each page to read the next one; an empty page marks the end.</p>
+     *
+     * @param prefix leading part of the name (non-blank; surrounding whitespace is ignored)
+     * @param after  last member of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of members (1 to {@link ValidationUtil#MAX_PAGE_SIZE})
+     * @return at most {@code limit} members
+     * @throws IllegalArgumentException if {@code prefix} is blank or too long, or {@code limit} is out of range
+     */
+    public List<Member> searchByName(String prefix, Member after, int limit) {
+        return metrics.time("searchByName", () -> {
+            ValidationUtil.requireNonBlank(prefix, "prefix");
+
+            String trimmed = prefix.trim();
+            log.debug("searchByName called (prefixLength={}, afterId={}, limit={}).",
+                    trimmed.length(), after == null ? null : after.getId(), limit);
+
+            if (trimmed.length() > MemberValidator.MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException(
+                        "prefix must be " + MemberValidator.MAX_NAME_LENGTH + " characters or less.");
+            }
+            ValidationUtil.validatePageRequest(after == null ? 0L : after.getId(), limit);
+
+            return memberDAO.findByNamePrefix(
+                            trimmed,
+                            after == null ? null : after.getName(),
+                            after == null ? 0L : after.getId(),
+                            limit)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        existing.setName(updatedModel.getName());
-        existing.setEmail(updatedModel.getEmail());
-        existing.setPhone(updatedModel.getPhone());
+    /**
+     * Finds members by email address, ignoring case and surrounding whitespace.
+     *
+     * <p><strong>PII note:</strong> the email value is not logged.</p>
+     *
+     * @param email email address to look up
+     * @return matching members (usually zero or one)
+     * @throws IllegalArgumentException if {@code email} is blank or too long
+     */
+    public List<Member> findByEmail(String email) {
+        return metrics.time("findByEmail", () -> {
+            log.debug("findByEmail called.");
+
+            String normalized = MemberValidator.normalizeOptionalEmail(email);
+            ValidationUtil.requireNonBlank(normalized, "email");
+            if (normalized.length() > MemberValidator.MAX_EMAIL_LENGTH) {
+                throw new IllegalArgumentException(
+                        "email must be " + MemberValidator.MAX_EMAIL_LENGTH + " characters or less.");
+            }
+
+            return memberDAO.findByEmailIgnoreCase(normalized)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        memberDAO.update(existing);
+    /**
+     * Finds members by phone number, comparing digits only (so {@code "555-010-2030"} matches
+     * a stored {@code "(555) 010 2030"}).
+     *
+     * <p><strong>PII note:</strong> the phone value is not logged.</p>
+     *
+     * @param phone phone number as typed
+     * @return matching members ordered by ID
+     * @throws IllegalArgumentException if {@code phone} contains no digits or is too long
+     */
+    public List<Member> findByPhone(String phone) {
+        return metrics.time("findByPhone", () -> {
+            log.debug("findByPhone called.");
+
+            ValidationUtil.requireNonBlank(phone, "phone");
+            String digits = phone.replaceAll("[^0-9]", "");
+            if (digits.isEmpty()) {
+                throw new IllegalArgumentException("phone must contain at least one digit.");
+            }
+            if (digits.length() > MemberValidator.MAX_PHONE_LENGTH) {
+                throw new IllegalArgumentException(
+                        "phone must be " + MemberValidator.MAX_PHONE_LENGTH + " characters or less.");
+            }
+
+            return memberDAO.findByPhoneDigits(digits)
+                    .stream()
+                    .map(this::toModel)
+                    .toList();
+        });
+    }
 
-        log.info("Member updated successfully for id={}", id);
-        return toModel(existing);
+    /**
+     * Updates an existing member.
+     *
+     * <p>This method validates required fields, normalizes optional fields, enforces email
+     * uniqueness for updates (email may be null), and then applies the change with a single
+     * {@code UPDATE ... RETURNING} that also detects a missing member. The update only
+     * applies if the member still has {@code updatedModel}'s version, so two desks editing the
+     * same member cannot silently overwrite each other.</p>
+     *
+     * @param id           member identifier
+     * @param updatedModel model containing updated values and the version they are based on
+     * @return updated member model (with its new version)
+     * @throws IllegalArgumentException if id/model is invalid, member not found, or email conflicts
+     * @throws repository.DAO.OptimisticLockException if the member was changed since it was loaded
+     * @throws RuntimeException         if persistence fails
+     */
+    @Override
+    public Member update(Long id, Member updatedModel) {
+        return metrics.time("update", () -> {
+            log.debug("update called for id={}", id);
+
+            if (id == null || id <= 0) {
+                log.warn("update called with invalid id={}", id);
+                throw new IllegalArgumentException("id must be a positive number.");
+            }
+
+            ValidationUtil.requireNonNull(updatedModel, "member");
+            ValidationUtil.requireNonBlank(updatedModel.getName(), "name");
+            normalizeOptionalFields(updatedModel);
+
+            // Email uniqueness check for updates:
+            // - null allowed
+            // - if set, must not belong to some OTHER member
+            if (updatedModel.getEmail() != null
+                    && !memberDAO.isEmailAvailableForUpdate(id, updatedModel.getEmail())) {
+                log.info("update blocked: email already exists for another member (id={}).", id);
+                throw new IllegalArgumentException(
+                        "Email is already in use by another member. Please enter a different email (or NONE)."
+                );
+            }
+
+            // Drop the cached row first so a failed update can never leave a stale copy behind.
+            cache.invalidate(id);
+
+            // UPDATE ... RETURNING doubles as the existence and version check.
+            MemberEntity changes = new MemberEntity(
+                    id, updatedModel.getName(), updatedModel.getEmail(), updatedModel.getPhone());
+            changes.setVersion(updatedModel.getVersion());
+
+            MemberEntity saved = memberDAO.updateReturning(changes)
+                    .orElseThrow(() -> {
+                        log.info("update failed: no member found with id={}", id);
+                        return new IllegalArgumentException("No member found with id=" + id);
+                    });
+
+            // Invalidate rather than put (see BookService#update): the next read reloads the row.
+            cache.invalidate(id);
+
+            log.info("Member updated successfully for id={}", id);
+            return toModel(saved);
+        });
     }
 
     /**
@@ -213,7 +437,9 @@ public class MemberService implements ServiceInterface<Member, Long> {
      * <p>Because {@code loans.member_id -> members.id} uses FK RESTRICT, deletes may be blocked
      * when a member has related loan rows.</p>
      *
-     * <p>This implementation uses a strict policy: it blocks deletion if the member has any loan history.</p>
+     * <p>This implementation uses a strict policy: it blocks deletion if the member has any loan history.
+     * The existence check, the policy check and the delete run as one statement
+     * ({@link MemberDAO#deleteIfNoLoans(long)}).</p>
      *
      * @param id member identifier
      * @return {@code true} if deleted; {@code false} if not found
@@ -222,39 +448,43 @@ public class MemberService implements ServiceInterface<Member, Long> {
      */
     @Override
     public boolean delete(Long id) {
-        log.debug("delete called for id={}", id);
-
-        if (id == null || id <= 0) {
-            log.warn("delete called with invalid id={}", id);
-            return false;
-        }
-
-        // Existence check (cheaper than findById when you don't need the row)
-        if (!memberDAO.existsById(id)) {
-            log.info("delete skipped: no member found with id={}", id);
-            return false;
-        }
-
-        // Pre-check FK RESTRICT condition for nicer UX.
-        // Choose ONE consistent policy:
-        // - Strict: block if member ever had a loan (hasAnyLoans)
-        // - Lenient: block only if member currently has active loans (hasActiveLoans)
-        if (memberDAO.hasAnyLoans(id)) {
-            log.info("delete blocked: member id={} has loans.", id);
-            throw new IllegalArgumentException(
-                    "Cannot delete member id=" + id + " because they have loan history."
-            );
-        }
-
-        // If you prefer lenient deletion rules, swap the above to:
-        // if (memberDAO.hasActiveLoans(id)) {
-        //     log.info("delete blocked: member id={} has active loans.", id);
-        //     throw new IllegalArgumentException("Cannot delete member id=" + id + " because they have active loans.");
-        // }
+        return metrics.time("delete", () -> {
+            log.debug("delete called for id={}", id);
+
+            if (id == null || id <= 0) {
+                log.warn("delete called with invalid id={}", id);
+                return false;
+            }
+
+            // One conditional DELETE covers the existence check and the strict policy
+            // (block if the member ever had a loan), matching the FK RESTRICT on loans.member_id.
+            WriteOutcome outcome = memberDAO.deleteIfNoLoans(id);
+            cache.invalidate(id);
+
+            if (outcome == WriteOutcome.NOT_FOUND) {
+                log.info("delete skipped: no member found with id={}", id);
+                return false;
+            }
+
+            if (outcome == WriteOutcome.BLOCKED) {
+                log.info("delete blocked: member id={} has loans.", id);
+                throw new IllegalArgumentException(
+                        "Cannot delete member id=" + id + " because they have loan history."
+                );
+            }
+
+            log.info("Member deleted successfully for id={}", id);
+            return true;
+        });
+    }
 
-        memberDAO.deleteById(id);
-        log.info("Member deleted successfully for id={}", id);
-        return true;
+    /**
+     * Returns hit/miss counters of the {@link #getById(Long)} cache.
+     *
+     * @return cache statistics snapshot
+     */
+    public LruCache.Stats getCacheStats() {
+        return cache.stats();
     }
 
     // -------------------------
@@ -268,12 +498,14 @@ public class MemberService implements ServiceInterface<Member, Long> {
      * @return service-layer member model
      */
     private Member toModel(MemberEntity entity) {
-        return new Member(
+        Member model = new Member(
                 entity.getId(),
                 entity.getName(),
                 entity.getEmail(),
                 entity.getPhone()
         );
+        model.setVersion(entity.getVersion());
+        return model;
     }
 
     /**
@@ -0,0 +1,218 @@
+package service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DbConnectionUtil;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs service-layer calls on virtual threads with a bounded number in flight.
+ *
+ * <p>Every submitted task gets its own virtual thread, so thousands of waiting requests
+ * cost little memory and no platform threads. A fair {@link Semaphore} caps how many tasks
+ * run at once; by default the cap equals the connection pool size, so callers queue here
+ * (cheaply, in FIFO order) instead of piling up on pool borrow timeouts.</p>
+ *
+ * <p><strong>Usage:</strong></p>
+ * <pre>
+ * try (ServiceExecutor executor = new ServiceExecutor()) {
+ *     CompletableFuture&lt;Long&gt; loanId = executor.submit(() -&gt; loanService.checkout(loan));
+ *     Optional&lt;Book&gt; book = executor.call(() -&gt; bookService.getById(bookId));
+ * }
+ * </pre>
+ *
+ * <p>Tasks should make the service calls themselves rather than hold a connection across
+ * calls; a task that waits on another task submitted to the same executor can deadlock
+ * once all permits are taken.</p>
+ */
+public class ServiceExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceExecutor.class);
+
+    /**
+     * Default time a task waits for a permit before it is rejected.
+     */
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Point-in-time view of the executor.
+     *
+     * @param maxConcurrency maximum tasks running at once
+     * @param running        tasks currently holding a permit
+     * @param waiting        tasks waiting for a permit
+     * @param rejected       tasks rejected because no permit became free in time
+     */
+    public record Stats(int maxConcurrency, int running, int waiting, long rejected) {
+    }
+
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final ExecutorService virtualThreads;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Creates an executor whose concurrency limit is the connection pool size.
+     */
+    public ServiceExecutor() {
+        this(DbConnectionUtil.getMaxPoolSize(), DEFAULT_ACQUIRE_TIMEOUT);
+    }
+
+    /**
+     * Creates an executor with an explicit concurrency limit.
+     *
+     * @param maxConcurrency maximum tasks running at once (must be positive)
+     * @param acquireTimeout how long a task may wait for a permit (must be positive)
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    public ServiceExecutor(int maxConcurrency, Duration acquireTimeout) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive.");
+        }
+        if (acquireTimeout == null || acquireTimeout.isNegative() || acquireTimeout.isZero()) {
+            throw new IllegalArgumentException("acquireTimeout must be positive.");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.virtualThreads = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("service-", 0).factory());
+
+        log.debug("ServiceExecutor initialized (maxConcurrency={}, acquireTimeout={}).",
+                maxConcurrency, acquireTimeout);
+    }
+
+    /**
+     * Runs {@code task} asynchronously on a virtual thread once a permit is available.
+     *
+     * <p>The returned future completes with the task's result, with the exception the task
+     * threw, or with a {@link RejectedExecutionException} if no permit became free within
+     * the acquire timeout.</p>
+     *
+     * @param task service call to run
+     * @param <T>  result type
+     * @return future for the task's result
+     * @throws RejectedExecutionException if the executor has been closed
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task cannot be null.");
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        virtualThreads.execute(() -> runWithPermit(task, result));
+        return result;
+    }
+
+    /**
+     * Runs {@code task} asynchronously and discards its result.
+     *
+     * @param task service call to run
+     * @return future completed when the task finishes
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task cannot be null.");
+        }
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code task} on a virtual thread and waits for its result.
+     *
+     * <p>Runtime exceptions thrown by the task (e.g., {@link IllegalArgumentException} from
+     * validation) are rethrown unchanged, so callers can handle them exactly as if they had
+     * called the service directly.</p>
+     *
+     * @param task service call to run
+     * @param <T>  result type
+     * @return the task's result
+     * @throws RejectedExecutionException if no permit became free in time
+     * @throws IllegalStateException      if the calling thread is interrupted while waiting
+     */
+    public <T> T call(Supplier<T> task) {
+        try {
+            return submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a service call.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the executor counters.
+     *
+     * @return current statistics
+     */
+    public Stats getStats() {
+        return new Stats(
+                maxConcurrency,
+                maxConcurrency - permits.availablePermits(),
+                permits.getQueueLength(),
+                rejected.get()
+        );
+    }
+
+    /**
+     * Stops accepting tasks and waits for submitted tasks to finish.
+     */
+    @Override
+    public void close() {
+        virtualThreads.close();
+        log.debug("ServiceExecutor closed.");
+    }
+
+    private <T> void runWithPermit(Supplier<T> task, CompletableFuture<T> result) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.incrementAndGet();
+                log.warn("Service call rejected: no permit within {} ms (maxConcurrency={}).",
+                        TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos), maxConcurrency);
+                result.completeExceptionally(new RejectedExecutionException(
+                        "Service executor is saturated; try again later."));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        // Release before completing so a caller that observes completion also sees the permit back.
+        T value;
+        try {
+            value = task.get();
+        } catch (Throwable t) {
+            permits.release();
+            result.completeExceptionally(t);
+            return;
+        }
+        permits.release();
+        result.complete(value);
+    }
+}
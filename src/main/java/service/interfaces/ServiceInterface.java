@@ -2,6 +2,7 @@ package service.interfaces;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Generic service-layer interface defining standard CRUD operations
@@ -57,6 +58,19 @@ public interface ServiceInterface<T, ID> {
      */
     ID create(T model);
 
+    /**
+     * Creates many model instances in one batched, all-or-nothing operation.
+     *
+     * <p>Every model is validated before anything is written. Generated identifiers
+     * are applied to the models and returned in input order.</p>
+     *
+     * @param models the models to create
+     * @return the generated identifiers, in the same order as {@code models}
+     * @throws IllegalArgumentException if {@code models} is null or any model fails validation
+     * @throws RuntimeException if persistence fails (nothing is saved)
+     */
+    List<ID> createAll(List<T> models);
+
     // ---------------------------------------------------------------------
     // Read
     // ---------------------------------------------------------------------
@@ -82,6 +96,29 @@ public interface ServiceInterface<T, ID> {
      */
     List<T> getAll();
 
+    /**
+     * Retrieves one page of models ordered by identifier.
+     *
+     * <p>Paging is keyset-based: pass {@code 0} for the first page and the identifier
+     * of the last model of the previous page for each following page.</p>
+     *
+     * @param afterId identifier after which the page starts
+     * @param limit   maximum number of models to return
+     * @return a list of at most {@code limit} models (empty when no more remain)
+     * @throws IllegalArgumentException if {@code afterId} or {@code limit} is out of range
+     */
+    List<T> getPage(ID afterId, int limit);
+
+    /**
+     * Streams all models ordered by identifier without loading them all into memory.
+     *
+     * <p>The returned stream holds database resources and must be closed by the caller
+     * (try-with-resources).</p>
+     *
+     * @return a lazily populated stream of all models
+     */
+    Stream<T> streamAll();
+
     // ---------------------------------------------------------------------
     // Update
     // ---------------------------------------------------------------------
@@ -0,0 +1,27 @@
+package service.models;
+
+import java.util.List;
+
+/**
+ * Service-layer result of an all-or-nothing group checkout.
+ *
+ * <p>Either every loan was created ({@link #isCommitted()}, with {@code loanIds} in request
+ * order), or none was and the conflicts explain why.</p>
+ *
+ * @param loanIds            created loan IDs in request order (empty if nothing was committed)
+ * @param unavailableBookIds requested books that are already checked out
+ * @param overLimitMemberIds members who would exceed the active-loan limit
+ */
+public record BatchCheckout(
+        List<Long> loanIds,
+        List<Long> unavailableBookIds,
+        List<Long> overLimitMemberIds
+) {
+
+    /**
+     * @return {@code true} if all loans were created
+     */
+    public boolean isCommitted() {
+        return unavailableBookIds.isEmpty() && overLimitMemberIds.isEmpty();
+    }
+}
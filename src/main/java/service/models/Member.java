@@ -40,6 +40,12 @@ public class Member {
      */
     private String phone;
 
+    /**
+     * Row version as last read from the database.
+     * <p>Passed back on update so that a concurrent change is detected instead of overwritten.</p>
+     */
+    private long version;
+
     /**
      * No-argument constructor.
      *
@@ -156,6 +162,24 @@ public class Member {
         this.phone = phone;
     }
 
+    /**
+     * Returns the row version this model was read at.
+     *
+     * @return row version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the row version an update is based on.
+     *
+     * @param version row version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Returns a human-readable string representation of the member.
      *
@@ -0,0 +1,53 @@
+package service.models;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service-layer model for the circulation desk's view of one member.
+ *
+ * <p>A read-only snapshot: the member's contact details, loan counts and their most recent
+ * loans with book titles, loaded together so the desk does not need a lookup per loan.</p>
+ *
+ * @param memberId     member ID
+ * @param name         member name
+ * @param email        member email, or {@code null}
+ * @param phone        member phone, or {@code null}
+ * @param totalLoans   number of loans ever recorded for the member
+ * @param activeLoans  number of loans not yet returned
+ * @param overdueLoans number of active loans past their due date
+ * @param recentLoans  most recent loans, active ones first
+ */
+public record MemberSummary(
+        long memberId,
+        String name,
+        String email,
+        String phone,
+        int totalLoans,
+        int activeLoans,
+        int overdueLoans,
+        List<RecentLoan> recentLoans
+) {
+
+    /**
+     * One of the member's recent loans.
+     *
+     * @param loanId       loan ID
+     * @param bookId       book ID
+     * @param title        book title
+     * @param checkoutDate checkout date
+     * @param dueDate      due date
+     * @param returnDate   return date, or {@code null} if still active
+     * @param overdue      whether the loan is active and past its due date
+     */
+    public record RecentLoan(
+            long loanId,
+            long bookId,
+            String title,
+            LocalDate checkoutDate,
+            LocalDate dueDate,
+            LocalDate returnDate,
+            boolean overdue
+    ) {
+    }
+}
@@ -0,0 +1,37 @@
+package service.models;
+
+import java.time.LocalDate;
+
+/**
+ * Service-layer model for one line of the overdue loan report.
+ *
+ * <p>Unlike {@link Loan}, this is a read-only, denormalized view: it carries the book title
+ * and author and the member's contact details alongside the loan, so overdue notices can be
+ * produced without additional lookups per loan.</p>
+ *
+ * @param loanId       loan ID
+ * @param bookId       book ID
+ * @param title        book title
+ * @param author       book author
+ * @param memberId     member ID
+ * @param memberName   member name
+ * @param email        member email, or {@code null}
+ * @param phone        member phone, or {@code null}
+ * @param checkoutDate checkout date
+ * @param dueDate      due date
+ * @param daysOverdue  days past the due date as of the report date
+ */
+public record OverdueLoan(
+        long loanId,
+        long bookId,
+        String title,
+        String author,
+        long memberId,
+        String memberName,
+        String email,
+        String phone,
+        LocalDate checkoutDate,
+        LocalDate dueDate,
+        int daysOverdue
+) {
+}
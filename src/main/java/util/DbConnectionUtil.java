@@ -2,32 +2,39 @@ package util;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import util.jdbc.ConnectionPool;
+import util.jdbc.SlowQueryLog;
+import util.jdbc.TransactionTemplate;
+import util.metrics.ConnectionMetrics;
+import util.metrics.Metrics;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
 
 /**
  * Utility class responsible for establishing and managing the application's
- * JDBC database connection.
+ * JDBC database connections.
  *
  * <p>This class:</p>
  * <ul>
  *   <li>Loads database configuration from {@code database.properties}</li>
- *   <li>Initializes a single shared {@link Connection} (simple singleton)</li>
- *   <li>Provides controlled access to that connection</li>
- *   <li>Handles safe shutdown of the connection</li>
+ *   <li>Initializes a shared, bounded {@link ConnectionPool}</li>
+ *   <li>Hands out pooled connections to DAOs on a per-operation basis</li>
+ *   <li>Joins DAOs to the current thread's {@link TransactionTemplate} transaction, if any</li>
+ *   <li>Times statements and reports slow ones, if {@code db.slowQuery.thresholdMs} is set</li>
+ *   <li>Records DAO call metrics on the connections it hands out, if {@link Metrics} is enabled</li>
+ *   <li>Handles safe shutdown of the pool</li>
  * </ul>
  *
  * <p><strong>Design notes:</strong></p>
  * <ul>
- *   <li>Connection is created eagerly in a static initializer</li>
+ *   <li>The pool is created eagerly in a static initializer</li>
  *   <li>Failures during initialization are treated as fatal</li>
- *   <li>This approach is appropriate for a small CLI application (Project 0)</li>
- *   <li>Not intended for high-concurrency or connection-pooling scenarios</li>
+ *   <li>Callers must close each borrowed connection (try-with-resources) to return it to the pool</li>
  * </ul>
  *
  * <p><strong>Required properties (on classpath):</strong></p>
@@ -37,6 +44,13 @@ import java.util.Properties;
  *   <li>{@code db.username}</li>
  *   <li>{@code db.password}</li>
  * </ul>
+ *
+ * <p>JVM system properties of the same name ({@code -Ddb.url=...}, {@code -Ddb.username=...},
+ * {@code -Ddb.password=...}) take precedence over the file.</p>
+ *
+ * <p>Optional {@code db.pool.*} keys tune the pool; see
+ * {@link ConnectionPool.Config#fromProperties(Properties)}. Optional {@code db.slowQuery.*} keys
+ * enable the slow-query log; see {@link SlowQueryLog.Config#fromProperties(Properties)}.</p>
  */
 public class DbConnectionUtil {
 
@@ -46,19 +60,24 @@ public class DbConnectionUtil {
     private static final Logger log = LoggerFactory.getLogger(DbConnectionUtil.class);
 
     /**
-     * Shared JDBC connection instance.
+     * Shared connection pool instance.
+     */
+    private static ConnectionPool pool;
+
+    /**
+     * Slow-query log applied to pooled connections, or {@code null} if disabled.
      */
-    private static Connection connection;
+    private static SlowQueryLog slowQueryLog;
 
     /**
-     * Static initializer that loads configuration and establishes
-     * the database connection exactly once.
+     * Static initializer that loads configuration and starts
+     * the connection pool exactly once.
      *
      * <p>If initialization fails, a {@link RuntimeException} is thrown
      * to prevent the application from running in a partially configured state.</p>
      */
     static {
-        if (connection == null) {
+        if (pool == null) {
             Properties properties = new Properties();
 
             try (InputStream input =
@@ -75,6 +94,14 @@ public class DbConnectionUtil {
                 properties.load(input);
                 log.debug("Loaded database.properties successfully.");
 
+                for (String key : List.of("db.url", "db.username", "db.password")) {
+                    String override = System.getProperty(key);
+                    if (override != null) {
+                        properties.setProperty(key, override);
+                        log.debug("{} overridden by system property.", key);
+                    }
+                }
+
                 String driver = properties.getProperty("db.driver");
                 String url = properties.getProperty("db.url");
                 String username = properties.getProperty("db.username");
@@ -93,12 +120,19 @@ public class DbConnectionUtil {
                 Class.forName(driver);
                 log.debug("JDBC driver loaded: {}", driver);
 
-                // Establish database connection
-                connection = DriverManager.getConnection(url, username, password);
+                // Start the connection pool (opens db.pool.minSize connections eagerly)
+                pool = new ConnectionPool(ConnectionPool.Config.fromProperties(properties));
+
+                SlowQueryLog.Config slowQueryConfig = SlowQueryLog.Config.fromProperties(properties);
+                if (slowQueryConfig.isEnabled()) {
+                    slowQueryLog = new SlowQueryLog(slowQueryConfig);
+                    log.info("Slow-query log enabled (thresholdMs={}, topN={}).",
+                            slowQueryConfig.thresholdMillis(), slowQueryConfig.topN());
+                }
 
                 // Avoid logging sensitive data (password)
                 log.info(
-                        "Database connection established successfully (url={}, username={}).",
+                        "Database connection pool established successfully (url={}, username={}).",
                         url,
                         username
                 );
@@ -135,40 +169,101 @@ public class DbConnectionUtil {
     }
 
     /**
-     * Returns the active JDBC connection.
+     * Borrows a connection from the shared pool.
+     *
+     * <p>The caller owns the returned connection until it is closed; closing it
+     * returns the underlying physical connection to the pool.</p>
+     *
+     * <p>Inside {@link TransactionTemplate#execute(java.util.function.Supplier)} the connection
+     * of the current transaction is returned instead; closing it leaves the transaction open.</p>
+     *
+     * <p>While {@link Metrics} is enabled, the connection records the calling DAO operation
+     * when it is closed (see {@link ConnectionMetrics}).</p>
+     *
+     * @return pooled {@link Connection}
+     * @throws SQLException     if no connection could be acquired (e.g., acquire timeout)
+     * @throws RuntimeException if the pool was not successfully initialized
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection joined = TransactionTemplate.currentConnection();
+        if (joined != null) {
+            return Metrics.isEnabled() ? ConnectionMetrics.instrument(joined) : joined;
+        }
+        if (pool == null) {
+            log.error("Connection requested, but pool is null (initialization failed or pool closed).");
+            throw new RuntimeException("Connection pool failed to set up correctly.");
+        }
+        Connection connection = pool.borrow();
+        if (slowQueryLog != null) {
+            connection = slowQueryLog.wrap(connection);
+        }
+        return Metrics.isEnabled() ? ConnectionMetrics.instrument(connection) : connection;
+    }
+
+    /**
+     * Returns the maximum number of connections the pool will open.
+     *
+     * @return configured {@code db.pool.maxSize}
+     */
+    public static int getMaxPoolSize() {
+        if (pool == null) {
+            throw new RuntimeException("Connection pool failed to set up correctly.");
+        }
+        return pool.getConfig().maxSize();
+    }
+
+    /**
+     * Returns a snapshot of the pool counters (useful for diagnostics).
      *
-     * @return initialized {@link Connection}
-     * @throws RuntimeException if the connection was not successfully initialized
+     * @return pool statistics
      */
-    public static Connection getConnection() {
-        if (connection == null) {
-            log.error("Connection requested, but connection is null (initialization failed).");
-            throw new RuntimeException("Connection failed to set up correctly.");
+    public static ConnectionPool.Stats getPoolStats() {
+        if (pool == null) {
+            throw new RuntimeException("Connection pool failed to set up correctly.");
         }
-        return connection;
+        return pool.getStats();
     }
 
     /**
-     * Closes the active database connection and clears the reference.
+     * Returns the prepared statement cache counters summed over all pooled connections.
+     *
+     * @return statement cache statistics
+     */
+    public static ConnectionPool.StatementCacheStats getStatementCacheStats() {
+        if (pool == null) {
+            throw new RuntimeException("Connection pool failed to set up correctly.");
+        }
+        return pool.getStatementCacheStats();
+    }
+
+    /**
+     * Returns the slowest statement executions seen so far (see {@link SlowQueryLog}).
+     *
+     * @return slowest executions, slowest first; empty if the slow-query log is disabled
+     */
+    public static List<SlowQueryLog.SlowQuery> getSlowestQueries() {
+        return slowQueryLog == null ? List.of() : slowQueryLog.slowest();
+    }
+
+    /**
+     * Closes the connection pool and clears the reference.
      *
      * <p>This method is safe to call multiple times.</p>
      * <ul>
-     *   <li>If the connection is open, it will be closed</li>
-     *   <li>If the connection is already {@code null}, nothing happens</li>
+     *   <li>If the pool is open, all idle connections are closed</li>
+     *   <li>If the pool is already {@code null}, nothing happens</li>
      * </ul>
      */
-    public static void closeConnection() {
-        if (connection != null) {
+    public static void closePool() {
+        if (pool != null) {
             try {
-                connection.close();
-                log.info("Database connection closed successfully.");
-            } catch (SQLException e) {
-                log.error("Failed to close database connection.", e);
+                pool.close();
+                log.info("Database connection pool closed successfully.");
             } finally {
-                connection = null;
+                pool = null;
             }
         } else {
-            log.debug("closeConnection() called, but connection was already null.");
+            log.debug("closePool() called, but pool was already null.");
         }
     }
 }
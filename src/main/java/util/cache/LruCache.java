@@ -0,0 +1,215 @@
+package util.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small thread-safe, in-process cache with a size bound, LRU eviction and a time-to-live.
+ *
+ * <p>Used by the service layer as a read-through cache in front of single-row DAO lookups.
+ * Writers must {@link #invalidate(Object)} a key after changing the underlying row; the TTL
+ * bounds how long a value changed outside this process (or by a racing writer) can be served.</p>
+ *
+ * <p><strong>Design notes:</strong></p>
+ * <ul>
+ *   <li>Entries live in an access-ordered {@link LinkedHashMap}; the least recently used
+ *       entry is evicted once {@code maxSize} is exceeded</li>
+ *   <li>The loader runs outside the lock, so a slow database call never blocks other readers</li>
+ *   <li>A load that overlaps an invalidation is returned to its caller but not cached,
+ *       so an invalidated value cannot be re-inserted by a stale read</li>
+ *   <li>{@code null} loader results (row not found) are never cached</li>
+ * </ul>
+ *
+ * @param <K> key type
+ * @param <V> value type (should be treated as immutable once cached)
+ */
+public final class LruCache<K, V> {
+
+    /**
+     * Snapshot of cache counters.
+     *
+     * @param hits        lookups served from the cache
+     * @param misses      lookups that went to the loader (including expired entries)
+     * @param evictions   entries removed because the cache was full
+     * @param expirations entries removed because their TTL elapsed
+     * @param size        current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        /**
+         * @return fraction of lookups served from the cache ({@code 0.0} if there were none)
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Cached value and the time (in clock nanos) at which it expires.
+     */
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Incremented on every invalidation; loads that started under an older value are not cached.
+     */
+    private long invalidationEpoch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize maximum number of entries (must be positive)
+     * @param ttl     time-to-live of each entry (must be positive)
+     * @throws IllegalArgumentException if {@code maxSize} or {@code ttl} is not positive
+     */
+    public LruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache with an explicit clock (used by tests).
+     *
+     * @param maxSize   maximum number of entries (must be positive)
+     * @param ttl       time-to-live of each entry (must be positive)
+     * @param nanoClock monotonic clock in nanoseconds
+     */
+    LruCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive.");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive.");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for {@code key}, loading (and caching) it on a miss.
+     *
+     * @param key    key to look up
+     * @param loader computes the value on a miss; may return {@code null} (not cached)
+     * @return the cached or loaded value, or {@code null} if the loader returned {@code null}
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long epoch;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            epoch = invalidationEpoch;
+        }
+
+        V loaded = loader.apply(key);
+
+        if (loaded != null) {
+            synchronized (this) {
+                if (epoch == invalidationEpoch) {
+                    entries.put(key, new Entry<>(loaded, nanoClock.getAsLong() + ttlNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value without loading it.
+     *
+     * @param key key to look up
+     * @return cached value, or {@code null} if absent or expired
+     */
+    public synchronized V getIfPresent(K key) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    /**
+     * Stores a value, replacing any existing entry.
+     *
+     * @param key   key
+     * @param value value (must not be {@code null})
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null.");
+        }
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    /**
+     * Removes the entry for {@code key}, if any.
+     *
+     * @param key key to remove
+     */
+    public synchronized void invalidate(K key) {
+        invalidationEpoch++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidateAll() {
+        invalidationEpoch++;
+        entries.clear();
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return current statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size());
+    }
+
+    /**
+     * Returns the live value for {@code key}, dropping it if expired. Caller must hold the lock.
+     */
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        return entry.value();
+    }
+}
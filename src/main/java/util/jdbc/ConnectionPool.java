@@ -0,0 +1,627 @@
+package util.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small, bounded JDBC connection pool used by {@link util.DbConnectionUtil}.
+ *
+ * <p>Callers borrow a {@link Connection} per operation and return it by calling
+ * {@link Connection#close()} (typically via try-with-resources). The returned object is a
+ * lightweight handle around a pooled physical connection; closing the handle hands the
+ * physical connection back to the pool instead of closing it.</p>
+ *
+ * <p><strong>Features:</strong></p>
+ * <ul>
+ *   <li>Bounded size ({@code minSize} warm connections, at most {@code maxSize} open)</li>
+ *   <li>Acquire timeout: borrowers wait at most {@code acquireTimeoutMillis} for a free slot</li>
+ *   <li>Validation-on-borrow for connections that have been idle longer than
+ *       {@code validationIntervalMillis}</li>
+ *   <li>Idle eviction down to {@code minSize} after {@code idleTimeoutMillis}</li>
+ *   <li>Leak detection: connections held longer than {@code leakDetectionThresholdMillis}
+ *       are reported together with the stack trace of the borrower</li>
+ *   <li>Per-connection prepared statement cache ({@code statementCacheSize} statements,
+ *       see {@link StatementCache})</li>
+ * </ul>
+ *
+ * <p>Session state changed by a borrower (auto-commit, read-only, isolation level) is reset
+ * when the connection is returned, so one caller's transaction settings never leak into the next.</p>
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * Pool sizing and timing configuration.
+     *
+     * @param url                          JDBC url
+     * @param username                     database user
+     * @param password                     database password
+     * @param driverProperties             extra driver properties (may be empty)
+     * @param minSize                      connections kept open while idle
+     * @param maxSize                      hard upper bound on open connections
+     * @param acquireTimeoutMillis         maximum time a borrower waits for a connection
+     * @param idleTimeoutMillis            idle time after which surplus connections are closed
+     * @param leakDetectionThresholdMillis borrow duration that triggers a leak warning (0 disables)
+     * @param validationTimeoutSeconds     timeout passed to {@link Connection#isValid(int)}
+     * @param validationIntervalMillis     connections used more recently than this skip validation
+     * @param housekeepingIntervalMillis   period of the eviction / leak-detection task
+     * @param statementCacheSize           prepared statements cached per connection (0 disables)
+     */
+    public record Config(
+            String url,
+            String username,
+            String password,
+            Properties driverProperties,
+            int minSize,
+            int maxSize,
+            long acquireTimeoutMillis,
+            long idleTimeoutMillis,
+            long leakDetectionThresholdMillis,
+            int validationTimeoutSeconds,
+            long validationIntervalMillis,
+            long housekeepingIntervalMillis,
+            int statementCacheSize
+    ) {
+
+        /**
+         * Validates sizing and timing values.
+         */
+        public Config {
+            if (url == null || username == null || password == null) {
+                throw new IllegalArgumentException("url, username and password are required.");
+            }
+            if (driverProperties == null) {
+                driverProperties = new Properties();
+            }
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be at least 1.");
+            }
+            if (minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("minSize must be between 0 and maxSize.");
+            }
+            if (acquireTimeoutMillis <= 0 || idleTimeoutMillis <= 0 || housekeepingIntervalMillis <= 0) {
+                throw new IllegalArgumentException("Pool timeouts must be positive.");
+            }
+            if (leakDetectionThresholdMillis < 0 || validationTimeoutSeconds < 0 || validationIntervalMillis < 0
+                    || statementCacheSize < 0) {
+                throw new IllegalArgumentException("Pool thresholds cannot be negative.");
+            }
+        }
+
+        /**
+         * Builds a configuration from {@code database.properties} values.
+         *
+         * <p>Recognized pool keys (all optional):</p>
+         * <ul>
+         *   <li>{@code db.pool.minSize} (default 2)</li>
+         *   <li>{@code db.pool.maxSize} (default 10)</li>
+         *   <li>{@code db.pool.acquireTimeoutMs} (default 5000)</li>
+         *   <li>{@code db.pool.idleTimeoutMs} (default 600000)</li>
+         *   <li>{@code db.pool.leakDetectionThresholdMs} (default 0 = disabled)</li>
+         *   <li>{@code db.pool.validationTimeoutSeconds} (default 2)</li>
+         *   <li>{@code db.pool.validationIntervalMs} (default 500)</li>
+         *   <li>{@code db.pool.housekeepingIntervalMs} (default 30000)</li>
+         *   <li>{@code db.pool.statementCacheSize} (default 64, 0 disables)</li>
+         * </ul>
+         *
+         * <p>{@code db.prepareThreshold} (default 1) is passed to the PostgreSQL driver: the
+         * number of executions after which a statement switches to a server-side named plan.
+         * With the statement cache keeping hot statements alive, a threshold of 1 lets them
+         * skip re-planning from their first reuse; set it to 0 to disable server-side plans.</p>
+         *
+         * @param properties loaded database properties
+         * @return pool configuration
+         * @throws IllegalArgumentException if a value is malformed or out of range
+         */
+        public static Config fromProperties(Properties properties) {
+            Properties driverProperties = new Properties();
+            driverProperties.setProperty("prepareThreshold",
+                    String.valueOf(intProperty(properties, "db.prepareThreshold", 1)));
+
+            return new Config(
+                    properties.getProperty("db.url"),
+                    properties.getProperty("db.username"),
+                    properties.getProperty("db.password"),
+                    driverProperties,
+                    intProperty(properties, "db.pool.minSize", 2),
+                    intProperty(properties, "db.pool.maxSize", 10),
+                    longProperty(properties, "db.pool.acquireTimeoutMs", 5_000L),
+                    longProperty(properties, "db.pool.idleTimeoutMs", 600_000L),
+                    longProperty(properties, "db.pool.leakDetectionThresholdMs", 0L),
+                    intProperty(properties, "db.pool.validationTimeoutSeconds", 2),
+                    longProperty(properties, "db.pool.validationIntervalMs", 500L),
+                    longProperty(properties, "db.pool.housekeepingIntervalMs", 30_000L),
+                    intProperty(properties, "db.pool.statementCacheSize", 64)
+            );
+        }
+
+        private static int intProperty(Properties properties, String key, int defaultValue) {
+            return (int) longProperty(properties, key, defaultValue);
+        }
+
+        private static long longProperty(Properties properties, String key, long defaultValue) {
+            String raw = properties.getProperty(key);
+            if (raw == null || raw.isBlank()) return defaultValue;
+            try {
+                return Long.parseLong(raw.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid numeric value for " + key + ": " + raw, e);
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool counters.
+     *
+     * @param total    open physical connections
+     * @param idle     connections waiting in the pool
+     * @param borrowed connections currently handed out
+     * @param waiting  threads waiting for a connection
+     */
+    public record Stats(int total, int idle, int borrowed, int waiting) { }
+
+    /**
+     * Pool-wide prepared statement cache counters.
+     *
+     * @param hits      {@code prepareStatement} calls served from a connection's cache
+     * @param misses    calls that prepared a new statement
+     * @param evictions statements closed to make room in a full cache
+     */
+    public record StatementCacheStats(long hits, long misses, long evictions) { }
+
+    private final Config config;
+
+    /**
+     * Bounds the number of connections handed out at once.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Idle connections; used LIFO so the warmest connection is reused first.
+     */
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the pool and eagerly opens {@code minSize} connections.
+     *
+     * @param config pool configuration
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(Config config) throws SQLException {
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+
+        for (int i = 0; i < config.minSize(); i++) {
+            idle.offerLast(open());
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(
+                this::housekeep,
+                config.housekeepingIntervalMillis(),
+                config.housekeepingIntervalMillis(),
+                TimeUnit.MILLISECONDS
+        );
+
+        log.info("Connection pool started (minSize={}, maxSize={}, acquireTimeoutMs={}, statementCacheSize={}).",
+                config.minSize(), config.maxSize(), config.acquireTimeoutMillis(), config.statementCacheSize());
+    }
+
+    /**
+     * Returns the pool configuration.
+     *
+     * @return configuration used to build this pool
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Borrows a connection from the pool.
+     *
+     * <p>The caller must close the returned handle to give the connection back.</p>
+     *
+     * @return pooled connection handle
+     * @throws SQLTimeoutException if no connection became available within the acquire timeout
+     * @throws SQLException        if the pool is closed or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.", "08003");
+        }
+
+        try {
+            if (!permits.tryAcquire(config.acquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {} ms waiting for a database connection ({}).",
+                        config.acquireTimeoutMillis(), getStats());
+                throw new SQLTimeoutException(
+                        "Timed out waiting for a database connection after "
+                                + config.acquireTimeoutMillis() + " ms.", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", "08001", e);
+        }
+
+        try {
+            PooledEntry entry = takeUsableIdle();
+            if (entry == null) {
+                entry = open();
+            }
+
+            entry.borrowedAtMillis = System.currentTimeMillis();
+            entry.borrowSite = config.leakDetectionThresholdMillis() > 0
+                    ? new Throwable("Connection borrowed here")
+                    : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+
+            return entry.newHandle();
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns current pool counters.
+     *
+     * @return pool statistics snapshot
+     */
+    public Stats getStats() {
+        return new Stats(totalConnections.get(), idle.size(), borrowed.size(), permits.getQueueLength());
+    }
+
+    /**
+     * Returns prepared statement cache counters summed over all connections.
+     *
+     * @return statement cache statistics snapshot
+     */
+    public StatementCacheStats getStatementCacheStats() {
+        return new StatementCacheStats(
+                statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get());
+    }
+
+    /**
+     * Closes all idle connections and stops housekeeping.
+     *
+     * <p>Borrowed connections are closed when they are returned. Safe to call more than once.</p>
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        housekeeper.shutdownNow();
+
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+
+        if (!borrowed.isEmpty()) {
+            log.warn("Connection pool closed with {} connection(s) still borrowed.", borrowed.size());
+        }
+        log.info("Connection pool closed.");
+    }
+
+    // -------------------------------------------------------------------------
+    // Internal lifecycle
+    // -------------------------------------------------------------------------
+
+    /**
+     * Pops idle connections until a usable one is found, destroying stale ones.
+     */
+    private PooledEntry takeUsableIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            destroy(entry);
+        }
+        return null;
+    }
+
+    /**
+     * Validates a connection unless it was used within the validation interval.
+     */
+    private boolean isUsable(PooledEntry entry) {
+        long idleFor = System.currentTimeMillis() - entry.lastUsedMillis;
+        if (idleFor < config.validationIntervalMillis()) {
+            return true;
+        }
+        try {
+            boolean valid = entry.physical.isValid(config.validationTimeoutSeconds());
+            if (!valid) {
+                log.warn("Discarding pooled connection that failed validation.");
+            }
+            return valid;
+        } catch (SQLException e) {
+            log.warn("Discarding pooled connection after validation error.", e);
+            return false;
+        }
+    }
+
+    private PooledEntry open() throws SQLException {
+        Properties props = new Properties();
+        props.putAll(config.driverProperties());
+        props.setProperty("user", config.username());
+        props.setProperty("password", config.password());
+
+        Connection physical = DriverManager.getConnection(config.url(), props);
+        totalConnections.incrementAndGet();
+        log.debug("Opened new pooled connection (total={}).", totalConnections.get());
+        return new PooledEntry(physical);
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            log.debug("Error while closing pooled connection (ignored).", e);
+        }
+    }
+
+    /**
+     * Called when a borrower closes its handle.
+     */
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        entry.lastUsedMillis = System.currentTimeMillis();
+        entry.borrowSite = null;
+
+        try {
+            if (closed || entry.broken || !resetSessionState(entry)) {
+                destroy(entry);
+            } else {
+                idle.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Restores session defaults changed by the previous borrower.
+     *
+     * @return {@code false} if the connection could not be reset and should be discarded
+     */
+    private boolean resetSessionState(PooledEntry entry) {
+        try {
+            Connection c = entry.physical;
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (entry.readOnlyChanged) {
+                c.setReadOnly(false);
+                entry.readOnlyChanged = false;
+            }
+            if (entry.isolationChanged) {
+                c.setTransactionIsolation(entry.defaultIsolation);
+                entry.isolationChanged = false;
+            }
+            c.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            log.warn("Failed to reset pooled connection state; discarding it.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Periodic task: evicts surplus idle connections, tops up to {@code minSize},
+     * and reports suspected leaks.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            for (PooledEntry entry : idle) {
+                if (totalConnections.get() <= config.minSize()) break;
+                if (now - entry.lastUsedMillis >= config.idleTimeoutMillis() && idle.remove(entry)) {
+                    destroy(entry);
+                    log.debug("Evicted idle pooled connection (total={}).", totalConnections.get());
+                }
+            }
+
+            while (!closed && totalConnections.get() < config.minSize() && permits.tryAcquire()) {
+                try {
+                    idle.offerLast(open());
+                } finally {
+                    permits.release();
+                }
+            }
+
+            long threshold = config.leakDetectionThresholdMillis();
+            if (threshold > 0) {
+                for (PooledEntry entry : borrowed) {
+                    if (!entry.leakReported && now - entry.borrowedAtMillis > threshold) {
+                        entry.leakReported = true;
+                        log.warn("Possible connection leak: connection held for {} ms.",
+                                now - entry.borrowedAtMillis, entry.borrowSite);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Connection pool housekeeping failed.", e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Pooled connection + handle
+    // -------------------------------------------------------------------------
+
+    /**
+     * A physical connection owned by the pool plus its bookkeeping state.
+     */
+    private final class PooledEntry {
+
+        private final Connection physical;
+        private final int defaultIsolation;
+
+        /**
+         * Prepared statement cache for this connection, or {@code null} if disabled.
+         */
+        private final StatementCache statements;
+
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+        private volatile long borrowedAtMillis;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private boolean broken;
+        private boolean readOnlyChanged;
+        private boolean isolationChanged;
+
+        private PooledEntry(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+            this.statements = config.statementCacheSize() > 0
+                    ? new StatementCache(physical, config.statementCacheSize(),
+                            statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this)
+            );
+        }
+    }
+
+    /**
+     * Per-borrow view of a pooled connection.
+     *
+     * <p>{@code close()} returns the connection to the pool exactly once; any later use of the
+     * handle fails instead of touching a connection that may now belong to another borrower.</p>
+     */
+    private final class Handle implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private boolean returned;
+
+        private Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || entry.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + entry.physical + "]";
+                }
+                default -> {
+                    // fall through to delegation below
+                }
+            }
+
+            if (returned) {
+                throw new SQLException("Connection handle has already been returned to the pool.", "08003");
+            }
+
+            if ("setReadOnly".equals(name)) {
+                entry.readOnlyChanged = true;
+            } else if ("setTransactionIsolation".equals(name)) {
+                entry.isolationChanged = true;
+            }
+
+            if ("prepareStatement".equals(name) && entry.statements != null && isCacheable(args)) {
+                String[] keyColumns = (args.length == 2) ? (String[]) args[1] : null;
+                try {
+                    return entry.statements.prepare((Connection) proxy, (String) args[0], keyColumns);
+                } catch (SQLException e) {
+                    if (isConnectionError(e)) {
+                        entry.broken = true;
+                    }
+                    throw e;
+                }
+            }
+
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlEx && isConnectionError(sqlEx)) {
+                    entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        /**
+         * Only {@code prepareStatement(sql)} and {@code prepareStatement(sql, columnNames)} are
+         * cached; variants with result set options or key indexes go straight to the driver.
+         */
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof String[]);
+        }
+
+        /**
+         * SQLSTATE class 08 indicates the physical connection is no longer usable.
+         */
+        private boolean isConnectionError(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
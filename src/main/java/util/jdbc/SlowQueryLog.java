@@ -0,0 +1,549 @@
+package util.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times the statements run on a connection and reports the slow ones.
+ *
+ * <p>{@link util.DbConnectionUtil} wraps each pooled connection with {@link #wrap(Connection)}
+ * when {@code db.slowQuery.thresholdMs} is set. Every statement execution is then timed in two
+ * parts: the {@code execute*} call itself and the consumption of its result set (all calls on the
+ * {@link ResultSet} until it, or its statement, is closed). An execution whose total reaches the
+ * threshold is:</p>
+ * <ul>
+ *   <li>logged at {@code WARN} with its SQL and bound parameters</li>
+ *   <li>offered to a bounded list of the slowest executions since startup (or the last
+ *       {@link #reset()}), available through {@link #slowest()}</li>
+ * </ul>
+ *
+ * <p><strong>Parameter masking:</strong> bound values that look like an email address or a phone
+ * number are masked before they are logged or kept (e.g. {@code j***@example.com},
+ * {@code ***01}). Values are recognized by shape rather than by column, so other digit strings
+ * of phone length (such as ISBNs) are masked as well.</p>
+ *
+ * <p>Failed executions (statement timeouts, lock waits, serialization failures, ...) are timed
+ * and reported the same way, with the SQLState of the failure.</p>
+ *
+ * <p>Wrapping costs a map insert per bound parameter and two {@link System#nanoTime()} calls per
+ * JDBC call on a statement or result set; bound parameters are only copied when the caller
+ * changes them while a result set is still being read, and SQL formatting and masking only
+ * happen for slow executions.</p>
+ */
+public final class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    /**
+     * Statement methods that run SQL.
+     */
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"
+    );
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[\\d\\s().-]{7,}$");
+
+    /**
+     * Bound values longer than this are truncated in the report.
+     */
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    /**
+     * Slow-query settings.
+     *
+     * @param thresholdMillis executions taking at least this long are reported (0 disables the log)
+     * @param topN            slowest executions kept for {@link #slowest()}
+     */
+    public record Config(long thresholdMillis, int topN) {
+
+        public Config {
+            if (thresholdMillis < 0) throw new IllegalArgumentException("thresholdMillis must be >= 0");
+            if (topN < 0) throw new IllegalArgumentException("topN must be >= 0");
+        }
+
+        /**
+         * @return {@code true} if statements should be timed
+         */
+        public boolean isEnabled() {
+            return thresholdMillis > 0;
+        }
+
+        /**
+         * Reads the slow-query settings from {@code database.properties}.
+         *
+         * <p>Recognized optional keys:</p>
+         * <ul>
+         *   <li>{@code db.slowQuery.thresholdMs} (default 0 = disabled)</li>
+         *   <li>{@code db.slowQuery.topN} (default 20)</li>
+         * </ul>
+         *
+         * @param properties loaded properties
+         * @return configuration
+         * @throws IllegalArgumentException if a value is not a valid number
+         */
+        public static Config fromProperties(Properties properties) {
+            return new Config(
+                    longProperty(properties, "db.slowQuery.thresholdMs", 0L),
+                    (int) longProperty(properties, "db.slowQuery.topN", 20L)
+            );
+        }
+
+        private static long longProperty(Properties properties, String key, long defaultValue) {
+            String raw = properties.getProperty(key);
+            if (raw == null || raw.isBlank()) return defaultValue;
+            try {
+                return Long.parseLong(raw.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid numeric value for " + key + ": " + raw, e);
+            }
+        }
+    }
+
+    /**
+     * One slow statement execution.
+     *
+     * @param at           when the execution finished
+     * @param thread       thread that ran it
+     * @param sql          SQL text (whitespace collapsed)
+     * @param parameters   bound parameters, masked (e.g. {@code [1='Dune', 2=***01]})
+     * @param executeNanos time spent in the {@code execute*} call
+     * @param fetchNanos   time spent reading the result set
+     * @param rows         rows read, or rows affected for updates
+     * @param error        SQLState of the failure (or the exception type if it has none), or
+     *                     {@code null} if the execution succeeded
+     */
+    public record SlowQuery(
+            Instant at,
+            String thread,
+            String sql,
+            String parameters,
+            long executeNanos,
+            long fetchNanos,
+            long rows,
+            String error
+    ) {
+
+        /**
+         * @return execute plus fetch time, in milliseconds
+         */
+        public long totalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(executeNanos + fetchNanos);
+        }
+    }
+
+    private final Config config;
+    private final long thresholdNanos;
+
+    /**
+     * Slowest executions, fastest first (min-heap) so the head is the one to evict.
+     */
+    private final PriorityQueue<SlowQuery> slowest = new PriorityQueue<>(
+            Comparator.comparingLong(q -> q.executeNanos() + q.fetchNanos()));
+
+    /**
+     * Creates a slow-query log.
+     *
+     * @param config settings; must be {@linkplain Config#isEnabled() enabled}
+     */
+    public SlowQueryLog(Config config) {
+        if (config == null || !config.isEnabled()) {
+            throw new IllegalArgumentException("An enabled slow-query config is required.");
+        }
+        this.config = config;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.thresholdMillis());
+    }
+
+    /**
+     * @return settings of this log
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Wraps a connection so that the statements it creates are timed.
+     *
+     * @param connection connection to wrap
+     * @return timing connection (closing it closes {@code connection})
+     */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandle(connection)
+        );
+    }
+
+    /**
+     * Returns the slowest executions recorded so far.
+     *
+     * @return up to {@code topN} executions, slowest first
+     */
+    public List<SlowQuery> slowest() {
+        List<SlowQuery> copy;
+        synchronized (slowest) {
+            copy = new ArrayList<>(slowest);
+        }
+        copy.sort(Comparator.comparingLong((SlowQuery q) -> q.executeNanos() + q.fetchNanos()).reversed());
+        return copy;
+    }
+
+    /**
+     * Forgets the recorded slowest executions.
+     */
+    public void reset() {
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+
+    /**
+     * Masks a bound value for reporting.
+     *
+     * @param value bound value
+     * @return printable, masked value
+     */
+    static String mask(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (!(value instanceof CharSequence)) {
+            return String.valueOf(value);
+        }
+        String s = value.toString();
+        if (EMAIL.matcher(s).matches()) {
+            int at = s.indexOf('@');
+            return s.charAt(0) + "***" + s.substring(at);
+        }
+        if (PHONE.matcher(s).matches() && s.chars().filter(Character::isDigit).count() >= 7) {
+            String digits = s.replaceAll("\\D", "");
+            return "***" + digits.substring(digits.length() - 2);
+        }
+        if (s.length() > MAX_VALUE_LENGTH) {
+            s = s.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return "'" + s.replace("'", "''") + "'";
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private void finish(Execution execution) {
+        long total = execution.executeNanos + execution.fetchNanos;
+        if (total < thresholdNanos) {
+            return;
+        }
+        SlowQuery query = new SlowQuery(
+                Instant.now(),
+                Thread.currentThread().getName(),
+                execution.sql == null ? "<unknown>" : execution.sql.strip().replaceAll("\\s+", " "),
+                formatParameters(execution),
+                execution.executeNanos,
+                execution.fetchNanos,
+                execution.rows,
+                execution.error
+        );
+        log.warn("Slow query: {} ms (execute {} ms, fetch {} ms, rows={}{}) sql=[{}] params={}",
+                query.totalMillis(),
+                TimeUnit.NANOSECONDS.toMillis(query.executeNanos()),
+                TimeUnit.NANOSECONDS.toMillis(query.fetchNanos()),
+                query.rows(),
+                query.error() == null ? "" : ", failed sqlState=" + query.error(),
+                query.sql(), query.parameters());
+
+        if (config.topN() == 0) {
+            return;
+        }
+        synchronized (slowest) {
+            slowest.add(query);
+            if (slowest.size() > config.topN()) {
+                slowest.poll();
+            }
+        }
+    }
+
+    private static String formatParameters(Execution execution) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> p : execution.parameters.entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(p.getKey()).append('=').append(mask(p.getValue()));
+        }
+        sb.append(']');
+        if (execution.batchSize > 0) {
+            sb.append(" (last of batch of ").append(execution.batchSize).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the first SQLState in the cause chain, or the exception's type if there is none.
+     */
+    private static String errorCode(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLException e && e.getSQLState() != null) {
+                return e.getSQLState();
+            }
+        }
+        return failure.getClass().getSimpleName();
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Timing state of one statement execution.
+     */
+    private static final class Execution {
+        private final String sql;
+        /**
+         * The statement's live parameter map, replaced by a copy if it changes before finishing.
+         */
+        private Map<Integer, Object> parameters;
+        private final int batchSize;
+        private long executeNanos;
+        private long fetchNanos;
+        private long rows;
+        private String error;
+
+        private Execution(String sql, Map<Integer, Object> parameters, int batchSize) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Connection wrapper: wraps the statements it creates.
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+
+        private final Connection connection;
+
+        private ConnectionHandle(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // delegated below
+                }
+            }
+            Object result = delegate(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(
+                        Statement.class.getClassLoader(),
+                        new Class<?>[]{type},
+                        new StatementHandle(statement, sql)
+                );
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Statement wrapper: tracks bound parameters and times each execution.
+     */
+    private final class StatementHandle implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private int batchSize;
+
+        /**
+         * Execution whose result set is still being read, or {@code null}.
+         */
+        private Execution pending;
+
+        private StatementHandle(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "clearParameters" -> {
+                    detachPending();
+                    parameters.clear();
+                }
+                case "addBatch" -> batchSize++;
+                case "clearBatch" -> batchSize = 0;
+                case "close" -> {
+                    try {
+                        return delegate(statement, method, args);
+                    } finally {
+                        finishPending();
+                    }
+                }
+                case "getResultSet" -> {
+                    Object rs = delegate(statement, method, args);
+                    return rs instanceof ResultSet resultSet && pending != null ? wrap(resultSet, pending) : rs;
+                }
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        detachPending();
+                        parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return delegate(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            Execution execution = new Execution(sql, parameters, batchSize);
+            batchSize = 0;
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = delegate(statement, method, args);
+            } catch (Throwable failure) {
+                execution.executeNanos = System.nanoTime() - start;
+                execution.error = errorCode(failure);
+                finish(execution);
+                throw failure;
+            }
+            execution.executeNanos = System.nanoTime() - start;
+
+            if (result instanceof ResultSet rs) {
+                pending = execution;
+                return wrap(rs, execution);
+            }
+            if (Boolean.TRUE.equals(result)) {
+                // execute() produced a result set; it is timed once fetched via getResultSet()
+                pending = execution;
+                return result;
+            }
+            execution.rows = affectedRows(result);
+            finish(execution);
+            return result;
+        }
+
+        /**
+         * Gives the pending execution its own copy of the parameters before they are changed.
+         */
+        private void detachPending() {
+            if (pending != null && pending.parameters == parameters) {
+                pending.parameters = new TreeMap<>(parameters);
+            }
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                Execution done = pending;
+                pending = null;
+                finish(done);
+            }
+        }
+
+        private ResultSet wrap(ResultSet rs, Execution execution) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            default -> {
+                                // timed below
+                            }
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            Object result = delegate(rs, method, args);
+                            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                                execution.rows++;
+                            }
+                            return result;
+                        } catch (Throwable failure) {
+                            if (execution.error == null) {
+                                execution.error = errorCode(failure);
+                            }
+                            throw failure;
+                        } finally {
+                            execution.fetchNanos += System.nanoTime() - start;
+                            if ("close".equals(method.getName()) && pending == execution) {
+                                finishPending();
+                            }
+                        }
+                    }
+            );
+        }
+
+        private long affectedRows(Object result) {
+            if (result instanceof Number n) {
+                return n.longValue();
+            }
+            long sum = 0;
+            if (result instanceof int[] counts) {
+                for (int c : counts) sum += Math.max(c, 0);
+            } else if (result instanceof long[] counts) {
+                for (long c : counts) sum += Math.max(c, 0);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package util.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of {@link PreparedStatement}s for one pooled physical connection.
+ *
+ * <p>{@link ConnectionPool} routes {@code prepareStatement(sql)} and
+ * {@code prepareStatement(sql, columnNames)} through this cache, so DAOs keep their usual
+ * prepare / try-with-resources / close pattern while repeated statements reuse the same
+ * driver object (and therefore the same server-side named plan once the driver's
+ * {@code prepareThreshold} is reached).</p>
+ *
+ * <p>Closing a cached statement returns it to the cache with its parameters and batch
+ * cleared. A statement whose settings were changed by the caller (fetch size, max rows,
+ * query timeout, ...) is closed for real instead, so those settings never leak into the
+ * next user. If the same SQL is prepared again while its cached statement is still open
+ * (nested use), an uncached statement is returned.</p>
+ *
+ * <p>Only the borrower of the owning connection uses the cache, so it is not synchronized.</p>
+ */
+final class StatementCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCache.class);
+
+    /**
+     * Statement methods after which a statement is no longer in its default state.
+     */
+    private static final Set<String> STATE_CHANGING_METHODS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion"
+    );
+
+    /**
+     * Cache key: SQL text plus the generated-key column names (if any).
+     */
+    private record Key(String sql, List<String> keyColumns) {
+    }
+
+    /**
+     * A cached physical statement and whether a caller currently holds it.
+     */
+    private static final class Slot {
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Slot(PreparedStatement physical) {
+            this.physical = physical;
+        }
+    }
+
+    private final Connection physicalConnection;
+    private final LinkedHashMap<Key, Slot> slots;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Creates a cache for one connection.
+     *
+     * @param physicalConnection connection that prepares the statements
+     * @param maxSize            maximum number of cached statements (must be positive)
+     * @param hits               pool-wide hit counter
+     * @param misses             pool-wide miss counter
+     * @param evictions          pool-wide eviction counter
+     */
+    StatementCache(
+            Connection physicalConnection,
+            int maxSize,
+            AtomicLong hits,
+            AtomicLong misses,
+            AtomicLong evictions
+    ) {
+        this.physicalConnection = physicalConnection;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Slot> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a statement for {@code sql}, reusing a cached one when possible.
+     *
+     * @param handle      connection handle the caller borrowed (returned by {@code getConnection()})
+     * @param sql         SQL text
+     * @param keyColumns  generated-key column names, or {@code null}
+     * @return statement whose {@code close()} hands it back to the cache
+     * @throws SQLException if the driver cannot prepare the statement
+     */
+    PreparedStatement prepare(Connection handle, String sql, String[] keyColumns) throws SQLException {
+        Key key = new Key(sql, keyColumns == null ? null : List.of(keyColumns));
+        Slot slot = slots.get(key);
+
+        if (slot != null && slot.inUse) {
+            // Same SQL already open on this connection: hand out a private, uncached statement.
+            misses.incrementAndGet();
+            return prepareUncached(sql, keyColumns);
+        }
+
+        if (slot == null) {
+            misses.incrementAndGet();
+            slot = new Slot(prepareUncached(sql, keyColumns));
+            slots.put(key, slot);
+        } else {
+            hits.incrementAndGet();
+        }
+
+        slot.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new LogicalStatement(key, slot, handle)
+        );
+    }
+
+    /**
+     * Returns the number of cached statements.
+     *
+     * @return cache size
+     */
+    int size() {
+        return slots.size();
+    }
+
+    private PreparedStatement prepareUncached(String sql, String[] keyColumns) throws SQLException {
+        return keyColumns == null
+                ? physicalConnection.prepareStatement(sql)
+                : physicalConnection.prepareStatement(sql, keyColumns);
+    }
+
+    private void evict(Slot slot) {
+        evictions.incrementAndGet();
+        slot.evicted = true;
+        if (!slot.inUse) {
+            closeQuietly(slot.physical);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            log.debug("Error while closing cached statement (ignored).", e);
+        }
+    }
+
+    /**
+     * Caller's view of a cached statement; {@code close()} returns it to the cache once.
+     */
+    private final class LogicalStatement implements InvocationHandler {
+
+        private final Key key;
+        private final Slot slot;
+        private final Connection handle;
+        private boolean closed;
+        private boolean dirty;
+
+        private LogicalStatement(Key key, Slot slot, Connection handle) {
+            this.key = key;
+            this.slot = slot;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        giveBack();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || slot.physical.isClosed();
+                }
+                case "getConnection" -> {
+                    return handle;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "CachedStatement[" + key.sql() + "]";
+                }
+                default -> {
+                    // fall through to delegation below
+                }
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            if (STATE_CHANGING_METHODS.contains(name)) {
+                dirty = true;
+            }
+
+            try {
+                return method.invoke(slot.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void giveBack() {
+            slot.inUse = false;
+
+            if (slot.evicted) {
+                closeQuietly(slot.physical);
+                return;
+            }
+            if (dirty) {
+                slots.remove(key);
+                closeQuietly(slot.physical);
+                return;
+            }
+
+            try {
+                slot.physical.clearParameters();
+                slot.physical.clearBatch();
+                slot.physical.clearWarnings();
+            } catch (SQLException e) {
+                log.debug("Discarding cached statement that could not be reset: {}", key.sql(), e);
+                slots.remove(key);
+                closeQuietly(slot.physical);
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package util.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in one database transaction that spans any number of DAO calls.
+ *
+ * <p>While {@link #execute(Supplier)} runs, a transaction is bound to the current thread
+ * (platform or virtual). {@link util.DbConnectionUtil#getConnection()} checks
+ * {@link #currentConnection()} first, so every DAO call made by the callback on this thread
+ * uses the same connection and takes part in the same transaction. The DAOs need no changes.</p>
+ *
+ * <p><strong>Behavior:</strong></p>
+ * <ul>
+ *   <li>The connection is borrowed lazily on the first DAO call, so a callback that fails
+ *       validation (or never touches the database) costs nothing</li>
+ *   <li>The transaction is committed when the callback returns and rolled back when it throws</li>
+ *   <li>Serialization failures (SQLSTATE {@code 40001}) and deadlocks ({@code 40P01}) roll back
+ *       and re-run the whole callback, up to {@code maxAttempts} times with a short randomized
+ *       backoff; the callback must therefore be safe to repeat</li>
+ *   <li>A nested {@code execute} joins the outer transaction (its isolation level is ignored
+ *       and only the outermost call retries)</li>
+ * </ul>
+ *
+ * <p><strong>DAOs inside a transaction:</strong> closing a joined connection does not end the
+ * transaction. A DAO that manages its own transaction ({@code setAutoCommit(false)},
+ * {@code commit()}, {@code rollback()}) gets a savepoint instead, so its rollback undoes only
+ * its own statements.</p>
+ *
+ * <p>The binding is per thread: work handed to an executor (for example the async DAO/service
+ * methods) does not run in the caller's transaction. Streams opened inside the callback must
+ * be consumed and closed before it returns.</p>
+ */
+public final class TransactionTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionTemplate.class);
+
+    /**
+     * Upper bound of the first retry delay; doubled for each further attempt.
+     */
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    /**
+     * Transaction bound to the current thread, or {@code null} outside {@link #execute(Supplier)}.
+     */
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Supplies the physical (typically pooled) connection for a new transaction.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+
+        /**
+         * @return an open connection; it is closed when the transaction ends
+         * @throws SQLException if no connection could be obtained
+         */
+        Connection getConnection() throws SQLException;
+    }
+
+    private final ConnectionSource source;
+    private final int isolation;
+    private final int maxAttempts;
+
+    /**
+     * Creates a template.
+     *
+     * @param source      where transaction connections come from
+     * @param isolation   JDBC isolation level, e.g. {@link Connection#TRANSACTION_REPEATABLE_READ}
+     * @param maxAttempts total attempts for serialization failures (at least 1)
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    public TransactionTemplate(ConnectionSource source, int isolation, int maxAttempts) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null.");
+        }
+        if (isolation != Connection.TRANSACTION_READ_COMMITTED
+                && isolation != Connection.TRANSACTION_REPEATABLE_READ
+                && isolation != Connection.TRANSACTION_SERIALIZABLE) {
+            throw new IllegalArgumentException("Unsupported isolation level: " + isolation);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1.");
+        }
+        this.source = source;
+        this.isolation = isolation;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs {@code work} in a transaction and returns its result.
+     *
+     * @param work unit of work (may be run more than once)
+     * @param <T>  result type
+     * @return the value returned by {@code work}
+     * @throws RuntimeException whatever {@code work} throws, or a wrapped {@link SQLException}
+     *                          if the transaction could not be started or committed
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (work == null) {
+            throw new IllegalArgumentException("work cannot be null.");
+        }
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Scope scope = new Scope();
+            CURRENT.set(scope);
+            try {
+                T result = work.get();
+                scope.commit();
+                return result;
+
+            } catch (RuntimeException | Error e) {
+                scope.rollbackQuietly();
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("Transaction attempt {}/{} hit a serialization failure; retrying.",
+                        attempt, maxAttempts);
+                // Give the connection back before waiting.
+                CURRENT.remove();
+                scope.close();
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+
+            } finally {
+                CURRENT.remove();
+                scope.close();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} in a transaction.
+     *
+     * @param work unit of work (may be run more than once)
+     */
+    public void run(Runnable work) {
+        if (work == null) {
+            throw new IllegalArgumentException("work cannot be null.");
+        }
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns a connection joined to the transaction bound to this thread.
+     *
+     * <p>Each call returns a new handle; closing it does not end the transaction.</p>
+     *
+     * @return joined connection, or {@code null} if no transaction is active on this thread
+     * @throws SQLException if the transaction's connection could not be obtained
+     */
+    public static Connection currentConnection() throws SQLException {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.join();
+    }
+
+    /**
+     * @return {@code true} if the current thread is inside {@link #execute(Supplier)}
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    /**
+     * Walks the cause chain; DAOs wrap {@link SQLException}s in runtime exceptions.
+     */
+    static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx) {
+                String state = sqlEx.getSQLState();
+                if ("40001".equals(state) || "40P01".equals(state)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sleeps a random time up to a bound that doubles per attempt, so competing retries spread out.
+     *
+     * @return {@code false} if interrupted (the interrupt flag is restored)
+     */
+    private static boolean backOff(int attempt) {
+        long bound = BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * One transaction attempt: owns the physical connection once it has been borrowed.
+     */
+    private final class Scope {
+
+        private Connection connection;
+
+        Connection join() throws SQLException {
+            if (connection == null) {
+                // Unbind while borrowing: the source may itself consult currentConnection().
+                CURRENT.remove();
+                try {
+                    Connection c = source.getConnection();
+                    try {
+                        c.setAutoCommit(false);
+                        c.setTransactionIsolation(isolation);
+                    } catch (SQLException e) {
+                        c.close();
+                        throw e;
+                    }
+                    connection = c;
+                } finally {
+                    CURRENT.set(this);
+                }
+                log.debug("Transaction started (isolation={}).", isolation);
+            }
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new JoinedHandle(connection)
+            );
+        }
+
+        void commit() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.commit();
+                log.debug("Transaction committed.");
+            } catch (SQLException e) {
+                log.error("Failed to commit transaction.", e);
+                throw new RuntimeException("Failed to commit transaction.", e);
+            }
+        }
+
+        void rollbackQuietly() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.rollback();
+                log.debug("Transaction rolled back.");
+            } catch (SQLException e) {
+                log.warn("Failed to roll back transaction.", e);
+            }
+        }
+
+        void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Failed to close transaction connection.", e);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * Connection handle given to DAOs inside a transaction.
+     *
+     * <p>{@code close()} leaves the transaction open; local transaction control is mapped to a
+     * savepoint; isolation and read-only changes are ignored (the template owns them).</p>
+     */
+    private static final class JoinedHandle implements InvocationHandler {
+
+        private final Connection connection;
+        private Savepoint savepoint;
+        private boolean closed;
+
+        private JoinedHandle(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        if (savepoint != null) {
+                            // Like a pool return: undo uncommitted local work.
+                            connection.rollback(savepoint);
+                            connection.releaseSavepoint(savepoint);
+                            savepoint = null;
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "TransactionConnection[" + connection + "]";
+                }
+                default -> {
+                    // handled below
+                }
+            }
+
+            if (closed) {
+                throw new SQLException("Connection handle has already been closed.", "08003");
+            }
+
+            switch (name) {
+                case "getAutoCommit" -> {
+                    return savepoint == null;
+                }
+                case "setAutoCommit" -> {
+                    boolean autoCommit = (Boolean) args[0];
+                    if (!autoCommit && savepoint == null) {
+                        savepoint = connection.setSavepoint();
+                    } else if (autoCommit && savepoint != null) {
+                        connection.releaseSavepoint(savepoint);
+                        savepoint = null;
+                    }
+                    return null;
+                }
+                case "commit" -> {
+                    requireLocalTransaction("commit");
+                    connection.releaseSavepoint(savepoint);
+                    savepoint = connection.setSavepoint();
+                    return null;
+                }
+                case "rollback" -> {
+                    if (args != null && args.length == 1) {
+                        break;
+                    }
+                    requireLocalTransaction("rollback");
+                    connection.rollback(savepoint);
+                    return null;
+                }
+                case "setTransactionIsolation", "setReadOnly" -> {
+                    log.debug("{} ignored inside a transaction.", name);
+                    return null;
+                }
+                default -> {
+                    // delegated below
+                }
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void requireLocalTransaction(String operation) throws SQLException {
+            if (savepoint == null) {
+                throw new SQLException("Cannot " + operation + " when autoCommit is enabled.");
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package util.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records DAO operations by instrumenting the connections the DAOs borrow.
+ *
+ * <p>Every DAO method borrows its connection from {@link util.DbConnectionUtil#getConnection()}
+ * in a try-with-resources block, so the time between borrowing and closing the connection is the
+ * time the operation spent on the database (including waiting for a pooled connection, and for
+ * streaming methods, until the stream is closed). While {@link Metrics} is enabled, the returned
+ * connection is wrapped and, when it is closed, one call is recorded for the DAO method that
+ * borrowed it:</p>
+ * <ul>
+ *   <li>layer {@code "dao"}, component = DAO class (e.g. {@code LoanDAO}),
+ *       operation = DAO method (lambdas of async methods map to the enclosing method)</li>
+ *   <li>an error with the SQLState of the first {@link SQLException} thrown by the connection
+ *       or one of its statements, if any</li>
+ * </ul>
+ *
+ * <p>This keeps the DAOs free of metrics code. The caller is found with a {@link StackWalker}
+ * once per borrow, which is only paid while metrics are enabled.</p>
+ */
+public final class ConnectionMetrics {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private ConnectionMetrics() {
+    }
+
+    /**
+     * Wraps {@code connection} so that closing it records the calling DAO operation.
+     *
+     * <p>Returns {@code connection} unchanged if metrics are disabled, if the caller is not a DAO,
+     * or if the connection is being opened for a {@link util.jdbc.TransactionTemplate}
+     * transaction (the DAO calls inside the transaction are recorded individually).</p>
+     *
+     * @param connection connection about to be handed to a DAO
+     * @return instrumented connection, or {@code connection}
+     */
+    public static Connection instrument(Connection connection) {
+        if (connection == null || !Metrics.isEnabled()) {
+            return connection;
+        }
+        long start = Metrics.start();
+        StackWalker.StackFrame caller = WALKER.walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(ConnectionMetrics.class.getName())
+                        && !f.getClassName().equals("util.DbConnectionUtil"))
+                .takeWhile(f -> !f.getClassName().startsWith("util.jdbc."))
+                .filter(f -> daoName(f.getClassName()) != null)
+                .findFirst()
+                .orElse(null));
+        if (caller == null) {
+            return connection;
+        }
+        Metrics.Component component = Metrics.component("dao", daoName(caller.getClassName()));
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandle(connection, component, operationName(caller.getMethodName()), start)
+        );
+    }
+
+    /**
+     * {@code repository.DAO.LoanDAO$1} -> {@code LoanDAO}; {@code null} if no enclosing class
+     * name ends with {@code DAO}.
+     */
+    static String daoName(String className) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        for (String part : simple.split("\\$")) {
+            if (part.endsWith("DAO")) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@code lambda$findAllAsync$3} -> {@code findAllAsync}.
+     */
+    static String operationName(String methodName) {
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', 7);
+            return end < 0 ? methodName.substring(7) : methodName.substring(7, end);
+        }
+        return methodName;
+    }
+
+    /**
+     * Invokes {@code method} on {@code target}, unwrapping reflection failures.
+     */
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Connection wrapper: remembers the first SQL failure and records the call on close.
+     */
+    private static final class ConnectionHandle implements InvocationHandler {
+
+        private final Connection connection;
+        private final Metrics.Component component;
+        private final String operation;
+        private final long start;
+        private String failedSqlState;
+        private boolean recorded;
+
+        private ConnectionHandle(Connection connection, Metrics.Component component,
+                                 String operation, long start) {
+            this.connection = connection;
+            this.component = component;
+            this.operation = operation;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (!recorded) {
+                            recorded = true;
+                            component.record(operation, System.nanoTime() - start, failedSqlState);
+                        }
+                    }
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // delegated below
+                }
+            }
+
+            Object result = call(connection, method, args);
+            if (result instanceof Statement statement) {
+                return wrap(statement);
+            }
+            return result;
+        }
+
+        private Object call(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return delegate(target, method, args);
+            } catch (SQLException e) {
+                if (failedSqlState == null) {
+                    failedSqlState = Metrics.sqlState(e);
+                }
+                throw e;
+            }
+        }
+
+        private Statement wrap(Statement statement) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> call(statement, method, args);
+                    }
+            );
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package util.metrics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide call counts, error counts and latency histograms for DAO and service operations.
+ *
+ * <p>Recording is off by default. While disabled, {@link #start()} returns {@code 0} and every
+ * {@code stop}/{@code failed} call returns after one comparison, so instrumented methods cost
+ * one volatile read.</p>
+ *
+ * <p><strong>Instrumenting a method:</strong></p>
+ * <pre>{@code
+ * private static final Metrics.Component metrics = Metrics.component("service", "LoanService");
+ *
+ * public Loan update(Long id, Loan model) {
+ *     return metrics.time("update", () -> {
+ *         ...
+ *     });
+ * }
+ * }</pre>
+ *
+ * <p>{@link Component#time(String, Supplier)} and {@link Component#run(String, Runnable)} are
+ * shorthands for {@link #start()}, {@link Component#failed(String, long, Throwable)} and
+ * {@link Component#stop(String, long)}, which remain available for code that cannot be wrapped
+ * in a lambda.</p>
+ *
+ * <p>DAO operations are recorded without code in the DAOs: see {@link ConnectionMetrics}.
+ * Snapshots are exported in the Prometheus text format by {@link PrometheusExporter}.</p>
+ *
+ * <p><strong>Design notes:</strong></p>
+ * <ul>
+ *   <li>Counters are {@link LongAdder}s, so concurrent callers do not contend on one cache line</li>
+ *   <li>Latencies go into fixed buckets ({@link #BUCKET_BOUNDS_NANOS}, 100 µs to 10 s), which is
+ *       what a Prometheus histogram needs and costs a short linear scan per call</li>
+ *   <li>Errors are counted by the first {@link SQLException#getSQLState() SQLState} found in
+ *       the exception's cause chain, or {@code "none"} for errors without one (e.g., validation)</li>
+ * </ul>
+ */
+public final class Metrics {
+
+    /**
+     * Upper bounds of the latency buckets (inclusive), in nanoseconds; the last bucket is +Inf.
+     */
+    static final long[] BUCKET_BOUNDS_NANOS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+
+    /**
+     * Error label used when a failure carries no SQLState.
+     */
+    static final String NO_SQL_STATE = "none";
+
+    private static volatile boolean enabled;
+
+    private static final Map<String, Component> components = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Starts recording.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops recording; already recorded values are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return {@code true} if calls are being recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Clears all recorded values (components stay registered).
+     */
+    public static void reset() {
+        for (Component component : components.values()) {
+            component.operations.clear();
+        }
+    }
+
+    /**
+     * Returns the start timestamp of a call.
+     *
+     * @return {@link System#nanoTime()}, or {@code 0} if recording is disabled
+     */
+    public static long start() {
+        if (!enabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        return now == 0L ? 1L : now;
+    }
+
+    /**
+     * Returns the component with the given layer and name, registering it on first use.
+     *
+     * @param layer layer label, e.g. {@code "dao"} or {@code "service"}
+     * @param name  component label, e.g. {@code "LoanService"}
+     * @return component (safe to keep in a static field)
+     */
+    public static Component component(String layer, String name) {
+        if (layer == null || layer.isBlank() || name == null || name.isBlank()) {
+            throw new IllegalArgumentException("layer and name cannot be blank.");
+        }
+        return components.computeIfAbsent(layer + '/' + name, k -> new Component(layer, name));
+    }
+
+    /**
+     * Returns a point-in-time copy of every recorded operation, sorted by layer, component and
+     * operation name.
+     *
+     * @return operation snapshots
+     */
+    public static List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> result = new ArrayList<>();
+        for (Component component : components.values()) {
+            for (Map.Entry<String, OperationStats> entry : component.operations.entrySet()) {
+                result.add(entry.getValue().snapshot(component.layer, component.name, entry.getKey()));
+            }
+        }
+        result.sort(Comparator.comparing(OperationSnapshot::layer)
+                .thenComparing(OperationSnapshot::component)
+                .thenComparing(OperationSnapshot::operation));
+        return result;
+    }
+
+    /**
+     * Returns the SQLState of the first {@link SQLException} in the cause chain.
+     *
+     * @param error failure (may be {@code null})
+     * @return SQLState, or {@value #NO_SQL_STATE}
+     */
+    static String sqlState(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx && sqlEx.getSQLState() != null) {
+                return sqlEx.getSQLState();
+            }
+        }
+        return NO_SQL_STATE;
+    }
+
+    /**
+     * Recorded values of one operation.
+     *
+     * @param layer           layer label
+     * @param component       component label
+     * @param operation       operation (method) name
+     * @param count           completed calls, successful or not
+     * @param sumNanos        total latency of all calls
+     * @param bucketCounts    calls per latency bucket (not cumulative); one more entry than
+     *                        {@link #BUCKET_BOUNDS_NANOS} for +Inf
+     * @param errorsBySqlState failed calls per SQLState
+     */
+    public record OperationSnapshot(
+            String layer,
+            String component,
+            String operation,
+            long count,
+            long sumNanos,
+            long[] bucketCounts,
+            Map<String, Long> errorsBySqlState
+    ) {
+    }
+
+    /**
+     * A named group of operations (a DAO or a service class).
+     */
+    public static final class Component {
+
+        private final String layer;
+        private final String name;
+        private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+        private Component(String layer, String name) {
+            this.layer = layer;
+            this.name = name;
+        }
+
+        /**
+         * Runs {@code call} and records its latency, and its failure if it throws.
+         *
+         * @param operation operation name
+         * @param call      the operation's body
+         * @param <T>       result type
+         * @return the result of {@code call}
+         */
+        public <T> T time(String operation, Supplier<T> call) {
+            long start = Metrics.start();
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                throw failed(operation, start, e);
+            } finally {
+                stop(operation, start);
+            }
+        }
+
+        /**
+         * Runs {@code call} and records its latency, and its failure if it throws.
+         *
+         * @param operation operation name
+         * @param call      the operation's body
+         */
+        public void run(String operation, Runnable call) {
+            long start = Metrics.start();
+            try {
+                call.run();
+            } catch (RuntimeException e) {
+                throw failed(operation, start, e);
+            } finally {
+                stop(operation, start);
+            }
+        }
+
+        /**
+         * Records a completed call (successful or not).
+         *
+         * @param operation operation name
+         * @param start     value returned by {@link Metrics#start()}
+         */
+        public void stop(String operation, long start) {
+            if (start == 0L) {
+                return;
+            }
+            stats(operation).record(System.nanoTime() - start);
+        }
+
+        /**
+         * Records a failed call. The latency is recorded by {@link #stop(String, long)}.
+         *
+         * @param operation operation name
+         * @param start     value returned by {@link Metrics#start()}
+         * @param error     the failure
+         * @param <E>       failure type
+         * @return {@code error}, so callers can {@code throw metrics.failed(...)}
+         */
+        public <E extends Throwable> E failed(String operation, long start, E error) {
+            if (start != 0L) {
+                stats(operation).recordError(sqlState(error));
+            }
+            return error;
+        }
+
+        /**
+         * Records a call whose duration and outcome were measured elsewhere.
+         *
+         * @param operation operation name
+         * @param nanos     call duration
+         * @param sqlState  SQLState of the failure, or {@code null} if the call succeeded
+         */
+        void record(String operation, long nanos, String sqlState) {
+            OperationStats stats = stats(operation);
+            stats.record(nanos);
+            if (sqlState != null) {
+                stats.recordError(sqlState);
+            }
+        }
+
+        private OperationStats stats(String operation) {
+            OperationStats stats = operations.get(operation);
+            return stats != null ? stats : operations.computeIfAbsent(operation, k -> new OperationStats());
+        }
+    }
+
+    /**
+     * Lock-free counters of one operation.
+     */
+    private static final class OperationStats {
+
+        private final LongAdder sumNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private OperationStats() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            int i = 0;
+            while (i < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        void recordError(String sqlState) {
+            errors.computeIfAbsent(sqlState, k -> new LongAdder()).increment();
+        }
+
+        OperationSnapshot snapshot(String layer, String component, String operation) {
+            long[] counts = new long[buckets.length];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((state, adder) -> errorCounts.put(state, adder.sum()));
+            return new OperationSnapshot(layer, component, operation, count, sumNanos.sum(),
+                    counts, errorCounts);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package util.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports {@link Metrics} in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <p>Two metric families are exported, labelled by {@code layer}, {@code component} and
+ * {@code operation}:</p>
+ * <ul>
+ *   <li>{@code library_operation_duration_seconds} — histogram of call latencies
+ *       ({@code _bucket}, {@code _sum}, {@code _count}); {@code _count} is the call count</li>
+ *   <li>{@code library_operation_errors_total} — failed calls, additionally labelled by
+ *       {@code sqlstate} ({@code "none"} for failures without one)</li>
+ * </ul>
+ *
+ * <p>The snapshot can be written to a file ({@link #writeTo(Path)}, {@link #writeEvery}) for a
+ * node-exporter textfile collector, or served over HTTP on the loopback interface
+ * ({@link #serve(int)}) for a local scraper. Neither option opens a port to other hosts.</p>
+ */
+public final class PrometheusExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    /**
+     * Content type of the text exposition format.
+     */
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String DURATION = "library_operation_duration_seconds";
+    private static final String ERRORS = "library_operation_errors_total";
+
+    private PrometheusExporter() {
+    }
+
+    /**
+     * Renders the current metrics.
+     *
+     * @return Prometheus text exposition
+     */
+    public static String scrape() {
+        StringBuilder durations = new StringBuilder();
+        StringBuilder errors = new StringBuilder();
+
+        for (Metrics.OperationSnapshot op : Metrics.snapshot()) {
+            String labels = "layer=\"" + escape(op.layer())
+                    + "\",component=\"" + escape(op.component())
+                    + "\",operation=\"" + escape(op.operation()) + "\"";
+
+            long cumulative = 0;
+            long[] counts = op.bucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < Metrics.BUCKET_BOUNDS_NANOS.length
+                        ? seconds(Metrics.BUCKET_BOUNDS_NANOS[i])
+                        : "+Inf";
+                durations.append(DURATION).append("_bucket{").append(labels)
+                        .append(",le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            durations.append(DURATION).append("_sum{").append(labels).append("} ")
+                    .append(seconds(op.sumNanos())).append('\n');
+            durations.append(DURATION).append("_count{").append(labels).append("} ")
+                    .append(op.count()).append('\n');
+
+            for (Map.Entry<String, Long> error : op.errorsBySqlState().entrySet()) {
+                errors.append(ERRORS).append('{').append(labels)
+                        .append(",sqlstate=\"").append(escape(error.getKey())).append("\"} ")
+                        .append(error.getValue()).append('\n');
+            }
+        }
+
+        return "# HELP " + DURATION + " Latency of DAO and service operations.\n"
+                + "# TYPE " + DURATION + " histogram\n"
+                + durations
+                + "# HELP " + ERRORS + " Failed DAO and service operations by SQLState.\n"
+                + "# TYPE " + ERRORS + " counter\n"
+                + errors;
+    }
+
+    /**
+     * Writes the current metrics to {@code file}, replacing it atomically so readers never see
+     * a partial snapshot.
+     *
+     * @param file target file
+     * @throws IOException if the file could not be written
+     */
+    public static void writeTo(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path dir = absolute.getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, absolute.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(tmp, scrape(), StandardCharsets.UTF_8);
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Rewrites {@code file} every {@code periodSeconds} and once more when the JVM exits.
+     *
+     * @param file          target file
+     * @param periodSeconds seconds between writes (must be positive)
+     * @return the scheduler (daemon thread); shut it down to stop writing
+     */
+    public static ScheduledExecutorService writeEvery(Path file, long periodSeconds) {
+        if (file == null || periodSeconds <= 0) {
+            throw new IllegalArgumentException("file and a positive period are required.");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-file-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        Runnable write = () -> {
+            try {
+                writeTo(file);
+            } catch (IOException e) {
+                log.warn("Failed to write metrics file {}.", file, e);
+            }
+        };
+        scheduler.scheduleAtFixedRate(write, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(write, "metrics-file-final-write"));
+        log.info("Writing metrics to {} every {} s.", file.toAbsolutePath(), periodSeconds);
+        return scheduler;
+    }
+
+    /**
+     * Serves the current metrics at {@code http://127.0.0.1:<port>/metrics}.
+     *
+     * @param port TCP port ({@code 0} picks a free one)
+     * @return the running server; {@link HttpServer#stop(int) stop} it to release the port
+     * @throws IOException if the port could not be bound
+     */
+    public static HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "metrics-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        log.info("Serving metrics at http://{}:{}/metrics",
+                server.getAddress().getHostString(), server.getAddress().getPort());
+        return server;
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9)
+                .replaceAll("0+$", "")
+                .replaceAll("\\.$", ".0");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,386 @@
+package util.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe, in-process inverted index from text terms to {@code long} document IDs.
+ *
+ * <p>Each document is indexed under the distinct lowercase terms of its text (runs of letters
+ * and digits). Supports exact-term AND queries, type-ahead queries (the last term is a prefix)
+ * and term completion. Documents can be added, replaced and removed at any time.</p>
+ *
+ * <p><strong>Design notes:</strong></p>
+ * <ul>
+ *   <li>Posting lists are sorted primitive {@code long[]} arrays that grow by doubling, so a
+ *       million-document index holds no boxed IDs in its postings</li>
+ *   <li>Terms live in a {@link TreeMap}, so prefix lookups are a sub-map range scan</li>
+ *   <li>AND queries walk the shortest posting list and binary-search the others; results are
+ *       returned in ascending ID order and stop as soon as {@code limit} matches are found</li>
+ *   <li>Each document's terms are kept so an update or removal only touches its own postings</li>
+ * </ul>
+ *
+ * @param <V> document value returned by queries (should be treated as immutable once indexed)
+ */
+public final class InvertedIndex<V> {
+
+    /**
+     * Indexed value and its distinct, sorted terms.
+     */
+    private record Document<V>(V value, String[] terms) {
+    }
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final HashMap<Long, Document<V>> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a document, replacing any existing document with the same ID.
+     *
+     * @param id    document ID
+     * @param value value returned by queries (must not be {@code null})
+     * @param text  text to index; {@code null} or term-less text indexes nothing but still stores the value
+     */
+    public void put(long id, V value, String text) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null.");
+        }
+        String[] terms = tokenize(text);
+
+        lock.writeLock().lock();
+        try {
+            Document<V> previous = documents.put(id, new Document<>(value, terms));
+            if (previous != null) {
+                unlink(id, previous.terms());
+            }
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param id document ID
+     * @return {@code true} if the document was indexed
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Document<V> previous = documents.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            unlink(id, previous.terms());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns documents containing every term of {@code query}, in ascending ID order.
+     *
+     * @param query search text (terms are extracted as for indexing)
+     * @param limit maximum number of results (must be positive)
+     * @return matching values; empty if the query has no terms
+     */
+    public List<V> search(String query, int limit) {
+        requirePositiveLimit(limit);
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return intersect(Arrays.asList(terms), null, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Type-ahead query: every complete term must match exactly and the last (possibly partial)
+     * term of {@code query} must be the prefix of some term of the document.
+     *
+     * <p>For example {@code "tolkien ho"} matches a document indexed as
+     * {@code "The Hobbit J.R.R. Tolkien"}. Results are in ascending ID order.</p>
+     *
+     * @param query search text as typed so far
+     * @param limit maximum number of results (must be positive)
+     * @return matching values; empty if the query has no terms
+     */
+    public List<V> searchPrefix(String query, int limit) {
+        requirePositiveLimit(limit);
+        List<String> terms = tokenizeInOrder(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String prefix = terms.get(terms.size() - 1);
+        // A complete term may itself satisfy the prefix ("hobbit h"); it must still match exactly.
+        List<String> exact = terms.subList(0, terms.size() - 1).stream()
+                .distinct()
+                .toList();
+
+        lock.readLock().lock();
+        try {
+            return exact.isEmpty()
+                    ? unionOfPrefix(prefix, limit)
+                    : intersect(exact, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes a partial term with indexed terms, most frequent first (ties alphabetical).
+     *
+     * @param prefix partial term (case-insensitive)
+     * @param limit  maximum number of terms (must be positive)
+     * @return completions; empty if {@code prefix} is blank
+     */
+    public List<String> complete(String prefix, int limit) {
+        requirePositiveLimit(limit);
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        String normalized = prefix.strip().toLowerCase(Locale.ROOT);
+
+        Comparator<Map.Entry<String, Postings>> byFrequency =
+                Comparator.<Map.Entry<String, Postings>>comparingInt(e -> e.getValue().size)
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+        lock.readLock().lock();
+        try {
+            // Min-heap of the best `limit` terms seen so far.
+            PriorityQueue<Map.Entry<String, Postings>> best = new PriorityQueue<>(byFrequency);
+            for (var entry : prefixRange(normalized).entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<String> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(best.poll().getKey());
+            }
+            return result.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct indexed terms.
+     *
+     * @return term count
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits {@code text} into distinct, sorted, lowercase terms (runs of letters and digits).
+     *
+     * @param text text to split (may be {@code null})
+     * @return terms; empty if there are none
+     */
+    static String[] tokenize(String text) {
+        return new TreeSet<>(tokenizeInOrder(text)).toArray(String[]::new);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals (caller holds the appropriate lock)
+    // ---------------------------------------------------------------------
+
+    private static List<String> tokenizeInOrder(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void unlink(long id, String[] terms) {
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Walks the shortest posting list of {@code exactTerms} and keeps IDs present in all of
+     * them (and, if {@code prefix} is set, whose document has a term starting with it).
+     */
+    private List<V> intersect(Collection<String> exactTerms, String prefix, int limit) {
+        Postings[] lists = new Postings[exactTerms.size()];
+        int n = 0;
+        for (String term : exactTerms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists[n++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+        List<V> result = new ArrayList<>(Math.min(limit, lists[0].size));
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size && result.size() < limit; i++) {
+            long id = shortest.ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue candidates;
+                }
+            }
+            Document<V> document = documents.get(id);
+            if (prefix == null || hasTermWithPrefix(document.terms(), prefix)) {
+                result.add(document.value());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the posting lists of all terms starting with {@code prefix}, in ascending ID order,
+     * until {@code limit} distinct documents are found.
+     */
+    private List<V> unionOfPrefix(String prefix, int limit) {
+        // Heap entries are {list index, position}; ordered by the ID at that position.
+        List<Postings> lists = new ArrayList<>(prefixRange(prefix).values());
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                Math.max(1, lists.size()),
+                Comparator.comparingLong(h -> lists.get(h[0]).ids[h[1]]));
+        for (int i = 0; i < lists.size(); i++) {
+            heads.offer(new int[]{i, 0});
+        }
+
+        List<V> result = new ArrayList<>();
+        long lastId = 0;
+        boolean any = false;
+        while (!heads.isEmpty() && result.size() < limit) {
+            int[] head = heads.poll();
+            Postings list = lists.get(head[0]);
+            long id = list.ids[head[1]];
+            if (!any || id != lastId) {
+                result.add(documents.get(id).value());
+                lastId = id;
+                any = true;
+            }
+            if (++head[1] < list.size) {
+                heads.offer(head);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasTermWithPrefix(String[] sortedTerms, String prefix) {
+        int pos = Arrays.binarySearch(sortedTerms, prefix);
+        int insertion = pos >= 0 ? pos : -pos - 1;
+        return insertion < sortedTerms.length && sortedTerms[insertion].startsWith(prefix);
+    }
+
+    private static void requirePositiveLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive.");
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free list of document IDs backed by a growable {@code long[]}.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        /**
+         * Inserts {@code id} in order; appending a new highest ID (the common case) is O(1).
+         */
+        void add(long id) {
+            int pos = size == 0 || ids[size - 1] < id
+                    ? -(size + 1)
+                    : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertion = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            if (size > 0 && size <= ids.length / 4) {
+                ids = Arrays.copyOf(ids, Math.max(4, ids.length / 2));
+            }
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
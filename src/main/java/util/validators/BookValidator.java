@@ -39,11 +39,33 @@ public final class BookValidator {
         // utility class
     }
 
+    /**
+     * Regular expression of the SQL CHECK constraint for ISBN values.
+     *
+     * <p>Public so set-based validation in SQL (bulk import) applies the exact same rule.</p>
+     */
+    public static final String ISBN_REGEX = "^[0-9Xx-]{10,20}$";
+
+    /**
+     * Maximum length of the {@code title} and {@code author} columns.
+     */
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * Smallest publication year accepted by the database.
+     */
+    public static final int MIN_PUBLICATION_YEAR = 1400;
+
+    /**
+     * Largest publication year accepted by the database.
+     */
+    public static final int MAX_PUBLICATION_YEAR = 3000;
+
     /**
      * Pattern matching the SQL CHECK constraint for ISBN values.
      */
     private static final Pattern ISBN_PATTERN =
-            Pattern.compile("^[0-9Xx-]{10,20}$");
+            Pattern.compile(ISBN_REGEX);
 
     // -------------------------------------------------------------------------
     // ID validation
@@ -77,7 +99,7 @@ public final class BookValidator {
      */
     public static String requireValidTitle(String title) {
         String t = normalizeRequiredText(title, "title");
-        if (t.length() > 255) {
+        if (t.length() > MAX_TEXT_LENGTH) {
             throw new IllegalArgumentException("Title must be 255 characters or fewer.");
         }
         return t;
@@ -92,7 +114,7 @@ public final class BookValidator {
      */
     public static String requireValidAuthor(String author) {
         String a = normalizeRequiredText(author, "author");
-        if (a.length() > 255) {
+        if (a.length() > MAX_TEXT_LENGTH) {
             throw new IllegalArgumentException("Author must be 255 characters or fewer.");
         }
         return a;
@@ -172,7 +194,7 @@ public final class BookValidator {
     public static Integer validateOptionalPublicationYear(Integer year) {
         if (year == null) return null;
 
-        if (year < 1400 || year > 3000) {
+        if (year < MIN_PUBLICATION_YEAR || year > MAX_PUBLICATION_YEAR) {
             throw new IllegalArgumentException(
                     "Publication year must be between 1400 and 3000 (or omitted)."
             );
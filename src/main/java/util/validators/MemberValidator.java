@@ -35,14 +35,33 @@ public final class MemberValidator {
         // utility class
     }
 
+    /**
+     * Regular expression of the DB email CHECK constraint (matched case-insensitively).
+     *
+     * <p>Public so set-based validation in SQL (bulk import) applies the exact same rule.</p>
+     */
+    public static final String EMAIL_REGEX = "^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$";
+
+    /**
+     * Maximum length of the {@code name} column.
+     */
+    public static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * Maximum length of the {@code email} column.
+     */
+    public static final int MAX_EMAIL_LENGTH = 320;
+
+    /**
+     * Maximum length of the {@code phone} column.
+     */
+    public static final int MAX_PHONE_LENGTH = 30;
+
     /**
      * Case-insensitive email validation pattern aligned with the DB CHECK constraint.
      */
     private static final Pattern EMAIL_PATTERN =
-            Pattern.compile(
-                    "^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$",
-                    Pattern.CASE_INSENSITIVE
-            );
+            Pattern.compile(EMAIL_REGEX, Pattern.CASE_INSENSITIVE);
 
     /**
      * Sentinel value used during update flows to indicate
@@ -96,7 +115,7 @@ public final class MemberValidator {
     public static String requireValidName(String name) {
         String n = normalizeRequiredText(name, "name");
 
-        if (n.length() > 255) {
+        if (n.length() > MAX_NAME_LENGTH) {
             throw new IllegalArgumentException("name must be 255 characters or less.");
         }
         return n;
@@ -131,7 +150,7 @@ public final class MemberValidator {
     public static String validateOptionalEmail(String email) {
         if (email == null) return null;
 
-        if (email.length() > 320) {
+        if (email.length() > MAX_EMAIL_LENGTH) {
             throw new IllegalArgumentException("email must be 320 characters or less.");
         }
         if (!EMAIL_PATTERN.matcher(email).matches()) {
@@ -167,7 +186,7 @@ public final class MemberValidator {
                     "phone cannot be blank (or type NONE to leave it empty)."
             );
         }
-        if (phone.length() > 30) {
+        if (phone.length() > MAX_PHONE_LENGTH) {
             throw new IllegalArgumentException("phone must be 30 characters or less.");
         }
         return phone;
@@ -27,6 +27,11 @@ public final class ValidationUtil {
      */
     private static final Logger log = LoggerFactory.getLogger(ValidationUtil.class);
 
+    /**
+     * Largest page size accepted by paged service queries.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -119,4 +124,30 @@ public final class ValidationUtil {
             );
         }
     }
+
+    /**
+     * Validates a keyset page request.
+     *
+     * <p>Rules:</p>
+     * <ul>
+     *   <li>{@code afterId} is required and must be {@code >= 0} ({@code 0} = first page)</li>
+     *   <li>{@code limit} must be between 1 and {@link #MAX_PAGE_SIZE} (inclusive)</li>
+     * </ul>
+     *
+     * @param afterId keyset cursor (last ID of the previous page)
+     * @param limit   requested page size
+     * @throws IllegalArgumentException if either value is out of range
+     */
+    public static void validatePageRequest(Long afterId, int limit) {
+        if (afterId == null || afterId < 0) {
+            log.debug("Validation failed: afterId must be >= 0. value={}", afterId);
+            throw new IllegalArgumentException("afterId must be zero or a positive number.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            log.debug("Validation failed: page limit out of range. value={}", limit);
+            throw new IllegalArgumentException(
+                    "limit must be between 1 and " + MAX_PAGE_SIZE + "."
+            );
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package repository.DAO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import util.jdbc.TransactionTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AsyncBaseDAOTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "test-async"));
+    private final FakeDAO dao = new FakeDAO(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void asyncMethods_RunBlockingCallOnExecutor_AndComplete() {
+        assertEquals(Optional.of("row-7@test-async"), dao.findByIdAsync(7L).join());
+
+        dao.deleteByIdAsync(7L).join();
+        assertEquals(2, dao.calls.get());
+    }
+
+    @Test
+    void asyncMethods_BlockingFailure_CompletesExceptionally() {
+        CompletableFuture<String> saved = dao.saveAsync("duplicate");
+
+        CompletionException thrown = assertThrows(CompletionException.class, saved::join);
+        assertInstanceOf(IllegalArgumentException.class, thrown.getCause());
+        assertEquals("email already exists", thrown.getCause().getMessage());
+    }
+
+    @Test
+    void asyncMethods_InsideTransaction_AreRejected_AndNeverRun() {
+        Connection physical = mock(Connection.class);
+        TransactionTemplate tx = new TransactionTemplate(() -> physical, Connection.TRANSACTION_READ_COMMITTED, 1);
+
+        tx.run(() -> {
+            assertThrows(IllegalStateException.class, () -> dao.findByIdAsync(7L));
+            assertThrows(IllegalStateException.class, dao::findAllAsync);
+        });
+
+        assertEquals(0, dao.calls.get());
+        verifyNoInteractions(physical);
+        assertEquals(List.of("row-1@test-async"), dao.findAllAsync().join());
+    }
+
+    /**
+     * In-memory DAO whose blocking methods report the thread they ran on.
+     */
+    private static final class FakeDAO implements AsyncBaseDAO<String> {
+
+        private final ExecutorService executor;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private FakeDAO(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public ExecutorService asyncExecutor() {
+            return executor;
+        }
+
+        @Override
+        public String save(String s) {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("email already exists");
+        }
+
+        @Override
+        public List<Long> saveAll(List<String> items, int batchSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<String> findById(long id) {
+            calls.incrementAndGet();
+            return Optional.of("row-" + id + "@" + Thread.currentThread().getName());
+        }
+
+        @Override
+        public List<String> findAll() {
+            calls.incrementAndGet();
+            return List.of("row-1@" + Thread.currentThread().getName());
+        }
+
+        @Override
+        public List<String> findPage(long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<String> streamAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(String s) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteById(long id) {
+            calls.incrementAndGet();
+        }
+    }
+}
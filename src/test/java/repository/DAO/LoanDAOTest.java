@@ -0,0 +1,81 @@
+package repository.DAO;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import repository.entities.LoanEntity;
+import util.jdbc.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoanDAOTest {
+
+    private final LocalDate today = LocalDate.of(2025, 12, 22);
+    private final LoanEntity loan = new LoanEntity(0, 10L, 20L, today, today.plusDays(14), null);
+    private final AtomicInteger referenceChecks = new AtomicInteger();
+
+    /**
+     * DAO whose fallback lookup reports a missing member instead of querying the database.
+     */
+    private final LoanDAO dao = new LoanDAO() {
+        @Override
+        References checkReferences(long bookId, long memberId) {
+            referenceChecks.incrementAndGet();
+            return new References(true, false);
+        }
+    };
+
+    private static SQLException foreignKeyViolation(String constraint) {
+        String fields = "SERROR\0C23503\0Minsert or update on table \"loans\" violates foreign key constraint\0"
+                + (constraint == null ? "" : "n" + constraint + "\0");
+        return new PSQLException(new ServerErrorMessage(fields));
+    }
+
+    @Test
+    void translateForeignKeyViolation_BookConstraint_ReportsMissingBook_WithoutLookup() {
+        SQLException e = foreignKeyViolation("loans_book_fk");
+
+        IllegalArgumentException ex = dao.translateForeignKeyViolation(loan, e, "saving");
+
+        assertEquals("Invalid bookId: no book exists with id=10.", ex.getMessage());
+        assertSame(e, ex.getCause());
+        assertEquals(0, referenceChecks.get());
+    }
+
+    @Test
+    void translateForeignKeyViolation_MemberConstraint_ReportsMissingMember_WithoutLookup() {
+        IllegalArgumentException ex = dao.translateForeignKeyViolation(
+                loan, foreignKeyViolation("loans_member_fk"), "updating");
+
+        assertEquals("Invalid memberId: no member exists with id=20.", ex.getMessage());
+        assertEquals(0, referenceChecks.get());
+    }
+
+    @Test
+    void translateForeignKeyViolation_UnnamedConstraint_FallsBackToReferenceLookup() {
+        IllegalArgumentException ex = dao.translateForeignKeyViolation(
+                loan, new SQLException("fk violation", "23503"), "saving");
+
+        assertEquals("Invalid memberId: no member exists with id=20.", ex.getMessage());
+        assertEquals(1, referenceChecks.get());
+    }
+
+    @Test
+    void translateForeignKeyViolation_UnnamedConstraintInsideTransaction_SkipsLookup() {
+        Connection physical = mock(Connection.class);
+        TransactionTemplate tx = new TransactionTemplate(() -> physical, Connection.TRANSACTION_READ_COMMITTED, 1);
+
+        IllegalArgumentException ex = tx.execute(() -> dao.translateForeignKeyViolation(
+                loan, foreignKeyViolation(null), "saving"));
+
+        assertTrue(ex.getMessage().startsWith("Invalid bookId or memberId: bookId=10, memberId=20"), ex.getMessage());
+        assertEquals(0, referenceChecks.get());
+        verifyNoInteractions(physical);
+    }
+}
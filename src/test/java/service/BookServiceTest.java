@@ -13,11 +13,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import repository.DAO.BookDAO;
+import repository.DAO.OptimisticLockException;
+import repository.DAO.WriteOutcome;
 import repository.entities.BookEntity;
 import service.models.Book;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -153,6 +156,83 @@ class BookServiceTest {
     // getAll
     // -------------------------
 
+    @Test
+    void getById_RepeatedLookups_HitCache_AndCountHitsAndMisses() {
+        when(bookDAO.findById(10L)).thenReturn(Optional.of(savedBookEntity));
+
+        assertTrue(bookService.getById(10L).isPresent());
+        assertTrue(bookService.getById(10L).isPresent());
+        assertTrue(bookService.getById(10L).isPresent());
+
+        verify(bookDAO, times(1)).findById(10L);
+        assertEquals(2, bookService.getCacheStats().hits());
+        assertEquals(1, bookService.getCacheStats().misses());
+    }
+
+    @Test
+    void getById_NotFound_IsNotCached() {
+        when(bookDAO.findById(123L)).thenReturn(Optional.empty());
+
+        bookService.getById(123L);
+        bookService.getById(123L);
+
+        verify(bookDAO, times(2)).findById(123L);
+    }
+
+    @Test
+    void update_InvalidatesCachedBook_SoNextReadReloads() {
+        when(bookDAO.findById(10L)).thenReturn(Optional.of(new BookEntity(10L, "Old", "Old Author", null, null)));
+        when(bookDAO.updateReturning(any(BookEntity.class)))
+                .thenReturn(Optional.of(new BookEntity(10L, "New Title", "New Author", null, null)));
+
+        assertEquals("Old", bookService.getById(10L).orElseThrow().getTitle());
+        bookService.update(10L, new Book("New Title", "New Author", null, null));
+
+        when(bookDAO.findById(10L)).thenReturn(Optional.of(new BookEntity(10L, "New Title", "New Author", null, null)));
+        assertEquals("New Title", bookService.getById(10L).orElseThrow().getTitle());
+        verify(bookDAO, times(2)).findById(10L);
+    }
+
+    @Test
+    void update_StaleVersion_PropagatesConflict_AndDoesNotCacheAttemptedValues() {
+        BookEntity current = new BookEntity(10L, "Other Desk Title", "Old Author", null, null);
+        current.setVersion(4L);
+        when(bookDAO.findById(10L)).thenReturn(Optional.of(current));
+        when(bookDAO.updateReturning(any(BookEntity.class)))
+                .thenThrow(new OptimisticLockException("books", 10L, 3L));
+
+        assertEquals(4L, bookService.getById(10L).orElseThrow().getVersion());
+
+        Book stale = new Book("New Title", "New Author", null, null);
+        stale.setVersion(3L);
+
+        OptimisticLockException ex =
+                assertThrows(OptimisticLockException.class, () -> bookService.update(10L, stale));
+        assertTrue(ex.getMessage().contains("book with id=10"));
+
+        ArgumentCaptor<BookEntity> captor = ArgumentCaptor.forClass(BookEntity.class);
+        verify(bookDAO).updateReturning(captor.capture());
+        assertEquals(3L, captor.getValue().getVersion());
+
+        // Neither the rejected values nor the old cached copy are served: the row is reloaded.
+        Book reloaded = bookService.getById(10L).orElseThrow();
+        assertEquals("Other Desk Title", reloaded.getTitle());
+        assertEquals(4L, reloaded.getVersion());
+        verify(bookDAO, times(2)).findById(10L);
+    }
+
+    @Test
+    void delete_InvalidatesCachedBook() {
+        when(bookDAO.findById(10L)).thenReturn(Optional.of(savedBookEntity));
+        when(bookDAO.deleteIfNoLoans(10L)).thenReturn(WriteOutcome.DONE);
+
+        bookService.getById(10L);
+        assertTrue(bookService.delete(10L));
+
+        when(bookDAO.findById(10L)).thenReturn(Optional.empty());
+        assertTrue(bookService.getById(10L).isEmpty());
+    }
+
     @Test
     void getAll_ReturnsMappedModels_AndCallsDaoFindAll() {
         when(bookDAO.findAll()).thenReturn(List.of(
@@ -172,6 +252,164 @@ class BookServiceTest {
         assertTrue(hasLog(Level.DEBUG, "getAll returning 2 books."));
     }
 
+    // -------------------------
+    // createAll
+    // -------------------------
+
+    @Test
+    void createAll_Success_ReturnsIdsInOrder_AndSetsModelIds() {
+        Book first = new Book("A", "AuthA", null, null);
+        Book second = new Book("B", "AuthB", "123456789X", 2020);
+        when(bookDAO.saveAll(anyList())).thenReturn(List.of(41L, 42L));
+
+        List<Long> ids = bookService.createAll(List.of(first, second));
+
+        assertEquals(List.of(41L, 42L), ids);
+        assertEquals(41, first.getId());
+        assertEquals(42, second.getId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookDAO, times(1)).saveAll(captor.capture());
+        assertEquals("A", captor.getValue().get(0).getTitle());
+        assertEquals("B", captor.getValue().get(1).getTitle());
+        verify(bookDAO, never()).save(any());
+    }
+
+    @Test
+    void createAll_OneInvalidModel_Throws_AndSavesNothing() {
+        List<Book> books = List.of(
+                new Book("A", "AuthA", null, null),
+                new Book("B", "AuthB", null, 1200)
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.createAll(books));
+        verify(bookDAO, never()).saveAll(anyList());
+    }
+
+    // -------------------------
+    // getPage / streamAll
+    // -------------------------
+
+    @Test
+    void getPage_ReturnsMappedModels_AndPassesKeysetToDao() {
+        when(bookDAO.findPage(10L, 2)).thenReturn(List.of(
+                new BookEntity(11L, "A", "AuthA", null, null),
+                new BookEntity(12L, "B", "AuthB", null, null)
+        ));
+
+        List<Book> page = bookService.getPage(10L, 2);
+
+        assertEquals(2, page.size());
+        assertEquals(11, page.get(0).getId());
+        assertEquals(12, page.get(1).getId());
+        verify(bookDAO, times(1)).findPage(10L, 2);
+    }
+
+    @Test
+    void getPage_InvalidArguments_Throw_AndDoNotCallDao() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getPage(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getPage(-1L, 10));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getPage(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getPage(0L, 1001));
+
+        verify(bookDAO, never()).findPage(anyLong(), anyInt());
+    }
+
+    @Test
+    void streamAll_MapsLazily_AndPropagatesClose() {
+        boolean[] closed = {false};
+        when(bookDAO.streamAll()).thenReturn(Stream.of(
+                new BookEntity(1L, "A", "AuthA", null, null)
+        ).onClose(() -> closed[0] = true));
+
+        try (Stream<Book> books = bookService.streamAll()) {
+            assertEquals("A", books.findFirst().orElseThrow().getTitle());
+        }
+
+        assertTrue(closed[0]);
+    }
+
+    // -------------------------
+    // search
+    // -------------------------
+
+    @Test
+    void search_TrimsQuery_AndDispatchesByMode() {
+        when(bookDAO.searchByPrefix("dun", 0, 20)).thenReturn(List.of(
+                new BookEntity(7L, "Dune", "Frank Herbert", null, 1965)
+        ));
+
+        List<Book> results = bookService.search("  dun ", BookService.SearchMode.PREFIX, 0, 20);
+
+        assertEquals(1, results.size());
+        assertEquals("Dune", results.get(0).getTitle());
+        verify(bookDAO, times(1)).searchByPrefix("dun", 0, 20);
+
+        bookService.search("tolkein", BookService.SearchMode.FUZZY, 20, 10);
+        bookService.search("hobb", BookService.SearchMode.SUBSTRING, 0, 5);
+
+        verify(bookDAO, times(1)).searchFuzzy("tolkein", 20, 10);
+        verify(bookDAO, times(1)).searchBySubstring("hobb", 0, 5);
+    }
+
+    @Test
+    void search_InvalidArguments_Throw_AndDoNotCallDao() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search(" ", BookService.SearchMode.PREFIX, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("dune", null, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("du", BookService.SearchMode.FUZZY, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("du", BookService.SearchMode.SUBSTRING, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("x".repeat(256), BookService.SearchMode.PREFIX, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("dune", BookService.SearchMode.PREFIX, -1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.search("dune", BookService.SearchMode.PREFIX, 0, 0));
+
+        verifyNoInteractions(bookDAO);
+    }
+
+    // -------------------------
+    // in-memory search index
+    // -------------------------
+
+    @Test
+    void quickSearch_IndexNotEnabled_Throws() {
+        assertFalse(bookService.isSearchIndexEnabled());
+        assertThrows(IllegalStateException.class, () -> bookService.quickSearch("dune", 10));
+    }
+
+    @Test
+    void enableSearchIndex_BuildsFromStream_AndWritesKeepItCurrent() {
+        when(bookDAO.streamAll()).thenReturn(Stream.of(
+                new BookEntity(1L, "The Hobbit", "J.R.R. Tolkien", null, 1937),
+                new BookEntity(2L, "Dune", "Frank Herbert", null, 1965)
+        ));
+        assertEquals(2, bookService.enableSearchIndex());
+        assertEquals("The Hobbit", bookService.quickSearch("tolkien hob", 10).get(0).getTitle());
+
+        // create
+        when(bookDAO.save(any(BookEntity.class))).thenReturn(savedBookEntity);
+        bookService.create(testBookModel);
+        assertEquals(10, bookService.quickSearch("clean co", 10).get(0).getId());
+
+        // update
+        when(bookDAO.updateReturning(any(BookEntity.class))).thenReturn(Optional.of(
+                new BookEntity(2L, "Dune Messiah", "Frank Herbert", null, 1969)));
+        bookService.update(2L, new Book("Dune Messiah", "Frank Herbert", null, 1969));
+        assertEquals("Dune Messiah", bookService.quickSearch("messiah", 10).get(0).getTitle());
+
+        // delete
+        when(bookDAO.deleteIfNoLoans(2L)).thenReturn(WriteOutcome.DONE);
+        bookService.delete(2L);
+        assertTrue(bookService.quickSearch("herbert", 10).isEmpty());
+        assertEquals(List.of("tolkien"), bookService.suggestWords("TOL", 5));
+    }
+
     // -------------------------
     // update
     // -------------------------
@@ -200,7 +438,7 @@ class BookServiceTest {
 
     @Test
     void update_NotFound_Throws_AndLogsInfo() {
-        when(bookDAO.existsById(10L)).thenReturn(false);
+        when(bookDAO.updateReturning(any(BookEntity.class))).thenReturn(Optional.empty());
 
         Book updated = new Book("New Title", "New Author", "123456789X", 2020);
 
@@ -209,19 +447,17 @@ class BookServiceTest {
 
         assertTrue(ex.getMessage().contains("No book found with id=10"));
 
-        verify(bookDAO, times(1)).existsById(10L);
+        verify(bookDAO, times(1)).updateReturning(any(BookEntity.class));
+        verify(bookDAO, never()).existsById(anyLong());
         verify(bookDAO, never()).findById(anyLong());
-        verify(bookDAO, never()).update(any());
 
         assertTrue(hasLog(Level.INFO, "update failed: no book found with id=10"));
     }
 
     @Test
-    void update_Success_UpdatesExistingEntity_AndCallsDaoUpdate() {
-        when(bookDAO.existsById(10L)).thenReturn(true);
-
-        BookEntity existing = new BookEntity(10L, "Old", "Old Author", null, null);
-        when(bookDAO.findById(10L)).thenReturn(Optional.of(existing));
+    void update_Success_SingleUpdateReturning_AndReturnsStoredValues() {
+        when(bookDAO.updateReturning(any(BookEntity.class)))
+                .thenAnswer(inv -> Optional.of(inv.getArgument(0, BookEntity.class)));
 
         Book updated = new Book("New Title", "New Author", "123456789X", 2020);
 
@@ -233,15 +469,14 @@ class BookServiceTest {
         assertEquals("123456789X", result.getIsbn());
         assertEquals(2020, result.getPublicationYear());
 
-        // entity mutated + passed to DAO update
-        verify(bookDAO, times(1)).existsById(10L);
-        verify(bookDAO, times(1)).findById(10L);
-        verify(bookDAO, times(1)).update(existing);
-
-        assertEquals("New Title", existing.getTitle());
-        assertEquals("New Author", existing.getAuthor());
-        assertEquals("123456789X", existing.getIsbn());
-        assertEquals(2020, existing.getPublicationYear());
+        // one round trip: no existence check, no re-read
+        ArgumentCaptor<BookEntity> captor = ArgumentCaptor.forClass(BookEntity.class);
+        verify(bookDAO, times(1)).updateReturning(captor.capture());
+        assertEquals(10L, captor.getValue().getId());
+        assertEquals("New Title", captor.getValue().getTitle());
+        verify(bookDAO, never()).existsById(anyLong());
+        verify(bookDAO, never()).findById(anyLong());
+        verify(bookDAO, never()).update(any());
 
         assertTrue(hasLog(Level.INFO, "Book updated successfully for id=10"));
     }
@@ -256,75 +491,47 @@ class BookServiceTest {
         assertFalse(bookService.delete(-9L));
         assertFalse(bookService.delete(null));
 
-        verify(bookDAO, never()).existsById(anyLong());
-        verify(bookDAO, never()).hasAnyLoans(anyLong());
-        verify(bookDAO, never()).tryDeleteById(anyLong());
+        verifyNoInteractions(bookDAO);
 
         assertTrue(hasLog(Level.WARN, "delete called with invalid id="));
     }
 
     @Test
-    void delete_NotFound_ReturnsFalse_CallsExistsOnly_AndLogsInfo() {
-        when(bookDAO.existsById(999L)).thenReturn(false);
-
-        boolean result = bookService.delete(999L);
+    void delete_NotFound_ReturnsFalse_AndLogsInfo() {
+        when(bookDAO.deleteIfNoLoans(999L)).thenReturn(WriteOutcome.NOT_FOUND);
 
-        assertFalse(result);
+        assertFalse(bookService.delete(999L));
 
-        verify(bookDAO, times(1)).existsById(999L);
-        verify(bookDAO, never()).hasAnyLoans(anyLong());
-        verify(bookDAO, never()).tryDeleteById(anyLong());
+        verify(bookDAO, times(1)).deleteIfNoLoans(999L);
+        verify(bookDAO, never()).existsById(anyLong());
 
         assertTrue(hasLog(Level.INFO, "delete skipped: no book found with id=999"));
     }
 
     @Test
-    void delete_BlockedByLoans_ReturnsFalse_AndDoesNotDelete_AndLogsInfo() {
-        when(bookDAO.existsById(10L)).thenReturn(true);
-        when(bookDAO.hasAnyLoans(10L)).thenReturn(true);
-
-        boolean result = bookService.delete(10L);
+    void delete_BlockedByLoans_ReturnsFalse_AndLogsInfo() {
+        when(bookDAO.deleteIfNoLoans(10L)).thenReturn(WriteOutcome.BLOCKED);
 
-        assertFalse(result);
+        assertFalse(bookService.delete(10L));
 
-        verify(bookDAO, times(1)).existsById(10L);
-        verify(bookDAO, times(1)).hasAnyLoans(10L);
+        verify(bookDAO, never()).hasAnyLoans(anyLong());
         verify(bookDAO, never()).tryDeleteById(anyLong());
 
         assertTrue(hasLog(Level.INFO, "delete blocked: book id=10 has related loans"));
     }
 
     @Test
-    void delete_Success_DeletesAndReturnsTrue_AndLogsInfo() {
-        when(bookDAO.existsById(10L)).thenReturn(true);
-        when(bookDAO.hasAnyLoans(10L)).thenReturn(false);
-        when(bookDAO.tryDeleteById(10L)).thenReturn(true);
+    void delete_Success_SingleStatement_ReturnsTrue_AndLogsInfo() {
+        when(bookDAO.deleteIfNoLoans(10L)).thenReturn(WriteOutcome.DONE);
 
-        boolean result = bookService.delete(10L);
+        assertTrue(bookService.delete(10L));
 
-        assertTrue(result);
-
-        verify(bookDAO, times(1)).existsById(10L);
-        verify(bookDAO, times(1)).hasAnyLoans(10L);
-        verify(bookDAO, times(1)).tryDeleteById(10L);
+        verify(bookDAO, times(1)).deleteIfNoLoans(10L);
+        verifyNoMoreInteractions(bookDAO);
 
         assertTrue(hasLog(Level.INFO, "Book deleted successfully for id=10"));
     }
 
-    @Test
-    void delete_RaceCondition_TryDeleteFalse_ReturnsFalse_AndLogsWarn() {
-        when(bookDAO.existsById(10L)).thenReturn(true);
-        when(bookDAO.hasAnyLoans(10L)).thenReturn(false);
-        when(bookDAO.tryDeleteById(10L)).thenReturn(false);
-
-        boolean result = bookService.delete(10L);
-
-        assertFalse(result);
-        verify(bookDAO, times(1)).tryDeleteById(10L);
-
-        assertTrue(hasLog(Level.WARN, "delete result: book id=10 was not deleted"));
-    }
-
     // -------------------------
     // isBookCheckedOut
     // -------------------------
@@ -13,11 +13,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import repository.DAO.LoanDAO;
+import repository.DAO.OptimisticLockException;
 import repository.entities.LoanEntity;
+import service.models.BatchCheckout;
 import service.models.Loan;
+import service.models.MemberSummary;
+import service.models.OverdueLoan;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -80,9 +86,9 @@ class LoanServiceTest {
     // =========================================================
 
     @Test
-    void create_Success_ReturnsNewId_SetsModelId_AndCallsDaoSave() {
-        when(loanDAO.hasActiveLoanForBook(5L)).thenReturn(false);
-        when(loanDAO.save(any(LoanEntity.class))).thenReturn(savedLoanEntity);
+    void create_Success_ReturnsNewId_SetsModelId_AndCallsDaoCheckout() {
+        when(loanDAO.checkout(any(LoanEntity.class), anyInt()))
+                .thenReturn(new LoanDAO.CheckoutResult(100L, null, null, 0));
 
         Long newId = loanService.create(testLoanModel);
 
@@ -90,7 +96,7 @@ class LoanServiceTest {
         assertEquals(100L, testLoanModel.getId());
 
         ArgumentCaptor<LoanEntity> captor = ArgumentCaptor.forClass(LoanEntity.class);
-        verify(loanDAO, times(1)).save(captor.capture());
+        verify(loanDAO, times(1)).checkout(captor.capture(), eq(0));
 
         LoanEntity sent = captor.getValue();
         assertEquals(5L, sent.getBookId());
@@ -99,34 +105,42 @@ class LoanServiceTest {
         assertEquals(LocalDate.of(2025, 12, 15), sent.getDueDate());
         assertNull(sent.getReturnDate());
 
-        verify(loanDAO, times(1)).hasActiveLoanForBook(5L);
+        // The availability check is part of the atomic checkout, not a separate query.
+        verify(loanDAO, never()).hasActiveLoanForBook(anyLong());
+        verify(loanDAO, never()).save(any());
 
-        // LoanService logs:
+        // LoanService logs (DEBUG: per-checkout detail stays off the INFO hot path):
         // "Loan created successfully with id={} (bookId={}, memberId={})"
-        assertTrue(hasLog(Level.INFO, "Loan created successfully with id=100"));
+        assertTrue(hasLog(Level.DEBUG, "Loan created successfully with id=100"));
     }
 
     @Test
     void create_BookAlreadyCheckedOut_ThrowsIllegalStateException_AndDoesNotSave() {
-        when(loanDAO.hasActiveLoanForBook(5L)).thenReturn(true);
-        when(loanDAO.findActiveLoanByBookId(5L)).thenReturn(Optional.of(
-                new LoanEntity(777L, 5L, 9L,
-                        LocalDate.of(2025, 12, 1),
-                        LocalDate.of(2025, 12, 20),
-                        null
-                )
-        ));
+        when(loanDAO.checkout(any(LoanEntity.class), anyInt()))
+                .thenReturn(new LoanDAO.CheckoutResult(null, 777L, LocalDate.of(2025, 12, 20), 0));
 
         IllegalStateException ex = assertThrows(IllegalStateException.class, () -> loanService.create(testLoanModel));
         assertTrue(ex.getMessage().toLowerCase().contains("already checked out"));
+        assertTrue(ex.getMessage().contains("active loan id=777"));
 
-        verify(loanDAO, times(1)).hasActiveLoanForBook(5L);
-        verify(loanDAO, times(1)).findActiveLoanByBookId(5L);
+        verify(loanDAO, times(1)).checkout(any(LoanEntity.class), anyInt());
         verify(loanDAO, never()).save(any());
 
         assertTrue(hasLog(Level.INFO, "Checkout blocked: bookId=5 already has an active loan"));
     }
 
+    @Test
+    void create_MemberLimitReached_ThrowsIllegalStateException() {
+        loanService = new LoanService(loanDAO, 2);
+        when(loanDAO.checkout(any(LoanEntity.class), eq(2)))
+                .thenReturn(new LoanDAO.CheckoutResult(null, null, null, 2));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> loanService.create(testLoanModel));
+        assertTrue(ex.getMessage().contains("active loan limit (2)"));
+
+        assertTrue(hasLog(Level.INFO, "Checkout blocked: memberId=7 has 2 active loans (limit=2)"));
+    }
+
     @Test
     void create_NullModel_Throws_AndDoesNotCallDao() {
         assertThrows(IllegalArgumentException.class, () -> loanService.create(null));
@@ -138,8 +152,7 @@ class LoanServiceTest {
         testLoanModel.setBookId(0L);
         assertThrows(IllegalArgumentException.class, () -> loanService.create(testLoanModel));
 
-        verify(loanDAO, never()).save(any());
-        verify(loanDAO, never()).hasActiveLoanForBook(anyLong());
+        verify(loanDAO, never()).checkout(any(), anyInt());
     }
 
     @Test
@@ -147,8 +160,7 @@ class LoanServiceTest {
         testLoanModel.setMemberId(-1L);
         assertThrows(IllegalArgumentException.class, () -> loanService.create(testLoanModel));
 
-        verify(loanDAO, never()).save(any());
-        verify(loanDAO, never()).hasActiveLoanForBook(anyLong());
+        verify(loanDAO, never()).checkout(any(), anyInt());
     }
 
     @Test
@@ -341,6 +353,27 @@ class LoanServiceTest {
         assertTrue(hasLog(Level.INFO, "Loan updated successfully for id=100"));
     }
 
+    @Test
+    void update_StaleVersion_ThrowsOptimisticLock_AndDoesNotWrite() {
+        LoanEntity existing = new LoanEntity(
+                100L, 5L, 7L,
+                LocalDate.of(2025, 12, 1),
+                LocalDate.of(2025, 12, 10),
+                null
+        );
+        existing.setVersion(2L);
+        when(loanDAO.findById(100L)).thenReturn(Optional.of(existing));
+
+        Loan updated = new Loan(5L, 7L, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 20), null);
+        updated.setVersion(1L);
+
+        OptimisticLockException ex =
+                assertThrows(OptimisticLockException.class, () -> loanService.update(100L, updated));
+        assertEquals(1L, ex.getExpectedVersion());
+
+        verify(loanDAO, never()).update(any());
+    }
+
     // =========================================================
     // delete()
     // =========================================================
@@ -399,14 +432,13 @@ class LoanServiceTest {
 
     @Test
     void checkout_DelegatesToCreate() {
-        when(loanDAO.hasActiveLoanForBook(5L)).thenReturn(false);
-        when(loanDAO.save(any(LoanEntity.class))).thenReturn(savedLoanEntity);
+        when(loanDAO.checkout(any(LoanEntity.class), anyInt()))
+                .thenReturn(new LoanDAO.CheckoutResult(100L, null, null, 0));
 
         Long id = loanService.checkout(testLoanModel);
 
         assertEquals(100L, id);
-        verify(loanDAO, times(1)).save(any(LoanEntity.class));
-        verify(loanDAO, times(1)).hasActiveLoanForBook(5L);
+        verify(loanDAO, times(1)).checkout(any(LoanEntity.class), anyInt());
     }
 
     @Test
@@ -520,6 +552,103 @@ class LoanServiceTest {
         verify(loanDAO, times(1)).setReturnDate(eq(100L), any(LocalDate.class));
     }
 
+    // =========================================================
+    // returnLoans (bulk)
+    // =========================================================
+
+    @Test
+    void returnLoans_DeduplicatesIds_AndMapsEveryOutcome_InRequestOrder() {
+        LocalDate returnDate = LocalDate.of(2025, 12, 5);
+        when(loanDAO.returnLoans(List.of(4L, 1L, 2L, 3L, 5L), returnDate)).thenReturn(List.of(
+                new LoanDAO.ReturnRow(4L, true, true, false, LocalDate.of(2025, 12, 1)),
+                new LoanDAO.ReturnRow(1L, false, false, false, null),
+                new LoanDAO.ReturnRow(2L, false, true, true, LocalDate.of(2025, 11, 1)),
+                new LoanDAO.ReturnRow(3L, false, true, false, LocalDate.of(2025, 12, 6)),
+                // active before the update but not returned by it: a concurrent return won
+                new LoanDAO.ReturnRow(5L, false, true, false, LocalDate.of(2025, 12, 1))
+        ));
+
+        Map<Long, LoanService.ReturnOutcome> outcomes =
+                loanService.returnLoans(List.of(4L, 1L, 4L, 2L, 3L, 5L), returnDate);
+
+        assertEquals(List.of(4L, 1L, 2L, 3L, 5L), List.copyOf(outcomes.keySet()));
+        assertEquals(LoanService.ReturnOutcome.RETURNED, outcomes.get(4L));
+        assertEquals(LoanService.ReturnOutcome.NOT_FOUND, outcomes.get(1L));
+        assertEquals(LoanService.ReturnOutcome.ALREADY_RETURNED, outcomes.get(2L));
+        assertEquals(LoanService.ReturnOutcome.BEFORE_CHECKOUT, outcomes.get(3L));
+        assertEquals(LoanService.ReturnOutcome.ALREADY_RETURNED, outcomes.get(5L));
+    }
+
+    @Test
+    void returnLoans_InvalidArguments_Throw_AndDoNotCallDao() {
+        LocalDate returnDate = LocalDate.of(2025, 12, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> loanService.returnLoans(null, returnDate));
+        assertThrows(IllegalArgumentException.class, () -> loanService.returnLoans(List.of(1L), null));
+        assertThrows(IllegalArgumentException.class, () -> loanService.returnLoans(List.of(1L, 0L), returnDate));
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.returnLoans(Arrays.asList(1L, null), returnDate));
+        assertTrue(loanService.returnLoans(List.of(), returnDate).isEmpty());
+
+        verifyNoInteractions(loanDAO);
+    }
+
+    // =========================================================
+    // checkoutAll (group checkout)
+    // =========================================================
+
+    @Test
+    void checkoutAll_Success_SetsIdsInRequestOrder() {
+        LocalDate checkout = LocalDate.of(2025, 12, 1);
+        LocalDate due = LocalDate.of(2025, 12, 15);
+        Loan first = new Loan(5L, 7L, checkout, due, null);
+        Loan second = new Loan(6L, 7L, checkout, due, null);
+        when(loanDAO.checkoutAll(anyList(), anyInt()))
+                .thenReturn(new LoanDAO.BatchCheckoutResult(List.of(201L, 202L), List.of(), List.of()));
+
+        BatchCheckout result = loanService.checkoutAll(List.of(first, second));
+
+        assertTrue(result.isCommitted());
+        assertEquals(List.of(201L, 202L), result.loanIds());
+        assertEquals(201L, first.getId());
+        assertEquals(202L, second.getId());
+    }
+
+    @Test
+    void checkoutAll_Conflict_ReturnsConflicts_AndLeavesIdsUnset() {
+        LocalDate checkout = LocalDate.of(2025, 12, 1);
+        LocalDate due = LocalDate.of(2025, 12, 15);
+        Loan first = new Loan(5L, 7L, checkout, due, null);
+        Loan second = new Loan(6L, 7L, checkout, due, null);
+        when(loanDAO.checkoutAll(anyList(), anyInt()))
+                .thenReturn(new LoanDAO.BatchCheckoutResult(List.of(), List.of(6L), List.of(7L)));
+
+        BatchCheckout result = loanService.checkoutAll(List.of(first, second));
+
+        assertFalse(result.isCommitted());
+        assertEquals(List.of(), result.loanIds());
+        assertEquals(List.of(6L), result.unavailableBookIds());
+        assertEquals(List.of(7L), result.overLimitMemberIds());
+        assertEquals(0L, first.getId());
+        assertEquals(0L, second.getId());
+    }
+
+    @Test
+    void checkoutAll_InvalidBatch_Throws_AndDoesNotCallDao() {
+        LocalDate checkout = LocalDate.of(2025, 12, 1);
+        LocalDate due = LocalDate.of(2025, 12, 15);
+        Loan loan = new Loan(5L, 7L, checkout, due, null);
+
+        assertThrows(IllegalArgumentException.class, () -> loanService.checkoutAll(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.checkoutAll(List.of(loan, new Loan(5L, 8L, checkout, due, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.checkoutAll(List.of(new Loan(6L, 7L, checkout, due, due))));
+        assertTrue(loanService.checkoutAll(List.of()).isCommitted());
+
+        verifyNoInteractions(loanDAO);
+    }
+
     // =========================================================
     // Loan-specific queries
     // =========================================================
@@ -585,4 +714,84 @@ class LoanServiceTest {
 
         verify(loanDAO, times(1)).findOverdueLoans(today);
     }
+
+    @Test
+    void getOverdueReportPage_FirstPage_MapsJoinedRows() {
+        LocalDate today = LocalDate.of(2025, 12, 22);
+        LocalDate due = LocalDate.of(2025, 12, 10);
+
+        when(loanDAO.findOverdueReportPage(today, null, 0L, 50)).thenReturn(List.of(
+                new LoanDAO.OverdueLoanRow(1L, 10L, "Dune", "Frank Herbert", 20L, "Ana", "ana@example.com",
+                        null, LocalDate.of(2025, 12, 1), due, 12)
+        ));
+
+        List<OverdueLoan> page = loanService.getOverdueReportPage(today, null, 50);
+
+        assertEquals(1, page.size());
+        assertEquals("Dune", page.get(0).title());
+        assertEquals("ana@example.com", page.get(0).email());
+        assertEquals(12, page.get(0).daysOverdue());
+    }
+
+    @Test
+    void getOverdueReportPage_NextPage_UsesLastRowAsKeysetCursor() {
+        LocalDate today = LocalDate.of(2025, 12, 22);
+        LocalDate due = LocalDate.of(2025, 12, 10);
+        OverdueLoan last = new OverdueLoan(7L, 10L, "Dune", "Frank Herbert", 20L, "Ana", null, null,
+                LocalDate.of(2025, 12, 1), due, 12);
+
+        when(loanDAO.findOverdueReportPage(today, due, 7L, 50)).thenReturn(List.of());
+
+        assertTrue(loanService.getOverdueReportPage(today, last, 50).isEmpty());
+        verify(loanDAO).findOverdueReportPage(today, due, 7L, 50);
+    }
+
+    @Test
+    void getOverdueReportPage_InvalidArguments_Throw_AndDoNotCallDao() {
+        LocalDate today = LocalDate.of(2025, 12, 22);
+
+        assertThrows(IllegalArgumentException.class, () -> loanService.getOverdueReportPage(null, null, 50));
+        assertThrows(IllegalArgumentException.class, () -> loanService.getOverdueReportPage(today, null, 0));
+
+        verify(loanDAO, never()).findOverdueReportPage(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getMemberSummary_MapsCountsAndRecentLoans_FlaggingOverdue() {
+        LocalDate today = LocalDate.of(2025, 12, 22);
+
+        when(loanDAO.findMemberSummary(20L, today, 10)).thenReturn(Optional.of(
+                new LoanDAO.MemberSummaryRow(20L, "Ana", "ana@example.com", null, 5, 2, 1, List.of(
+                        new LoanDAO.MemberLoanRow(3L, 10L, "Dune", LocalDate.of(2025, 12, 1),
+                                LocalDate.of(2025, 12, 15), null),
+                        new LoanDAO.MemberLoanRow(4L, 11L, "Emma", LocalDate.of(2025, 12, 20),
+                                LocalDate.of(2026, 1, 3), null),
+                        new LoanDAO.MemberLoanRow(2L, 12L, "Ulysses", LocalDate.of(2025, 11, 1),
+                                LocalDate.of(2025, 11, 15), LocalDate.of(2025, 11, 20))
+                ))
+        ));
+
+        MemberSummary summary = loanService.getMemberSummary(20L, today, 10).orElseThrow();
+
+        assertEquals("Ana", summary.name());
+        assertEquals(5, summary.totalLoans());
+        assertEquals(2, summary.activeLoans());
+        assertEquals(1, summary.overdueLoans());
+        assertEquals(List.of(true, false, false),
+                summary.recentLoans().stream().map(MemberSummary.RecentLoan::overdue).toList());
+        assertEquals("Dune", summary.recentLoans().get(0).title());
+    }
+
+    @Test
+    void getMemberSummary_UnknownMember_ReturnsEmpty_AndInvalidArgumentsThrow() {
+        LocalDate today = LocalDate.of(2025, 12, 22);
+        when(loanDAO.findMemberSummary(99L, today, 10)).thenReturn(Optional.empty());
+
+        assertTrue(loanService.getMemberSummary(99L, today, 10).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> loanService.getMemberSummary(0L, today, 10));
+        assertThrows(IllegalArgumentException.class, () -> loanService.getMemberSummary(1L, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> loanService.getMemberSummary(1L, today, 0));
+        verify(loanDAO, times(1)).findMemberSummary(anyLong(), any(), anyInt());
+    }
 }
@@ -13,6 +13,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import repository.DAO.MemberDAO;
+import repository.DAO.OptimisticLockException;
+import repository.DAO.WriteOutcome;
 import repository.entities.MemberEntity;
 import service.models.Member;
 
@@ -139,6 +141,38 @@ class MemberServiceTest {
         verifyNoInteractions(memberDAO);
     }
 
+    // =========================================================
+    // createAll()
+    // =========================================================
+
+    @Test
+    void createAll_Success_NormalizesBlankFields_AndSkipsPerRowEmailLookups() {
+        Member first = new Member("Alice Johnson", "alice@example.com", "555-1212");
+        Member second = new Member("Bob Smith", "   ", "");
+        when(memberDAO.saveAll(anyList())).thenReturn(List.of(7L, 8L));
+
+        List<Long> ids = memberService.createAll(List.of(first, second));
+
+        assertEquals(List.of(7L, 8L), ids);
+        assertEquals(7L, first.getId());
+        assertEquals(8L, second.getId());
+        assertNull(second.getEmail());
+        assertNull(second.getPhone());
+
+        verify(memberDAO, never()).isEmailAvailable(anyString());
+    }
+
+    @Test
+    void createAll_DuplicateEmailInBatch_Throws_AndSavesNothing() {
+        List<Member> members = List.of(
+                new Member("Alice Johnson", "alice@example.com", null),
+                new Member("Alice Again", "alice@example.com", null)
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> memberService.createAll(members));
+        verify(memberDAO, never()).saveAll(anyList());
+    }
+
     // =========================================================
     // getById()
     // =========================================================
@@ -180,6 +214,18 @@ class MemberServiceTest {
         assertTrue(hasLog(Level.DEBUG, "Member found with id=25"));
     }
 
+    @Test
+    void getById_RepeatedLookups_HitCache() {
+        when(memberDAO.findById(25L)).thenReturn(Optional.of(savedMemberEntity));
+
+        memberService.getById(25L);
+        memberService.getById(25L);
+
+        verify(memberDAO, times(1)).findById(25L);
+        assertEquals(1, memberService.getCacheStats().hits());
+        assertEquals(1, memberService.getCacheStats().misses());
+    }
+
     // =========================================================
     // getAll()
     // =========================================================
@@ -203,6 +249,53 @@ class MemberServiceTest {
         assertTrue(hasLog(Level.DEBUG, "getAll returning 2 members."));
     }
 
+    // =========================================================
+    // search
+    // =========================================================
+
+    @Test
+    void searchByName_FirstPage_PassesTrimmedPrefix_NextPage_PassesKeyset() {
+        when(memberDAO.findByNamePrefix("ali", null, 0L, 2)).thenReturn(List.of(
+                new MemberEntity(4L, "Alice", null, null),
+                new MemberEntity(9L, "alicia", null, null)
+        ));
+
+        List<Member> first = memberService.searchByName("  ali ", null, 2);
+        assertEquals(2, first.size());
+
+        memberService.searchByName("ali", first.get(1), 2);
+        verify(memberDAO, times(1)).findByNamePrefix("ali", "alicia", 9L, 2);
+    }
+
+    @Test
+    void searchByName_InvalidArguments_Throw_AndDoNotCallDao() {
+        assertThrows(IllegalArgumentException.class, () -> memberService.searchByName(" ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> memberService.searchByName("x".repeat(256), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> memberService.searchByName("al", null, 0));
+
+        verifyNoInteractions(memberDAO);
+    }
+
+    @Test
+    void findByEmail_TrimsInput_AndDelegatesCaseInsensitiveLookup() {
+        when(memberDAO.findByEmailIgnoreCase("Alice@Example.com")).thenReturn(List.of(savedMemberEntity));
+
+        List<Member> results = memberService.findByEmail("  Alice@Example.com ");
+
+        assertEquals(1, results.size());
+        assertEquals(25L, results.get(0).getId());
+        assertThrows(IllegalArgumentException.class, () -> memberService.findByEmail("   "));
+    }
+
+    @Test
+    void findByPhone_ComparesDigitsOnly() {
+        when(memberDAO.findByPhoneDigits("5551212")).thenReturn(List.of(savedMemberEntity));
+
+        assertEquals(1, memberService.findByPhone("(555) 12-12").size());
+        assertThrows(IllegalArgumentException.class, () -> memberService.findByPhone("ext."));
+        verify(memberDAO, times(1)).findByPhoneDigits(anyString());
+    }
+
     // =========================================================
     // update()
     // =========================================================
@@ -238,7 +331,8 @@ class MemberServiceTest {
 
     @Test
     void update_NotFound_Throws_AndLogsInfo() {
-        when(memberDAO.existsById(999L)).thenReturn(false);
+        when(memberDAO.isEmailAvailableForUpdate(999L, "u@example.com")).thenReturn(true);
+        when(memberDAO.updateReturning(any(MemberEntity.class))).thenReturn(Optional.empty());
 
         Member updated = new Member("Updated Name", "u@example.com", null);
 
@@ -246,16 +340,15 @@ class MemberServiceTest {
                 assertThrows(IllegalArgumentException.class, () -> memberService.update(999L, updated));
         assertTrue(ex.getMessage().contains("No member found with id=999"));
 
-        verify(memberDAO, times(1)).existsById(999L);
+        verify(memberDAO, times(1)).updateReturning(any(MemberEntity.class));
+        verify(memberDAO, never()).existsById(anyLong());
         verify(memberDAO, never()).findById(anyLong());
-        verify(memberDAO, never()).update(any());
 
         assertTrue(hasLog(Level.INFO, "update failed: no member found with id=999"));
     }
 
     @Test
     void update_EmailNotAvailableForUpdate_Throws_AndDoesNotUpdate() {
-        when(memberDAO.existsById(25L)).thenReturn(true);
         when(memberDAO.isEmailAvailableForUpdate(25L, "new@example.com")).thenReturn(false);
 
         Member updated = new Member("New Name", "new@example.com", "222");
@@ -264,21 +357,17 @@ class MemberServiceTest {
                 assertThrows(IllegalArgumentException.class, () -> memberService.update(25L, updated));
 
         assertTrue(ex.getMessage().toLowerCase().contains("email"));
-        verify(memberDAO, times(1)).existsById(25L);
         verify(memberDAO, times(1)).isEmailAvailableForUpdate(25L, "new@example.com");
-        verify(memberDAO, never()).findById(anyLong());
-        verify(memberDAO, never()).update(any());
+        verify(memberDAO, never()).updateReturning(any());
 
         assertTrue(hasLog(Level.INFO, "update blocked: email already exists for another member"));
     }
 
     @Test
-    void update_Success_UpdatesEntity_CallsDaoUpdate_AndReturnsModel() {
-        when(memberDAO.existsById(25L)).thenReturn(true);
+    void update_Success_UpdateReturning_AndReturnsModel() {
         when(memberDAO.isEmailAvailableForUpdate(25L, "new@example.com")).thenReturn(true);
-
-        MemberEntity existing = new MemberEntity(25L, "Old Name", "old@example.com", "111");
-        when(memberDAO.findById(25L)).thenReturn(Optional.of(existing));
+        when(memberDAO.updateReturning(any(MemberEntity.class)))
+                .thenAnswer(inv -> Optional.of(inv.getArgument(0, MemberEntity.class)));
 
         Member updated = new Member("New Name", "new@example.com", "222");
 
@@ -289,24 +378,47 @@ class MemberServiceTest {
         assertEquals("new@example.com", result.getEmail());
         assertEquals("222", result.getPhone());
 
-        verify(memberDAO, times(1)).existsById(25L);
-        verify(memberDAO, times(1)).isEmailAvailableForUpdate(25L, "new@example.com");
-        verify(memberDAO, times(1)).findById(25L);
-        verify(memberDAO, times(1)).update(existing);
+        ArgumentCaptor<MemberEntity> captor = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberDAO, times(1)).updateReturning(captor.capture());
+        assertEquals(25L, captor.getValue().getId());
+        assertEquals("New Name", captor.getValue().getName());
 
-        assertEquals("New Name", existing.getName());
-        assertEquals("new@example.com", existing.getEmail());
-        assertEquals("222", existing.getPhone());
+        verify(memberDAO, never()).existsById(anyLong());
+        verify(memberDAO, never()).findById(anyLong());
 
         assertTrue(hasLog(Level.INFO, "Member updated successfully for id=25"));
     }
 
     @Test
-    void update_BlankOptionalFields_NormalizesToNull_AndSkipsEmailAvailabilityForUpdate() {
-        when(memberDAO.existsById(25L)).thenReturn(true);
+    void update_StaleVersion_PropagatesConflict_AndReloadsFromDaoAfterwards() {
+        MemberEntity current = new MemberEntity(25L, "Other Desk", null, null);
+        current.setVersion(4L);
+        when(memberDAO.findById(25L)).thenReturn(Optional.of(current));
+        when(memberDAO.updateReturning(any(MemberEntity.class)))
+                .thenThrow(new OptimisticLockException("members", 25L, 3L));
+
+        assertEquals(4L, memberService.getById(25L).orElseThrow().getVersion());
+
+        Member updated = new Member("New Name", null, null);
+        updated.setVersion(3L);
 
-        MemberEntity existing = new MemberEntity(25L, "Old Name", "old@example.com", "111");
-        when(memberDAO.findById(25L)).thenReturn(Optional.of(existing));
+        OptimisticLockException ex =
+                assertThrows(OptimisticLockException.class, () -> memberService.update(25L, updated));
+        assertTrue(ex.getMessage().contains("member with id=25"));
+
+        ArgumentCaptor<MemberEntity> captor = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberDAO).updateReturning(captor.capture());
+        assertEquals(3L, captor.getValue().getVersion());
+
+        // The cached copy was dropped, so the desk reloads the current row.
+        memberService.getById(25L);
+        verify(memberDAO, times(2)).findById(25L);
+    }
+
+    @Test
+    void update_BlankOptionalFields_NormalizesToNull_AndSkipsEmailAvailabilityForUpdate() {
+        when(memberDAO.updateReturning(any(MemberEntity.class)))
+                .thenAnswer(inv -> Optional.of(inv.getArgument(0, MemberEntity.class)));
 
         Member updated = new Member("New Name", "   ", "   ");
 
@@ -317,13 +429,12 @@ class MemberServiceTest {
         assertNull(result.getEmail());
         assertNull(result.getPhone());
 
-        verify(memberDAO, times(1)).existsById(25L);
         verify(memberDAO, never()).isEmailAvailableForUpdate(eq(25L), anyString());
-        verify(memberDAO, times(1)).findById(25L);
-        verify(memberDAO, times(1)).update(existing);
 
-        assertNull(existing.getEmail());
-        assertNull(existing.getPhone());
+        ArgumentCaptor<MemberEntity> captor = ArgumentCaptor.forClass(MemberEntity.class);
+        verify(memberDAO, times(1)).updateReturning(captor.capture());
+        assertNull(captor.getValue().getEmail());
+        assertNull(captor.getValue().getPhone());
     }
 
     // =========================================================
@@ -336,57 +447,46 @@ class MemberServiceTest {
         assertFalse(memberService.delete(0L));
         assertFalse(memberService.delete(-1L));
 
-        verify(memberDAO, never()).existsById(anyLong());
-        verify(memberDAO, never()).hasAnyLoans(anyLong());
-        verify(memberDAO, never()).deleteById(anyLong());
+        verifyNoInteractions(memberDAO);
 
         assertTrue(hasLog(Level.WARN, "delete called with invalid id="));
     }
 
     @Test
-    void delete_NotFound_ReturnsFalse_CallsExistsOnly_AndLogsInfo() {
-        when(memberDAO.existsById(999L)).thenReturn(false);
+    void delete_NotFound_ReturnsFalse_AndLogsInfo() {
+        when(memberDAO.deleteIfNoLoans(999L)).thenReturn(WriteOutcome.NOT_FOUND);
 
-        boolean result = memberService.delete(999L);
+        assertFalse(memberService.delete(999L));
 
-        assertFalse(result);
-
-        verify(memberDAO, times(1)).existsById(999L);
-        verify(memberDAO, never()).hasAnyLoans(anyLong());
-        verify(memberDAO, never()).deleteById(anyLong());
+        verify(memberDAO, times(1)).deleteIfNoLoans(999L);
+        verify(memberDAO, never()).existsById(anyLong());
 
         assertTrue(hasLog(Level.INFO, "delete skipped: no member found with id=999"));
     }
 
     @Test
-    void delete_BlockedByLoanHistory_Throws_AndDoesNotDelete() {
-        when(memberDAO.existsById(25L)).thenReturn(true);
-        when(memberDAO.hasAnyLoans(25L)).thenReturn(true);
+    void delete_BlockedByLoanHistory_Throws() {
+        when(memberDAO.deleteIfNoLoans(25L)).thenReturn(WriteOutcome.BLOCKED);
 
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> memberService.delete(25L));
 
         assertTrue(ex.getMessage().contains("Cannot delete member id=25"));
 
-        verify(memberDAO, times(1)).existsById(25L);
-        verify(memberDAO, times(1)).hasAnyLoans(25L);
+        verify(memberDAO, never()).hasAnyLoans(anyLong());
         verify(memberDAO, never()).deleteById(anyLong());
 
         assertTrue(hasLog(Level.INFO, "delete blocked: member id=25 has loans"));
     }
 
     @Test
-    void delete_Success_DeletesAndReturnsTrue_AndLogsInfo() {
-        when(memberDAO.existsById(25L)).thenReturn(true);
-        when(memberDAO.hasAnyLoans(25L)).thenReturn(false);
-
-        boolean result = memberService.delete(25L);
+    void delete_Success_SingleStatement_ReturnsTrue_AndLogsInfo() {
+        when(memberDAO.deleteIfNoLoans(25L)).thenReturn(WriteOutcome.DONE);
 
-        assertTrue(result);
+        assertTrue(memberService.delete(25L));
 
-        verify(memberDAO, times(1)).existsById(25L);
-        verify(memberDAO, times(1)).hasAnyLoans(25L);
-        verify(memberDAO, times(1)).deleteById(25L);
+        verify(memberDAO, times(1)).deleteIfNoLoans(25L);
+        verifyNoMoreInteractions(memberDAO);
 
         assertTrue(hasLog(Level.INFO, "Member deleted successfully for id=25"));
     }
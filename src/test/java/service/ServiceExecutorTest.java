@@ -0,0 +1,104 @@
+package service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceExecutorTest {
+
+    private ServiceExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = new ServiceExecutor(2, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void submit_NeverRunsMoreThanMaxConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return n;
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(peak.get() <= 2, "peak concurrency was " + peak.get());
+        assertEquals(0, executor.getStats().running());
+    }
+
+    @Test
+    void submit_RunsOnVirtualThreads() throws Exception {
+        assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void call_RethrowsTaskExceptionUnchanged() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> executor.call(() -> {
+                    throw new IllegalArgumentException("bad id");
+                }));
+        assertEquals("bad id", ex.getMessage());
+    }
+
+    @Test
+    void submit_WhenNoPermitInTime_CompletesWithRejectedExecutionException() throws Exception {
+        try (ServiceExecutor single = new ServiceExecutor(1, Duration.ofMillis(50))) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> blocker = single.submit(() -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            });
+
+            CompletableFuture<String> starved = single.submit(() -> "never");
+
+            ExecutionException ex = assertThrows(ExecutionException.class,
+                    () -> starved.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+            assertEquals(1, single.getStats().rejected());
+
+            release.countDown();
+            assertTrue(blocker.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void constructor_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ServiceExecutor(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ServiceExecutor(1, Duration.ZERO));
+    }
+}
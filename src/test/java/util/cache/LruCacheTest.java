@@ -0,0 +1,95 @@
+package util.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private LruCache<Long, String> newCache(int maxSize) {
+        return new LruCache<>(maxSize, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    void get_LoadsOnMiss_ThenServesFromCache() {
+        LruCache<Long, String> cache = newCache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1L, k -> {
+            loads.incrementAndGet();
+            return "v" + k;
+        }));
+        assertEquals("v1", cache.get(1L, k -> "other"));
+
+        LruCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, loads.get());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void get_NullLoaderResult_IsNotCached() {
+        LruCache<Long, String> cache = newCache(10);
+
+        assertNull(cache.get(1L, k -> null));
+        assertEquals("v", cache.get(1L, k -> "v"));
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void put_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+        LruCache<Long, String> cache = newCache(2);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+
+        cache.getIfPresent(1L); // 2 is now least recently used
+        cache.put(3L, "c");
+
+        assertEquals("a", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("c", cache.getIfPresent(3L));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void getIfPresent_AfterTtl_ReturnsNull_AndCountsExpiration() {
+        LruCache<Long, String> cache = newCache(10);
+        cache.put(1L, "a");
+
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertEquals("a", cache.getIfPresent(1L));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.getIfPresent(1L));
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void invalidate_DuringLoad_LoadedValueIsNotCached() {
+        LruCache<Long, String> cache = newCache(10);
+
+        String loaded = cache.get(1L, k -> {
+            cache.invalidate(1L); // a writer invalidates while the read is in flight
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    void constructor_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(1, null));
+    }
+}
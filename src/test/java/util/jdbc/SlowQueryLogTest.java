@@ -0,0 +1,167 @@
+package util.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryLogTest {
+
+    private final Connection physical = mock(Connection.class);
+    private final PreparedStatement ps = mock(PreparedStatement.class);
+    private final ResultSet rs = mock(ResultSet.class);
+
+    @Test
+    void mask_HidesEmailsAndPhoneNumbers_AndQuotesOtherStrings() {
+        assertEquals("j***@example.com", SlowQueryLog.mask("jane.doe@example.com"));
+        assertEquals("***01", SlowQueryLog.mask("(555) 010-1001"));
+        assertEquals("***01", SlowQueryLog.mask("+1 555 010 1001"));
+        assertEquals("'Dune'", SlowQueryLog.mask("Dune"));
+        assertEquals("'O''Brien%'", SlowQueryLog.mask("O'Brien%"));
+        assertEquals("42", SlowQueryLog.mask(42L));
+        assertEquals("NULL", SlowQueryLog.mask(null));
+    }
+
+    @Test
+    void slowQuery_TimesExecuteAndFetch_WithMaskedParameters() throws SQLException {
+        SlowQueryLog slowLog = new SlowQueryLog(new SlowQueryLog.Config(5, 10));
+        when(physical.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenAnswer(sleepThen(true)).thenReturn(true).thenReturn(false);
+
+        try (Connection c = slowLog.wrap(physical);
+             PreparedStatement stmt = c.prepareStatement("""
+                     SELECT id
+                     FROM members
+                     WHERE email = ? AND name = ?
+                     """)) {
+            stmt.setString(1, "jane@example.com");
+            stmt.setString(2, "Jane");
+            try (ResultSet r = stmt.executeQuery()) {
+                while (r.next()) {
+                    r.getLong(1);
+                }
+            }
+        }
+
+        List<SlowQueryLog.SlowQuery> slowest = slowLog.slowest();
+        assertEquals(1, slowest.size());
+        SlowQueryLog.SlowQuery query = slowest.get(0);
+        assertEquals("SELECT id FROM members WHERE email = ? AND name = ?", query.sql());
+        assertEquals("[1=j***@example.com, 2='Jane']", query.parameters());
+        assertEquals(2, query.rows());
+        assertTrue(query.fetchNanos() >= 5_000_000L);
+        assertTrue(query.totalMillis() >= 5);
+        verify(physical).close();
+    }
+
+    @Test
+    void fastQueries_AreNotRecorded_AndTopNKeepsOnlyTheSlowest() throws SQLException {
+        SlowQueryLog slowLog = new SlowQueryLog(new SlowQueryLog.Config(5, 1));
+        when(physical.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeUpdate()).thenReturn(1)
+                .thenAnswer(sleepThen(1))
+                .thenAnswer(sleepThen(1, 30));
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1});
+
+        try (Connection c = slowLog.wrap(physical);
+             PreparedStatement stmt = c.prepareStatement("UPDATE books SET title = ? WHERE id = ?")) {
+            for (long id = 1; id <= 3; id++) {
+                stmt.setString(1, "t" + id);
+                stmt.setLong(2, id);
+                stmt.executeUpdate();
+            }
+            stmt.addBatch();
+            stmt.addBatch();
+            stmt.executeBatch();
+        }
+
+        List<SlowQueryLog.SlowQuery> slowest = slowLog.slowest();
+        assertEquals(1, slowest.size());
+        assertEquals("[1='t3', 2=3]", slowest.get(0).parameters());
+        assertEquals(1, slowest.get(0).rows());
+
+        slowLog.reset();
+        assertTrue(slowLog.slowest().isEmpty());
+    }
+
+    @Test
+    void slowFailedExecution_IsRecordedWithSqlState_AndRethrown() throws SQLException {
+        SlowQueryLog slowLog = new SlowQueryLog(new SlowQueryLog.Config(5, 10));
+        SQLException timeout = new SQLException("canceling statement due to statement timeout", "57014");
+        when(physical.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeUpdate()).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            throw timeout;
+        });
+
+        try (Connection c = slowLog.wrap(physical);
+             PreparedStatement stmt = c.prepareStatement("UPDATE loans SET return_date = ? WHERE id = ?")) {
+            stmt.setNull(1, Types.DATE);
+            stmt.setLong(2, 7L);
+            assertSame(timeout, assertThrows(SQLException.class, stmt::executeUpdate));
+        }
+
+        List<SlowQueryLog.SlowQuery> slowest = slowLog.slowest();
+        assertEquals(1, slowest.size());
+        assertEquals("57014", slowest.get(0).error());
+        assertEquals("[1=NULL, 2=7]", slowest.get(0).parameters());
+        assertTrue(slowest.get(0).executeNanos() >= 5_000_000L);
+    }
+
+    @Test
+    void parametersChangedDuringFetch_ReportThoseOfTheExecution() throws SQLException {
+        SlowQueryLog slowLog = new SlowQueryLog(new SlowQueryLog.Config(5, 10));
+        when(physical.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenAnswer(sleepThen(false));
+
+        try (Connection c = slowLog.wrap(physical);
+             PreparedStatement stmt = c.prepareStatement("SELECT id FROM books WHERE id = ?")) {
+            stmt.setLong(1, 1L);
+            try (ResultSet r = stmt.executeQuery()) {
+                stmt.setLong(1, 2L);
+                r.next();
+            }
+        }
+
+        List<SlowQueryLog.SlowQuery> slowest = slowLog.slowest();
+        assertEquals(1, slowest.size());
+        assertEquals("[1=1]", slowest.get(0).parameters());
+        assertNull(slowest.get(0).error());
+    }
+
+    @Test
+    void config_ReadsPropertiesAndRejectsInvalidValues() {
+        Properties properties = new Properties();
+        assertFalse(SlowQueryLog.Config.fromProperties(properties).isEnabled());
+
+        properties.setProperty("db.slowQuery.thresholdMs", "250");
+        properties.setProperty("db.slowQuery.topN", "5");
+        assertEquals(new SlowQueryLog.Config(250, 5), SlowQueryLog.Config.fromProperties(properties));
+
+        properties.setProperty("db.slowQuery.topN", "many");
+        assertThrows(IllegalArgumentException.class, () -> SlowQueryLog.Config.fromProperties(properties));
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(new SlowQueryLog.Config(0, 5)));
+    }
+
+    private static <T> Answer<T> sleepThen(T value) {
+        return sleepThen(value, 10);
+    }
+
+    private static <T> Answer<T> sleepThen(T value, long millis) {
+        return invocation -> {
+            Thread.sleep(millis);
+            return value;
+        };
+    }
+}
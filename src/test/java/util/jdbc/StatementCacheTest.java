@@ -0,0 +1,129 @@
+package util.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementCacheTest {
+
+    private final Connection physical = mock(Connection.class);
+    private final Connection handle = mock(Connection.class);
+    private final List<PreparedStatement> prepared = new ArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(physical.prepareStatement(anyString())).thenAnswer(invocation -> {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            prepared.add(ps);
+            return ps;
+        });
+    }
+
+    private StatementCache newCache(int maxSize) {
+        return new StatementCache(physical, maxSize, hits, misses, evictions);
+    }
+
+    @Test
+    void prepare_SameSqlAfterClose_ReusesPhysicalStatement() throws SQLException {
+        StatementCache cache = newCache(4);
+
+        try (PreparedStatement first = cache.prepare(handle, "SELECT 1", null)) {
+            first.executeQuery();
+        }
+        try (PreparedStatement second = cache.prepare(handle, "SELECT 1", null)) {
+            second.executeQuery();
+            assertSame(handle, second.getConnection());
+        }
+
+        assertEquals(1, prepared.size());
+        verify(prepared.get(0), times(2)).executeQuery();
+        verify(prepared.get(0), never()).close();
+        assertEquals(1, hits.get());
+        assertEquals(1, misses.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void prepare_SameSqlWhileOpen_ReturnsDistinctUncachedStatement() throws SQLException {
+        StatementCache cache = newCache(4);
+
+        try (PreparedStatement outer = cache.prepare(handle, "SELECT 1", null);
+             PreparedStatement inner = cache.prepare(handle, "SELECT 1", null)) {
+            outer.setLong(1, 1L);
+            inner.setLong(1, 2L);
+            assertNotSame(outer, inner);
+        }
+
+        assertEquals(2, prepared.size());
+        verify(prepared.get(0)).setLong(1, 1L);
+        verify(prepared.get(1)).setLong(1, 2L);
+        verify(prepared.get(0), never()).close();
+        verify(prepared.get(1)).close();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictingInUseStatement_ClosesItOnlyWhenReturned() throws SQLException {
+        StatementCache cache = newCache(1);
+
+        PreparedStatement held = cache.prepare(handle, "SELECT 1", null);
+        cache.prepare(handle, "SELECT 2", null).close();
+
+        assertEquals(1, evictions.get());
+        verify(prepared.get(0), never()).close();
+        held.executeQuery();
+
+        held.close();
+        verify(prepared.get(0)).close();
+        assertThrows(SQLException.class, held::executeQuery);
+    }
+
+    @Test
+    void stateChangingCall_ClosesStatementInsteadOfReusing() throws SQLException {
+        StatementCache cache = newCache(4);
+
+        try (PreparedStatement ps = cache.prepare(handle, "SELECT 1", null)) {
+            ps.setFetchSize(500);
+        }
+        try (PreparedStatement ps = cache.prepare(handle, "SELECT 1", null)) {
+            ps.setMaxRows(10);
+        }
+
+        assertEquals(2, prepared.size());
+        verify(prepared.get(0)).close();
+        verify(prepared.get(1)).close();
+        assertEquals(0, cache.size());
+        assertEquals(0, hits.get());
+    }
+
+    @Test
+    void close_ClearsParametersAndBatchBeforeReuse() throws SQLException {
+        StatementCache cache = newCache(4);
+
+        PreparedStatement ps = cache.prepare(handle, "UPDATE books SET title = ? WHERE id = ?", null);
+        ps.setString(1, "Dune");
+        ps.setLong(2, 7L);
+        ps.addBatch();
+        ps.close();
+        ps.close();
+
+        PreparedStatement physicalStatement = prepared.get(0);
+        verify(physicalStatement).clearParameters();
+        verify(physicalStatement).clearBatch();
+        verify(physicalStatement).clearWarnings();
+        verify(physicalStatement, never()).close();
+        assertTrue(ps.isClosed());
+    }
+}
@@ -0,0 +1,160 @@
+package util.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionTemplateTest {
+
+    private final Connection physical = mock(Connection.class);
+    private final AtomicInteger borrows = new AtomicInteger();
+
+    private TransactionTemplate newTemplate(int maxAttempts) {
+        return new TransactionTemplate(() -> {
+            borrows.incrementAndGet();
+            return physical;
+        }, Connection.TRANSACTION_REPEATABLE_READ, maxAttempts);
+    }
+
+    @Test
+    void execute_WithoutDatabaseWork_NeverBorrowsConnection() {
+        assertEquals("ok", newTemplate(3).execute(() -> "ok"));
+
+        assertEquals(0, borrows.get());
+        assertFalse(TransactionTemplate.isActive());
+    }
+
+    @Test
+    void execute_JoinsAllCallsToOneConnection_AndCommitsOnce() throws SQLException {
+        newTemplate(3).run(() -> {
+            try (Connection first = TransactionTemplate.currentConnection();
+                 Connection second = TransactionTemplate.currentConnection()) {
+                first.createStatement();
+                second.createStatement();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertEquals(1, borrows.get());
+        verify(physical).setAutoCommit(false);
+        verify(physical).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        verify(physical, times(2)).createStatement();
+        verify(physical).commit();
+        verify(physical, never()).rollback();
+        verify(physical).close();
+        assertNull(TransactionTemplate.currentConnection());
+    }
+
+    @Test
+    void execute_Failure_RollsBack_AndRethrows() throws SQLException {
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> newTemplate(3).run(() -> {
+                    join();
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals("boom", failure.getMessage());
+        assertEquals(1, borrows.get());
+        verify(physical).rollback();
+        verify(physical, never()).commit();
+        verify(physical).close();
+    }
+
+    @Test
+    void execute_RetriesSerializationFailures_UpToMaxAttempts() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = newTemplate(3).execute(() -> {
+            join();
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException("Failed to update.", new SQLException("conflict", "40001"));
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, borrows.get());
+        verify(physical, times(2)).rollback();
+        verify(physical).commit();
+
+        attempts.set(0);
+        assertThrows(RuntimeException.class, () -> newTemplate(2).run(() -> {
+            attempts.incrementAndGet();
+            join();
+            throw new RuntimeException(new SQLException("deadlock", "40P01"));
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void execute_DoesNotRetryOtherFailures_AndNestedCallsJoin() {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate template = newTemplate(3);
+
+        assertThrows(RuntimeException.class, () -> template.run(() -> {
+            attempts.incrementAndGet();
+            join();
+            throw new RuntimeException(new SQLException("duplicate", "23505"));
+        }));
+        assertEquals(1, attempts.get());
+
+        borrows.set(0);
+        template.run(() -> {
+            join();
+            template.run(TransactionTemplateTest::join);
+        });
+        assertEquals(1, borrows.get());
+    }
+
+    @Test
+    void joinedConnection_MapsLocalTransactionToSavepoint() throws SQLException {
+        Savepoint savepoint = mock(Savepoint.class);
+        when(physical.setSavepoint()).thenReturn(savepoint);
+
+        newTemplate(1).run(() -> {
+            try (Connection c = TransactionTemplate.currentConnection()) {
+                assertTrue(c.getAutoCommit());
+                assertThrows(SQLException.class, c::commit);
+
+                c.setAutoCommit(false);
+                assertFalse(c.getAutoCommit());
+                c.rollback();
+                c.commit();
+                c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                c.setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        verify(physical).rollback(savepoint);
+        verify(physical, times(2)).releaseSavepoint(savepoint);
+        verify(physical, never()).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        verify(physical).commit();
+    }
+
+    @Test
+    void invalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionTemplate(null, Connection.TRANSACTION_SERIALIZABLE, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionTemplate(() -> physical, Connection.TRANSACTION_NONE, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionTemplate(() -> physical, Connection.TRANSACTION_SERIALIZABLE, 0));
+    }
+
+    private static void join() {
+        try (Connection ignored = TransactionTemplate.currentConnection()) {
+            assertNotNull(ignored);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package util.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrometheusExporterTest {
+
+    private final Metrics.Component component = Metrics.component("test", "ExporterTest");
+
+    @BeforeEach
+    void setUp() {
+        Metrics.reset();
+        Metrics.enable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.disable();
+        Metrics.reset();
+    }
+
+    @Test
+    void disabled_RecordsNothing() {
+        Metrics.disable();
+
+        long start = Metrics.start();
+        component.failed("op", start, new IllegalStateException());
+        component.stop("op", start);
+
+        assertEquals(0L, start);
+        assertFalse(PrometheusExporter.scrape().contains("ExporterTest"));
+    }
+
+    @Test
+    void scrape_RendersCumulativeHistogram_AndErrorsBySqlState() {
+        component.record("find", 50_000L, null);          // <= 0.0001 s
+        component.record("find", 3_000_000L, null);       // <= 0.005 s
+        component.record("find", 20_000_000_000L, "40001"); // +Inf
+        component.failed("find", Metrics.start(), new RuntimeException(new IllegalStateException()));
+
+        String text = PrometheusExporter.scrape();
+        String labels = "layer=\"test\",component=\"ExporterTest\",operation=\"find\"";
+
+        assertTrue(text.contains("# TYPE library_operation_duration_seconds histogram"));
+        assertTrue(text.contains("library_operation_duration_seconds_bucket{" + labels + ",le=\"0.0001\"} 1\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_bucket{" + labels + ",le=\"0.0025\"} 1\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_bucket{" + labels + ",le=\"0.005\"} 2\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_bucket{" + labels + ",le=\"10.0\"} 2\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_sum{" + labels + "} 20.00305\n"));
+        assertTrue(text.contains("library_operation_duration_seconds_count{" + labels + "} 3\n"));
+        assertTrue(text.contains("library_operation_errors_total{" + labels + ",sqlstate=\"40001\"} 1\n"));
+        assertTrue(text.contains("library_operation_errors_total{" + labels + ",sqlstate=\"none\"} 1\n"));
+    }
+
+    @Test
+    void instrumentedConnection_RecordsCallingDaoMethod_WithFirstSqlState() throws SQLException {
+        Connection physical = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(physical.prepareStatement("SELECT 1")).thenReturn(ps);
+        when(ps.executeUpdate()).thenThrow(new SQLException("duplicate", "23505"));
+
+        new FakeDAO().save(physical);
+
+        String text = PrometheusExporter.scrape();
+        String labels = "layer=\"dao\",component=\"FakeDAO\",operation=\"save\"";
+        assertTrue(text.contains("library_operation_duration_seconds_count{" + labels + "} 1\n"), text);
+        assertTrue(text.contains("library_operation_errors_total{" + labels + ",sqlstate=\"23505\"} 1\n"), text);
+        verify(physical).close();
+
+        Metrics.disable();
+        assertSame(physical, ConnectionMetrics.instrument(physical));
+    }
+
+    @Test
+    void writeTo_ReplacesFileWithCurrentSnapshot(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("library.prom");
+        component.record("write", 1_000L, null);
+
+        PrometheusExporter.writeTo(file);
+        PrometheusExporter.writeTo(file);
+
+        assertEquals(PrometheusExporter.scrape(), Files.readString(file));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void operationName_MapsLambdasToEnclosingMethod() {
+        assertEquals("findAllAsync", ConnectionMetrics.operationName("lambda$findAllAsync$3"));
+        assertEquals("update", ConnectionMetrics.operationName("update"));
+        assertEquals("LoanDAO", ConnectionMetrics.daoName("repository.DAO.LoanDAO$1"));
+        assertNull(ConnectionMetrics.daoName("service.LoanService"));
+    }
+
+    /**
+     * Stands in for a DAO: the class name ends with "DAO".
+     */
+    private static final class FakeDAO {
+
+        void save(Connection physical) {
+            try (Connection c = ConnectionMetrics.instrument(physical);
+                 PreparedStatement ps = c.prepareStatement("SELECT 1")) {
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                // DAOs log and rethrow; the failure is what we want recorded
+            }
+        }
+    }
+}
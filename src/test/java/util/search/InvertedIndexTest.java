@@ -0,0 +1,98 @@
+package util.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex<String> newIndex() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put(3L, "hobbit", "The Hobbit J.R.R. Tolkien");
+        index.put(1L, "rings", "The Lord of the Rings J.R.R. Tolkien");
+        index.put(2L, "dune", "Dune Frank Herbert");
+        return index;
+    }
+
+    @Test
+    void tokenize_LowercasesSplitsOnNonWordChars_AndDeduplicates() {
+        assertArrayEquals(new String[]{"978", "dune", "the"},
+                InvertedIndex.tokenize("Dune, the DUNE: 978-"));
+        assertEquals(0, InvertedIndex.tokenize(" -- ").length);
+        assertEquals(0, InvertedIndex.tokenize(null).length);
+    }
+
+    @Test
+    void search_RequiresAllTerms_AndReturnsAscendingIds() {
+        InvertedIndex<String> index = newIndex();
+
+        assertEquals(List.of("rings", "hobbit"), index.search("tolkien", 10));
+        assertEquals(List.of("hobbit"), index.search("HOBBIT tolkien", 10));
+        assertEquals(List.of(), index.search("hobbit herbert", 10));
+        assertEquals(List.of(), index.search("hob", 10));
+        assertEquals(List.of("rings"), index.search("tolkien", 1));
+    }
+
+    @Test
+    void searchPrefix_TreatsLastTermAsPrefix() {
+        InvertedIndex<String> index = newIndex();
+
+        assertEquals(List.of("hobbit"), index.search("hobbit", 10));
+        assertEquals(List.of("hobbit"), index.searchPrefix("tolkien hob", 10));
+        assertEquals(List.of("rings", "hobbit"), index.searchPrefix("tol", 10));
+        assertEquals(List.of("dune", "hobbit"), index.searchPrefix("h", 10));
+        assertEquals(List.of(), index.searchPrefix("herbert hob", 10));
+        assertEquals(List.of("hobbit"), index.searchPrefix("hobbit h", 10));
+        assertEquals(List.of("hobbit"), index.searchPrefix("hobbit hobbit", 10));
+    }
+
+    @Test
+    void put_ReplacesExistingDocument_AndRemoveUnlinksIt() {
+        InvertedIndex<String> index = newIndex();
+
+        index.put(2L, "dune messiah", "Dune Messiah Frank Herbert");
+        assertEquals(List.of("dune messiah"), index.search("messiah", 10));
+        assertEquals(3, index.size());
+
+        index.put(3L, "hobbit", "The Hobbit");
+        assertEquals(List.of("rings"), index.search("tolkien", 10));
+
+        assertTrue(index.remove(2L));
+        assertFalse(index.remove(2L));
+        assertEquals(List.of(), index.searchPrefix("herb", 10));
+        assertEquals(List.of(), index.complete("mess", 10));
+    }
+
+    @Test
+    void complete_ReturnsMostFrequentTermsFirst() {
+        InvertedIndex<String> index = newIndex();
+        index.put(4L, "tom", "Tom Sawyer Mark Twain");
+
+        assertEquals(List.of("tolkien", "tom"), index.complete("To", 10));
+        assertEquals(List.of("tolkien"), index.complete("to", 1));
+        assertEquals(List.of(), index.complete(" ", 10));
+    }
+
+    @Test
+    void postings_StayOrdered_WhenIdsArriveOutOfOrder() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        for (long id = 100; id >= 1; id--) {
+            index.put(id, "book" + id, "common term" + id);
+        }
+
+        List<String> firstFive = index.search("common", 5);
+        assertEquals(List.of("book1", "book2", "book3", "book4", "book5"), firstFive);
+        assertEquals(100, index.searchPrefix("term", 1000).size());
+    }
+
+    @Test
+    void invalidArguments_Throw() {
+        InvertedIndex<String> index = newIndex();
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(1L, null, "x"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("x", 0));
+        assertThrows(IllegalArgumentException.class, () -> index.complete("x", 0));
+    }
+}